@@ -1,13 +1,63 @@
 package redis.clients.jedis;
 
 import java.io.Closeable;
+import java.util.List;
+
+import redis.clients.jedis.annots.Experimental;
 
 public abstract class AbstractPipeline extends PipeliningBase implements Closeable {
 
+  private PipelineInterceptorChain interceptorChain = null;
+
   protected AbstractPipeline(CommandObjects commandObjects) {
     super(commandObjects);
   }
 
+  /**
+   * Sets the interceptors of the commands appended after this call.
+   *
+   * @param interceptors run in the order of the list; empty for none
+   * @throws UnsupportedOperationException if interceptors are given, and this pipeline does not
+   * implement {@link #queueCommand(CommandObject)}
+   * @see CommandInterceptor#interceptPipelined(CommandObject, CommandInterceptor.PipelineChain)
+   */
+  @Experimental
+  public void setCommandInterceptors(List<CommandInterceptor> interceptors) {
+    if (interceptors != null && !interceptors.isEmpty() && !queuesCommands()) {
+      throw new UnsupportedOperationException("Command interceptors are not supported by " + getClass());
+    }
+    this.interceptorChain = PipelineInterceptorChain.of(interceptors, this);
+  }
+
+  private boolean queuesCommands() {
+    for (Class<?> type = getClass(); type != AbstractPipeline.class; type = type.getSuperclass()) {
+      try {
+        type.getDeclaredMethod("queueCommand", CommandObject.class);
+        return true;
+      } catch (NoSuchMethodException nsme) {
+        // not overridden by this class
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Passes the command to the interceptors, if any, and then to {@link #queueCommand(CommandObject)}.
+   * Pipelines which support interceptors implement {@link #appendCommand(CommandObject)} by this.
+   */
+  protected final <T> Response<T> interceptCommand(CommandObject<T> commandObject) {
+    PipelineInterceptorChain chain = interceptorChain;
+    return chain == null ? queueCommand(commandObject) : chain.proceed(commandObject);
+  }
+
+  /**
+   * Appends the command to the pipeline after the interceptors. Pipelines which support
+   * interceptors override this; the default is only reached if they don't, and fails.
+   */
+  protected <T> Response<T> queueCommand(CommandObject<T> commandObject) {
+    throw new UnsupportedOperationException("Command interceptors are not supported by " + getClass());
+  }
+
   @Override
   public abstract void close();
 
@@ -1255,8 +1255,7 @@ public final class BuilderFactory {
       if (null == data) {
         return null;
       }
-      String id = SafeEncoder.encode((byte[]) data);
-      return new StreamEntryID(id);
+      return new StreamEntryID((byte[]) data);
     }
 
     @Override
@@ -1296,16 +1295,8 @@ public final class BuilderFactory {
         return null;
       }
 
-      String entryIdString = SafeEncoder.encode((byte[]) objectList.get(0));
-      StreamEntryID entryID = new StreamEntryID(entryIdString);
-      List<byte[]> hash = (List<byte[]>) objectList.get(1);
-
-      Iterator<byte[]> hashIterator = hash.iterator();
-      Map<String, String> map = new HashMap<>(hash.size() / 2, 1f);
-      while (hashIterator.hasNext()) {
-        map.put(SafeEncoder.encode(hashIterator.next()), SafeEncoder.encode(hashIterator.next()));
-      }
-      return new StreamEntry(entryID, map);
+      StreamEntryID entryID = new StreamEntryID((byte[]) objectList.get(0));
+      return StreamEntry.ofEncodedFields(entryID, (List<byte[]>) objectList.get(1));
     }
 
     @Override
@@ -1321,32 +1312,25 @@ public final class BuilderFactory {
       if (null == data) {
         return null;
       }
-      List<ArrayList<Object>> objectList = (List<ArrayList<Object>>) data;
+      List<List<Object>> objectList = (List<List<Object>>) data;
 
       List<StreamEntry> responses = new ArrayList<>(objectList.size() / 2);
       if (objectList.isEmpty()) {
         return responses;
       }
 
-      for (ArrayList<Object> res : objectList) {
+      for (List<Object> res : objectList) {
         if (res == null) {
           responses.add(null);
           continue;
         }
-        String entryIdString = SafeEncoder.encode((byte[]) res.get(0));
-        StreamEntryID entryID = new StreamEntryID(entryIdString);
+        StreamEntryID entryID = new StreamEntryID((byte[]) res.get(0));
         List<byte[]> hash = (List<byte[]>) res.get(1);
         if (hash == null) {
           responses.add(new StreamEntry(entryID, null));
           continue;
         }
-
-        Iterator<byte[]> hashIterator = hash.iterator();
-        Map<String, String> map = new HashMap<>(hash.size() / 2, 1f);
-        while (hashIterator.hasNext()) {
-          map.put(SafeEncoder.encode(hashIterator.next()), SafeEncoder.encode(hashIterator.next()));
-        }
-        responses.add(new StreamEntry(entryID, map));
+        responses.add(StreamEntry.ofEncodedFields(entryID, hash));
       }
 
       return responses;
@@ -1,5 +1,6 @@
 package redis.clients.jedis;
 
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
@@ -8,7 +9,6 @@ import redis.clients.jedis.args.Rawable;
 import redis.clients.jedis.args.RawableFactory;
 import redis.clients.jedis.commands.ProtocolCommand;
 import redis.clients.jedis.params.IParams;
-import redis.clients.jedis.search.RediSearchUtil;
 
 public class CommandArguments implements Iterable<Rawable> {
 
@@ -16,6 +16,8 @@ public class CommandArguments implements Iterable<Rawable> {
 
   private boolean blocking;
 
+  private int firstKeyIndex = -1;
+
   private CommandArguments() {
     throw new InstantiationError();
   }
@@ -43,7 +45,9 @@ public class CommandArguments implements Iterable<Rawable> {
     } else if (arg instanceof Boolean) {
       args.add(RawableFactory.from((Boolean) arg ? 1 : 0));
     } else if (arg instanceof float[]) {
-      args.add(RawableFactory.from(RediSearchUtil.toByteArray((float[]) arg)));
+      args.add(RawableFactory.from((float[]) arg));
+    } else if (arg instanceof FloatBuffer) {
+      args.add(RawableFactory.from((FloatBuffer) arg));
     } else if (arg instanceof String) {
       args.add(RawableFactory.from((String) arg));
     } else if (arg instanceof GeoCoordinate) {
@@ -68,6 +72,9 @@ public class CommandArguments implements Iterable<Rawable> {
   }
 
   public CommandArguments key(Object key) {
+    if (firstKeyIndex < 0) {
+      firstKeyIndex = args.size();
+    }
     if (key instanceof Rawable) {
       Rawable raw = (Rawable) key;
       processKey(raw.getRaw());
@@ -131,6 +138,13 @@ public class CommandArguments implements Iterable<Rawable> {
     return args.size();
   }
 
+  /**
+   * @return the first argument added by {@link #key(Object)}, {@code null} if there is none
+   */
+  public Rawable getFirstKey() {
+    return firstKeyIndex < 0 ? null : args.get(firstKeyIndex);
+  }
+
   @Override
   public Iterator<Rawable> iterator() {
     return args.iterator();
@@ -0,0 +1,121 @@
+package redis.clients.jedis;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import redis.clients.jedis.exceptions.JedisDeadlineExceededException;
+
+/**
+ * A time budget for the commands executed by the current thread.
+ * <p>
+ * The budget covers borrowing a connection from a {@link ConnectionPool}, reading the reply and the
+ * retries of {@link redis.clients.jedis.executors.RetryableCommandExecutor} and
+ * {@link redis.clients.jedis.executors.ClusterCommandExecutor}. Once it is spent, a
+ * {@link JedisDeadlineExceededException} is thrown instead of waiting any further.
+ * <pre>
+ * try (CommandDeadline deadline = CommandDeadline.start(Duration.ofMillis(5))) {
+ *   jedis.get("key");
+ * }
+ * </pre>
+ * Deadlines can be nested; an inner deadline never extends the outer one. The same deadline covers
+ * all commands of a pipeline which is created and synced inside the scope, including the replies
+ * read by the worker threads of a multi node pipeline.
+ * <p>
+ * Writing to the socket is not interruptible, so a command whose write is blocked by a full socket
+ * buffer is only aborted when its reply is read.
+ */
+public final class CommandDeadline implements AutoCloseable {
+
+  private static final ThreadLocal<CommandDeadline> CURRENT = new ThreadLocal<>();
+
+  private final long deadlineNanos;
+  private final CommandDeadline outer;
+
+  private CommandDeadline(long deadlineNanos, CommandDeadline outer) {
+    this.deadlineNanos = deadlineNanos;
+    this.outer = outer;
+  }
+
+  /**
+   * Starts a deadline for the current thread. It must be closed by the same thread.
+   *
+   * @param budget time budget of the commands executed until {@link #close()}
+   * @return the started deadline
+   */
+  public static CommandDeadline start(Duration budget) {
+    CommandDeadline outer = CURRENT.get();
+    long deadlineNanos = System.nanoTime() + budget.toNanos();
+    if (outer != null && outer.deadlineNanos - deadlineNanos < 0) {
+      deadlineNanos = outer.deadlineNanos;
+    }
+    CommandDeadline deadline = new CommandDeadline(deadlineNanos, outer);
+    CURRENT.set(deadline);
+    return deadline;
+  }
+
+  /**
+   * @return the deadline of the current thread, or {@code null} if there is none
+   */
+  public static CommandDeadline current() {
+    return CURRENT.get();
+  }
+
+  public long remainingNanos() {
+    return deadlineNanos - System.nanoTime();
+  }
+
+  public Duration remaining() {
+    return Duration.ofNanos(Math.max(0, remainingNanos()));
+  }
+
+  public boolean isExpired() {
+    return remainingNanos() <= 0;
+  }
+
+  /**
+   * @throws JedisDeadlineExceededException if the budget has been spent
+   */
+  public void checkNotExpired() {
+    if (isExpired()) {
+      throw new JedisDeadlineExceededException("Command deadline exceeded.");
+    }
+  }
+
+  /**
+   * @return the remaining budget as a socket timeout, i.e. rounded up to a whole millisecond and
+   * never {@code 0} (which would mean infinite)
+   */
+  int remainingSocketTimeoutMillis() {
+    long millis = TimeUnit.NANOSECONDS.toMillis(remainingNanos() + 999_999);
+    return (int) Math.max(1, Math.min(Integer.MAX_VALUE, millis));
+  }
+
+  /**
+   * Runs the task on the current thread with this deadline installed, e.g. on a worker thread which
+   * reads replies on behalf of the thread that started the deadline.
+   */
+  void runWithin(Runnable task) {
+    CommandDeadline previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      task.run();
+    } finally {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    if (CURRENT.get() == this) {
+      if (outer == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(outer);
+      }
+    }
+  }
+}
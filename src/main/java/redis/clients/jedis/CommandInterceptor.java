@@ -0,0 +1,71 @@
+package redis.clients.jedis;
+
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.commands.ProtocolCommand;
+
+/**
+ * Intercepts the commands of a {@link UnifiedJedis} (including {@link JedisCluster}) and of its
+ * pipelines, e.g. for caching, tracing, key prefixing, rate limiting or shadow traffic.
+ * <p>
+ * The interceptors are run in the order they are registered, see
+ * {@link UnifiedJedis#setCommandInterceptors(java.util.List)} and
+ * {@link AbstractPipeline#setCommandInterceptors(java.util.List)}. An interceptor may
+ * <ul>
+ * <li>pass the command, or another command with modified arguments, to the next interceptor by
+ * {@link Chain#proceed(CommandObject)};</li>
+ * <li>not proceed, and return a reply itself, e.g. a cached one;</li>
+ * <li>observe the reply and the time taken by {@link Chain#proceed(CommandObject)}.</li>
+ * </ul>
+ * Commands queued in a transaction are not intercepted.
+ */
+@Experimental
+public interface CommandInterceptor {
+
+  /**
+   * Intercepts a command which is executed immediately.
+   *
+   * @return the reply of the command
+   */
+  <T> T intercept(CommandObject<T> commandObject, Chain chain);
+
+  /**
+   * Intercepts a command which is appended to a pipeline. The reply is not known until the pipeline
+   * is synchronized; it may be observed by proceeding with a command whose {@link Builder} wraps the
+   * original one, and a reply may be returned without proceeding by {@link Response#of(Object)}.
+   * <p>
+   * By default, the command is passed to the next interceptor.
+   *
+   * @return the response of the command
+   */
+  default <T> Response<T> interceptPipelined(CommandObject<T> commandObject, PipelineChain chain) {
+    return chain.proceed(commandObject);
+  }
+
+  /**
+   * The rest of the interceptors, followed by the execution of the command.
+   */
+  interface Chain {
+
+    <T> T proceed(CommandObject<T> commandObject);
+
+    /**
+     * Creates arguments of the kind the client routes commands by, e.g.
+     * {@link ClusterCommandArguments} for a {@link JedisCluster}, to proceed with modified
+     * arguments.
+     */
+    CommandArguments commandArguments(ProtocolCommand command);
+  }
+
+  /**
+   * The rest of the interceptors, followed by appending the command to the pipeline.
+   */
+  interface PipelineChain {
+
+    <T> Response<T> proceed(CommandObject<T> commandObject);
+
+    /**
+     * @see Chain#commandArguments(ProtocolCommand)
+     */
+    CommandArguments commandArguments(ProtocolCommand command);
+  }
+}
@@ -0,0 +1,55 @@
+package redis.clients.jedis;
+
+import java.util.List;
+
+import redis.clients.jedis.commands.ProtocolCommand;
+
+/**
+ * A linked list of {@link CommandInterceptor}s ending with {@link Execution}. Built once per client,
+ * so that intercepting a command does not allocate.
+ */
+final class CommandInterceptorChain implements CommandInterceptor.Chain {
+
+  interface Execution {
+    <T> T execute(CommandObject<T> commandObject);
+  }
+
+  private final CommandInterceptor interceptor;
+  private final CommandInterceptorChain next;
+  private final Execution execution;
+  private final CommandObjects commandObjects;
+
+  private CommandInterceptorChain(CommandInterceptor interceptor, CommandInterceptorChain next,
+      Execution execution, CommandObjects commandObjects) {
+    this.interceptor = interceptor;
+    this.next = next;
+    this.execution = execution;
+    this.commandObjects = commandObjects;
+  }
+
+  /**
+   * @return the chain, or {@code null} if there are no interceptors
+   */
+  static CommandInterceptorChain of(List<CommandInterceptor> interceptors,
+      CommandObjects commandObjects, Execution execution) {
+    if (interceptors == null || interceptors.isEmpty()) {
+      return null;
+    }
+    CommandInterceptorChain chain = new CommandInterceptorChain(null, null, execution, commandObjects);
+    for (int i = interceptors.size() - 1; i >= 0; i--) {
+      chain = new CommandInterceptorChain(interceptors.get(i), chain, execution, commandObjects);
+    }
+    return chain;
+  }
+
+  @Override
+  public <T> T proceed(CommandObject<T> commandObject) {
+    return interceptor == null ? execution.execute(commandObject)
+        : interceptor.intercept(commandObject, next);
+  }
+
+  @Override
+  public CommandArguments commandArguments(ProtocolCommand command) {
+    return commandObjects.commandArguments(command);
+  }
+}
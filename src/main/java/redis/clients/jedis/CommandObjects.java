@@ -5,6 +5,7 @@ import static redis.clients.jedis.Protocol.Keyword.*;
 
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.json.JSONArray;
@@ -59,6 +60,31 @@ public class CommandObjects {
     this.broadcastAndRoundRobinConfig = config;
   }
 
+  private volatile int chunkMaxElements = 0;
+  private volatile int chunkMaxBytes = 0;
+
+  /**
+   * Enables splitting the variadic commands which have a {@code *Chunks} variant (e.g.
+   * {@link #saddChunks(String, String...)}) into chunks of at most {@code maxElements} elements
+   * (members, fields or key-value pairs) and at most about {@code maxBytes} bytes of elements. A
+   * chunk holds at least one element. {@code 0} means no limit; chunking is disabled if both are
+   * {@code 0}, which is the default.
+   *
+   * @param maxElements maximum number of elements per chunk
+   * @param maxBytes maximum size of the elements per chunk
+   */
+  public void setVariadicChunking(int maxElements, int maxBytes) {
+    if (maxElements < 0 || maxBytes < 0) {
+      throw new IllegalArgumentException("Chunk limits must not be negative.");
+    }
+    this.chunkMaxElements = maxElements;
+    this.chunkMaxBytes = maxBytes;
+  }
+
+  public final boolean isVariadicChunking() {
+    return chunkMaxElements > 0 || chunkMaxBytes > 0;
+  }
+
   protected CommandArguments commandArguments(ProtocolCommand command) {
     return new CommandArguments(command);
   }
@@ -1002,6 +1028,15 @@ public class CommandObjects {
     return new CommandObject<>(addFlatMapArgs(commandArguments(HSET).key(key), hash), BuilderFactory.LONG);
   }
 
+  /**
+   * HSET with values of any type accepted by {@link CommandArguments#add(Object)}, e.g. vectors as
+   * {@code float[]}, which are copied, or {@link java.nio.FloatBuffer}, which are sent in binary
+   * without copying.
+   */
+  public final CommandObject<Long> hsetObjects(String key, Map<String, ?> hash) {
+    return new CommandObject<>(addFlatMapArgs(commandArguments(HSET).key(key), hash), BuilderFactory.LONG);
+  }
+
   public final CommandObject<String> hget(String key, String field) {
     return new CommandObject<>(commandArguments(HGET).key(key).add(field), BuilderFactory.STRING);
   }
@@ -3108,27 +3143,27 @@ public class CommandObjects {
   }
 
   public CommandObject<Long> waitReplicas(int replicas, long timeout) {
-    return new CommandObject<>(commandArguments(WAIT).add(replicas).add(timeout), BuilderFactory.LONG);
+    return new CommandObject<>(commandArguments(WAIT).blocking().add(replicas).add(timeout), BuilderFactory.LONG);
   }
 
   public final CommandObject<Long> waitReplicas(String sampleKey, int replicas, long timeout) {
-    return new CommandObject<>(commandArguments(WAIT).add(replicas).add(timeout).processKey(sampleKey), BuilderFactory.LONG);
+    return new CommandObject<>(commandArguments(WAIT).blocking().add(replicas).add(timeout).processKey(sampleKey), BuilderFactory.LONG);
   }
 
   public final CommandObject<Long> waitReplicas(byte[] sampleKey, int replicas, long timeout) {
-    return new CommandObject<>(commandArguments(WAIT).add(replicas).add(timeout).processKey(sampleKey), BuilderFactory.LONG);
+    return new CommandObject<>(commandArguments(WAIT).blocking().add(replicas).add(timeout).processKey(sampleKey), BuilderFactory.LONG);
   }
 
   public CommandObject<KeyValue<Long, Long>> waitAOF(long numLocal, long numReplicas, long timeout) {
-    return new CommandObject<>(commandArguments(WAITAOF).add(numLocal).add(numReplicas).add(timeout), BuilderFactory.LONG_LONG_PAIR);
+    return new CommandObject<>(commandArguments(WAITAOF).blocking().add(numLocal).add(numReplicas).add(timeout), BuilderFactory.LONG_LONG_PAIR);
   }
 
   public CommandObject<KeyValue<Long, Long>> waitAOF(byte[] sampleKey, long numLocal, long numReplicas, long timeout) {
-    return new CommandObject<>(commandArguments(WAITAOF).add(numLocal).add(numReplicas).add(timeout).processKey(sampleKey), BuilderFactory.LONG_LONG_PAIR);
+    return new CommandObject<>(commandArguments(WAITAOF).blocking().add(numLocal).add(numReplicas).add(timeout).processKey(sampleKey), BuilderFactory.LONG_LONG_PAIR);
   }
 
   public CommandObject<KeyValue<Long, Long>> waitAOF(String sampleKey, long numLocal, long numReplicas, long timeout) {
-    return new CommandObject<>(commandArguments(WAITAOF).add(numLocal).add(numReplicas).add(timeout).processKey(sampleKey), BuilderFactory.LONG_LONG_PAIR);
+    return new CommandObject<>(commandArguments(WAITAOF).blocking().add(numLocal).add(numReplicas).add(timeout).processKey(sampleKey), BuilderFactory.LONG_LONG_PAIR);
   }
 
   public final CommandObject<Long> publish(String channel, String message) {
@@ -4313,6 +4348,133 @@ public class CommandObjects {
     this.searchDialect.set(dialect);
   }
 
+  protected int getDefaultSearchDialect() {
+    return searchDialect.get();
+  }
+
+  // Chunked variadic commands
+  public final List<CommandObject<Long>> delChunks(String... keys) {
+    return chunks(keys, 1, this::del);
+  }
+
+  public final List<CommandObject<Long>> delChunks(byte[]... keys) {
+    return chunks(keys, 1, this::del);
+  }
+
+  public final List<CommandObject<String>> msetChunks(String... keysvalues) {
+    return chunks(keysvalues, 2, this::mset);
+  }
+
+  public final List<CommandObject<String>> msetChunks(byte[]... keysvalues) {
+    return chunks(keysvalues, 2, this::mset);
+  }
+
+  public final List<CommandObject<Long>> rpushChunks(String key, String... strings) {
+    return chunks(strings, 1, chunk -> rpush(key, chunk));
+  }
+
+  public final List<CommandObject<Long>> rpushChunks(byte[] key, byte[]... strings) {
+    return chunks(strings, 1, chunk -> rpush(key, chunk));
+  }
+
+  public final List<CommandObject<Long>> hsetChunks(String key, Map<String, String> hash) {
+    return chunks(hash, chunk -> hset(key, chunk));
+  }
+
+  public final List<CommandObject<Long>> hsetChunks(byte[] key, Map<byte[], byte[]> hash) {
+    return chunks(hash, chunk -> hset(key, chunk));
+  }
+
+  public final List<CommandObject<Long>> saddChunks(String key, String... members) {
+    return chunks(members, 1, chunk -> sadd(key, chunk));
+  }
+
+  public final List<CommandObject<Long>> saddChunks(byte[] key, byte[]... members) {
+    return chunks(members, 1, chunk -> sadd(key, chunk));
+  }
+
+  public final List<CommandObject<Long>> zaddChunks(String key, Map<String, Double> scoreMembers) {
+    return chunks(scoreMembers, chunk -> zadd(key, chunk));
+  }
+
+  public final List<CommandObject<Long>> zaddChunks(String key, Map<String, Double> scoreMembers, ZAddParams params) {
+    return chunks(scoreMembers, chunk -> zadd(key, chunk, params));
+  }
+
+  public final List<CommandObject<Long>> zaddChunks(byte[] key, Map<byte[], Double> scoreMembers) {
+    return chunks(scoreMembers, chunk -> zadd(key, chunk));
+  }
+
+  public final List<CommandObject<Long>> zaddChunks(byte[] key, Map<byte[], Double> scoreMembers, ZAddParams params) {
+    return chunks(scoreMembers, chunk -> zadd(key, chunk, params));
+  }
+
+  /**
+   * @param step number of array items per element, e.g. 2 for key-value pairs
+   */
+  private <E, T> List<CommandObject<T>> chunks(E[] elements, int step, Function<E[], CommandObject<T>> command) {
+    final int maxElements = chunkMaxElements, maxBytes = chunkMaxBytes;
+    if (maxElements == 0 && maxBytes == 0) {
+      return Collections.singletonList(command.apply(elements));
+    }
+
+    List<CommandObject<T>> chunks = new ArrayList<>();
+    int from = 0;
+    long bytes = 0;
+    for (int i = 0; i < elements.length; i += step) {
+      long elementBytes = 0;
+      for (int j = i; j < i + step && j < elements.length; j++) {
+        elementBytes += estimateSize(elements[j]);
+      }
+      if (i > from && ((maxElements > 0 && (i - from) / step >= maxElements)
+          || (maxBytes > 0 && bytes + elementBytes > maxBytes))) {
+        chunks.add(command.apply(Arrays.copyOfRange(elements, from, i)));
+        from = i;
+        bytes = 0;
+      }
+      bytes += elementBytes;
+    }
+    chunks.add(command.apply(Arrays.copyOfRange(elements, from, elements.length)));
+    return chunks;
+  }
+
+  private <K, V, T> List<CommandObject<T>> chunks(Map<K, V> map, Function<Map<K, V>, CommandObject<T>> command) {
+    final int maxElements = chunkMaxElements, maxBytes = chunkMaxBytes;
+    if (maxElements == 0 && maxBytes == 0) {
+      return Collections.singletonList(command.apply(map));
+    }
+
+    List<CommandObject<T>> chunks = new ArrayList<>();
+    Map<K, V> chunk = new LinkedHashMap<>();
+    long bytes = 0;
+    for (Map.Entry<K, V> entry : map.entrySet()) {
+      long entryBytes = estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+      if (!chunk.isEmpty() && ((maxElements > 0 && chunk.size() >= maxElements)
+          || (maxBytes > 0 && bytes + entryBytes > maxBytes))) {
+        chunks.add(command.apply(chunk));
+        chunk = new LinkedHashMap<>();
+        bytes = 0;
+      }
+      chunk.put(entry.getKey(), entry.getValue());
+      bytes += entryBytes;
+    }
+    chunks.add(command.apply(chunk));
+    return chunks;
+  }
+
+  /**
+   * Estimates the encoded size of an argument; the length of a string is used as its size.
+   */
+  private static long estimateSize(Object arg) {
+    if (arg instanceof byte[]) {
+      return ((byte[]) arg).length;
+    } else if (arg instanceof String) {
+      return ((String) arg).length();
+    } else {
+      return Long.BYTES;
+    }
+  }
+
   private class SearchProfileResponseBuilder<T> extends Builder<Map.Entry<T, Map<String, Object>>> {
 
     private static final String PROFILE_STR = "profile";
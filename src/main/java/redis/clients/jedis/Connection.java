@@ -20,8 +20,12 @@ import redis.clients.jedis.args.Rawable;
 import redis.clients.jedis.commands.ProtocolCommand;
 import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisDeadlineExceededException;
 import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.exceptions.JedisValidationException;
+import redis.clients.jedis.jfr.JedisEvents;
+import redis.clients.jedis.metrics.HotKeyDetector;
+import redis.clients.jedis.metrics.JedisMetrics;
 import redis.clients.jedis.util.IOUtils;
 import redis.clients.jedis.util.RedisInputStream;
 import redis.clients.jedis.util.RedisOutputStream;
@@ -37,6 +41,10 @@ public class Connection implements Closeable {
   private int soTimeout = 0;
   private int infiniteSoTimeout = 0;
   private boolean broken = false;
+  private long lastReplyNanos = System.nanoTime();
+  private JedisMetrics metrics;
+  private HotKeyDetector hotKeyDetector;
+  private HostAndPort node;
 
   public Connection() {
     this(Protocol.DEFAULT_HOST, Protocol.DEFAULT_PORT);
@@ -131,6 +139,106 @@ public class Connection implements Closeable {
   }
 
   public <T> T executeCommand(final CommandObject<T> commandObject) {
+    final JedisMetrics metrics = this.metrics;
+    final Object event = JedisEvents.beginCommand();
+    if (metrics == null && event == null) {
+      return executeCommandUnmetered(commandObject);
+    }
+    final long start = System.nanoTime();
+    RuntimeException error = null;
+    try {
+      return executeCommandUnmetered(commandObject);
+    } catch (RuntimeException ex) {
+      error = ex;
+      throw ex;
+    } finally {
+      if (metrics != null) {
+        metrics.recordCommand(commandObject.getArguments().getCommand(), getNode(),
+            System.nanoTime() - start, error);
+      }
+      if (event != null) {
+        JedisEvents.commitCommand(event, commandObject.getArguments(), getNodeName(), error);
+      }
+    }
+  }
+
+  /**
+   * Pipelines the commands and returns their replies. The first error reply is thrown after all
+   * replies are read. Each command is recorded in the metrics with the duration of the whole batch.
+   *
+   * @param commandObjects non blocking commands
+   * @return the replies, in the order of the commands
+   */
+  public <T> List<T> executeCommands(final List<CommandObject<T>> commandObjects) {
+    final JedisMetrics metrics = this.metrics;
+    final Object[] events = new Object[commandObjects.size()];
+    for (int i = 0; i < events.length; i++) {
+      events[i] = JedisEvents.beginCommand();
+    }
+    final long start = System.nanoTime();
+    List<Object> replies = null;
+    RuntimeException error = null;
+    try {
+      for (CommandObject<T> commandObject : commandObjects) {
+        sendCommand(commandObject.getArguments());
+      }
+      replies = getMany(commandObjects.size());
+
+      final List<T> results = new ArrayList<>(replies.size());
+      JedisDataException errorReply = null;
+      for (int i = 0; i < replies.size(); i++) {
+        Object reply = replies.get(i);
+        if (reply instanceof JedisDataException) {
+          if (errorReply == null) {
+            errorReply = (JedisDataException) reply;
+          }
+          results.add(null);
+        } else {
+          results.add(commandObjects.get(i).getBuilder().build(reply));
+        }
+      }
+      if (errorReply != null) {
+        throw errorReply;
+      }
+      return results;
+    } catch (RuntimeException ex) {
+      error = ex;
+      throw ex;
+    } finally {
+      final long duration = System.nanoTime() - start;
+      for (int i = 0; i < events.length; i++) {
+        RuntimeException commandError = error;
+        if (replies != null) {
+          Object reply = replies.get(i);
+          commandError = reply instanceof JedisDataException ? (JedisDataException) reply : null;
+        }
+        CommandArguments args = commandObjects.get(i).getArguments();
+        if (metrics != null) {
+          metrics.recordCommand(args.getCommand(), getNode(), duration, commandError);
+        }
+        if (events[i] != null) {
+          JedisEvents.commitCommand(events[i], args, getNodeName(), commandError);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the node, {@code null} if it is not known by the socket factory
+   */
+  private HostAndPort getNode() {
+    if (node == null && socketFactory instanceof DefaultJedisSocketFactory) {
+      node = getHostAndPort();
+    }
+    return node;
+  }
+
+  private String getNodeName() {
+    HostAndPort node = getNode();
+    return node != null ? node.toString() : String.valueOf(socketFactory);
+  }
+
+  private <T> T executeCommandUnmetered(final CommandObject<T> commandObject) {
     final CommandArguments args = commandObject.getArguments();
     sendCommand(args);
     if (!args.isBlocking()) {
@@ -162,6 +270,13 @@ public class Connection implements Closeable {
   }
 
   public void sendCommand(final CommandArguments args) {
+    CommandDeadline deadline = CommandDeadline.current();
+    if (deadline != null) {
+      deadline.checkNotExpired();
+    }
+    if (hotKeyDetector != null) {
+      hotKeyDetector.record(getNode(), args);
+    }
     try {
       connect();
       Protocol.sendCommand(outputStream, args);
@@ -190,30 +305,42 @@ public class Connection implements Closeable {
 
   public void connect() throws JedisConnectionException {
     if (!isConnected()) {
+      final Object event = JedisEvents.beginConnect();
+      JedisConnectionException error = null;
       try {
         socket = socketFactory.createSocket();
         soTimeout = socket.getSoTimeout(); //?
 
-        outputStream = new RedisOutputStream(socket.getOutputStream());
-        inputStream = new RedisInputStream(socket.getInputStream());
+        if (metrics == null) {
+          outputStream = new RedisOutputStream(socket.getOutputStream());
+          inputStream = new RedisInputStream(socket.getInputStream());
+        } else {
+          outputStream = new RedisOutputStream(metrics.countingOutputStream(socket.getOutputStream()));
+          inputStream = new RedisInputStream(metrics.countingInputStream(socket.getInputStream()));
+        }
 
         broken = false; // unset broken status when connection is (re)initialized
 
       } catch (JedisConnectionException jce) {
 
         setBroken();
+        error = jce;
         throw jce;
 
       } catch (IOException ioe) {
 
         setBroken();
-        throw new JedisConnectionException("Failed to create input/output stream", ioe);
+        error = new JedisConnectionException("Failed to create input/output stream", ioe);
+        throw error;
 
       } finally {
 
         if (broken) {
           IOUtils.closeQuietly(socket);
         }
+        if (event != null) {
+          JedisEvents.commitConnect(event, getNodeName(), error);
+        }
       }
     }
   }
@@ -259,6 +386,14 @@ public class Connection implements Closeable {
     return broken;
   }
 
+  /**
+   * @return {@link System#nanoTime()} of the last successfully read reply, or of the creation of
+   * this connection if no reply has been read yet
+   */
+  final long getLastReplyNanos() {
+    return lastReplyNanos;
+  }
+
   public void setBroken() {
     broken = true;
   }
@@ -346,17 +481,53 @@ public class Connection implements Closeable {
       throw new JedisConnectionException("Attempting to read from a broken connection");
     }
 
+    CommandDeadline deadline = CommandDeadline.current();
     try {
-      return Protocol.read(inputStream);
+      Object reply = deadline == null ? Protocol.read(inputStream) : readProtocolWithDeadline(deadline);
+      lastReplyNanos = System.nanoTime();
+      return reply;
 //      Object read = Protocol.read(inputStream);
 //      System.out.println(SafeEncoder.encodeObject(read));
 //      return read;
     } catch (JedisConnectionException exc) {
       broken = true;
+      if (deadline != null && deadline.isExpired()) {
+        throw new JedisDeadlineExceededException("Command deadline exceeded while reading the reply.", exc);
+      }
       throw exc;
     }
   }
 
+  /**
+   * Reads with the socket timeout capped to the remaining budget of the deadline. A reply which is
+   * not read in time stays in the socket, so the connection is broken afterwards.
+   */
+  private Object readProtocolWithDeadline(CommandDeadline deadline) {
+    if (deadline.isExpired()) {
+      throw new JedisConnectionException("Command deadline exceeded before reading the reply.");
+    }
+    final int timeout;
+    try {
+      timeout = socket.getSoTimeout();
+    } catch (SocketException ex) {
+      throw new JedisConnectionException(ex);
+    }
+    final int budget = deadline.remainingSocketTimeoutMillis();
+    if (timeout != 0 && timeout <= budget) {
+      return Protocol.read(inputStream);
+    }
+    try {
+      socket.setSoTimeout(budget);
+      try {
+        return Protocol.read(inputStream);
+      } finally {
+        socket.setSoTimeout(timeout);
+      }
+    } catch (SocketException ex) {
+      throw new JedisConnectionException(ex);
+    }
+  }
+
   public List<Object> getMany(final int count) {
     flush();
     final List<Object> responses = new ArrayList<>(count);
@@ -388,8 +559,13 @@ public class Connection implements Closeable {
   }
 
   private void initializeFromClientConfig(final JedisClientConfig config) {
+    Object event = null;
+    JedisException error = null;
     try {
+      metrics = config.getMetrics();
+      hotKeyDetector = config.getHotKeyDetector();
       connect();
+      event = JedisEvents.beginHandshake();
 
       protocol = config.getRedisProtocol();
 
@@ -446,12 +622,18 @@ public class Connection implements Closeable {
       }
 
     } catch (JedisException je) {
+      error = je;
       try {
         disconnect();
       } catch (Exception e) {
         // the first exception 'je' will be thrown
       }
       throw je;
+    } finally {
+      if (event != null) {
+        JedisEvents.commitHandshake(event, getNodeName(), protocol != null ? protocol.name() : null,
+            error);
+      }
     }
   }
 
@@ -1,5 +1,6 @@
 package redis.clients.jedis;
 
+import java.time.Duration;
 
 import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.PooledObjectFactory;
@@ -20,6 +21,8 @@ public class ConnectionFactory implements PooledObjectFactory<Connection> {
 
   private final JedisClientConfig clientConfig;
 
+  private volatile long validationSkipNanos = 0;
+
   public ConnectionFactory(final HostAndPort hostAndPort) {
     this.clientConfig = DefaultJedisClientConfig.builder().build();
     this.jedisSocketFactory = new DefaultJedisSocketFactory(hostAndPort);
@@ -35,6 +38,20 @@ public class ConnectionFactory implements PooledObjectFactory<Connection> {
     this.jedisSocketFactory = jedisSocketFactory;
   }
 
+  /**
+   * Connections which have read a reply within {@code window} are considered valid without sending
+   * a PING. Combined with background validation (see
+   * {@link ConnectionPoolConfig#setBackgroundValidation(Duration)}), this keeps validation round
+   * trips off busy connections. Broken connections are detected from their I/O errors regardless.
+   * <p>
+   * By default, every validation sends a PING.
+   *
+   * @param window
+   */
+  public void setValidationSkipWindow(Duration window) {
+    this.validationSkipNanos = window.toNanos();
+  }
+
   @Override
   public void activateObject(PooledObject<Connection> pooledConnection) throws Exception {
     // what to do ??
@@ -72,9 +89,15 @@ public class ConnectionFactory implements PooledObjectFactory<Connection> {
   @Override
   public boolean validateObject(PooledObject<Connection> pooledConnection) {
     final Connection jedis = pooledConnection.getObject();
+    if (jedis.isBroken() || !jedis.isConnected()) {
+      return false;
+    }
+    if (System.nanoTime() - jedis.getLastReplyNanos() < validationSkipNanos) {
+      return true;
+    }
     try {
       // check HostAndPort ??
-      return jedis.isConnected() && jedis.ping();
+      return jedis.ping();
     } catch (final Exception e) {
       logger.warn("Error while validating pooled Connection object.", e);
       return false;
@@ -2,12 +2,19 @@ package redis.clients.jedis;
 
 import org.apache.commons.pool2.PooledObjectFactory;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import redis.clients.jedis.exceptions.JedisDeadlineExceededException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.jfr.JedisEvents;
+import redis.clients.jedis.metrics.JedisMetrics;
 import redis.clients.jedis.util.Pool;
 
 public class ConnectionPool extends Pool<Connection> {
 
+  private volatile JedisMetrics metrics;
+
   public ConnectionPool(HostAndPort hostAndPort, JedisClientConfig clientConfig) {
     this(new ConnectionFactory(hostAndPort, clientConfig));
+    this.metrics = clientConfig.getMetrics();
   }
 
   public ConnectionPool(PooledObjectFactory<Connection> factory) {
@@ -17,17 +24,65 @@ public class ConnectionPool extends Pool<Connection> {
   public ConnectionPool(HostAndPort hostAndPort, JedisClientConfig clientConfig,
       GenericObjectPoolConfig<Connection> poolConfig) {
     this(new ConnectionFactory(hostAndPort, clientConfig), poolConfig);
+    this.metrics = clientConfig.getMetrics();
   }
 
   public ConnectionPool(PooledObjectFactory<Connection> factory,
       GenericObjectPoolConfig<Connection> poolConfig) {
     super(factory, poolConfig);
+    if (poolConfig instanceof ConnectionPoolConfig) {
+      ((ConnectionPoolConfig) poolConfig).configure(factory);
+    }
+  }
+
+  /**
+   * Records the wait time of {@link #getResource()}. The pools created with a
+   * {@link JedisClientConfig} use the metrics of the config.
+   */
+  public void setMetrics(JedisMetrics metrics) {
+    this.metrics = metrics;
   }
 
   @Override
   public Connection getResource() {
-    Connection conn = super.getResource();
+    final JedisMetrics metrics = this.metrics;
+    final Object event = JedisEvents.beginPoolWait();
+    if (metrics == null && event == null) {
+      return getResourceUnmetered();
+    }
+    final long start = System.nanoTime();
+    RuntimeException error = null;
+    try {
+      return getResourceUnmetered();
+    } catch (RuntimeException ex) {
+      error = ex;
+      throw ex;
+    } finally {
+      if (metrics != null) {
+        metrics.recordPoolWait(System.nanoTime() - start, error);
+      }
+      if (event != null) {
+        JedisEvents.commitPoolWait(event, getNumActive(), getNumIdle(), error);
+      }
+    }
+  }
+
+  private Connection getResourceUnmetered() {
+    CommandDeadline deadline = CommandDeadline.current();
+    Connection conn = deadline == null ? super.getResource() : getResource(deadline);
     conn.setHandlingPool(this);
     return conn;
   }
+
+  private Connection getResource(CommandDeadline deadline) {
+    deadline.checkNotExpired();
+    try {
+      return super.getResource(deadline.remaining());
+    } catch (JedisException je) {
+      if (deadline.isExpired()) {
+        throw new JedisDeadlineExceededException("Command deadline exceeded while waiting for a pooled connection.", je);
+      }
+      throw je;
+    }
+  }
 }
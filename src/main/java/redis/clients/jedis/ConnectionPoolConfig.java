@@ -1,10 +1,13 @@
 package redis.clients.jedis;
 
 import java.time.Duration;
+import org.apache.commons.pool2.PooledObjectFactory;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
 public class ConnectionPoolConfig extends GenericObjectPoolConfig<Connection> {
 
+  private Duration validationSkipWindow;
+
   public ConnectionPoolConfig() {
     // defaults to make your life with connection pool easier :)
     setTestWhileIdle(true);
@@ -12,4 +15,38 @@ public class ConnectionPoolConfig extends GenericObjectPoolConfig<Connection> {
     setTimeBetweenEvictionRuns(Duration.ofMillis(30000));
     setNumTestsPerEvictionRun(-1);
   }
+
+  /**
+   * Validates idle connections in the background every {@code interval}, instead of sending a
+   * PING on borrow or return. To also skip validating recently used connections, see
+   * {@link #setValidationSkipWindow(Duration)}.
+   *
+   * @param interval
+   */
+  public void setBackgroundValidation(Duration interval) {
+    setTestOnBorrow(false);
+    setTestOnReturn(false);
+    setTestWhileIdle(true);
+    setTimeBetweenEvictionRuns(interval);
+  }
+
+  /**
+   * Applies {@link ConnectionFactory#setValidationSkipWindow(Duration)} to the factory of the pools created
+   * with this config.
+   *
+   * @param window
+   */
+  public void setValidationSkipWindow(Duration window) {
+    this.validationSkipWindow = window;
+  }
+
+  public Duration getValidationSkipWindow() {
+    return validationSkipWindow;
+  }
+
+  void configure(PooledObjectFactory<Connection> factory) {
+    if (validationSkipWindow != null && factory instanceof ConnectionFactory) {
+      ((ConnectionFactory) factory).setValidationSkipWindow(validationSkipWindow);
+    }
+  }
 }
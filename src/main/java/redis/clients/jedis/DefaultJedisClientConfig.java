@@ -5,6 +5,9 @@ import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLParameters;
 import javax.net.ssl.SSLSocketFactory;
 
+import redis.clients.jedis.metrics.HotKeyDetector;
+import redis.clients.jedis.metrics.JedisMetrics;
+
 public final class DefaultJedisClientConfig implements JedisClientConfig {
 
   private final RedisProtocol redisProtocol;
@@ -26,11 +29,14 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
 
   private final ClientSetInfoConfig clientSetInfoConfig;
 
+  private final JedisMetrics metrics;
+  private final HotKeyDetector hotKeyDetector;
+
   private DefaultJedisClientConfig(RedisProtocol protocol, int connectionTimeoutMillis, int soTimeoutMillis,
       int blockingSocketTimeoutMillis, Supplier<RedisCredentials> credentialsProvider, int database,
       String clientName, boolean ssl, SSLSocketFactory sslSocketFactory, SSLParameters sslParameters,
       HostnameVerifier hostnameVerifier, HostAndPortMapper hostAndPortMapper,
-      ClientSetInfoConfig clientSetInfoConfig) {
+      ClientSetInfoConfig clientSetInfoConfig, JedisMetrics metrics, HotKeyDetector hotKeyDetector) {
     this.redisProtocol = protocol;
     this.connectionTimeoutMillis = connectionTimeoutMillis;
     this.socketTimeoutMillis = soTimeoutMillis;
@@ -44,6 +50,8 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
     this.hostnameVerifier = hostnameVerifier;
     this.hostAndPortMapper = hostAndPortMapper;
     this.clientSetInfoConfig = clientSetInfoConfig;
+    this.metrics = metrics;
+    this.hotKeyDetector = hotKeyDetector;
   }
 
   @Override
@@ -122,6 +130,16 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
     return clientSetInfoConfig;
   }
 
+  @Override
+  public JedisMetrics getMetrics() {
+    return metrics;
+  }
+
+  @Override
+  public HotKeyDetector getHotKeyDetector() {
+    return hotKeyDetector;
+  }
+
   public static Builder builder() {
     return new Builder();
   }
@@ -149,6 +167,9 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
 
     private ClientSetInfoConfig clientSetInfoConfig = ClientSetInfoConfig.DEFAULT;
 
+    private JedisMetrics metrics = null;
+    private HotKeyDetector hotKeyDetector = null;
+
     private Builder() {
     }
 
@@ -160,7 +181,8 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
 
       return new DefaultJedisClientConfig(redisProtocol, connectionTimeoutMillis, socketTimeoutMillis,
           blockingSocketTimeoutMillis, credentialsProvider, database, clientName, ssl,
-          sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper, clientSetInfoConfig);
+          sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper, clientSetInfoConfig,
+          metrics, hotKeyDetector);
     }
 
     /**
@@ -255,6 +277,16 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
       this.clientSetInfoConfig = setInfoConfig;
       return this;
     }
+
+    public Builder metrics(JedisMetrics metrics) {
+      this.metrics = metrics;
+      return this;
+    }
+
+    public Builder hotKeyDetector(HotKeyDetector hotKeyDetector) {
+      this.hotKeyDetector = hotKeyDetector;
+      return this;
+    }
   }
 
   public static DefaultJedisClientConfig create(int connectionTimeoutMillis, int soTimeoutMillis,
@@ -264,7 +296,7 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
     return new DefaultJedisClientConfig(null,
         connectionTimeoutMillis, soTimeoutMillis, blockingSocketTimeoutMillis,
         new DefaultRedisCredentialsProvider(new DefaultRedisCredentials(user, password)), database,
-        clientName, ssl, sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper, null);
+        clientName, ssl, sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper, null, null, null);
   }
 
   public static DefaultJedisClientConfig copyConfig(JedisClientConfig copy) {
@@ -273,6 +305,6 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
         copy.getBlockingSocketTimeoutMillis(), copy.getCredentialsProvider(),
         copy.getDatabase(), copy.getClientName(), copy.isSsl(), copy.getSslSocketFactory(),
         copy.getSslParameters(), copy.getHostnameVerifier(), copy.getHostAndPortMapper(),
-        copy.getClientSetInfoConfig());
+        copy.getClientSetInfoConfig(), copy.getMetrics(), copy.getHotKeyDetector());
   }
 }
@@ -5,6 +5,9 @@ import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLParameters;
 import javax.net.ssl.SSLSocketFactory;
 
+import redis.clients.jedis.metrics.HotKeyDetector;
+import redis.clients.jedis.metrics.JedisMetrics;
+
 public interface JedisClientConfig {
 
   default RedisProtocol getRedisProtocol() {
@@ -87,4 +90,20 @@ public interface JedisClientConfig {
   default ClientSetInfoConfig getClientSetInfoConfig() {
     return ClientSetInfoConfig.DEFAULT;
   }
+
+  /**
+   * Metrics recorded by the connections and pools of this config.
+   * @return metrics, or {@code null} to not record metrics
+   */
+  default JedisMetrics getMetrics() {
+    return null;
+  }
+
+  /**
+   * Hot key detection of the commands sent by the connections of this config.
+   * @return detector, or {@code null} to not sample commands
+   */
+  default HotKeyDetector getHotKeyDetector() {
+    return null;
+  }
 }
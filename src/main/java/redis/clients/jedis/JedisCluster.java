@@ -7,6 +7,7 @@ import java.util.Set;
 
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
+import redis.clients.jedis.annots.Experimental;
 import redis.clients.jedis.providers.ClusterConnectionProvider;
 import redis.clients.jedis.util.JedisClusterCRC16;
 
@@ -250,11 +251,23 @@ public class JedisCluster extends UnifiedJedis {
       jedisPubSub.proceed(connection, channels);
     }
   }
+
+  /**
+   * Creates a subscriber to sharded channels on all the nodes of the cluster, see
+   * {@link JedisClusterShardedSubscriber}.
+   */
+  @Experimental
+  public <T> JedisClusterShardedSubscriber<T> shardedSubscriber(JedisShardedPubSubBase<T> listener) {
+    return new JedisClusterShardedSubscriber<>((ClusterConnectionProvider) provider, listener);
+  }
   // commands
 
   @Override
   public ClusterPipeline pipelined() {
-    return new ClusterPipeline((ClusterConnectionProvider) provider, (ClusterCommandObjects) commandObjects);
+    ClusterPipeline pipeline = new ClusterPipeline((ClusterConnectionProvider) provider,
+        (ClusterCommandObjects) commandObjects);
+    pipeline.setCommandInterceptors(getCommandInterceptors());
+    return pipeline;
   }
 
   /**
@@ -6,12 +6,14 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -26,6 +28,7 @@ import org.slf4j.LoggerFactory;
 import redis.clients.jedis.annots.Internal;
 import redis.clients.jedis.exceptions.JedisClusterOperationException;
 import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.jfr.JedisEvents;
 import redis.clients.jedis.util.SafeEncoder;
 
 import static redis.clients.jedis.JedisCluster.INIT_NO_ERROR_PROPERTY;
@@ -38,6 +41,7 @@ public class JedisClusterInfoCache {
   private final Map<String, ConnectionPool> nodes = new HashMap<>();
   private final ConnectionPool[] slots = new ConnectionPool[Protocol.CLUSTER_HASHSLOTS];
   private final HostAndPort[] slotNodes = new HostAndPort[Protocol.CLUSTER_HASHSLOTS];
+  private final ConnectionPool[][] slotReplicas = new ConnectionPool[Protocol.CLUSTER_HASHSLOTS][];
 
   private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
   private final Lock r = rwl.readLock();
@@ -50,6 +54,8 @@ public class JedisClusterInfoCache {
 
   private static final int MASTER_NODE_INDEX = 2;
 
+  private final List<Runnable> topologyListeners = new CopyOnWriteArrayList<>();
+
   /**
    * The single thread executor for the topology refresh task.
    */
@@ -134,6 +140,7 @@ public class JedisClusterInfoCache {
 
         // hostInfos
         int size = slotInfo.size();
+        List<HostAndPort> replicaNodes = new ArrayList<>(size - MASTER_NODE_INDEX - 1);
         for (int i = MASTER_NODE_INDEX; i < size; i++) {
           List<Object> hostInfos = (List<Object>) slotInfo.get(i);
           if (hostInfos.isEmpty()) {
@@ -144,8 +151,11 @@ public class JedisClusterInfoCache {
           setupNodeIfNotExist(targetNode);
           if (i == MASTER_NODE_INDEX) {
             assignSlotsToNode(slotNums, targetNode);
+          } else {
+            replicaNodes.add(targetNode);
           }
         }
+        assignSlotsToReplicas(slotNums, replicaNodes);
       }
     } finally {
       w.unlock();
@@ -155,11 +165,14 @@ public class JedisClusterInfoCache {
   public void renewClusterSlots(Connection jedis) {
     // If rediscovering is already in process - no need to start one more same rediscovering, just return
     if (rediscoverLock.tryLock()) {
+      final Object event = JedisEvents.beginSlotsRenewal();
+      HostAndPort renewedFrom = null;
       try {
         // First, if jedis is available, use jedis renew.
         if (jedis != null) {
           try {
             discoverClusterSlots(jedis);
+            renewedFrom = event != null ? jedis.getHostAndPort() : null;
             return;
           } catch (JedisException e) {
             // try nodes from all pools
@@ -172,6 +185,7 @@ public class JedisClusterInfoCache {
           for (HostAndPort hostAndPort : startNodes) {
             try (Connection j = new Connection(hostAndPort, clientConfig)) {
               discoverClusterSlots(j);
+              renewedFrom = hostAndPort;
               return;
             } catch (JedisException e) {
               // try next nodes
@@ -187,6 +201,7 @@ public class JedisClusterInfoCache {
               continue;
             }
             discoverClusterSlots(j);
+            renewedFrom = j.getHostAndPort();
             return;
           } catch (JedisException e) {
             // try next nodes
@@ -195,6 +210,32 @@ public class JedisClusterInfoCache {
 
       } finally {
         rediscoverLock.unlock();
+        if (event != null) {
+          JedisEvents.commitSlotsRenewal(event, renewedFrom != null ? renewedFrom.toString() : null);
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds a listener which is called after the slots are renewed, on the thread which renews them.
+   * This may be an application thread handling a redirection, so the listener must not block; it
+   * should hand over any I/O to a thread of its own.
+   */
+  public void addTopologyListener(Runnable listener) {
+    topologyListeners.add(listener);
+  }
+
+  public void removeTopologyListener(Runnable listener) {
+    topologyListeners.remove(listener);
+  }
+
+  private void fireTopologyChanged() {
+    for (Runnable listener : topologyListeners) {
+      try {
+        listener.run();
+      } catch (RuntimeException e) {
+        logger.warn("Cluster topology listener failed.", e);
       }
     }
   }
@@ -213,6 +254,7 @@ public class JedisClusterInfoCache {
     try {
       Arrays.fill(slots, null);
       Arrays.fill(slotNodes, null);
+      Arrays.fill(slotReplicas, null);
       Set<String> hostAndPortKeys = new HashSet<>();
 
       for (Object slotInfoObj : slotsInfo) {
@@ -225,6 +267,7 @@ public class JedisClusterInfoCache {
         List<Integer> slotNums = getAssignedSlotArray(slotInfo);
 
         int size = slotInfo.size();
+        List<HostAndPort> replicaNodes = new ArrayList<>(size - MASTER_NODE_INDEX - 1);
         for (int i = MASTER_NODE_INDEX; i < size; i++) {
           List<Object> hostInfos = (List<Object>) slotInfo.get(i);
           if (hostInfos.isEmpty()) {
@@ -236,8 +279,11 @@ public class JedisClusterInfoCache {
           setupNodeIfNotExist(targetNode);
           if (i == MASTER_NODE_INDEX) {
             assignSlotsToNode(slotNums, targetNode);
+          } else {
+            replicaNodes.add(targetNode);
           }
         }
+        assignSlotsToReplicas(slotNums, replicaNodes);
       }
 
       // Remove dead nodes according to the latest query
@@ -259,6 +305,7 @@ public class JedisClusterInfoCache {
     } finally {
       w.unlock();
     }
+    fireTopologyChanged();
   }
 
   private HostAndPort generateHostAndPort(List<Object> hostInfos) {
@@ -307,6 +354,24 @@ public class JedisClusterInfoCache {
     }
   }
 
+  public void assignSlotsToReplicas(List<Integer> targetSlots, List<HostAndPort> replicaNodes) {
+    w.lock();
+    try {
+      ConnectionPool[] replicaPools = null;
+      if (!replicaNodes.isEmpty()) {
+        replicaPools = new ConnectionPool[replicaNodes.size()];
+        for (int i = 0; i < replicaPools.length; i++) {
+          replicaPools[i] = setupNodeIfNotExist(replicaNodes.get(i));
+        }
+      }
+      for (Integer slot : targetSlots) {
+        slotReplicas[slot] = replicaPools;
+      }
+    } finally {
+      w.unlock();
+    }
+  }
+
   public ConnectionPool getNode(String nodeKey) {
     r.lock();
     try {
@@ -338,6 +403,45 @@ public class JedisClusterInfoCache {
     }
   }
 
+  /**
+   * @param slot
+   * @return the pools of the replicas serving {@code slot}, or {@code null} if there is none
+   */
+  public ConnectionPool[] getSlotReplicaPools(int slot) {
+    r.lock();
+    try {
+      return slotReplicas[slot];
+    } finally {
+      r.unlock();
+    }
+  }
+
+  /**
+   * @return the pools of the nodes which are a replica of at least one slot
+   */
+  public Map<String, ConnectionPool> getReplicaNodes() {
+    r.lock();
+    try {
+      Set<ConnectionPool> replicaPools = Collections.newSetFromMap(new IdentityHashMap<>());
+      ConnectionPool[] previous = null;
+      for (ConnectionPool[] pools : slotReplicas) {
+        if (pools != null && pools != previous) {
+          Collections.addAll(replicaPools, pools);
+          previous = pools;
+        }
+      }
+      Map<String, ConnectionPool> replicaNodes = new HashMap<>();
+      for (Entry<String, ConnectionPool> node : nodes.entrySet()) {
+        if (replicaPools.contains(node.getValue())) {
+          replicaNodes.put(node.getKey(), node.getValue());
+        }
+      }
+      return replicaNodes;
+    } finally {
+      r.unlock();
+    }
+  }
+
   public Map<String, ConnectionPool> getNodes() {
     r.lock();
     try {
@@ -347,6 +451,24 @@ public class JedisClusterInfoCache {
     }
   }
 
+  /**
+   * @return the pools of the nodes which own at least one slot
+   */
+  public Map<String, ConnectionPool> getPrimaryNodes() {
+    r.lock();
+    try {
+      Map<String, ConnectionPool> primaryNodes = new HashMap<>();
+      for (int slot = 0; slot < slotNodes.length; slot++) {
+        if (slotNodes[slot] != null) {
+          primaryNodes.putIfAbsent(getNodeKey(slotNodes[slot]), slots[slot]);
+        }
+      }
+      return primaryNodes;
+    } finally {
+      r.unlock();
+    }
+  }
+
   public List<ConnectionPool> getShuffledNodesPool() {
     r.lock();
     try {
@@ -376,6 +498,7 @@ public class JedisClusterInfoCache {
       nodes.clear();
       Arrays.fill(slots, null);
       Arrays.fill(slotNodes, null);
+      Arrays.fill(slotReplicas, null);
     } finally {
       w.unlock();
     }
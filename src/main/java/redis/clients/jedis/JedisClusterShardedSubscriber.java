@@ -0,0 +1,372 @@
+package redis.clients.jedis;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.Protocol.ResponseKeyword;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.exceptions.JedisClusterOperationException;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+import redis.clients.jedis.providers.ClusterConnectionProvider;
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Subscribes to sharded channels on the nodes of a cluster.
+ * <p>
+ * The channels are grouped by the primary node which owns their slot, and each node is subscribed
+ * on one connection of its pool, read by a thread of its own. When the slots are renewed, when a
+ * node unsubscribes a channel because its slot has moved, and when a connection breaks, the
+ * channels whose slot has moved are subscribed on their new owner.
+ * <p>
+ * The listener is called on the threads which read the connections, so it must be thread safe. The
+ * messages of a channel are received in order while its slot does not move. {@code onSSubscribe}
+ * is called, with the number of channels of the node, each time a node confirms a subscription,
+ * including when a channel is subscribed again on another node; {@code onSUnsubscribe} is called
+ * when a node confirms {@link #sunsubscribe(Object[])}. An exception thrown by the listener is
+ * logged. The listener must not use its own subscription methods.
+ * <p>
+ * A connection is returned to its pool when the node has no more subscribed channels.
+ * <p>
+ * The channels are moved on a thread of the subscriber, not on the thread which renewed the slots,
+ * which may be an application thread handling a MOVED redirection.
+ *
+ * @see JedisCluster#shardedSubscriber(JedisShardedPubSubBase)
+ */
+@Experimental
+public class JedisClusterShardedSubscriber<T> implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(JedisClusterShardedSubscriber.class);
+
+  private final ClusterConnectionProvider provider;
+  private final JedisShardedPubSubBase<T> listener;
+  private final Runnable topologyListener = this::scheduleResubscribe;
+  private final ExecutorService resubscriber = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "jedis-sharded-resubscriber");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final AtomicBoolean resubscribeScheduled = new AtomicBoolean();
+
+  private final Map<ByteBuffer, T> channels = new HashMap<>();
+  private final Map<ByteBuffer, NodeSubscriber> channelNodes = new HashMap<>();
+  private final Map<HostAndPort, NodeSubscriber> nodes = new HashMap<>();
+  private volatile boolean closed = false;
+
+  public JedisClusterShardedSubscriber(ClusterConnectionProvider provider,
+      JedisShardedPubSubBase<T> listener) {
+    this.provider = provider;
+    this.listener = listener;
+    provider.addTopologyListener(topologyListener);
+  }
+
+  /**
+   * Subscribes to channels. A channel whose node cannot be subscribed is subscribed again when the
+   * slots are renewed.
+   */
+  @SafeVarargs
+  public final synchronized void ssubscribe(T... channels) {
+    if (closed) {
+      throw new JedisException("The sharded subscriber is closed.");
+    }
+    Map<Integer, List<T>> slots = new LinkedHashMap<>();
+    for (T channel : channels) {
+      ByteBuffer key = key(channel);
+      if (this.channels.putIfAbsent(key, channel) == null) {
+        slots.computeIfAbsent(JedisClusterCRC16.getSlot(key.array()), s -> new ArrayList<>()).add(channel);
+      }
+    }
+    slots.forEach(this::subscribe);
+  }
+
+  @SafeVarargs
+  public final synchronized void sunsubscribe(T... channels) {
+    Map<NodeSubscriber, Map<Integer, List<T>>> unsubscribed = new HashMap<>();
+    for (T channel : channels) {
+      ByteBuffer key = key(channel);
+      if (this.channels.remove(key) != null) {
+        detach(key, channel, unsubscribed);
+      }
+    }
+    unsubscribe(unsubscribed);
+  }
+
+  /**
+   * Unsubscribes from all channels.
+   */
+  public synchronized void sunsubscribe() {
+    Map<NodeSubscriber, Map<Integer, List<T>>> unsubscribed = new HashMap<>();
+    channels.forEach((key, channel) -> detach(key, channel, unsubscribed));
+    channels.clear();
+    unsubscribe(unsubscribed);
+  }
+
+  /**
+   * @return the number of subscribed channels
+   */
+  public synchronized int getChannelCount() {
+    return channels.size();
+  }
+
+  /**
+   * @return the nodes with subscribed channels
+   */
+  public synchronized Set<HostAndPort> getNodes() {
+    return new HashSet<>(nodes.keySet());
+  }
+
+  /**
+   * Unsubscribes from all channels. The connections are returned to their pools once the nodes
+   * confirm.
+   */
+  @Override
+  public void close() {
+    provider.removeTopologyListener(topologyListener);
+    resubscriber.shutdown();
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      channels.clear();
+      channelNodes.clear();
+      for (NodeSubscriber subscriber : new ArrayList<>(nodes.values())) {
+        retire(subscriber);
+        try {
+          subscriber.send(Command.SUNSUBSCRIBE, new ArrayList<>());
+        } catch (JedisConnectionException jce) {
+          // the reader releases the connection
+        }
+      }
+    }
+  }
+
+  private static ByteBuffer key(Object channel) {
+    return ByteBuffer.wrap(channel instanceof byte[] ? ((byte[]) channel).clone()
+        : SafeEncoder.encode(channel.toString()));
+  }
+
+  private void subscribe(int slot, List<T> slotChannels) {
+    HostAndPort node = provider.getNode(slot);
+    if (node == null) {
+      throw new JedisClusterOperationException("No node is known for slot " + slot + ".");
+    }
+    NodeSubscriber subscriber = nodes.get(node);
+    if (subscriber == null) {
+      subscriber = new NodeSubscriber(node);
+      nodes.put(node, subscriber);
+    }
+    for (T channel : slotChannels) {
+      ByteBuffer key = key(channel);
+      subscriber.channels.add(key);
+      channelNodes.put(key, subscriber);
+    }
+    subscriber.send(Command.SSUBSCRIBE, slotChannels);
+  }
+
+  private void detach(ByteBuffer key, T channel,
+      Map<NodeSubscriber, Map<Integer, List<T>>> unsubscribed) {
+    NodeSubscriber subscriber = channelNodes.remove(key);
+    if (subscriber != null) {
+      subscriber.channels.remove(key);
+      unsubscribed.computeIfAbsent(subscriber, s -> new LinkedHashMap<>())
+          .computeIfAbsent(JedisClusterCRC16.getSlot(key.array()), s -> new ArrayList<>()).add(channel);
+    }
+  }
+
+  private void unsubscribe(Map<NodeSubscriber, Map<Integer, List<T>>> unsubscribed) {
+    unsubscribed.forEach((subscriber, slots) -> {
+      if (subscriber.channels.isEmpty()) {
+        retire(subscriber);
+      }
+      try {
+        slots.values().forEach(slotChannels -> subscriber.send(Command.SUNSUBSCRIBE, slotChannels));
+      } catch (JedisConnectionException jce) {
+        // the reader releases the connection
+      }
+    });
+  }
+
+  private void retire(NodeSubscriber subscriber) {
+    subscriber.retired = true;
+    nodes.remove(subscriber.node, subscriber);
+  }
+
+  /**
+   * Schedules {@link #resubscribe()} on the resubscriber thread, unless it is already scheduled.
+   */
+  private void scheduleResubscribe() {
+    if (closed || !resubscribeScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      resubscriber.execute(() -> {
+        resubscribeScheduled.set(false);
+        resubscribe();
+      });
+    } catch (RejectedExecutionException ree) {
+      // closed
+    }
+  }
+
+  /**
+   * Subscribes the channels whose slot has moved, or whose node could not be subscribed, on the
+   * current owner of their slot.
+   */
+  private synchronized void resubscribe() {
+    if (closed) {
+      return;
+    }
+    Map<NodeSubscriber, Map<Integer, List<T>>> unsubscribed = new HashMap<>();
+    Map<Integer, List<T>> slots = new LinkedHashMap<>();
+    channels.forEach((key, channel) -> {
+      int slot = JedisClusterCRC16.getSlot(key.array());
+      NodeSubscriber subscriber = channelNodes.get(key);
+      if (subscriber != null && subscriber.node.equals(provider.getNode(slot))) {
+        return;
+      }
+      detach(key, channel, unsubscribed);
+      slots.computeIfAbsent(slot, s -> new ArrayList<>()).add(channel);
+    });
+    unsubscribe(unsubscribed);
+    slots.forEach((slot, slotChannels) -> {
+      try {
+        subscribe(slot, slotChannels);
+      } catch (JedisException je) {
+        log.warn("Could not subscribe to sharded channels of slot {}.", slot, je);
+      }
+    });
+  }
+
+  /**
+   * Renews the slots, which schedules {@link #resubscribe()} through the topology listener.
+   */
+  private void refresh() {
+    provider.renewSlotCache();
+  }
+
+  private synchronized void failed(NodeSubscriber subscriber) {
+    nodes.remove(subscriber.node, subscriber);
+    for (ByteBuffer key : subscriber.channels) {
+      channelNodes.remove(key, subscriber);
+    }
+    subscriber.channels.clear();
+  }
+
+  /**
+   * The channels of a node, subscribed on one connection.
+   */
+  private final class NodeSubscriber implements Runnable {
+
+    private final HostAndPort node;
+    private final Connection connection;
+    private final Set<ByteBuffer> channels = new HashSet<>();
+    private volatile boolean retired = false;
+
+    NodeSubscriber(HostAndPort node) {
+      this.node = node;
+      this.connection = provider.getConnection(node);
+      this.connection.setTimeoutInfinite();
+      Thread reader = new Thread(this, "jedis-sharded-subscriber-" + node);
+      reader.setDaemon(true);
+      reader.start();
+    }
+
+    void send(Command command, List<T> channels) {
+      connection.sendCommand(new CommandArguments(command).addObjects(channels));
+      connection.flush();
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (true) {
+          final Object reply;
+          try {
+            reply = connection.getUnflushedObject();
+          } catch (JedisRedirectionException jre) {
+            // subscribed with an outdated slot owner
+            refresh();
+            continue;
+          } catch (JedisDataException jde) {
+            log.warn("Sharded subscription failed on {}.", node, jde);
+            continue;
+          }
+          if (!route(reply)) {
+            break;
+          }
+        }
+        connection.rollbackTimeout();
+        connection.close();
+      } catch (RuntimeException re) {
+        connection.setBroken();
+        connection.close();
+        if (!closed && !retired) {
+          log.warn("Sharded subscriber connection to {} is broken.", node, re);
+          failed(this);
+          refresh();
+        }
+      }
+    }
+
+    /**
+     * @return {@code false} when the connection is no longer needed
+     */
+    private boolean route(Object reply) {
+      List<Object> listReply = (List<Object>) reply;
+      final ResponseKeyword type = PubSubFrames.type((byte[]) listReply.get(0));
+      final byte[] bchannel = (byte[]) listReply.get(1);
+      if (type == ResponseKeyword.SMESSAGE) {
+        final byte[] bmesg = (byte[]) listReply.get(2);
+        notify(() -> listener.onSMessage(listener.encode(bchannel),
+            bmesg == null ? null : listener.encode(bmesg)));
+      } else if (type == ResponseKeyword.SSUBSCRIBE) {
+        final int count = ((Long) listReply.get(2)).intValue();
+        notify(() -> listener.onSSubscribe(listener.encode(bchannel), count));
+      } else if (type == ResponseKeyword.SUNSUBSCRIBE) {
+        final int count = ((Long) listReply.get(2)).intValue();
+        boolean moved = false;
+        boolean requested = false;
+        if (bchannel != null) {
+          ByteBuffer key = ByteBuffer.wrap(bchannel);
+          synchronized (JedisClusterShardedSubscriber.this) {
+            moved = channelNodes.get(key) == this;
+            requested = !JedisClusterShardedSubscriber.this.channels.containsKey(key);
+          }
+        }
+        if (moved) {
+          // the slot has moved to another node
+          refresh();
+        } else if (requested) {
+          notify(() -> listener.onSUnsubscribe(listener.encode(bchannel), count));
+        }
+        return count > 0 || !retired;
+      }
+      return true;
+    }
+
+    private void notify(Runnable callback) {
+      try {
+        callback.run();
+      } catch (RuntimeException re) {
+        log.warn("Sharded pub/sub listener failed.", re);
+      }
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package redis.clients.jedis;
 
 import java.net.URI;
+import java.time.Duration;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLParameters;
@@ -28,6 +29,8 @@ public class JedisFactory implements PooledObjectFactory<Jedis> {
 
   private final JedisClientConfig clientConfig;
 
+  private volatile long validationSkipNanos = 0;
+
   protected JedisFactory(final String host, final int port, final int connectionTimeout,
       final int soTimeout, final String password, final int database, final String clientName) {
     this(host, port, connectionTimeout, soTimeout, password, database, clientName, false, null, null, null);
@@ -143,6 +146,15 @@ public class JedisFactory implements PooledObjectFactory<Jedis> {
     ((DefaultJedisSocketFactory) jedisSocketFactory).updateHostAndPort(hostAndPort);
   }
 
+  /**
+   * Same as {@link ConnectionFactory#setValidationSkipWindow(Duration)}.
+   *
+   * @param window
+   */
+  public void setValidationSkipWindow(Duration window) {
+    this.validationSkipNanos = window.toNanos();
+  }
+
   @Override
   public void activateObject(PooledObject<Jedis> pooledJedis) throws Exception {
     final Jedis jedis = pooledJedis.getObject();
@@ -193,9 +205,14 @@ public class JedisFactory implements PooledObjectFactory<Jedis> {
             && targetAddress.getPort() == objectAddress.getPort();
       }
 
-      return targetHasNotChanged
-          && jedis.getConnection().isConnected()
-          && jedis.ping().equals("PONG");
+      final Connection connection = jedis.getConnection();
+      if (!targetHasNotChanged || connection.isBroken() || !connection.isConnected()) {
+        return false;
+      }
+      if (System.nanoTime() - connection.getLastReplyNanos() < validationSkipNanos) {
+        return true;
+      }
+      return jedis.ping().equals("PONG");
     } catch (final Exception e) {
       logger.warn("Error while validating pooled Jedis object.", e);
       return false;
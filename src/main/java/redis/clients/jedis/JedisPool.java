@@ -371,6 +371,9 @@ public class JedisPool extends Pool<Jedis> {
 
   public JedisPool(GenericObjectPoolConfig<Jedis> poolConfig, PooledObjectFactory<Jedis> factory) {
     super(poolConfig, factory);
+    if (poolConfig instanceof JedisPoolConfig) {
+      ((JedisPoolConfig) poolConfig).configure(factory);
+    }
   }
 
   @Override
@@ -1,10 +1,13 @@
 package redis.clients.jedis;
 
 import java.time.Duration;
+import org.apache.commons.pool2.PooledObjectFactory;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
 public class JedisPoolConfig extends GenericObjectPoolConfig<Jedis> {
 
+  private Duration validationSkipWindow;
+
   public JedisPoolConfig() {
     // defaults to make your life with connection pool easier :)
     setTestWhileIdle(true);
@@ -12,4 +15,38 @@ public class JedisPoolConfig extends GenericObjectPoolConfig<Jedis> {
     setTimeBetweenEvictionRuns(Duration.ofMillis(30000));
     setNumTestsPerEvictionRun(-1);
   }
+
+  /**
+   * Validates idle connections in the background every {@code interval}, instead of sending a
+   * PING on borrow or return. To also skip validating recently used connections, see
+   * {@link #setValidationSkipWindow(Duration)}.
+   *
+   * @param interval
+   */
+  public void setBackgroundValidation(Duration interval) {
+    setTestOnBorrow(false);
+    setTestOnReturn(false);
+    setTestWhileIdle(true);
+    setTimeBetweenEvictionRuns(interval);
+  }
+
+  /**
+   * Applies {@link JedisFactory#setValidationSkipWindow(Duration)} to the factory of the pools created
+   * with this config.
+   *
+   * @param window
+   */
+  public void setValidationSkipWindow(Duration window) {
+    this.validationSkipWindow = window;
+  }
+
+  public Duration getValidationSkipWindow() {
+    return validationSkipWindow;
+  }
+
+  void configure(PooledObjectFactory<Jedis> factory) {
+    if (validationSkipWindow != null && factory instanceof JedisFactory) {
+      ((JedisFactory) factory).setValidationSkipWindow(validationSkipWindow);
+    }
+  }
 }
@@ -376,6 +376,17 @@ public class JedisPooled extends UnifiedJedis {
     super(new PooledConnectionProvider(hostAndPort, clientConfig, poolConfig), clientConfig.getRedisProtocol());
   }
 
+  /**
+   * Blocking commands (BLPOP, BZPOPMIN, XREAD BLOCK, WAIT etc) will be served from a separate pool
+   * configured by {@code blockingPoolConfig}.
+   */
+  public JedisPooled(final HostAndPort hostAndPort, final JedisClientConfig clientConfig,
+      final GenericObjectPoolConfig<Connection> poolConfig,
+      final GenericObjectPoolConfig<Connection> blockingPoolConfig) {
+    super(new PooledConnectionProvider(hostAndPort, clientConfig, poolConfig, blockingPoolConfig),
+        clientConfig.getRedisProtocol());
+  }
+
   public JedisPooled(final GenericObjectPoolConfig<Connection> poolConfig,
       final JedisSocketFactory jedisSocketFactory, final JedisClientConfig clientConfig) {
     super(new PooledConnectionProvider(new ConnectionFactory(jedisSocketFactory, clientConfig), poolConfig),
@@ -1,11 +1,11 @@
 package redis.clients.jedis;
 
-import static redis.clients.jedis.Protocol.ResponseKeyword.*;
-
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.Protocol.ResponseKeyword;
+import redis.clients.jedis.annots.Experimental;
 import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.util.SafeEncoder;
 
@@ -13,6 +13,7 @@ public abstract class JedisPubSubBase<T> {
 
   private int subscribedChannels = 0;
   private volatile Connection client;
+  private volatile PubSubDispatcher dispatcher;
 
   public void onMessage(T channel, T message) {
   }
@@ -108,11 +109,59 @@ public abstract class JedisPubSubBase<T> {
 
   protected abstract T encode(byte[] raw);
 
+  /**
+   * Encodes the name of a channel or a pattern.
+   */
+  T encodeChannel(byte[] raw) {
+    return encode(raw);
+  }
+
+  /**
+   * Handles the messages and subscription events on the threads of a dispatcher, instead of the
+   * thread which reads the connection. Must be set before subscribing.
+   *
+   * @param dispatcher the dispatcher, {@code null} to handle the messages on the reading thread
+   */
+  @Experimental
+  public final void setDispatcher(PubSubDispatcher dispatcher) {
+    this.dispatcher = dispatcher;
+  }
+
+  @Experimental
+  public final PubSubDispatcher getDispatcher() {
+    return dispatcher;
+  }
+
+  /**
+   * Only used with a dispatcher; without one, the handlers are called directly, so that no task is
+   * created per message.
+   */
+  private static void dispatch(PubSubDispatcher dispatcher, byte[] channel, Runnable handler) {
+    dispatcher.dispatch(channel == null ? null : ByteBuffer.wrap(channel), handler);
+  }
+
 //  private void process(Client client) {
   private void process() {
+    final PubSubDispatcher dispatcher = this.dispatcher;
+    try {
+      process(dispatcher);
+    } finally {
+      if (dispatcher != null) {
+        dispatcher.awaitIdle();
+      }
+    }
+    if (dispatcher != null) {
+      dispatcher.checkFailure();
+    }
+  }
+
+  private void process(PubSubDispatcher dispatcher) {
 
     do {
       Object reply = client.getUnflushedObject();
+      if (dispatcher != null) {
+        dispatcher.checkFailure();
+      }
 
       if (reply instanceof List) {
         List<Object> listReply = (List<Object>) reply;
@@ -120,57 +169,116 @@ public abstract class JedisPubSubBase<T> {
         if (!(firstObj instanceof byte[])) {
           throw new JedisException("Unknown message type: " + firstObj);
         }
-        final byte[] resp = (byte[]) firstObj;
-        if (Arrays.equals(SUBSCRIBE.getRaw(), resp)) {
-          subscribedChannels = ((Long) listReply.get(2)).intValue();
-          final byte[] bchannel = (byte[]) listReply.get(1);
-          final T enchannel = (bchannel == null) ? null : encode(bchannel);
-          onSubscribe(enchannel, subscribedChannels);
-        } else if (Arrays.equals(UNSUBSCRIBE.getRaw(), resp)) {
-          subscribedChannels = ((Long) listReply.get(2)).intValue();
-          final byte[] bchannel = (byte[]) listReply.get(1);
-          final T enchannel = (bchannel == null) ? null : encode(bchannel);
-          onUnsubscribe(enchannel, subscribedChannels);
-        } else if (Arrays.equals(MESSAGE.getRaw(), resp)) {
-          final byte[] bchannel = (byte[]) listReply.get(1);
-          final Object mesg = listReply.get(2);
-          final T enchannel = (bchannel == null) ? null : encode(bchannel);
-          if (mesg instanceof List) {
-            ((List<byte[]>) mesg).forEach(bmesg -> onMessage(enchannel, encode(bmesg)));
-          } else {
-            onMessage(enchannel, (mesg == null) ? null : encode((byte[]) mesg));
-          }
-        } else if (Arrays.equals(PMESSAGE.getRaw(), resp)) {
-          final byte[] bpattern = (byte[]) listReply.get(1);
-          final byte[] bchannel = (byte[]) listReply.get(2);
-          final byte[] bmesg = (byte[]) listReply.get(3);
-          final T enpattern = (bpattern == null) ? null : encode(bpattern);
-          final T enchannel = (bchannel == null) ? null : encode(bchannel);
-          final T enmesg = (bmesg == null) ? null : encode(bmesg);
-          onPMessage(enpattern, enchannel, enmesg);
-        } else if (Arrays.equals(PSUBSCRIBE.getRaw(), resp)) {
-          subscribedChannels = ((Long) listReply.get(2)).intValue();
-          final byte[] bpattern = (byte[]) listReply.get(1);
-          final T enpattern = (bpattern == null) ? null : encode(bpattern);
-          onPSubscribe(enpattern, subscribedChannels);
-        } else if (Arrays.equals(PUNSUBSCRIBE.getRaw(), resp)) {
-          subscribedChannels = ((Long) listReply.get(2)).intValue();
-          final byte[] bpattern = (byte[]) listReply.get(1);
-          final T enpattern = (bpattern == null) ? null : encode(bpattern);
-          onPUnsubscribe(enpattern, subscribedChannels);
-        } else if (Arrays.equals(PONG.getRaw(), resp)) {
-          final byte[] bpattern = (byte[]) listReply.get(1);
-          final T enpattern = (bpattern == null) ? null : encode(bpattern);
-          onPong(enpattern);
-        } else {
+        final ResponseKeyword type = PubSubFrames.type((byte[]) firstObj);
+        if (type == null) {
           throw new JedisException("Unknown message type: " + firstObj);
         }
+        switch (type) {
+          case MESSAGE: {
+            final byte[] bchannel = (byte[]) listReply.get(1);
+            final Object mesg = listReply.get(2);
+            final T enchannel = (bchannel == null) ? null : encodeChannel(bchannel);
+            if (mesg instanceof List) {
+              for (byte[] bmesg : (List<byte[]>) mesg) {
+                final T enmesg = encode(bmesg);
+                if (dispatcher == null) {
+                  onMessage(enchannel, enmesg);
+                } else {
+                  dispatch(dispatcher, bchannel, () -> onMessage(enchannel, enmesg));
+                }
+              }
+            } else {
+              final T enmesg = (mesg == null) ? null : encode((byte[]) mesg);
+              if (dispatcher == null) {
+                onMessage(enchannel, enmesg);
+              } else {
+                dispatch(dispatcher, bchannel, () -> onMessage(enchannel, enmesg));
+              }
+            }
+            break;
+          }
+          case PMESSAGE: {
+            final byte[] bpattern = (byte[]) listReply.get(1);
+            final byte[] bchannel = (byte[]) listReply.get(2);
+            final byte[] bmesg = (byte[]) listReply.get(3);
+            final T enpattern = (bpattern == null) ? null : encodeChannel(bpattern);
+            final T enchannel = (bchannel == null) ? null : encodeChannel(bchannel);
+            final T enmesg = (bmesg == null) ? null : encode(bmesg);
+            if (dispatcher == null) {
+              onPMessage(enpattern, enchannel, enmesg);
+            } else {
+              dispatch(dispatcher, bchannel, () -> onPMessage(enpattern, enchannel, enmesg));
+            }
+            break;
+          }
+          case SUBSCRIBE: {
+            subscribedChannels = ((Long) listReply.get(2)).intValue();
+            final int count = subscribedChannels;
+            final byte[] bchannel = (byte[]) listReply.get(1);
+            final T enchannel = (bchannel == null) ? null : encodeChannel(bchannel);
+            if (dispatcher == null) {
+              onSubscribe(enchannel, count);
+            } else {
+              dispatch(dispatcher, bchannel, () -> onSubscribe(enchannel, count));
+            }
+            break;
+          }
+          case UNSUBSCRIBE: {
+            subscribedChannels = ((Long) listReply.get(2)).intValue();
+            final int count = subscribedChannels;
+            final byte[] bchannel = (byte[]) listReply.get(1);
+            final T enchannel = (bchannel == null) ? null : encodeChannel(bchannel);
+            if (dispatcher == null) {
+              onUnsubscribe(enchannel, count);
+            } else {
+              dispatch(dispatcher, bchannel, () -> onUnsubscribe(enchannel, count));
+            }
+            break;
+          }
+          case PSUBSCRIBE: {
+            subscribedChannels = ((Long) listReply.get(2)).intValue();
+            final int count = subscribedChannels;
+            final byte[] bpattern = (byte[]) listReply.get(1);
+            final T enpattern = (bpattern == null) ? null : encodeChannel(bpattern);
+            if (dispatcher == null) {
+              onPSubscribe(enpattern, count);
+            } else {
+              dispatch(dispatcher, bpattern, () -> onPSubscribe(enpattern, count));
+            }
+            break;
+          }
+          case PUNSUBSCRIBE: {
+            subscribedChannels = ((Long) listReply.get(2)).intValue();
+            final int count = subscribedChannels;
+            final byte[] bpattern = (byte[]) listReply.get(1);
+            final T enpattern = (bpattern == null) ? null : encodeChannel(bpattern);
+            if (dispatcher == null) {
+              onPUnsubscribe(enpattern, count);
+            } else {
+              dispatch(dispatcher, bpattern, () -> onPUnsubscribe(enpattern, count));
+            }
+            break;
+          }
+          case PONG: {
+            final byte[] bpattern = (byte[]) listReply.get(1);
+            final T enpattern = (bpattern == null) ? null : encode(bpattern);
+            if (dispatcher == null) {
+              onPong(enpattern);
+            } else {
+              dispatch(dispatcher, null, () -> onPong(enpattern));
+            }
+            break;
+          }
+          default:
+            throw new JedisException("Unknown message type: " + firstObj);
+        }
       } else if (reply instanceof byte[]) {
         byte[] resp = (byte[]) reply;
-        if ("PONG".equals(SafeEncoder.encode(resp))) {
-          onPong(null);
+        final T enpattern = "PONG".equals(SafeEncoder.encode(resp)) ? null : encode(resp);
+        if (dispatcher == null) {
+          onPong(enpattern);
         } else {
-          onPong(encode(resp));
+          dispatch(dispatcher, null, () -> onPong(enpattern));
         }
       } else {
         throw new JedisException("Unknown message type: " + reply);
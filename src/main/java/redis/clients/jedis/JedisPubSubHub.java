@@ -0,0 +1,338 @@
+package redis.clients.jedis;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.Protocol.ResponseKeyword;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Shares one pub/sub connection, read by one thread, among many {@link JedisPubSub} and
+ * {@link BinaryJedisPubSub} listeners.
+ * <p>
+ * The channels and patterns are reference counted: the hub subscribes to a channel when the first
+ * listener is added to it, and unsubscribes when the last listener is removed from it. Adding and
+ * removing listeners does not wait for the replies of Redis.
+ * <p>
+ * The listeners are called on the thread which reads the connection, or on the threads of a
+ * {@link PubSubDispatcher} if one is set, see {@link #setDispatcher(PubSubDispatcher)}.
+ * {@code onSubscribe}, {@code onPSubscribe}, {@code onUnsubscribe} and {@code onPUnsubscribe} are
+ * called on the thread which adds or removes the listener, with the number of channels and patterns
+ * of the listener in the hub. A listener of a hub must not use its own subscription methods, e.g.
+ * {@link JedisPubSubBase#subscribe(Object[])}.
+ * <p>
+ * An exception thrown by a listener is logged and does not affect the other listeners.
+ * <p>
+ * The hub does not reconnect. When the connection is broken, the hub is closed, and each listener
+ * is notified by {@code onUnsubscribe} and {@code onPUnsubscribe} with a count of 0 for each of its
+ * channels and patterns; they can then be subscribed to a new hub.
+ */
+@Experimental
+public class JedisPubSubHub implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(JedisPubSubHub.class);
+
+  private final Connection connection;
+  private final Thread reader;
+
+  private final Map<ByteBuffer, Set<JedisPubSubBase<?>>> channels = new ConcurrentHashMap<>();
+  private final Map<ByteBuffer, Set<JedisPubSubBase<?>>> patterns = new ConcurrentHashMap<>();
+  private final Map<JedisPubSubBase<?>, Integer> subscriptions = new HashMap<>();
+
+  private volatile PubSubDispatcher dispatcher;
+  private volatile boolean closed = false;
+
+  public JedisPubSubHub(HostAndPort node, JedisClientConfig clientConfig) {
+    this(new Connection(node, clientConfig));
+  }
+
+  /**
+   * @param connection a connection which is not used for anything else; it is closed with the hub
+   */
+  public JedisPubSubHub(Connection connection) {
+    this.connection = connection;
+    this.connection.setTimeoutInfinite();
+    this.reader = new Thread(this::read, "jedis-pubsub-hub");
+    this.reader.setDaemon(true);
+    this.reader.start();
+  }
+
+  /**
+   * Calls the listeners on the threads of a dispatcher, with the messages of each channel in order.
+   *
+   * @param dispatcher the dispatcher, {@code null} to call the listeners on the reading thread
+   */
+  public void setDispatcher(PubSubDispatcher dispatcher) {
+    this.dispatcher = dispatcher;
+  }
+
+  public PubSubDispatcher getDispatcher() {
+    return dispatcher;
+  }
+
+  @SafeVarargs
+  public final <T> void subscribe(JedisPubSubBase<T> listener, T... channels) {
+    add(listener, this.channels, Command.SUBSCRIBE, channels);
+  }
+
+  @SafeVarargs
+  public final <T> void unsubscribe(JedisPubSubBase<T> listener, T... channels) {
+    remove(listener, this.channels, Command.UNSUBSCRIBE, channels);
+  }
+
+  @SafeVarargs
+  public final <T> void psubscribe(JedisPubSubBase<T> listener, T... patterns) {
+    add(listener, this.patterns, Command.PSUBSCRIBE, patterns);
+  }
+
+  @SafeVarargs
+  public final <T> void punsubscribe(JedisPubSubBase<T> listener, T... patterns) {
+    remove(listener, this.patterns, Command.PUNSUBSCRIBE, patterns);
+  }
+
+  /**
+   * Removes a listener from all its channels and patterns.
+   */
+  public void remove(JedisPubSubBase<?> listener) {
+    removeAll(listener, channels, Command.UNSUBSCRIBE);
+    removeAll(listener, patterns, Command.PUNSUBSCRIBE);
+  }
+
+  /**
+   * @return the number of channels the hub is subscribed to
+   */
+  public int getChannelCount() {
+    return channels.size();
+  }
+
+  /**
+   * @return the number of patterns the hub is subscribed to
+   */
+  public int getPatternCount() {
+    return patterns.size();
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    connection.close();
+  }
+
+  private synchronized <T> void add(JedisPubSubBase<T> listener,
+      Map<ByteBuffer, Set<JedisPubSubBase<?>>> map, Command command, T[] names) {
+    ensureOpen();
+    CommandArguments args = new CommandArguments(command);
+    boolean send = false;
+    for (T name : names) {
+      Set<JedisPubSubBase<?>> listeners = map.get(key(name));
+      if (listeners == null) {
+        listeners = new CopyOnWriteArraySet<>();
+        map.put(key(name), listeners);
+        args.add(name);
+        send = true;
+      }
+      if (listeners.add(listener)) {
+        int count = subscriptions.merge(listener, 1, Integer::sum);
+        if (command == Command.SUBSCRIBE) {
+          listener.onSubscribe(name, count);
+        } else {
+          listener.onPSubscribe(name, count);
+        }
+      }
+    }
+    if (send) {
+      send(args);
+    }
+  }
+
+  private synchronized <T> void remove(JedisPubSubBase<T> listener,
+      Map<ByteBuffer, Set<JedisPubSubBase<?>>> map, Command command, T[] names) {
+    CommandArguments args = new CommandArguments(command);
+    boolean send = false;
+    for (T name : names) {
+      ByteBuffer key = key(name);
+      Set<JedisPubSubBase<?>> listeners = map.get(key);
+      if (listeners == null || !listeners.remove(listener)) {
+        continue;
+      }
+      if (listeners.isEmpty()) {
+        map.remove(key);
+        args.add(name);
+        send = true;
+      }
+      int count = subscriptions.merge(listener, -1, Integer::sum);
+      if (count == 0) {
+        subscriptions.remove(listener);
+      }
+      if (command == Command.UNSUBSCRIBE) {
+        listener.onUnsubscribe(name, count);
+      } else {
+        listener.onPUnsubscribe(name, count);
+      }
+    }
+    if (send && !closed) {
+      send(args);
+    }
+  }
+
+  private synchronized <T> void removeAll(JedisPubSubBase<T> listener,
+      Map<ByteBuffer, Set<JedisPubSubBase<?>>> map, Command command) {
+    map.forEach((key, listeners) -> {
+      if (listeners.contains(listener)) {
+        @SuppressWarnings("unchecked")
+        T[] name = (T[]) new Object[] { listener.encode(key.array()) };
+        remove(listener, map, command, name);
+      }
+    });
+  }
+
+  private void ensureOpen() {
+    if (closed) {
+      throw new JedisException("The pub/sub hub is closed.");
+    }
+  }
+
+  private void send(CommandArguments args) {
+    connection.sendCommand(args);
+    connection.flush();
+  }
+
+  private static ByteBuffer key(Object name) {
+    return ByteBuffer.wrap(name instanceof byte[] ? ((byte[]) name).clone()
+        : SafeEncoder.encode(name.toString()));
+  }
+
+  private void read() {
+    try {
+      while (!closed) {
+        route(connection.getUnflushedObject());
+      }
+    } catch (JedisConnectionException jce) {
+      if (!closed) {
+        log.error("Pub/sub hub connection is broken.", jce);
+        fail();
+      }
+    } catch (RuntimeException re) {
+      log.error("Pub/sub hub failed.", re);
+      fail();
+    }
+  }
+
+  /**
+   * Closes the hub and unsubscribes all listeners, as they will not receive any more messages.
+   */
+  private synchronized void fail() {
+    close();
+    unsubscribeAll(channels, true);
+    unsubscribeAll(patterns, false);
+    subscriptions.clear();
+  }
+
+  private static void unsubscribeAll(Map<ByteBuffer, Set<JedisPubSubBase<?>>> map, boolean channel) {
+    map.forEach((key, listeners) -> {
+      for (JedisPubSubBase<?> listener : listeners) {
+        onUnsubscribed(listener, key.array(), channel);
+      }
+    });
+    map.clear();
+  }
+
+  private static <T> void onUnsubscribed(JedisPubSubBase<T> listener, byte[] name, boolean channel) {
+    try {
+      if (channel) {
+        listener.onUnsubscribe(listener.encode(name), 0);
+      } else {
+        listener.onPUnsubscribe(listener.encode(name), 0);
+      }
+    } catch (RuntimeException re) {
+      log.warn("Pub/sub listener failed.", re);
+    }
+  }
+
+  private void route(Object reply) {
+    if (!(reply instanceof List)) {
+      // PONG
+      return;
+    }
+    List<Object> listReply = (List<Object>) reply;
+    final ResponseKeyword type = PubSubFrames.type((byte[]) listReply.get(0));
+    if (type == ResponseKeyword.MESSAGE) {
+      final byte[] bchannel = (byte[]) listReply.get(1);
+      final Object mesg = listReply.get(2);
+      final Set<JedisPubSubBase<?>> listeners = channels.get(ByteBuffer.wrap(bchannel));
+      if (listeners == null) {
+        return;
+      }
+      if (mesg instanceof List) {
+        for (byte[] bmesg : (List<byte[]>) mesg) {
+          for (JedisPubSubBase<?> listener : listeners) {
+            dispatch(bchannel, () -> onMessage(listener, bchannel, bmesg));
+          }
+        }
+      } else {
+        for (JedisPubSubBase<?> listener : listeners) {
+          dispatch(bchannel, () -> onMessage(listener, bchannel, (byte[]) mesg));
+        }
+      }
+    } else if (type == ResponseKeyword.PMESSAGE) {
+      final byte[] bpattern = (byte[]) listReply.get(1);
+      final byte[] bchannel = (byte[]) listReply.get(2);
+      final byte[] bmesg = (byte[]) listReply.get(3);
+      final Set<JedisPubSubBase<?>> listeners = patterns.get(ByteBuffer.wrap(bpattern));
+      if (listeners == null) {
+        return;
+      }
+      for (JedisPubSubBase<?> listener : listeners) {
+        dispatch(bchannel, () -> onPMessage(listener, bpattern, bchannel, bmesg));
+      }
+    }
+    // the subscription events are handled when the listeners are added and removed
+  }
+
+  private void dispatch(byte[] channel, Runnable handler) {
+    PubSubDispatcher dispatcher = this.dispatcher;
+    if (dispatcher == null) {
+      handler.run();
+    } else {
+      dispatcher.dispatch(ByteBuffer.wrap(channel), handler);
+    }
+  }
+
+  private static <T> void onMessage(JedisPubSubBase<T> listener, byte[] channel, byte[] message) {
+    try {
+      listener.onMessage(listener.encode(channel), message == null ? null : listener.encode(message));
+    } catch (RuntimeException re) {
+      log.warn("Pub/sub listener failed.", re);
+    }
+  }
+
+  private static <T> void onPMessage(JedisPubSubBase<T> listener, byte[] pattern, byte[] channel,
+      byte[] message) {
+    try {
+      listener.onPMessage(listener.encode(pattern), listener.encode(channel),
+          message == null ? null : listener.encode(message));
+    } catch (RuntimeException re) {
+      log.warn("Pub/sub listener failed.", re);
+    }
+  }
+}
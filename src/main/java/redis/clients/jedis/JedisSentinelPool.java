@@ -187,6 +187,9 @@ public class JedisSentinelPool extends Pool<Jedis> {
       final GenericObjectPoolConfig<Jedis> poolConfig, final JedisFactory factory,
       final JedisClientConfig sentinelClientConfig) {
     super(poolConfig, factory);
+    if (poolConfig instanceof JedisPoolConfig) {
+      ((JedisPoolConfig) poolConfig).configure(factory);
+    }
 
     this.factory = factory;
     this.sentinelClientConfig = sentinelClientConfig;
@@ -4,8 +4,15 @@ import redis.clients.jedis.util.SafeEncoder;
 
 public abstract class JedisShardedPubSub extends JedisShardedPubSubBase<String> {
 
+  private final PubSubChannelCache channels = new PubSubChannelCache();
+
   @Override
   protected final String encode(byte[] raw) {
     return SafeEncoder.encode(raw);
   }
+
+  @Override
+  final String encodeChannel(byte[] raw) {
+    return channels.decode(raw);
+  }
 }
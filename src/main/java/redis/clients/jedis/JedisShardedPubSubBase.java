@@ -1,17 +1,18 @@
 package redis.clients.jedis;
 
-import static redis.clients.jedis.Protocol.ResponseKeyword.*;
-
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.Protocol.ResponseKeyword;
+import redis.clients.jedis.annots.Experimental;
 import redis.clients.jedis.exceptions.JedisException;
 
 public abstract class JedisShardedPubSubBase<T> {
 
   private int subscribedChannels = 0;
   private volatile Connection client;
+  private volatile PubSubDispatcher dispatcher;
 
   public void onSMessage(T channel, T message) {
   }
@@ -64,11 +65,56 @@ public abstract class JedisShardedPubSubBase<T> {
 
   protected abstract T encode(byte[] raw);
 
+  /**
+   * Encodes the name of a channel.
+   */
+  T encodeChannel(byte[] raw) {
+    return encode(raw);
+  }
+
+  /**
+   * @see JedisPubSubBase#setDispatcher(PubSubDispatcher)
+   */
+  @Experimental
+  public final void setDispatcher(PubSubDispatcher dispatcher) {
+    this.dispatcher = dispatcher;
+  }
+
+  @Experimental
+  public final PubSubDispatcher getDispatcher() {
+    return dispatcher;
+  }
+
+  /**
+   * Only used with a dispatcher; without one, the handlers are called directly, so that no task is
+   * created per message.
+   */
+  private static void dispatch(PubSubDispatcher dispatcher, byte[] channel, Runnable handler) {
+    dispatcher.dispatch(channel == null ? null : ByteBuffer.wrap(channel), handler);
+  }
+
 //  private void process(Client client) {
   private void process() {
+    final PubSubDispatcher dispatcher = this.dispatcher;
+    try {
+      process(dispatcher);
+    } finally {
+      if (dispatcher != null) {
+        dispatcher.awaitIdle();
+      }
+    }
+    if (dispatcher != null) {
+      dispatcher.checkFailure();
+    }
+  }
+
+  private void process(PubSubDispatcher dispatcher) {
 
     do {
       Object reply = client.getUnflushedObject();
+      if (dispatcher != null) {
+        dispatcher.checkFailure();
+      }
 
       if (reply instanceof List) {
         List<Object> listReply = (List<Object>) reply;
@@ -76,26 +122,50 @@ public abstract class JedisShardedPubSubBase<T> {
         if (!(firstObj instanceof byte[])) {
           throw new JedisException("Unknown message type: " + firstObj);
         }
-        final byte[] resp = (byte[]) firstObj;
-        if (Arrays.equals(SSUBSCRIBE.getRaw(), resp)) {
-          subscribedChannels = ((Long) listReply.get(2)).intValue();
-          final byte[] bchannel = (byte[]) listReply.get(1);
-          final T enchannel = (bchannel == null) ? null : encode(bchannel);
-          onSSubscribe(enchannel, subscribedChannels);
-        } else if (Arrays.equals(SUNSUBSCRIBE.getRaw(), resp)) {
-          subscribedChannels = ((Long) listReply.get(2)).intValue();
-          final byte[] bchannel = (byte[]) listReply.get(1);
-          final T enchannel = (bchannel == null) ? null : encode(bchannel);
-          onSUnsubscribe(enchannel, subscribedChannels);
-        } else if (Arrays.equals(SMESSAGE.getRaw(), resp)) {
-          final byte[] bchannel = (byte[]) listReply.get(1);
-          final byte[] bmesg = (byte[]) listReply.get(2);
-          final T enchannel = (bchannel == null) ? null : encode(bchannel);
-          final T enmesg = (bmesg == null) ? null : encode(bmesg);
-          onSMessage(enchannel, enmesg);
-        } else {
+        final ResponseKeyword type = PubSubFrames.type((byte[]) firstObj);
+        if (type == null) {
           throw new JedisException("Unknown message type: " + firstObj);
         }
+        switch (type) {
+          case SMESSAGE: {
+            final byte[] bchannel = (byte[]) listReply.get(1);
+            final byte[] bmesg = (byte[]) listReply.get(2);
+            final T enchannel = (bchannel == null) ? null : encodeChannel(bchannel);
+            final T enmesg = (bmesg == null) ? null : encode(bmesg);
+            if (dispatcher == null) {
+              onSMessage(enchannel, enmesg);
+            } else {
+              dispatch(dispatcher, bchannel, () -> onSMessage(enchannel, enmesg));
+            }
+            break;
+          }
+          case SSUBSCRIBE: {
+            subscribedChannels = ((Long) listReply.get(2)).intValue();
+            final int count = subscribedChannels;
+            final byte[] bchannel = (byte[]) listReply.get(1);
+            final T enchannel = (bchannel == null) ? null : encodeChannel(bchannel);
+            if (dispatcher == null) {
+              onSSubscribe(enchannel, count);
+            } else {
+              dispatch(dispatcher, bchannel, () -> onSSubscribe(enchannel, count));
+            }
+            break;
+          }
+          case SUNSUBSCRIBE: {
+            subscribedChannels = ((Long) listReply.get(2)).intValue();
+            final int count = subscribedChannels;
+            final byte[] bchannel = (byte[]) listReply.get(1);
+            final T enchannel = (bchannel == null) ? null : encodeChannel(bchannel);
+            if (dispatcher == null) {
+              onSUnsubscribe(enchannel, count);
+            } else {
+              dispatch(dispatcher, bchannel, () -> onSUnsubscribe(enchannel, count));
+            }
+            break;
+          }
+          default:
+            throw new JedisException("Unknown message type: " + firstObj);
+        }
       } else {
         throw new JedisException("Unknown message type: " + reply);
       }
@@ -3,8 +3,11 @@ package redis.clients.jedis;
 import java.util.List;
 import java.util.regex.Pattern;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import redis.clients.jedis.executors.ReshardingCommandExecutor;
+import redis.clients.jedis.providers.ReshardingConnectionProvider;
 import redis.clients.jedis.providers.ShardedConnectionProvider;
 import redis.clients.jedis.util.Hashing;
+import redis.clients.jedis.util.ShardSelectionStrategy;
 
 /**
  * @deprecated Sharding/Sharded feature will be removed in next major release.
@@ -40,6 +43,12 @@ public class JedisSharding extends UnifiedJedis {
     setProtocol(clientConfig);
   }
 
+  public JedisSharding(List<HostAndPort> shards, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig, Hashing algo, ShardSelectionStrategy strategy) {
+    this(new ShardedConnectionProvider(shards, clientConfig, poolConfig, algo, strategy));
+    setProtocol(clientConfig);
+  }
+
   public JedisSharding(ShardedConnectionProvider provider) {
     super(provider);
   }
@@ -48,6 +57,19 @@ public class JedisSharding extends UnifiedJedis {
     super(provider, tagPattern);
   }
 
+  /**
+   * Executes the commands by a {@link ReshardingCommandExecutor} during the migration of the keys to
+   * new shards.
+   */
+  public JedisSharding(ReshardingConnectionProvider provider) {
+    this(provider, null);
+  }
+
+  public JedisSharding(ReshardingConnectionProvider provider, Pattern tagPattern) {
+    super(new ReshardingCommandExecutor(provider), provider,
+        new ShardedCommandObjects(provider.getHashingAlgo(), tagPattern));
+  }
+
   private void setProtocol(JedisClientConfig clientConfig) {
     RedisProtocol proto = clientConfig.getRedisProtocol();
     if (proto == RedisProtocol.RESP3) commandObjects.setProtocol(proto);
@@ -55,7 +77,9 @@ public class JedisSharding extends UnifiedJedis {
 
   @Override
   public ShardedPipeline pipelined() {
-    return new ShardedPipeline((ShardedConnectionProvider) provider);
+    ShardedPipeline pipeline = new ShardedPipeline((ShardedConnectionProvider) provider);
+    pipeline.setCommandInterceptors(getCommandInterceptors());
+    return pipeline;
   }
 
   /**
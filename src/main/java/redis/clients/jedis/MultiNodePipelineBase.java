@@ -1,11 +1,12 @@
 package redis.clients.jedis;
 
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -13,6 +14,7 @@ import java.util.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import redis.clients.jedis.args.Rawable;
 import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.graph.GraphCommandObjects;
 import redis.clients.jedis.providers.ConnectionProvider;
@@ -31,12 +33,40 @@ public abstract class MultiNodePipelineBase extends PipelineBase {
 
   private final Map<HostAndPort, Queue<Response<?>>> pipelinedResponses;
   private final Map<HostAndPort, Connection> connections;
+  private final Map<HostAndPort, int[]> unflushedBytes;
   private volatile boolean syncing = false;
 
+  private int syncWorkers = -1;
+  private int flushThreshold = 0;
+
   public MultiNodePipelineBase(CommandObjects commandObjects) {
     super(commandObjects);
     pipelinedResponses = new LinkedHashMap<>();
     connections = new LinkedHashMap<>();
+    unflushedBytes = new LinkedHashMap<>();
+  }
+
+  /**
+   * @param syncWorkers the number of threads reading the replies in {@code sync()}; {@code 0} for
+   * one thread per node, {@code -1} (default) for {@link #MULTI_NODE_PIPELINE_SYNC_WORKERS}
+   */
+  public void setSyncWorkers(int syncWorkers) {
+    if (syncWorkers < -1) {
+      throw new IllegalArgumentException("Invalid number of sync workers.");
+    }
+    this.syncWorkers = syncWorkers;
+  }
+
+  /**
+   * @param flushThreshold the approximate size of the commands, in bytes, after which the commands
+   * of a node are flushed while they are appended, so the node starts processing them before
+   * {@code sync()}; {@code 0} (default) to flush only in {@code sync()}
+   */
+  public void setFlushThreshold(int flushThreshold) {
+    if (flushThreshold < 0) {
+      throw new IllegalArgumentException("Flush threshold must not be negative.");
+    }
+    this.flushThreshold = flushThreshold;
   }
 
   /**
@@ -55,6 +85,11 @@ public abstract class MultiNodePipelineBase extends PipelineBase {
 
   @Override
   protected final <T> Response<T> appendCommand(CommandObject<T> commandObject) {
+    return interceptCommand(commandObject);
+  }
+
+  @Override
+  protected final <T> Response<T> queueCommand(CommandObject<T> commandObject) {
     HostAndPort nodeKey = getNodeKey(commandObject.getArguments());
 
     Queue<Response<?>> queue;
@@ -78,9 +113,29 @@ public abstract class MultiNodePipelineBase extends PipelineBase {
     connection.sendCommand(commandObject.getArguments());
     Response<T> response = new Response<>(commandObject.getBuilder());
     queue.add(response);
+
+    if (flushThreshold > 0) {
+      int[] unflushed = unflushedBytes.computeIfAbsent(nodeKey, k -> new int[1]);
+      unflushed[0] += estimateSize(commandObject.getArguments());
+      if (unflushed[0] >= flushThreshold) {
+        connection.flush();
+        unflushed[0] = 0;
+      }
+    }
     return response;
   }
 
+  /**
+   * Estimates the size of the RESP encoded command.
+   */
+  private static int estimateSize(CommandArguments args) {
+    int size = 16;
+    for (Rawable arg : args) {
+      size += arg.getRawLength() + 16;
+    }
+    return size;
+  }
+
   @Override
   public void close() {
     try {
@@ -97,17 +152,19 @@ public abstract class MultiNodePipelineBase extends PipelineBase {
     }
     syncing = true;
 
-    ExecutorService executorService = Executors.newFixedThreadPool(MULTI_NODE_PIPELINE_SYNC_WORKERS);
+    final int nodes = pipelinedResponses.size();
+    final int workers = syncWorkers == 0 ? nodes
+        : syncWorkers < 0 ? MULTI_NODE_PIPELINE_SYNC_WORKERS : syncWorkers;
+    ExecutorService executorService = Executors.newFixedThreadPool(Math.max(1, Math.min(workers, nodes)));
 
-    CountDownLatch countDownLatch = new CountDownLatch(pipelinedResponses.size());
-    Iterator<Map.Entry<HostAndPort, Queue<Response<?>>>> pipelinedResponsesIterator
-        = pipelinedResponses.entrySet().iterator();
-    while (pipelinedResponsesIterator.hasNext()) {
-      Map.Entry<HostAndPort, Queue<Response<?>>> entry = pipelinedResponsesIterator.next();
+    CountDownLatch countDownLatch = new CountDownLatch(nodes);
+    Set<HostAndPort> failedNodes = ConcurrentHashMap.newKeySet();
+    CommandDeadline deadline = CommandDeadline.current();
+    for (Map.Entry<HostAndPort, Queue<Response<?>>> entry : pipelinedResponses.entrySet()) {
       HostAndPort nodeKey = entry.getKey();
       Queue<Response<?>> queue = entry.getValue();
       Connection connection = connections.get(nodeKey);
-      executorService.submit(() -> {
+      Runnable read = () -> {
         try {
           List<Object> unformatted = connection.getMany(queue.size());
           for (Object o : unformatted) {
@@ -115,14 +172,12 @@ public abstract class MultiNodePipelineBase extends PipelineBase {
           }
         } catch (JedisConnectionException jce) {
           log.error("Error with connection to " + nodeKey, jce);
-          // cleanup the connection
-          pipelinedResponsesIterator.remove();
-          connections.remove(nodeKey);
-          IOUtils.closeQuietly(connection);
+          failedNodes.add(nodeKey);
         } finally {
           countDownLatch.countDown();
         }
-      });
+      };
+      executorService.submit(deadline == null ? read : () -> deadline.runWithin(read));
     }
 
     try {
@@ -133,6 +188,14 @@ public abstract class MultiNodePipelineBase extends PipelineBase {
 
     executorService.shutdownNow();
 
+    // cleanup the failed connections
+    for (HostAndPort nodeKey : failedNodes) {
+      pipelinedResponses.remove(nodeKey);
+      unflushedBytes.remove(nodeKey);
+      IOUtils.closeQuietly(connections.remove(nodeKey));
+    }
+    unflushedBytes.values().forEach(unflushed -> unflushed[0] = 0);
+
     syncing = false;
   }
 
@@ -38,6 +38,11 @@ public class Pipeline extends PipelineBase implements DatabasePipelineCommands,
 
   @Override
   public final <T> Response<T> appendCommand(CommandObject<T> commandObject) {
+    return interceptCommand(commandObject);
+  }
+
+  @Override
+  protected final <T> Response<T> queueCommand(CommandObject<T> commandObject) {
     connection.sendCommand(commandObject.getArguments());
     Response<T> response = new Response<>(commandObject.getBuilder());
     pipelinedResponses.add(response);
@@ -0,0 +1,49 @@
+package redis.clients.jedis;
+
+import java.util.List;
+
+import redis.clients.jedis.commands.ProtocolCommand;
+
+/**
+ * A linked list of {@link CommandInterceptor}s ending with appending the command to a pipeline.
+ *
+ * @see CommandInterceptorChain
+ */
+final class PipelineInterceptorChain implements CommandInterceptor.PipelineChain {
+
+  private final CommandInterceptor interceptor;
+  private final PipelineInterceptorChain next;
+  private final AbstractPipeline pipeline;
+
+  private PipelineInterceptorChain(CommandInterceptor interceptor, PipelineInterceptorChain next,
+      AbstractPipeline pipeline) {
+    this.interceptor = interceptor;
+    this.next = next;
+    this.pipeline = pipeline;
+  }
+
+  /**
+   * @return the chain, or {@code null} if there are no interceptors
+   */
+  static PipelineInterceptorChain of(List<CommandInterceptor> interceptors, AbstractPipeline pipeline) {
+    if (interceptors == null || interceptors.isEmpty()) {
+      return null;
+    }
+    PipelineInterceptorChain chain = new PipelineInterceptorChain(null, null, pipeline);
+    for (int i = interceptors.size() - 1; i >= 0; i--) {
+      chain = new PipelineInterceptorChain(interceptors.get(i), chain, pipeline);
+    }
+    return chain;
+  }
+
+  @Override
+  public <T> Response<T> proceed(CommandObject<T> commandObject) {
+    return interceptor == null ? pipeline.queueCommand(commandObject)
+        : interceptor.interceptPipelined(commandObject, next);
+  }
+
+  @Override
+  public CommandArguments commandArguments(ProtocolCommand command) {
+    return pipeline.commandObjects.commandArguments(command);
+  }
+}
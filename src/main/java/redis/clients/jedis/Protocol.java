@@ -9,6 +9,7 @@ import java.util.Locale;
 
 import redis.clients.jedis.exceptions.*;
 import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.args.RawableFactory.RawFloats;
 import redis.clients.jedis.commands.ProtocolCommand;
 import redis.clients.jedis.util.KeyValue;
 import redis.clients.jedis.util.RedisInputStream;
@@ -68,9 +69,14 @@ public final class Protocol {
       os.writeIntCrLf(args.size());
       for (Rawable arg : args) {
         os.write(DOLLAR_BYTE);
-        final byte[] bin = arg.getRaw();
-        os.writeIntCrLf(bin.length);
-        os.write(bin);
+        if (arg instanceof RawFloats) {
+          os.writeIntCrLf(arg.getRawLength());
+          ((RawFloats) arg).writeTo(os);
+        } else {
+          final byte[] bin = arg.getRaw();
+          os.writeIntCrLf(bin.length);
+          os.write(bin);
+        }
         os.writeCrLf();
       }
     } catch (IOException e) {
@@ -0,0 +1,30 @@
+package redis.clients.jedis;
+
+import java.util.Arrays;
+
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Caches the decoded names of recently seen channels, so that the messages of a channel share one
+ * {@link String}. The cache is direct mapped, with a bounded size, and is not thread safe: it is
+ * used by the thread which reads the connection.
+ */
+final class PubSubChannelCache {
+
+  private static final int SIZE = 128;
+
+  private final byte[][] raws = new byte[SIZE][];
+  private final String[] names = new String[SIZE];
+
+  String decode(byte[] raw) {
+    int hash = Arrays.hashCode(raw);
+    int index = (hash ^ (hash >>> 16)) & (SIZE - 1);
+    if (Arrays.equals(raws[index], raw)) {
+      return names[index];
+    }
+    String name = SafeEncoder.encode(raw);
+    raws[index] = raw;
+    names[index] = name;
+    return name;
+  }
+}
@@ -0,0 +1,246 @@
+package redis.clients.jedis;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.metrics.LatencyHistogram;
+
+/**
+ * Dispatches the messages of a {@link JedisPubSub}, {@link BinaryJedisPubSub} or sharded pub/sub to
+ * the threads of an {@link Executor}, so that slow handlers do not stall reading the connection.
+ * <p>
+ * The messages are decoded on the thread which reads the connection and queued. Messages of the
+ * same channel, and the subscription events of the channel, are handled in order, one at a time;
+ * messages of different channels are handled concurrently. The number of queued messages is bounded;
+ * when the queue is full, the {@link OverflowPolicy} applies.
+ * <p>
+ * An exception thrown by a handler ends the subscription: it is thrown by the thread which reads
+ * the connection when the next message arrives. Once the subscription ends, the subscribing method
+ * returns after the queued messages are handled.
+ * <p>
+ * A dispatcher must be used by one pub/sub instance at a time, see
+ * {@link JedisPubSubBase#setDispatcher(PubSubDispatcher)}.
+ */
+@Experimental
+public class PubSubDispatcher {
+
+  private static final Logger log = LoggerFactory.getLogger(PubSubDispatcher.class);
+
+  /**
+   * Messages handled in a row for a channel before the thread is yielded to other channels.
+   */
+  private static final int DRAIN_BATCH = 64;
+
+  public enum OverflowPolicy {
+    /**
+     * Stop reading the connection until there is room in the queue. Redis buffers the messages
+     * meanwhile, and may disconnect the client when its output buffer limit is exceeded.
+     */
+    BLOCK,
+    /**
+     * Discard the message, see {@link #getDroppedMessages()}.
+     */
+    DROP,
+    /**
+     * End the subscription with a {@link JedisException}.
+     */
+    FAIL
+  }
+
+  private final Executor executor;
+  private final int capacity;
+  private final OverflowPolicy overflowPolicy;
+
+  private final Object lock = new Object();
+  private final Map<Object, ChannelQueue> channels = new HashMap<>();
+  private int queued = 0;
+
+  private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+  private final LongAdder dispatched = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LatencyHistogram lag = new LatencyHistogram();
+
+  /**
+   * @param executor runs the handlers
+   * @param capacity maximum number of queued messages
+   * @param overflowPolicy applies when {@code capacity} messages are queued
+   */
+  public PubSubDispatcher(Executor executor, int capacity, OverflowPolicy overflowPolicy) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive.");
+    }
+    this.executor = executor;
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  private static final class Task {
+
+    private final Runnable handler;
+    private final long enqueuedNanos;
+
+    Task(Runnable handler, long enqueuedNanos) {
+      this.handler = handler;
+      this.enqueuedNanos = enqueuedNanos;
+    }
+  }
+
+  private static final class ChannelQueue {
+
+    private final Object channel;
+    private final Queue<Task> tasks = new ArrayDeque<>();
+    private boolean scheduled = false;
+
+    ChannelQueue(Object channel) {
+      this.channel = channel;
+    }
+  }
+
+  /**
+   * Queues a handler of a channel. Called by the thread which reads the connection.
+   *
+   * @param channel the key of the channel, with value based equality
+   */
+  void dispatch(Object channel, Runnable handler) {
+    final ChannelQueue queue;
+    synchronized (lock) {
+      while (queued >= capacity) {
+        switch (overflowPolicy) {
+          case DROP:
+            dropped.increment();
+            return;
+          case FAIL:
+            throw new JedisException("Pub/sub dispatch queue is full.");
+          default:
+            try {
+              lock.wait();
+            } catch (InterruptedException ie) {
+              Thread.currentThread().interrupt();
+              throw new JedisException("Interrupted while waiting for the pub/sub dispatch queue.", ie);
+            }
+        }
+      }
+      queue = channels.computeIfAbsent(channel, ChannelQueue::new);
+      queue.tasks.add(new Task(handler, System.nanoTime()));
+      queued++;
+      if (queue.scheduled) {
+        return;
+      }
+      queue.scheduled = true;
+    }
+    schedule(queue);
+  }
+
+  private void schedule(ChannelQueue queue) {
+    try {
+      executor.execute(() -> drain(queue));
+    } catch (RejectedExecutionException ree) {
+      synchronized (lock) {
+        queued -= queue.tasks.size();
+        dropped.add(queue.tasks.size());
+        queue.tasks.clear();
+        queue.scheduled = false;
+        channels.remove(queue.channel);
+        lock.notifyAll();
+      }
+      throw new JedisException("Pub/sub dispatch executor rejected the messages.", ree);
+    }
+  }
+
+  private void drain(ChannelQueue queue) {
+    for (int handled = 0; ; handled++) {
+      final Task task;
+      synchronized (lock) {
+        if (handled == DRAIN_BATCH && !queue.tasks.isEmpty()) {
+          break;
+        }
+        task = queue.tasks.poll();
+        if (task == null) {
+          queue.scheduled = false;
+          channels.remove(queue.channel);
+          lock.notifyAll();
+          return;
+        }
+        queued--;
+        lock.notifyAll();
+      }
+
+      lag.record(System.nanoTime() - task.enqueuedNanos);
+      try {
+        task.handler.run();
+      } catch (RuntimeException re) {
+        if (!failure.compareAndSet(null, re)) {
+          log.warn("Pub/sub handler failed after a previous failure.", re);
+        }
+      }
+      dispatched.increment();
+    }
+    schedule(queue);
+  }
+
+  /**
+   * Throws the first exception thrown by a handler, if any.
+   */
+  void checkFailure() {
+    RuntimeException re = failure.getAndSet(null);
+    if (re != null) {
+      throw re;
+    }
+  }
+
+  /**
+   * Waits until the queued messages are handled.
+   */
+  void awaitIdle() {
+    synchronized (lock) {
+      while (!channels.isEmpty()) {
+        try {
+          lock.wait();
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * @return number of queued messages which are not being handled yet
+   */
+  public int getQueueDepth() {
+    synchronized (lock) {
+      return queued;
+    }
+  }
+
+  /**
+   * @return number of handled messages
+   */
+  public long getDispatchedMessages() {
+    return dispatched.sum();
+  }
+
+  /**
+   * @return number of messages discarded by {@link OverflowPolicy#DROP}
+   */
+  public long getDroppedMessages() {
+    return dropped.sum();
+  }
+
+  /**
+   * @return the times from decoding the messages to handling them
+   */
+  public LatencyHistogram.Snapshot getLag() {
+    return lag.snapshot();
+  }
+}
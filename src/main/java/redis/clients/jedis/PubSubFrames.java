@@ -0,0 +1,53 @@
+package redis.clients.jedis;
+
+import java.util.Arrays;
+
+import redis.clients.jedis.Protocol.ResponseKeyword;
+
+/**
+ * Decodes the kind of pub/sub frames. The kinds are told apart by the length and the first byte of
+ * their name, so that a frame is compared with one kind only.
+ */
+final class PubSubFrames {
+
+  private PubSubFrames() {
+    throw new InstantiationError("Must not instantiate this class");
+  }
+
+  /**
+   * @param raw the first element of a pub/sub frame
+   * @return the kind of the frame, or {@code null} if it is unknown
+   */
+  static ResponseKeyword type(byte[] raw) {
+    if (raw.length == 0) {
+      return null;
+    }
+    final ResponseKeyword type;
+    switch (raw.length) {
+      case 4:
+        type = ResponseKeyword.PONG;
+        break;
+      case 7:
+        type = ResponseKeyword.MESSAGE;
+        break;
+      case 8:
+        type = raw[0] == 'p' ? ResponseKeyword.PMESSAGE : ResponseKeyword.SMESSAGE;
+        break;
+      case 9:
+        type = ResponseKeyword.SUBSCRIBE;
+        break;
+      case 10:
+        type = raw[0] == 'p' ? ResponseKeyword.PSUBSCRIBE : ResponseKeyword.SSUBSCRIBE;
+        break;
+      case 11:
+        type = ResponseKeyword.UNSUBSCRIBE;
+        break;
+      case 12:
+        type = raw[0] == 'p' ? ResponseKeyword.PUNSUBSCRIBE : ResponseKeyword.SUNSUBSCRIBE;
+        break;
+      default:
+        return null;
+    }
+    return Arrays.equals(type.getRaw(), raw) ? type : null;
+  }
+}
@@ -0,0 +1,189 @@
+package redis.clients.jedis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.providers.ReshardingConnectionProvider;
+import redis.clients.jedis.resps.ScanResult;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Moves the keys whose owner changed from the previous shards of a
+ * {@link ReshardingConnectionProvider} to their new shards.
+ * <p>
+ * Each previous shard is scanned. The keys of a SCAN page which belong to another shard now are
+ * moved by {@link #moveKeys(Connection, Connection, List)}. A key which already exists on its new
+ * shard, because it was written during the migration, is not overwritten.
+ * <p>
+ * While the keys are moved, the clients must not write to the previous shards, e.g. by using
+ * {@link JedisSharding#JedisSharding(ReshardingConnectionProvider)}.
+ */
+@Experimental
+public class ReshardingMover {
+
+  private final ReshardingConnectionProvider provider;
+  private final Pattern tagPattern;
+
+  private int batchSize = 100;
+  private volatile boolean cancelled = false;
+
+  private final LongAdder scannedKeys = new LongAdder();
+  private final LongAdder movedKeys = new LongAdder();
+
+  public ReshardingMover(ReshardingConnectionProvider provider) {
+    this(provider, null);
+  }
+
+  /**
+   * @param tagPattern the key tag pattern of the clients, see
+   * {@link JedisSharding#JedisSharding(ReshardingConnectionProvider, Pattern)}
+   */
+  public ReshardingMover(ReshardingConnectionProvider provider, Pattern tagPattern) {
+    this.provider = provider;
+    this.tagPattern = tagPattern;
+  }
+
+  /**
+   * @param batchSize COUNT of the SCAN commands, and so the number of keys moved at once; default is
+   * 100
+   */
+  public ReshardingMover setBatchSize(int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive.");
+    }
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * Stops the mover after the current batches.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Moves the keys of all previous shards concurrently.
+   *
+   * @param executor runs one task per previous shard
+   * @return completes when all keys are moved
+   */
+  public CompletableFuture<Void> start(Executor executor) {
+    List<CompletableFuture<Void>> shards = new ArrayList<>();
+    for (HostAndPort shard : new LinkedHashSet<>(provider.getPreviousShards())) {
+      shards.add(CompletableFuture.runAsync(() -> moveShard(shard), executor));
+    }
+    return CompletableFuture.allOf(shards.toArray(new CompletableFuture[0]));
+  }
+
+  public long getScannedKeys() {
+    return scannedKeys.sum();
+  }
+
+  public long getMovedKeys() {
+    return movedKeys.sum();
+  }
+
+  private void moveShard(HostAndPort shard) {
+    ScanParams params = new ScanParams().count(batchSize);
+    try (Connection source = provider.getConnection(shard)) {
+      byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+      ScanResult<byte[]> page;
+      do {
+        page = BuilderFactory.SCAN_BINARY_RESPONSE.build(source.executeCommand(
+            new CommandArguments(Command.SCAN).add(cursor).addParams(params)));
+        scannedKeys.add(page.getResult().size());
+
+        Map<HostAndPort, List<byte[]>> moves = new HashMap<>();
+        for (byte[] key : page.getResult()) {
+          HostAndPort target = provider.getNode(hash(key));
+          if (!target.equals(shard)) {
+            moves.computeIfAbsent(target, t -> new ArrayList<>()).add(key);
+          }
+        }
+        for (Map.Entry<HostAndPort, List<byte[]>> move : moves.entrySet()) {
+          try (Connection target = provider.getConnection(move.getKey())) {
+            movedKeys.add(moveKeys(source, target, move.getValue()));
+          }
+        }
+        cursor = page.getCursorAsBytes();
+      } while (!page.isCompleteIteration() && !cancelled);
+    }
+  }
+
+  private long hash(byte[] key) {
+    if (tagPattern == null) {
+      return provider.getHashingAlgo().hash(key);
+    }
+    String name = SafeEncoder.encode(key);
+    Matcher m = tagPattern.matcher(name);
+    return provider.getHashingAlgo().hash(m.find() ? m.group(1) : name);
+  }
+
+  /**
+   * Moves keys by pipelined DUMP and PTTL on the source, RESTORE on the target and DEL on the
+   * source. A key which does not exist on the source is ignored. A key which exists on the target
+   * already is not overwritten, but is deleted from the source.
+   *
+   * @param keys {@link String} or {@code byte[]} keys
+   * @return number of keys restored on the target
+   */
+  public static int moveKeys(Connection source, Connection target, List<?> keys) {
+    if (keys.isEmpty()) {
+      return 0;
+    }
+
+    for (Object key : keys) {
+      source.sendCommand(new CommandArguments(Command.DUMP).add(key));
+      source.sendCommand(new CommandArguments(Command.PTTL).add(key));
+    }
+    List<Object> dumps = source.getMany(keys.size() * 2);
+
+    List<Object> restoring = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      Object dump = dumps.get(2 * i);
+      Object pttl = dumps.get(2 * i + 1);
+      if (dump instanceof JedisDataException) {
+        throw (JedisDataException) dump;
+      }
+      if (dump == null || !(pttl instanceof Long) || (Long) pttl == -2) {
+        continue; // not existing or expired
+      }
+      long ttl = Math.max(0, (Long) pttl);
+      target.sendCommand(new CommandArguments(Command.RESTORE).add(keys.get(i)).add(ttl).add(dump));
+      restoring.add(keys.get(i));
+    }
+    if (restoring.isEmpty()) {
+      return 0;
+    }
+
+    int restored = 0;
+    for (Object reply : target.getMany(restoring.size())) {
+      if (reply instanceof JedisDataException) {
+        if (!((JedisDataException) reply).getMessage().startsWith("BUSYKEY")) {
+          throw (JedisDataException) reply;
+        }
+      } else {
+        restored++;
+      }
+    }
+
+    for (Object key : restoring) {
+      source.sendCommand(new CommandArguments(Command.DEL).add(key));
+    }
+    source.getMany(restoring.size());
+    return restored;
+  }
+}
@@ -19,6 +19,17 @@ public class Response<T> implements Supplier<T> {
     this.builder = b;
   }
 
+  /**
+   * @return a response which is set to the value already
+   */
+  public static <T> Response<T> of(T value) {
+    Response<T> response = new Response<>(null);
+    response.response = value;
+    response.set = true;
+    response.built = true;
+    return response;
+  }
+
   public void set(Object data) {
     this.data = data;
     set = true;
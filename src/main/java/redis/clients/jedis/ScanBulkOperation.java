@@ -0,0 +1,352 @@
+package redis.clients.jedis;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import redis.clients.jedis.Protocol.Keyword;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.resps.ScanResult;
+import redis.clients.jedis.util.Pool;
+
+/**
+ * Applies a command to every key returned by SCAN, e.g. to UNLINK a key namespace or to EXPIRE
+ * legacy keys.
+ * <p>
+ * Each node is scanned on a single connection. The command is applied to the keys of each SCAN page
+ * in pipelined batches on the same connection, so the keys are always handled by the node which
+ * owns them. Up to {@link #setConcurrency(int) concurrency} nodes are processed at the same time and
+ * the applied commands can be {@link #setRateLimit(int) rate limited} over all nodes.
+ * <p>
+ * An error reply for a key is counted as failed and the operation goes on. A connection error stops
+ * the operation and is thrown by {@link #run(Executor, BiConsumer)}. A key may be handled more than
+ * once (see SCAN guarantees).
+ *
+ * @param <T> reply type of the applied command
+ */
+@Experimental
+public class ScanBulkOperation<T> {
+
+  private final Collection<?> nodes;
+  private final ScanParams params;
+  private final String type;
+  private final Function<String, CommandObject<T>> command;
+
+  private int batchSize = 100;
+  private int concurrency = 1;
+  private int rateLimit = 0;
+  private Consumer<Progress> progressListener;
+
+  private volatile boolean cancelled = false;
+
+  /**
+   * @param nodes the {@link Pool pools} or {@link Connection connections} of the nodes to scan
+   * @param params MATCH and COUNT options
+   * @param type TYPE option, may be {@code null}
+   * @param command the command to apply to each key
+   */
+  public ScanBulkOperation(Collection<?> nodes, ScanParams params, String type,
+      Function<String, CommandObject<T>> command) {
+    this.nodes = nodes;
+    this.params = params;
+    this.type = type;
+    this.command = command;
+  }
+
+  /**
+   * @param batchSize maximum number of pipelined commands; default is 100
+   */
+  public ScanBulkOperation<T> setBatchSize(int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive.");
+    }
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * @param concurrency maximum number of nodes processed at the same time; default is 1
+   */
+  public ScanBulkOperation<T> setConcurrency(int concurrency) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("Concurrency must be positive.");
+    }
+    this.concurrency = concurrency;
+    return this;
+  }
+
+  /**
+   * @param keysPerSecond maximum number of keys the command is applied to per second, over all
+   * nodes; {@code 0} (default) for no limit
+   */
+  public ScanBulkOperation<T> setRateLimit(int keysPerSecond) {
+    if (keysPerSecond < 0) {
+      throw new IllegalArgumentException("Rate limit must not be negative.");
+    }
+    this.rateLimit = keysPerSecond;
+    return this;
+  }
+
+  /**
+   * @param progressListener called after each batch, from the thread which processed it
+   */
+  public ScanBulkOperation<T> setProgressListener(Consumer<Progress> progressListener) {
+    this.progressListener = progressListener;
+    return this;
+  }
+
+  /**
+   * Stops the running operation after the current batches. If it is called before a run, that run
+   * stops right away. The cancellation is cleared when the run finishes, so the operation can be run
+   * again.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Runs the operation and waits for it to complete.
+   *
+   * @param executor processes the nodes
+   * @return the final progress
+   */
+  public Progress run(Executor executor) {
+    return run(executor, null);
+  }
+
+  /**
+   * Runs the operation and waits for it to complete.
+   *
+   * @param executor processes the nodes
+   * @param replyConsumer called with each key and its reply, from the thread which processed the
+   * key; may be {@code null}
+   * @return the final progress
+   */
+  public Progress run(Executor executor, BiConsumer<String, T> replyConsumer) {
+    final Run run = new Run(replyConsumer);
+    int workers = Math.min(concurrency, nodes.size());
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+    for (int i = 0; i < workers; i++) {
+      futures[i] = CompletableFuture.runAsync(run::work, executor);
+    }
+    try {
+      CompletableFuture.allOf(futures).join();
+    } catch (CompletionException ce) {
+      // the first failure is thrown below
+    } finally {
+      cancelled = false;
+    }
+
+    Throwable failure = run.failure.get();
+    if (failure != null) {
+      throw failure instanceof JedisException ? (JedisException) failure : new JedisException(failure);
+    }
+    return run.progress();
+  }
+
+  private class Run {
+
+    private final BiConsumer<String, T> replyConsumer;
+    private final Queue<Object> pendingNodes = new ConcurrentLinkedQueue<>(nodes);
+    private final RateLimiter rateLimiter = rateLimit > 0 ? new RateLimiter(rateLimit) : null;
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicInteger completedNodes = new AtomicInteger();
+    private final LongAdder scannedKeys = new LongAdder();
+    private final LongAdder appliedKeys = new LongAdder();
+    private final LongAdder failedKeys = new LongAdder();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    Run(BiConsumer<String, T> replyConsumer) {
+      this.replyConsumer = replyConsumer;
+    }
+
+    boolean isStopped() {
+      return cancelled || failure.get() != null;
+    }
+
+    void work() {
+      Object node;
+      while (!isStopped() && (node = pendingNodes.poll()) != null) {
+        try {
+          if (node instanceof Connection) {
+            process((Connection) node);
+          } else if (node instanceof Pool) {
+            try (Connection connection = ((Pool<Connection>) node).getResource()) {
+              process(connection);
+            }
+          } else {
+            throw new IllegalArgumentException(node.getClass() + " is not supported.");
+          }
+          if (!isStopped()) {
+            completedNodes.incrementAndGet();
+          }
+        } catch (RuntimeException ex) {
+          failure.compareAndSet(null, ex);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          failure.compareAndSet(null, ie);
+        }
+      }
+    }
+
+    private void process(Connection connection) throws InterruptedException {
+      String cursor = ScanParams.SCAN_POINTER_START;
+      do {
+        CommandArguments args = new CommandArguments(Protocol.Command.SCAN).add(cursor).addParams(params);
+        if (type != null) {
+          args.add(Keyword.TYPE).add(type);
+        }
+        ScanResult<String> page = BuilderFactory.SCAN_RESPONSE.build(connection.executeCommand(args));
+        List<String> keys = page.getResult();
+        scannedKeys.add(keys.size());
+
+        for (int from = 0; from < keys.size(); from += batchSize) {
+          if (isStopped()) {
+            return;
+          }
+          apply(connection, keys.subList(from, Math.min(keys.size(), from + batchSize)));
+        }
+        cursor = page.getCursor();
+      } while (!ScanParams.SCAN_POINTER_START.equals(cursor) && !isStopped());
+    }
+
+    private void apply(Connection connection, List<String> keys) throws InterruptedException {
+      if (rateLimiter != null) {
+        rateLimiter.acquire(keys.size());
+      }
+
+      List<CommandObject<T>> commands = new ArrayList<>(keys.size());
+      for (String key : keys) {
+        CommandObject<T> commandObject = command.apply(key);
+        connection.sendCommand(commandObject.getArguments());
+        commands.add(commandObject);
+      }
+
+      List<Object> replies = connection.getMany(commands.size());
+      for (int i = 0; i < replies.size(); i++) {
+        Object reply = replies.get(i);
+        if (reply instanceof JedisDataException) {
+          failedKeys.increment();
+          continue;
+        }
+        appliedKeys.increment();
+        if (replyConsumer != null) {
+          replyConsumer.accept(keys.get(i), commands.get(i).getBuilder().build(reply));
+        }
+      }
+
+      if (progressListener != null) {
+        progressListener.accept(progress());
+      }
+    }
+
+    Progress progress() {
+      return new Progress(nodes.size(), completedNodes.get(), scannedKeys.sum(), appliedKeys.sum(),
+          failedKeys.sum(), Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+  }
+
+  /**
+   * Spaces the permits evenly over time.
+   */
+  private static class RateLimiter {
+
+    private final long nanosPerPermit;
+    private long nextFreeNanos = System.nanoTime();
+
+    RateLimiter(int permitsPerSecond) {
+      this.nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+    }
+
+    void acquire(int permits) throws InterruptedException {
+      long waitNanos;
+      synchronized (this) {
+        long now = System.nanoTime();
+        if (nextFreeNanos < now) {
+          nextFreeNanos = now;
+        }
+        waitNanos = nextFreeNanos - now;
+        nextFreeNanos += permits * nanosPerPermit;
+      }
+      if (waitNanos > 0) {
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      }
+    }
+  }
+
+  /**
+   * A snapshot of the progress of an operation.
+   */
+  public static class Progress {
+
+    private final int nodes;
+    private final int completedNodes;
+    private final long scannedKeys;
+    private final long appliedKeys;
+    private final long failedKeys;
+    private final Duration elapsed;
+
+    Progress(int nodes, int completedNodes, long scannedKeys, long appliedKeys, long failedKeys,
+        Duration elapsed) {
+      this.nodes = nodes;
+      this.completedNodes = completedNodes;
+      this.scannedKeys = scannedKeys;
+      this.appliedKeys = appliedKeys;
+      this.failedKeys = failedKeys;
+      this.elapsed = elapsed;
+    }
+
+    public int getNodes() {
+      return nodes;
+    }
+
+    public int getCompletedNodes() {
+      return completedNodes;
+    }
+
+    public long getScannedKeys() {
+      return scannedKeys;
+    }
+
+    /**
+     * @return number of keys the command was applied to successfully
+     */
+    public long getAppliedKeys() {
+      return appliedKeys;
+    }
+
+    /**
+     * @return number of keys the command replied an error for
+     */
+    public long getFailedKeys() {
+      return failedKeys;
+    }
+
+    public Duration getElapsed() {
+      return elapsed;
+    }
+
+    @Override
+    public String toString() {
+      return "Progress{nodes=" + completedNodes + "/" + nodes + ", scanned=" + scannedKeys
+          + ", applied=" + appliedKeys + ", failed=" + failedKeys + ", elapsed=" + elapsed + "}";
+    }
+  }
+}
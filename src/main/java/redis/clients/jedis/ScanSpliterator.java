@@ -0,0 +1,228 @@
+package redis.clients.jedis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import redis.clients.jedis.Protocol.Keyword;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.resps.ScanResult;
+import redis.clients.jedis.util.Pool;
+
+/**
+ * A {@link Spliterator} over the keys of all given nodes, as returned by SCAN.
+ * <p>
+ * All nodes are scanned concurrently on the given {@link Executor}. For each node, the next cursor
+ * page is fetched while the current page is consumed. The keys are served from whichever node has a
+ * page ready, so their order is not defined. A key may be returned more than once (see SCAN
+ * guarantees).
+ * <p>
+ * {@link #trySplit()} splits the nodes, so a parallel stream consumes different nodes on different
+ * threads. The stream should be closed if it is not fully consumed; closing it also cancels the
+ * fetches of the split-off spliterators.
+ */
+public class ScanSpliterator implements Spliterator<String>, AutoCloseable {
+
+  private final List<NodeScan> nodes;
+
+  /**
+   * All nodes of the root spliterator, including those handed to split-off spliterators.
+   */
+  private final List<NodeScan> allNodes;
+  private final AtomicBoolean closed;
+
+  /**
+   * @param nodes the {@link Pool pools} or {@link Connection connections} of the nodes to scan
+   * @param params MATCH and COUNT options
+   * @param type TYPE option, may be {@code null}
+   * @param executor runs the SCAN commands
+   */
+  public ScanSpliterator(Collection<?> nodes, ScanParams params, String type, Executor executor) {
+    this.nodes = new ArrayList<>(nodes.size());
+    this.closed = new AtomicBoolean();
+    for (Object node : nodes) {
+      NodeScan nodeScan = new NodeScan(node, params, type, executor, closed);
+      nodeScan.fetch(ScanParams.SCAN_POINTER_START);
+      this.nodes.add(nodeScan);
+    }
+    this.allNodes = new ArrayList<>(this.nodes);
+  }
+
+  private ScanSpliterator(List<NodeScan> nodes, AtomicBoolean closed) {
+    this.nodes = nodes;
+    this.allNodes = null;
+    this.closed = closed;
+  }
+
+  /**
+   * @return a stream which cancels the pending fetches when closed
+   */
+  public Stream<String> stream() {
+    return StreamSupport.stream(this, false).onClose(this::close);
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super String> action) {
+    while (true) {
+      nodes.removeIf(NodeScan::isCompleted);
+      if (nodes.isEmpty()) {
+        return false;
+      }
+
+      for (NodeScan node : nodes) {
+        if (node.page.hasNext()) {
+          action.accept(node.page.next());
+          return true;
+        }
+      }
+
+      boolean paged = false;
+      for (NodeScan node : nodes) {
+        if (node.pending != null && node.pending.isDone()) {
+          node.nextPage();
+          paged = true;
+        }
+      }
+
+      if (!paged) {
+        // wait for any node
+        try {
+          CompletableFuture.anyOf(nodes.stream().map(node -> node.pending)
+              .toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ce) {
+          // the failure is thrown by nextPage() of the failed node
+        }
+      }
+    }
+  }
+
+  @Override
+  public Spliterator<String> trySplit() {
+    nodes.removeIf(NodeScan::isCompleted);
+    if (nodes.size() < 2) {
+      return null;
+    }
+    List<NodeScan> split = nodes.subList(0, nodes.size() / 2);
+    ScanSpliterator prefix = new ScanSpliterator(new ArrayList<>(split), closed);
+    split.clear();
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public int characteristics() {
+    return NONNULL;
+  }
+
+  /**
+   * Cancels the pending fetches. Closing the root spliterator also cancels the fetches of the
+   * spliterators split off from it, which may be consumed by other threads.
+   */
+  @Override
+  public void close() {
+    if (allNodes != null) {
+      closed.set(true);
+      allNodes.forEach(NodeScan::cancel);
+    } else {
+      nodes.forEach(NodeScan::cancel);
+    }
+    nodes.clear();
+  }
+
+  private static class NodeScan {
+
+    private final Object node;
+    private final ScanParams params;
+    private final String type;
+    private final Executor executor;
+    private final AtomicBoolean closed;
+
+    private Iterator<String> page = Collections.emptyIterator();
+    private volatile CompletableFuture<ScanResult<String>> pending;
+
+    NodeScan(Object node, ScanParams params, String type, Executor executor, AtomicBoolean closed) {
+      this.node = node;
+      this.params = params;
+      this.type = type;
+      this.executor = executor;
+      this.closed = closed;
+    }
+
+    boolean isCompleted() {
+      return pending == null && !page.hasNext();
+    }
+
+    void fetch(String cursor) {
+      CommandArguments args = new CommandArguments(Protocol.Command.SCAN).add(cursor).addParams(params);
+      if (type != null) {
+        args.add(Keyword.TYPE).add(type);
+      }
+      if (closed.get()) {
+        return;
+      }
+      pending = CompletableFuture.supplyAsync(() -> BuilderFactory.SCAN_RESPONSE.build(execute(args)), executor);
+      if (closed.get()) {
+        // closed concurrently, after the cancellation of the previous fetch
+        cancel();
+      }
+    }
+
+    void cancel() {
+      CompletableFuture<ScanResult<String>> fetch = pending;
+      if (fetch != null) {
+        fetch.cancel(false);
+      }
+    }
+
+    /**
+     * Takes the fetched page and starts fetching the next one.
+     */
+    void nextPage() {
+      ScanResult<String> reply;
+      try {
+        reply = pending.join();
+      } catch (CancellationException cancelled) {
+        // closed
+        pending = null;
+        return;
+      } catch (CompletionException ce) {
+        pending = null;
+        throw ce.getCause() instanceof JedisException ? (JedisException) ce.getCause()
+            : new JedisException(ce.getCause());
+      }
+      pending = null;
+      if (!reply.isCompleteIteration()) {
+        fetch(reply.getCursor());
+      }
+      page = reply.getResult().iterator();
+    }
+
+    private Object execute(CommandArguments args) {
+      if (node instanceof Connection) {
+        return ((Connection) node).executeCommand(args);
+      } else if (node instanceof Pool) {
+        try (Connection c = ((Pool<Connection>) node).getResource()) {
+          return c.executeCommand(args);
+        }
+      } else {
+        throw new IllegalArgumentException(node.getClass() + " is not supported.");
+      }
+    }
+  }
+}
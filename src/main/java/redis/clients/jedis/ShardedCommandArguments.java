@@ -1,5 +1,8 @@
 package redis.clients.jedis;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import redis.clients.jedis.commands.ProtocolCommand;
@@ -15,6 +18,8 @@ public class ShardedCommandArguments extends CommandArguments {
   private final Hashing algo;
   private final Pattern tagPattern;
   private Long keyHash = null;
+  private Object firstKey = null;
+  private List<Object> keys = null;
 
   public ShardedCommandArguments(Hashing algo, ProtocolCommand command) {
     this(algo, null, command);
@@ -30,8 +35,31 @@ public class ShardedCommandArguments extends CommandArguments {
     return keyHash;
   }
 
+  /**
+   * @return the keys ({@link String} or {@code byte[]}) of the command, as given
+   */
+  public List<Object> getKeys() {
+    if (keys != null) {
+      return keys;
+    }
+    return firstKey == null ? Collections.emptyList() : Collections.singletonList(firstKey);
+  }
+
+  private void recordKey(Object key) {
+    if (firstKey == null) {
+      firstKey = key;
+    } else {
+      if (keys == null) {
+        keys = new ArrayList<>();
+        keys.add(firstKey);
+      }
+      keys.add(key);
+    }
+  }
+
   @Override
   protected CommandArguments processKey(byte[] key) {
+    recordKey(key);
     final long hash = algo.hash(key);
     if (keyHash == null) {
       keyHash = hash;
@@ -43,6 +71,7 @@ public class ShardedCommandArguments extends CommandArguments {
 
   @Override
   protected CommandArguments processKey(String key) {
+    recordKey(key);
     key = getKeyTag(key);
     final long hash = algo.hash(key);
     if (keyHash == null) {
@@ -9,12 +9,23 @@ import redis.clients.jedis.util.IOUtils;
 
 /**
  * WARNING: RESP3 is not properly implemented for ShardedPipeline.
+ * <p>
+ * The commands of each shard are flushed once about {@link #DEFAULT_FLUSH_THRESHOLD} bytes are
+ * appended, and the replies of all shards are read concurrently in {@link #sync()}. See
+ * {@link #setFlushThreshold(int)} and {@link #setSyncWorkers(int)}.
  *
  * @deprecated Sharding/Sharded feature will be removed in next major release.
  */
 @Deprecated
 public class ShardedPipeline extends MultiNodePipelineBase {
 
+  /**
+   * A quarter of the default 8 KB output buffer of a connection: a shard starts executing its commands while
+   * the pipeline is still being filled, instead of only when its buffer is full, and a socket write
+   * still carries a few dozen small commands.
+   */
+  public static final int DEFAULT_FLUSH_THRESHOLD = 2048;
+
   private final ShardedConnectionProvider provider;
   private AutoCloseable closeable = null;
 
@@ -26,6 +37,8 @@ public class ShardedPipeline extends MultiNodePipelineBase {
   public ShardedPipeline(ShardedConnectionProvider provider) {
     super(new ShardedCommandObjects(provider.getHashingAlgo()));
     this.provider = provider;
+    setSyncWorkers(0);
+    setFlushThreshold(DEFAULT_FLUSH_THRESHOLD);
   }
 
   public ShardedPipeline(List<HostAndPort> shards, JedisClientConfig clientConfig,
@@ -37,6 +50,8 @@ public class ShardedPipeline extends MultiNodePipelineBase {
   public ShardedPipeline(ShardedConnectionProvider provider, Pattern tagPattern) {
     super(new ShardedCommandObjects(provider.getHashingAlgo(), tagPattern));
     this.provider = provider;
+    setSyncWorkers(0);
+    setFlushThreshold(DEFAULT_FLUSH_THRESHOLD);
   }
 
   @Override
@@ -16,13 +16,21 @@ public class StreamEntryID implements Comparable<StreamEntryID>, Serializable {
   }
 
   public StreamEntryID(byte[] id) {
-    this(SafeEncoder.encode(id));
+    int dash = indexOfDash(id);
+    if (dash < 0) {
+      throw new IllegalArgumentException("Invalid stream entry ID: " + SafeEncoder.encode(id));
+    }
+    this.time = parseLong(id, 0, dash);
+    this.sequence = parseLong(id, dash + 1, id.length);
   }
 
   public StreamEntryID(String id) {
-    String[] split = id.split("-");
-    this.time = Long.parseLong(split[0]);
-    this.sequence = Long.parseLong(split[1]);
+    int dash = id.indexOf('-');
+    if (dash < 0) {
+      throw new IllegalArgumentException("Invalid stream entry ID: " + id);
+    }
+    this.time = parseLong(id, 0, dash);
+    this.sequence = parseLong(id, dash + 1, id.length());
   }
 
   public StreamEntryID(long time) {
@@ -67,6 +75,45 @@ public class StreamEntryID implements Comparable<StreamEntryID>, Serializable {
     return sequence;
   }
 
+  private static int indexOfDash(byte[] id) {
+    for (int i = 0; i < id.length; i++) {
+      if (id[i] == '-') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static long parseLong(byte[] id, int from, int to) {
+    if (from == to) {
+      throw new NumberFormatException("Empty part of stream entry ID: " + SafeEncoder.encode(id));
+    }
+    long value = 0;
+    for (int i = from; i < to; i++) {
+      int digit = id[i] - '0';
+      if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+        throw new NumberFormatException("Invalid stream entry ID: " + SafeEncoder.encode(id));
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  private static long parseLong(String id, int from, int to) {
+    if (from == to) {
+      throw new NumberFormatException("Empty part of stream entry ID: " + id);
+    }
+    long value = 0;
+    for (int i = from; i < to; i++) {
+      int digit = id.charAt(i) - '0';
+      if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+        throw new NumberFormatException("Invalid stream entry ID: " + id);
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
   private void writeObject(java.io.ObjectOutputStream out) throws IOException {
     out.writeLong(this.time);
     out.writeLong(this.sequence);
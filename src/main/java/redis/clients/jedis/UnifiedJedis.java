@@ -2,10 +2,17 @@ package redis.clients.jedis;
 
 import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.json.JSONArray;
 
@@ -40,7 +47,10 @@ import redis.clients.jedis.search.*;
 import redis.clients.jedis.search.aggr.AggregationBuilder;
 import redis.clients.jedis.search.aggr.AggregationResult;
 import redis.clients.jedis.search.aggr.FtAggregateIteration;
+import redis.clients.jedis.search.aggr.FtAggregateSpliterator;
+import redis.clients.jedis.search.aggr.Row;
 import redis.clients.jedis.search.schemafields.SchemaField;
+import redis.clients.jedis.streams.StreamRangeIteration;
 import redis.clients.jedis.timeseries.*;
 import redis.clients.jedis.util.IOUtils;
 import redis.clients.jedis.util.JedisURIHelper;
@@ -56,6 +66,9 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
   protected final CommandObjects commandObjects;
   private final GraphCommandObjects graphCommandObjects;
   private JedisBroadcastAndRoundRobinConfig broadcastAndRoundRobinConfig = null;
+  private volatile List<CommandInterceptor> commandInterceptors = Collections.emptyList();
+  private volatile CommandInterceptorChain executeChain = null;
+  private volatile CommandInterceptorChain broadcastChain = null;
 
   public UnifiedJedis() {
     this(new HostAndPort(Protocol.DEFAULT_HOST, Protocol.DEFAULT_PORT));
@@ -253,11 +266,91 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
   }
 
   public final <T> T executeCommand(CommandObject<T> commandObject) {
-    return executor.executeCommand(commandObject);
+    CommandInterceptorChain chain = executeChain;
+    return chain == null ? executor.executeCommand(commandObject) : chain.proceed(commandObject);
   }
 
   public final <T> T broadcastCommand(CommandObject<T> commandObject) {
-    return executor.broadcastCommand(commandObject);
+    CommandInterceptorChain chain = broadcastChain;
+    return chain == null ? executor.broadcastCommand(commandObject) : chain.proceed(commandObject);
+  }
+
+  /**
+   * Sets the interceptors of the commands executed by this client and of the pipelines created by
+   * {@link #pipelined()} afterwards.
+   *
+   * @param interceptors run in the order of the list; empty for none
+   */
+  @Experimental
+  public void setCommandInterceptors(List<CommandInterceptor> interceptors) {
+    List<CommandInterceptor> list = Collections.unmodifiableList(new ArrayList<>(interceptors));
+    this.executeChain = CommandInterceptorChain.of(list, commandObjects,
+        new CommandInterceptorChain.Execution() {
+          @Override
+          public <T> T execute(CommandObject<T> commandObject) {
+            return executor.executeCommand(commandObject);
+          }
+        });
+    this.broadcastChain = CommandInterceptorChain.of(list, commandObjects,
+        new CommandInterceptorChain.Execution() {
+          @Override
+          public <T> T execute(CommandObject<T> commandObject) {
+            return executor.broadcastCommand(commandObject);
+          }
+        });
+    this.commandInterceptors = list;
+  }
+
+  @Experimental
+  public List<CommandInterceptor> getCommandInterceptors() {
+    return commandInterceptors;
+  }
+
+  /**
+   * Executes the chunks of a variadic command with {@link CommandExecutor#executeCommands(List)} and
+   * aggregates their replies. With command interceptors, the chunks are executed one by one.
+   *
+   * @see #setVariadicChunking(int, int)
+   */
+  private <T> T executeChunks(List<CommandObject<T>> chunks, BinaryOperator<T> aggregator) {
+    if (chunks.size() == 1) {
+      return executeCommand(chunks.get(0));
+    }
+
+    T result = null;
+    if (executeChain != null) {
+      for (CommandObject<T> chunk : chunks) {
+        T reply = executeCommand(chunk);
+        result = result == null ? reply : aggregator.apply(result, reply);
+      }
+      return result;
+    }
+
+    List<T> replies = executor.executeCommands(chunks);
+    result = replies.get(0);
+    for (int i = 1; i < replies.size(); i++) {
+      result = aggregator.apply(result, replies.get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Splits huge DEL, MSET, RPUSH, HSET, SADD and ZADD commands into chunks. With a pooled or single
+   * connection, the chunks are pipelined over one connection; with retries, cluster redirections or
+   * failover, each chunk is executed as a separate command. The replies of the chunks are
+   * aggregated: integer replies are summed, except for RPUSH which replies the length of the list
+   * after the last chunk.
+   * <p>
+   * A chunked command is not atomic; e.g. another client may see a partial MSET.
+   *
+   * @param maxElements maximum number of elements (members, fields or key-value pairs) per chunk,
+   * {@code 0} for no limit
+   * @param maxBytes maximum size of the elements per chunk, {@code 0} for no limit
+   * @see CommandObjects#setVariadicChunking(int, int)
+   */
+  @Experimental
+  public void setVariadicChunking(int maxElements, int maxBytes) {
+    commandObjects.setVariadicChunking(maxElements, maxBytes);
   }
 
   private <T> T checkAndBroadcastCommand(CommandObject<T> commandObject) {
@@ -561,7 +654,8 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
 
   @Override
   public long del(String... keys) {
-    return executeCommand(commandObjects.del(keys));
+    return commandObjects.isVariadicChunking() ? executeChunks(commandObjects.delChunks(keys), Long::sum)
+        : executeCommand(commandObjects.del(keys));
   }
 
   @Override
@@ -581,7 +675,8 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
 
   @Override
   public long del(byte[]... keys) {
-    return executeCommand(commandObjects.del(keys));
+    return commandObjects.isVariadicChunking() ? executeChunks(commandObjects.delChunks(keys), Long::sum)
+        : executeCommand(commandObjects.del(keys));
   }
 
   @Override
@@ -687,6 +782,62 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return new ScanIteration(provider, batchCount, match, type);
   }
 
+  /**
+   * Scans all nodes (the primaries, in cluster mode) concurrently on {@code executor} and prefetches
+   * the next page of each node while the current one is consumed. See {@link ScanSpliterator}.
+   * <p>
+   * The returned stream should be closed if it is not fully consumed.
+   *
+   * @param params MATCH and COUNT options
+   * @param type key type, may be {@code null}
+   * @param executor runs the SCAN commands
+   * @return stream of keys
+   */
+  public Stream<String> scanStream(ScanParams params, String type, Executor executor) {
+    return new ScanSpliterator(getScanNodes(), params, type, executor).stream();
+  }
+
+  /**
+   * Prepares an operation which applies {@code command} to each key returned by SCAN on all nodes
+   * (the primaries, in cluster mode). See {@link ScanBulkOperation}.
+   *
+   * @param params MATCH and COUNT options
+   * @param type key type, may be {@code null}
+   * @param command creates the command for a key
+   * @return the operation, to be configured and run
+   */
+  @Experimental
+  public <T> ScanBulkOperation<T> scanAndApply(ScanParams params, String type,
+      Function<String, CommandObject<T>> command) {
+    return new ScanBulkOperation<>(getScanNodes(), params, type, command);
+  }
+
+  @Experimental
+  public ScanBulkOperation<Long> scanAndUnlink(ScanParams params) {
+    return scanAndApply(params, null, commandObjects::unlink);
+  }
+
+  @Experimental
+  public ScanBulkOperation<Long> scanAndExpire(ScanParams params, String type, long seconds) {
+    return scanAndApply(params, type, key -> commandObjects.expire(key, seconds));
+  }
+
+  @Experimental
+  public ScanBulkOperation<String> scanAndType(ScanParams params) {
+    return scanAndApply(params, null, commandObjects::type);
+  }
+
+  @Experimental
+  public ScanBulkOperation<Long> scanAndMemoryUsage(ScanParams params, String type) {
+    return scanAndApply(params, type, commandObjects::memoryUsage);
+  }
+
+  private Collection<?> getScanNodes() {
+    return provider instanceof ClusterConnectionProvider
+        ? ((ClusterConnectionProvider) provider).getPrimaryNodes().values()
+        : provider.getConnectionMap().values();
+  }
+
   @Override
   public Set<byte[]> keys(byte[] pattern) {
     return executeCommand(commandObjects.keys(pattern));
@@ -934,7 +1085,8 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
 
   @Override
   public String mset(String... keysvalues) {
-    return executeCommand(commandObjects.mset(keysvalues));
+    return commandObjects.isVariadicChunking() ? executeChunks(commandObjects.msetChunks(keysvalues), (first, second) -> second)
+        : executeCommand(commandObjects.mset(keysvalues));
   }
 
   @Override
@@ -949,7 +1101,8 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
 
   @Override
   public String mset(byte[]... keysvalues) {
-    return executeCommand(commandObjects.mset(keysvalues));
+    return commandObjects.isVariadicChunking() ? executeChunks(commandObjects.msetChunks(keysvalues), (first, second) -> second)
+        : executeCommand(commandObjects.mset(keysvalues));
   }
 
   @Override
@@ -1081,7 +1234,8 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
   // List commands
   @Override
   public long rpush(String key, String... string) {
-    return executeCommand(commandObjects.rpush(key, string));
+    return commandObjects.isVariadicChunking() ? executeChunks(commandObjects.rpushChunks(key, string), (first, second) -> second)
+        : executeCommand(commandObjects.rpush(key, string));
   }
 
   @Override
@@ -1111,7 +1265,8 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
 
   @Override
   public long rpush(byte[] key, byte[]... args) {
-    return executeCommand(commandObjects.rpush(key, args));
+    return commandObjects.isVariadicChunking() ? executeChunks(commandObjects.rpushChunks(key, args), (first, second) -> second)
+        : executeCommand(commandObjects.rpush(key, args));
   }
 
   @Override
@@ -1408,7 +1563,8 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
 
   @Override
   public long hset(String key, Map<String, String> hash) {
-    return executeCommand(commandObjects.hset(key, hash));
+    return commandObjects.isVariadicChunking() ? executeChunks(commandObjects.hsetChunks(key, hash), Long::sum)
+        : executeCommand(commandObjects.hset(key, hash));
   }
 
   @Override
@@ -1438,7 +1594,8 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
 
   @Override
   public long hset(byte[] key, Map<byte[], byte[]> hash) {
-    return executeCommand(commandObjects.hset(key, hash));
+    return commandObjects.isVariadicChunking() ? executeChunks(commandObjects.hsetChunks(key, hash), Long::sum)
+        : executeCommand(commandObjects.hset(key, hash));
   }
 
   @Override
@@ -1605,7 +1762,8 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
   // Set commands
   @Override
   public long sadd(String key, String... members) {
-    return executeCommand(commandObjects.sadd(key, members));
+    return commandObjects.isVariadicChunking() ? executeChunks(commandObjects.saddChunks(key, members), Long::sum)
+        : executeCommand(commandObjects.sadd(key, members));
   }
 
   @Override
@@ -1645,7 +1803,8 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
 
   @Override
   public long sadd(byte[] key, byte[]... members) {
-    return executeCommand(commandObjects.sadd(key, members));
+    return commandObjects.isVariadicChunking() ? executeChunks(commandObjects.saddChunks(key, members), Long::sum)
+        : executeCommand(commandObjects.sadd(key, members));
   }
 
   @Override
@@ -1817,12 +1976,14 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
 
   @Override
   public long zadd(String key, Map<String, Double> scoreMembers) {
-    return executeCommand(commandObjects.zadd(key, scoreMembers));
+    return commandObjects.isVariadicChunking() ? executeChunks(commandObjects.zaddChunks(key, scoreMembers), Long::sum)
+        : executeCommand(commandObjects.zadd(key, scoreMembers));
   }
 
   @Override
   public long zadd(String key, Map<String, Double> scoreMembers, ZAddParams params) {
-    return executeCommand(commandObjects.zadd(key, scoreMembers, params));
+    return commandObjects.isVariadicChunking() ? executeChunks(commandObjects.zaddChunks(key, scoreMembers, params), Long::sum)
+        : executeCommand(commandObjects.zadd(key, scoreMembers, params));
   }
 
   @Override
@@ -1842,12 +2003,14 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
 
   @Override
   public long zadd(byte[] key, Map<byte[], Double> scoreMembers) {
-    return executeCommand(commandObjects.zadd(key, scoreMembers));
+    return commandObjects.isVariadicChunking() ? executeChunks(commandObjects.zaddChunks(key, scoreMembers), Long::sum)
+        : executeCommand(commandObjects.zadd(key, scoreMembers));
   }
 
   @Override
   public long zadd(byte[] key, Map<byte[], Double> scoreMembers, ZAddParams params) {
-    return executeCommand(commandObjects.zadd(key, scoreMembers, params));
+    return commandObjects.isVariadicChunking() ? executeChunks(commandObjects.zaddChunks(key, scoreMembers, params), Long::sum)
+        : executeCommand(commandObjects.zadd(key, scoreMembers, params));
   }
 
   @Override
@@ -2958,6 +3121,30 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.xrevrange(key, end, start, count));
   }
 
+  /**
+   * Iterates the entries of a stream from {@code start} to {@code end}, by pages of XRANGE. See
+   * {@link StreamRangeIteration}.
+   *
+   * @param batchSize COUNT for each page
+   * @return stream range iteration
+   */
+  @Experimental
+  public StreamRangeIteration xrangeIteration(int batchSize, String key, String start, String end) {
+    return new StreamRangeIteration(provider, commandObjects, batchSize, key, start, end, false);
+  }
+
+  /**
+   * Iterates the entries of a stream from {@code end} back to {@code start}, by pages of XREVRANGE.
+   * See {@link StreamRangeIteration}.
+   *
+   * @param batchSize COUNT for each page
+   * @return stream range iteration
+   */
+  @Experimental
+  public StreamRangeIteration xrevrangeIteration(int batchSize, String key, String end, String start) {
+    return new StreamRangeIteration(provider, commandObjects, batchSize, key, end, start, true);
+  }
+
   @Override
   public long xack(String key, String group, StreamEntryID... ids) {
     return executeCommand(commandObjects.xack(key, group, ids));
@@ -3748,6 +3935,48 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return new FtSearchIteration(provider, commandObjects.getProtocol(), batchSize, indexName, query);
   }
 
+  /**
+   * Runs FT.SEARCH on all nodes (the primaries, in cluster mode) concurrently on {@code executor}
+   * and merges their results, for an index of an OSS cluster. See {@link FtSearchFanOut}.
+   *
+   * @param indexName index name
+   * @param query query
+   * @param params the LIMIT applies to the merged results
+   * @param executor runs the search commands
+   * @return the merged search result
+   */
+  @Experimental
+  public SearchResult ftSearchAllNodes(String indexName, String query, FTSearchParams params, Executor executor) {
+    return new FtSearchFanOut(getScanNodes(), commandObjects.getProtocol(),
+        commandObjects.getDefaultSearchDialect(), executor).search(indexName, query, params);
+  }
+
+  /**
+   * Runs FT.SEARCH on all nodes (the primaries, in cluster mode) concurrently on {@code executor}
+   * and merges their results, for an index of an OSS cluster. See {@link FtSearchFanOut}.
+   *
+   * @param indexName index name
+   * @param query the LIMIT applies to the merged results
+   * @param executor runs the search commands
+   * @return the merged search result
+   */
+  @Experimental
+  public SearchResult ftSearchAllNodes(String indexName, Query query, Executor executor) {
+    return new FtSearchFanOut(getScanNodes(), commandObjects.getProtocol(),
+        commandObjects.getDefaultSearchDialect(), executor).search(indexName, query);
+  }
+
+  /**
+   * Prepares a loader which writes hashes with vector fields by pipelined batches of HSET commands.
+   * See {@link VectorLoader}.
+   *
+   * @return the loader, to be closed when all hashes are written
+   */
+  @Experimental
+  public VectorLoader vectorLoader() {
+    return new VectorLoader(this, commandObjects::hsetObjects);
+  }
+
   @Override
   @Deprecated
   public SearchResult ftSearch(byte[] indexName, Query query) {
@@ -3789,6 +4018,27 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return new FtAggregateIteration(provider, indexName, aggr);
   }
 
+  /**
+   * Streams the rows of an aggregation with a cursor on all nodes (the primaries, in cluster mode).
+   * The next page of each node is read on {@code executor} while the current one is consumed. See
+   * {@link FtAggregateSpliterator}.
+   * <p>
+   * The rows of the nodes are interleaved, not merged, so with more than one node only row-level
+   * pipelines are accepted, i.e. without GROUPBY, SORTBY and LIMIT.
+   * <p>
+   * The returned stream should be closed if it is not fully consumed.
+   *
+   * @param indexName index name
+   * @param aggr cursor must be set
+   * @param executor runs the aggregation and cursor commands
+   * @return stream of rows
+   */
+  @Experimental
+  public Stream<Row> ftAggregateStream(String indexName, AggregationBuilder aggr, Executor executor) {
+    return new FtAggregateSpliterator(getScanNodes(), indexName, aggr,
+        commandObjects.getDefaultSearchDialect(), executor).stream();
+  }
+
   @Override
   public Map.Entry<AggregationResult, Map<String, Object>> ftProfileAggregate(String indexName,
       FTProfileParams profileParams, AggregationBuilder aggr) {
@@ -4445,7 +4695,7 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
 
   @Override
   public TSInfo tsInfo(String key) {
-    return executor.executeCommand(commandObjects.tsInfo(key));
+    return executeCommand(commandObjects.tsInfo(key));
   }
 
   @Override
@@ -4871,11 +5121,15 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
   public PipelineBase pipelined() {
     if (provider == null) {
       throw new IllegalStateException("It is not allowed to create Pipeline from this " + getClass());
-    } else if (provider instanceof MultiClusterPooledConnectionProvider) {
-      return new MultiClusterPipeline((MultiClusterPooledConnectionProvider) provider, commandObjects);
+    }
+    PipelineBase pipeline;
+    if (provider instanceof MultiClusterPooledConnectionProvider) {
+      pipeline = new MultiClusterPipeline((MultiClusterPooledConnectionProvider) provider, commandObjects);
     } else {
-      return new Pipeline(provider.getConnection(), true);
+      pipeline = new Pipeline(provider.getConnection(), true);
     }
+    pipeline.setCommandInterceptors(commandInterceptors);
+    return pipeline;
   }
 
   /**
@@ -10,4 +10,12 @@ public interface Rawable {
    * @return binary
    */
   byte[] getRaw();
+
+  /**
+   * Get the length of the byte array, without encoding it if possible.
+   * @return length of binary
+   */
+  default int getRawLength() {
+    return getRaw().length;
+  }
 }
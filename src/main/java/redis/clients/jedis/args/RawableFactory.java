@@ -2,7 +2,12 @@ package redis.clients.jedis.args;
 
 import static redis.clients.jedis.Protocol.toByteArray;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.util.Arrays;
+import redis.clients.jedis.util.RedisOutputStream;
 import redis.clients.jedis.util.SafeEncoder;
 
 /**
@@ -37,6 +42,26 @@ public final class RawableFactory {
     return new Raw(binary);
   }
 
+  /**
+   * Get a {@link Rawable} from a copy of a vector of floats, so the array may be reused right away,
+   * e.g. while the command is queued in a pipeline. Use {@link #from(FloatBuffer)} to avoid the copy.
+   * @param floats vector
+   * @return raw
+   */
+  public static Rawable from(float[] floats) {
+    return new RawFloats(FloatBuffer.wrap(floats.clone()));
+  }
+
+  /**
+   * Get a {@link Rawable} from the remaining floats of a buffer, which may be direct, without
+   * copying them. The floats must not be modified until the command is sent.
+   * @param floats vector
+   * @return raw
+   */
+  public static Rawable from(FloatBuffer floats) {
+    return new RawFloats(floats);
+  }
+
   /**
    * Get a {@link Rawable} from a {@link String}.
    * @param string value
@@ -92,6 +117,47 @@ public final class RawableFactory {
     }
   }
 
+  /**
+   * A {@link Rawable} of a vector of floats, in little-endian order as expected by RediSearch. The
+   * floats are encoded directly into the output buffer when the command is sent.
+   */
+  public static class RawFloats implements Rawable {
+
+    private final FloatBuffer floats;
+
+    public RawFloats(FloatBuffer floats) {
+      this.floats = floats.duplicate();
+    }
+
+    @Override
+    public byte[] getRaw() {
+      ByteBuffer bytes = ByteBuffer.allocate(getRawLength()).order(ByteOrder.LITTLE_ENDIAN);
+      bytes.asFloatBuffer().put(floats.duplicate());
+      return bytes.array();
+    }
+
+    @Override
+    public int getRawLength() {
+      return floats.remaining() * Float.BYTES;
+    }
+
+    public void writeTo(RedisOutputStream out) throws IOException {
+      out.writeFloatsLittleEndian(floats);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      return floats.equals(((RawFloats) o).floats);
+    }
+
+    @Override
+    public int hashCode() {
+      return floats.hashCode();
+    }
+  }
+
   private RawableFactory() {
     throw new InstantiationError();
   }
@@ -0,0 +1,23 @@
+package redis.clients.jedis.exceptions;
+
+/**
+ * The time budget of a {@link redis.clients.jedis.CommandDeadline} has been spent before the
+ * command (including pool borrow, read and retries) could complete. This is not an error reply from
+ * Redis.
+ */
+public class JedisDeadlineExceededException extends JedisException {
+
+  private static final long serialVersionUID = -4391635466624780203L;
+
+  public JedisDeadlineExceededException(String message) {
+    super(message);
+  }
+
+  public JedisDeadlineExceededException(Throwable cause) {
+    super(cause);
+  }
+
+  public JedisDeadlineExceededException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
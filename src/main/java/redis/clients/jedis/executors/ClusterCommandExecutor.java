@@ -8,6 +8,7 @@ import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import redis.clients.jedis.CommandDeadline;
 import redis.clients.jedis.CommandObject;
 import redis.clients.jedis.Connection;
 import redis.clients.jedis.ConnectionPool;
@@ -15,6 +16,7 @@ import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.Protocol;
 import redis.clients.jedis.annots.VisibleForTesting;
 import redis.clients.jedis.exceptions.*;
+import redis.clients.jedis.jfr.JedisEvents;
 import redis.clients.jedis.providers.ClusterConnectionProvider;
 import redis.clients.jedis.util.IOUtils;
 
@@ -74,6 +76,7 @@ public class ClusterCommandExecutor implements CommandExecutor {
   @Override
   public final <T> T executeCommand(CommandObject<T> commandObject) {
     Instant deadline = Instant.now().plus(maxTotalRetriesDuration);
+    CommandDeadline commandDeadline = CommandDeadline.current();
 
     JedisRedirectionException redirect = null;
     int consecutiveConnectionFailures = 0;
@@ -99,8 +102,10 @@ public class ClusterCommandExecutor implements CommandExecutor {
         lastException = jce;
         ++consecutiveConnectionFailures;
         log.debug("Failed connecting to Redis: {}", connection, jce);
+        checkCommandDeadline(commandDeadline, lastException);
         // "- 1" because we just did one, but the attemptsLeft counter hasn't been decremented yet
-        boolean reset = handleConnectionProblem(attemptsLeft - 1, consecutiveConnectionFailures, deadline);
+        boolean reset = handleConnectionProblem(attemptsLeft - 1, consecutiveConnectionFailures, deadline,
+            commandDeadline);
         if (reset) {
           consecutiveConnectionFailures = 0;
           redirect = null;
@@ -111,6 +116,8 @@ public class ClusterCommandExecutor implements CommandExecutor {
           lastException = jre;
         }
         log.debug("Redirected by server to {}", jre.getTargetNode());
+        JedisEvents.redirect(jre instanceof JedisMovedDataException, jre.getSlot(),
+            String.valueOf(jre.getTargetNode()));
         consecutiveConnectionFailures = 0;
         redirect = jre;
         // if MOVED redirection occurred,
@@ -121,6 +128,7 @@ public class ClusterCommandExecutor implements CommandExecutor {
       } finally {
         IOUtils.closeQuietly(connection);
       }
+      checkCommandDeadline(commandDeadline, lastException);
       if (Instant.now().isAfter(deadline)) {
         throw new JedisClusterOperationException("Cluster retry deadline exceeded.");
       }
@@ -132,6 +140,17 @@ public class ClusterCommandExecutor implements CommandExecutor {
     throw maxAttemptsException;
   }
 
+  private static void checkCommandDeadline(CommandDeadline commandDeadline, Exception lastException) {
+    if (commandDeadline != null && commandDeadline.isExpired()) {
+      JedisDeadlineExceededException deadlineException
+          = new JedisDeadlineExceededException("Command deadline exceeded.");
+      if (lastException != null) {
+        deadlineException.addSuppressed(lastException);
+      }
+      throw deadlineException;
+    }
+  }
+
   /**
    * WARNING: This method is accessible for the purpose of testing.
    * This should not be used or overriden.
@@ -147,10 +166,12 @@ public class ClusterCommandExecutor implements CommandExecutor {
    * @param attemptsLeft
    * @param consecutiveConnectionFailures
    * @param doneDeadline
+   * @param commandDeadline
    * @return true - if some actions are taken
    * <br /> false - if no actions are taken
    */
-  private boolean handleConnectionProblem(int attemptsLeft, int consecutiveConnectionFailures, Instant doneDeadline) {
+  private boolean handleConnectionProblem(int attemptsLeft, int consecutiveConnectionFailures, Instant doneDeadline,
+      CommandDeadline commandDeadline) {
     if (this.maxAttempts < 3) {
       // Since we only renew the slots cache after two consecutive connection
       // failures (see consecutiveConnectionFailures above), we need to special
@@ -168,7 +189,11 @@ public class ClusterCommandExecutor implements CommandExecutor {
       return false;
     }
 
-    sleep(getBackoffSleepMillis(attemptsLeft, doneDeadline));
+    long sleepMillis = getBackoffSleepMillis(attemptsLeft, doneDeadline);
+    if (commandDeadline != null) {
+      sleepMillis = Math.min(sleepMillis, commandDeadline.remaining().toMillis());
+    }
+    sleep(sleepMillis);
     //We need this because if node is not reachable anymore - we need to finally initiate slots
     //renewing, or we can stuck with cluster state without one node in opposite case.
     //TODO make tracking of successful/unsuccessful operations for node - do renewing only
@@ -1,5 +1,8 @@
 package redis.clients.jedis.executors;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import redis.clients.jedis.CommandObject;
 
 public interface CommandExecutor extends AutoCloseable {
@@ -9,4 +12,20 @@ public interface CommandExecutor extends AutoCloseable {
   default <T> T broadcastCommand(CommandObject<T> commandObject) {
     return executeCommand(commandObject);
   }
+
+  /**
+   * Executes commands which are routed to the same node, e.g. the chunks of a variadic command. By
+   * default, the commands are executed one by one with {@link #executeCommand(CommandObject)}, so
+   * each of them is retried and redirected like a single command.
+   *
+   * @param commandObjects non blocking commands
+   * @return the replies, in the order of the commands
+   */
+  default <T> List<T> executeCommands(List<CommandObject<T>> commandObjects) {
+    List<T> replies = new ArrayList<>(commandObjects.size());
+    for (CommandObject<T> commandObject : commandObjects) {
+      replies.add(executeCommand(commandObject));
+    }
+    return replies;
+  }
 }
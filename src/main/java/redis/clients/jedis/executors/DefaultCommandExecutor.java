@@ -1,5 +1,7 @@
 package redis.clients.jedis.executors;
 
+import java.util.List;
+
 import redis.clients.jedis.CommandObject;
 import redis.clients.jedis.Connection;
 import redis.clients.jedis.util.IOUtils;
@@ -24,4 +26,14 @@ public class DefaultCommandExecutor implements CommandExecutor {
       return connection.executeCommand(commandObject);
     }
   }
+
+  /**
+   * Pipelines the commands over one connection.
+   */
+  @Override
+  public <T> List<T> executeCommands(List<CommandObject<T>> commandObjects) {
+    try (Connection connection = provider.getConnection(commandObjects.get(0).getArguments())) {
+      return connection.executeCommands(commandObjects);
+    }
+  }
 }
@@ -0,0 +1,289 @@
+package redis.clients.jedis.executors;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.CommandDeadline;
+import redis.clients.jedis.CommandObject;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.commands.ProtocolCommand;
+import redis.clients.jedis.exceptions.JedisDeadlineExceededException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.providers.ConnectionProvider;
+import redis.clients.jedis.util.IOUtils;
+
+/**
+ * A {@link CommandExecutor} which hedges read-only commands to replicas. If the primary executor
+ * has not replied within the hedge delay, the same command is sent to a replica and whichever reply
+ * arrives first is returned.
+ * <p>
+ * The hedge delay is a percentile of the recently observed primary latencies, bounded by a minimum
+ * and a maximum delay. Until enough latencies are observed, the maximum delay is used. Blocking
+ * commands and commands which are not {@link #isHedgeable(CommandArguments) hedgeable} are executed
+ * by the primary executor only.
+ * <p>
+ * For Redis Cluster the replicas can be reached by a {@link
+ * redis.clients.jedis.providers.ClusterReplicaConnectionProvider}; for Sentinel or standalone
+ * deployments, any provider connected to a replica can be used.
+ * <p>
+ * The commands are run on the given {@link ExecutorService}, which is not shut down by
+ * {@link #close()}. Hedged commands reply stale data if the replica lags behind.
+ */
+@Experimental
+public class HedgedReadCommandExecutor implements CommandExecutor {
+
+  public static final Set<ProtocolCommand> DEFAULT_HEDGEABLE_COMMANDS = Collections.unmodifiableSet(
+      new HashSet<>(EnumSet.of(Command.GET, Command.MGET, Command.GETRANGE, Command.STRLEN,
+          Command.EXISTS, Command.TYPE, Command.TTL, Command.PTTL, Command.GETBIT, Command.BITCOUNT,
+          Command.HGET, Command.HMGET, Command.HGETALL, Command.HEXISTS, Command.HLEN, Command.HKEYS,
+          Command.HVALS, Command.HSTRLEN, Command.LRANGE, Command.LINDEX, Command.LLEN, Command.LPOS,
+          Command.SMEMBERS, Command.SISMEMBER, Command.SMISMEMBER, Command.SCARD,
+          Command.ZRANGE, Command.ZRANGEBYSCORE, Command.ZREVRANGE, Command.ZREVRANGEBYSCORE,
+          Command.ZSCORE, Command.ZMSCORE, Command.ZCARD, Command.ZRANK, Command.ZREVRANK,
+          Command.ZCOUNT, Command.PFCOUNT, Command.XRANGE, Command.XREVRANGE, Command.XLEN,
+          Command.GEOPOS, Command.GEODIST)));
+
+  private final CommandExecutor primary;
+  private final ConnectionProvider replicas;
+  private final ExecutorService executorService;
+  private final Set<ProtocolCommand> hedgeableCommands;
+  private final double percentile;
+  private final long minDelayNanos;
+  private final long maxDelayNanos;
+
+  private final LatencyWindow latencies = new LatencyWindow();
+  private final LongAdder reads = new LongAdder();
+  private final LongAdder hedges = new LongAdder();
+  private final LongAdder hedgeWins = new LongAdder();
+
+  /**
+   * @param primary executor of all commands
+   * @param replicas provider of the replica connections for hedged reads
+   * @param executorService runs the primary and the hedged commands
+   * @param percentile percentile of the primary latencies used as hedge delay, e.g. {@code 0.95}
+   * @param minDelay lower bound of the hedge delay
+   * @param maxDelay upper bound of the hedge delay
+   */
+  public HedgedReadCommandExecutor(CommandExecutor primary, ConnectionProvider replicas,
+      ExecutorService executorService, double percentile, Duration minDelay, Duration maxDelay) {
+    this(primary, replicas, executorService, percentile, minDelay, maxDelay, DEFAULT_HEDGEABLE_COMMANDS);
+  }
+
+  public HedgedReadCommandExecutor(CommandExecutor primary, ConnectionProvider replicas,
+      ExecutorService executorService, double percentile, Duration minDelay, Duration maxDelay,
+      Set<ProtocolCommand> hedgeableCommands) {
+    if (percentile <= 0 || percentile > 1) {
+      throw new IllegalArgumentException("Percentile must be in (0, 1].");
+    }
+    if (minDelay.compareTo(maxDelay) > 0) {
+      throw new IllegalArgumentException("Minimum hedge delay must not be greater than the maximum.");
+    }
+    this.primary = primary;
+    this.replicas = replicas;
+    this.executorService = executorService;
+    this.percentile = percentile;
+    this.minDelayNanos = minDelay.toNanos();
+    this.maxDelayNanos = maxDelay.toNanos();
+    this.hedgeableCommands = hedgeableCommands;
+  }
+
+  @Override
+  public void close() {
+    IOUtils.closeQuietly(replicas);
+    IOUtils.closeQuietly(primary);
+  }
+
+  @Override
+  public <T> T broadcastCommand(CommandObject<T> commandObject) {
+    return primary.broadcastCommand(commandObject);
+  }
+
+  @Override
+  public <T> T executeCommand(CommandObject<T> commandObject) {
+    if (!isHedgeable(commandObject.getArguments())) {
+      return primary.executeCommand(commandObject);
+    }
+
+    reads.increment();
+    final CommandDeadline deadline = CommandDeadline.current();
+    final long start = System.nanoTime();
+    CompletableFuture<T> primaryFuture = CompletableFuture.supplyAsync(() -> {
+      try (CommandDeadline taskDeadline = deadline == null ? null : CommandDeadline.start(deadline.remaining())) {
+        T reply = primary.executeCommand(commandObject);
+        latencies.record(System.nanoTime() - start);
+        return reply;
+      }
+    }, executorService);
+
+    long delayNanos = getHedgeDelayNanos();
+    if (deadline != null) {
+      delayNanos = Math.min(delayNanos, Math.max(0, deadline.remainingNanos()));
+    }
+    try {
+      return primaryFuture.get(delayNanos, TimeUnit.NANOSECONDS);
+    } catch (TimeoutException te) {
+      // hedge below
+    } catch (ExecutionException ee) {
+      throw toJedisException(ee.getCause());
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new JedisException(ie);
+    }
+
+    hedges.increment();
+    CompletableFuture<T> hedgeFuture = CompletableFuture.supplyAsync(() -> {
+      try (CommandDeadline taskDeadline = deadline == null ? null : CommandDeadline.start(deadline.remaining());
+          Connection connection = replicas.getConnection(commandObject.getArguments())) {
+        return connection.executeCommand(commandObject);
+      }
+    }, executorService);
+
+    CompletableFuture<T> winner = new CompletableFuture<>();
+    AtomicBoolean replied = new AtomicBoolean();
+    AtomicReference<Throwable> primaryError = new AtomicReference<>();
+    primaryFuture.whenComplete((reply, error) -> {
+      if (error == null) {
+        if (replied.compareAndSet(false, true)) {
+          winner.complete(reply);
+        }
+      } else {
+        primaryError.set(unwrap(error));
+        if (hedgeFuture.isCompletedExceptionally()) {
+          winner.completeExceptionally(primaryError.get());
+        }
+      }
+    });
+    hedgeFuture.whenComplete((reply, error) -> {
+      if (error == null) {
+        if (replied.compareAndSet(false, true)) {
+          hedgeWins.increment();
+          winner.complete(reply);
+        }
+      } else if (primaryFuture.isCompletedExceptionally()) {
+        Throwable first = primaryError.get();
+        if (first != null) {
+          first.addSuppressed(unwrap(error));
+          winner.completeExceptionally(first);
+        }
+      }
+    });
+
+    try {
+      return deadline == null ? winner.get() : winner.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException te) {
+      throw new JedisDeadlineExceededException("Command deadline exceeded while waiting for hedged reads.");
+    } catch (ExecutionException ee) {
+      throw toJedisException(ee.getCause());
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new JedisException(ie);
+    }
+  }
+
+  /**
+   * @return {@code true} if the command may be sent to a replica
+   */
+  protected boolean isHedgeable(CommandArguments args) {
+    return !args.isBlocking() && hedgeableCommands.contains(args.getCommand());
+  }
+
+  public Duration getHedgeDelay() {
+    return Duration.ofNanos(getHedgeDelayNanos());
+  }
+
+  /**
+   * @return number of hedgeable commands executed
+   */
+  public long getReadCount() {
+    return reads.sum();
+  }
+
+  /**
+   * @return number of hedgeable commands which were also sent to a replica
+   */
+  public long getHedgeCount() {
+    return hedges.sum();
+  }
+
+  /**
+   * @return number of hedged commands whose replica reply arrived first
+   */
+  public long getHedgeWinCount() {
+    return hedgeWins.sum();
+  }
+
+  private long getHedgeDelayNanos() {
+    long observed = latencies.percentile(percentile);
+    if (observed < 0) {
+      return maxDelayNanos;
+    }
+    return Math.max(minDelayNanos, Math.min(maxDelayNanos, observed));
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+  }
+
+  private static JedisException toJedisException(Throwable error) {
+    error = unwrap(error);
+    return error instanceof JedisException ? (JedisException) error : new JedisException(error);
+  }
+
+  /**
+   * A fixed size window of the most recent latencies. The percentile is recomputed only every
+   * {@link #REFRESH_INTERVAL} records, so recording stays cheap.
+   */
+  private static class LatencyWindow {
+
+    private static final int SIZE = 1024;
+    private static final int REFRESH_INTERVAL = 128;
+
+    private final AtomicLongArray samples = new AtomicLongArray(SIZE);
+    private final AtomicLong count = new AtomicLong();
+    private volatile long[] sorted = null;
+
+    void record(long nanos) {
+      long n = count.getAndIncrement();
+      samples.set((int) (n & (SIZE - 1)), nanos);
+      if ((n + 1) % REFRESH_INTERVAL == 0) {
+        int size = (int) Math.min(n + 1, SIZE);
+        long[] snapshot = new long[size];
+        for (int i = 0; i < size; i++) {
+          snapshot[i] = samples.get(i);
+        }
+        Arrays.sort(snapshot);
+        sorted = snapshot;
+      }
+    }
+
+    /**
+     * @return the percentile, or {@code -1} if not enough latencies are recorded yet
+     */
+    long percentile(double percentile) {
+      long[] snapshot = sorted;
+      if (snapshot == null) {
+        return -1;
+      }
+      int index = (int) Math.ceil(percentile * snapshot.length) - 1;
+      return snapshot[Math.max(0, Math.min(snapshot.length - 1, index))];
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package redis.clients.jedis.executors;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.CommandObject;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.ReshardingMover;
+import redis.clients.jedis.ShardedCommandArguments;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.commands.ProtocolCommand;
+import redis.clients.jedis.providers.ReshardingConnectionProvider;
+import redis.clients.jedis.util.IOUtils;
+
+/**
+ * A {@link CommandExecutor} for the migration between the shards of a
+ * {@link ReshardingConnectionProvider}.
+ * <p>
+ * Commands on keys whose owner did not change are executed as usual. For a key whose owner changed:
+ * <ul>
+ * <li>a {@link #isFallbackRead(CommandArguments) fallback read} is executed on the new owner, and
+ * if it {@link #isMiss(Object) misses}, on the previous owner;</li>
+ * <li>any other command first moves the keys of the command from the previous owner to the new one
+ * (see {@link ReshardingMover#moveKeys(Connection, Connection, java.util.List)}) and is then
+ * executed on the new owner.</li>
+ * </ul>
+ */
+@Experimental
+public class ReshardingCommandExecutor implements CommandExecutor {
+
+  public static final Set<ProtocolCommand> DEFAULT_FALLBACK_READ_COMMANDS = Collections.unmodifiableSet(
+      new HashSet<>(EnumSet.of(Command.GET, Command.EXISTS, Command.HGET, Command.HGETALL,
+          Command.HKEYS, Command.HVALS, Command.HEXISTS, Command.LRANGE, Command.LINDEX,
+          Command.SMEMBERS, Command.SISMEMBER, Command.ZRANGE, Command.ZRANGEBYSCORE, Command.ZSCORE,
+          Command.XRANGE)));
+
+  private final ReshardingConnectionProvider provider;
+  private final Set<ProtocolCommand> fallbackReadCommands;
+
+  public ReshardingCommandExecutor(ReshardingConnectionProvider provider) {
+    this(provider, DEFAULT_FALLBACK_READ_COMMANDS);
+  }
+
+  public ReshardingCommandExecutor(ReshardingConnectionProvider provider,
+      Set<ProtocolCommand> fallbackReadCommands) {
+    this.provider = provider;
+    this.fallbackReadCommands = fallbackReadCommands;
+  }
+
+  @Override
+  public void close() {
+    IOUtils.closeQuietly(this.provider);
+  }
+
+  @Override
+  public <T> T executeCommand(CommandObject<T> commandObject) {
+    final CommandArguments args = commandObject.getArguments();
+    final Long hash = args instanceof ShardedCommandArguments
+        ? ((ShardedCommandArguments) args).getKeyHash() : null;
+
+    if (hash == null || !provider.isMoved(hash)) {
+      try (Connection connection = provider.getConnection(args)) {
+        return connection.executeCommand(commandObject);
+      }
+    }
+
+    if (isFallbackRead(args)) {
+      T reply;
+      try (Connection connection = provider.getConnection(args)) {
+        reply = connection.executeCommand(commandObject);
+      }
+      if (!isMiss(reply)) {
+        return reply;
+      }
+      try (Connection previous = provider.getConnection(provider.getPreviousNode(hash))) {
+        return previous.executeCommand(commandObject);
+      }
+    }
+
+    try (Connection previous = provider.getConnection(provider.getPreviousNode(hash));
+        Connection connection = provider.getConnection(args)) {
+      ReshardingMover.moveKeys(previous, connection, ((ShardedCommandArguments) args).getKeys());
+      return connection.executeCommand(commandObject);
+    }
+  }
+
+  /**
+   * @return {@code true} if the command is read from the previous owner when it misses on the new one
+   */
+  protected boolean isFallbackRead(CommandArguments args) {
+    return fallbackReadCommands.contains(args.getCommand());
+  }
+
+  /**
+   * @return {@code true} if the reply means that the key does not exist
+   */
+  protected boolean isMiss(Object reply) {
+    return reply == null || Boolean.FALSE.equals(reply)
+        || (reply instanceof Collection && ((Collection<?>) reply).isEmpty())
+        || (reply instanceof Map && ((Map<?, ?>) reply).isEmpty());
+  }
+}
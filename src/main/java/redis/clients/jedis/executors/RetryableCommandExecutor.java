@@ -6,10 +6,12 @@ import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import redis.clients.jedis.CommandDeadline;
 import redis.clients.jedis.CommandObject;
 import redis.clients.jedis.Connection;
 import redis.clients.jedis.annots.VisibleForTesting;
 import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDeadlineExceededException;
 import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.util.IOUtils;
 import redis.clients.jedis.providers.ConnectionProvider;
@@ -38,6 +40,7 @@ public class RetryableCommandExecutor implements CommandExecutor {
   public final <T> T executeCommand(CommandObject<T> commandObject) {
 
     Instant deadline = Instant.now().plus(maxTotalRetriesDuration);
+    CommandDeadline commandDeadline = CommandDeadline.current();
 
     int consecutiveConnectionFailures = 0;
     JedisException lastException = null;
@@ -52,8 +55,10 @@ public class RetryableCommandExecutor implements CommandExecutor {
         lastException = jce;
         ++consecutiveConnectionFailures;
         log.debug("Failed connecting to Redis: {}", connection, jce);
+        checkCommandDeadline(commandDeadline, lastException);
         // "- 1" because we just did one, but the attemptsLeft counter hasn't been decremented yet
-        boolean reset = handleConnectionProblem(attemptsLeft - 1, consecutiveConnectionFailures, deadline);
+        boolean reset = handleConnectionProblem(attemptsLeft - 1, consecutiveConnectionFailures, deadline,
+            commandDeadline);
         if (reset) {
           consecutiveConnectionFailures = 0;
         }
@@ -62,6 +67,7 @@ public class RetryableCommandExecutor implements CommandExecutor {
           connection.close();
         }
       }
+      checkCommandDeadline(commandDeadline, lastException);
       if (Instant.now().isAfter(deadline)) {
         throw new JedisException("Retry deadline exceeded.");
       }
@@ -72,6 +78,17 @@ public class RetryableCommandExecutor implements CommandExecutor {
     throw maxAttemptsException;
   }
 
+  private static void checkCommandDeadline(CommandDeadline commandDeadline, Exception lastException) {
+    if (commandDeadline != null && commandDeadline.isExpired()) {
+      JedisDeadlineExceededException deadlineException
+          = new JedisDeadlineExceededException("Command deadline exceeded.");
+      if (lastException != null) {
+        deadlineException.addSuppressed(lastException);
+      }
+      throw deadlineException;
+    }
+  }
+
   /**
    * WARNING: This method is accessible for the purpose of testing.
    * This should not be used or overriden.
@@ -87,16 +104,22 @@ public class RetryableCommandExecutor implements CommandExecutor {
    * @param attemptsLeft
    * @param consecutiveConnectionFailures
    * @param doneDeadline
+   * @param commandDeadline
    * @return true - if some actions are taken
    * <br /> false - if no actions are taken
    */
-  private boolean handleConnectionProblem(int attemptsLeft, int consecutiveConnectionFailures, Instant doneDeadline) {
+  private boolean handleConnectionProblem(int attemptsLeft, int consecutiveConnectionFailures, Instant doneDeadline,
+      CommandDeadline commandDeadline) {
 
     if (consecutiveConnectionFailures < 2) {
       return false;
     }
 
-    sleep(getBackoffSleepMillis(attemptsLeft, doneDeadline));
+    long sleepMillis = getBackoffSleepMillis(attemptsLeft, doneDeadline);
+    if (commandDeadline != null) {
+      sleepMillis = Math.min(sleepMillis, commandDeadline.remaining().toMillis());
+    }
+    sleep(sleepMillis);
     return true;
   }
 
@@ -1,5 +1,7 @@
 package redis.clients.jedis.executors;
 
+import java.util.List;
+
 import redis.clients.jedis.CommandObject;
 import redis.clients.jedis.Connection;
 import redis.clients.jedis.util.IOUtils;
@@ -21,4 +23,12 @@ public class SimpleCommandExecutor implements CommandExecutor {
   public final <T> T executeCommand(CommandObject<T> commandObject) {
     return connection.executeCommand(commandObject);
   }
+
+  /**
+   * Pipelines the commands over the connection.
+   */
+  @Override
+  public <T> List<T> executeCommands(List<CommandObject<T>> commandObjects) {
+    return connection.executeCommands(commandObjects);
+  }
 }
@@ -0,0 +1,33 @@
+package redis.clients.jedis.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("redis.clients.jedis.Command")
+@Label("Command")
+@Description("Execution of a command, from sending it to reading its reply")
+@Category({ "Redis", "Jedis" })
+@Enabled(false)
+@StackTrace(false)
+class CommandEvent extends Event {
+
+  @Label("Command")
+  String command;
+
+  @Label("Node")
+  String node;
+
+  @Label("Request Size")
+  @Description("Size of the arguments of the command")
+  @DataAmount
+  long requestSize;
+
+  @Label("Error")
+  String error;
+}
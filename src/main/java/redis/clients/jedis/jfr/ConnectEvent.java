@@ -0,0 +1,24 @@
+package redis.clients.jedis.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("redis.clients.jedis.Connect")
+@Label("Connect")
+@Description("Creating the socket of a connection")
+@Category({ "Redis", "Jedis" })
+@Enabled(false)
+@StackTrace(false)
+class ConnectEvent extends Event {
+
+  @Label("Node")
+  String node;
+
+  @Label("Error")
+  String error;
+}
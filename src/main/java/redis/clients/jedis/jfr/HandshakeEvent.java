@@ -0,0 +1,27 @@
+package redis.clients.jedis.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("redis.clients.jedis.Handshake")
+@Label("Handshake")
+@Description("Initializing a connection by HELLO or AUTH, SELECT and CLIENT SETNAME/SETINFO")
+@Category({ "Redis", "Jedis" })
+@Enabled(false)
+@StackTrace(false)
+class HandshakeEvent extends Event {
+
+  @Label("Node")
+  String node;
+
+  @Label("Protocol")
+  String protocol;
+
+  @Label("Error")
+  String error;
+}
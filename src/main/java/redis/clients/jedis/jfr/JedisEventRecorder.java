@@ -0,0 +1,46 @@
+package redis.clients.jedis.jfr;
+
+/**
+ * Creates and commits the events. An event is {@code null} if its type is not enabled.
+ */
+interface JedisEventRecorder {
+
+  default Object beginCommand() {
+    return null;
+  }
+
+  default void commitCommand(Object event, String command, String node, long requestSize,
+      Throwable error) {
+  }
+
+  default Object beginPoolWait() {
+    return null;
+  }
+
+  default void commitPoolWait(Object event, int active, int idle, Throwable error) {
+  }
+
+  default Object beginConnect() {
+    return null;
+  }
+
+  default void commitConnect(Object event, String node, Throwable error) {
+  }
+
+  default Object beginHandshake() {
+    return null;
+  }
+
+  default void commitHandshake(Object event, String node, String protocol, Throwable error) {
+  }
+
+  default Object beginSlotsRenewal() {
+    return null;
+  }
+
+  default void commitSlotsRenewal(Object event, String node) {
+  }
+
+  default void redirect(boolean moved, int slot, String target) {
+  }
+}
@@ -0,0 +1,94 @@
+package redis.clients.jedis.jfr;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.annots.Internal;
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Records the JDK Flight Recorder events of Jedis:
+ * <ul>
+ * <li>{@code redis.clients.jedis.Command}: execution of a command by a connection;</li>
+ * <li>{@code redis.clients.jedis.PoolWait}: borrowing a connection from a pool;</li>
+ * <li>{@code redis.clients.jedis.Connect} and {@code redis.clients.jedis.Handshake}: establishing
+ * and initializing a connection;</li>
+ * <li>{@code redis.clients.jedis.SlotsRenewal} and {@code redis.clients.jedis.Redirect}: renewals
+ * of the slot cache and MOVED/ASK replies in a cluster.</li>
+ * </ul>
+ * The event types are disabled by default and are enabled by the settings of a recording, e.g. a
+ * {@code .jfc} file or {@code jdk.jfr.Recording#enable(String)}. While an event type is disabled,
+ * its events are not created. On a JVM without the {@code jdk.jfr} API, no events are
+ * recorded.
+ */
+@Internal
+public final class JedisEvents {
+
+  private static final JedisEventRecorder RECORDER = loadRecorder();
+
+  private JedisEvents() {
+    throw new InstantiationError("Must not instantiate this class");
+  }
+
+  private static JedisEventRecorder loadRecorder() {
+    try {
+      Class.forName("jdk.jfr.Event");
+      return (JedisEventRecorder) Class.forName("redis.clients.jedis.jfr.JfrEventRecorder")
+          .getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError | SecurityException e) {
+      return new JedisEventRecorder() { };
+    }
+  }
+
+  /**
+   * @return the event to pass to {@link #commitCommand(Object, CommandArguments, String, Throwable)},
+   * {@code null} if the event type is disabled
+   */
+  public static Object beginCommand() {
+    return RECORDER.beginCommand();
+  }
+
+  public static void commitCommand(Object event, CommandArguments args, String node, Throwable error) {
+    long requestSize = 0;
+    for (Rawable arg : args) {
+      requestSize += arg.getRawLength();
+    }
+    RECORDER.commitCommand(event, SafeEncoder.encode(args.getCommand().getRaw()), node,
+        requestSize, error);
+  }
+
+  public static Object beginPoolWait() {
+    return RECORDER.beginPoolWait();
+  }
+
+  public static void commitPoolWait(Object event, int active, int idle, Throwable error) {
+    RECORDER.commitPoolWait(event, active, idle, error);
+  }
+
+  public static Object beginConnect() {
+    return RECORDER.beginConnect();
+  }
+
+  public static void commitConnect(Object event, String node, Throwable error) {
+    RECORDER.commitConnect(event, node, error);
+  }
+
+  public static Object beginHandshake() {
+    return RECORDER.beginHandshake();
+  }
+
+  public static void commitHandshake(Object event, String node, String protocol, Throwable error) {
+    RECORDER.commitHandshake(event, node, protocol, error);
+  }
+
+  public static Object beginSlotsRenewal() {
+    return RECORDER.beginSlotsRenewal();
+  }
+
+  public static void commitSlotsRenewal(Object event, String node) {
+    RECORDER.commitSlotsRenewal(event, node);
+  }
+
+  public static void redirect(boolean moved, int slot, String target) {
+    RECORDER.redirect(moved, slot, target);
+  }
+}
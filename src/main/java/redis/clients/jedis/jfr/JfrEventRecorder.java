@@ -0,0 +1,140 @@
+package redis.clients.jedis.jfr;
+
+/**
+ * Records the events by JFR. Loaded only if the {@code jdk.jfr} API is available.
+ */
+class JfrEventRecorder implements JedisEventRecorder {
+
+  // instances to check whether the event types are enabled, without allocating
+  private static final CommandEvent COMMAND = new CommandEvent();
+  private static final PoolWaitEvent POOL_WAIT = new PoolWaitEvent();
+  private static final ConnectEvent CONNECT = new ConnectEvent();
+  private static final HandshakeEvent HANDSHAKE = new HandshakeEvent();
+  private static final SlotsRenewalEvent SLOTS_RENEWAL = new SlotsRenewalEvent();
+  private static final RedirectEvent REDIRECT = new RedirectEvent();
+
+  private static String errorOf(Throwable error) {
+    return error == null ? null : error.getClass().getName() + ": " + error.getMessage();
+  }
+
+  @Override
+  public Object beginCommand() {
+    if (!COMMAND.isEnabled()) {
+      return null;
+    }
+    CommandEvent event = new CommandEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void commitCommand(Object event, String command, String node, long requestSize,
+      Throwable error) {
+    CommandEvent e = (CommandEvent) event;
+    e.end();
+    if (e.shouldCommit()) {
+      e.command = command;
+      e.node = node;
+      e.requestSize = requestSize;
+      e.error = errorOf(error);
+      e.commit();
+    }
+  }
+
+  @Override
+  public Object beginPoolWait() {
+    if (!POOL_WAIT.isEnabled()) {
+      return null;
+    }
+    PoolWaitEvent event = new PoolWaitEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void commitPoolWait(Object event, int active, int idle, Throwable error) {
+    PoolWaitEvent e = (PoolWaitEvent) event;
+    e.end();
+    if (e.shouldCommit()) {
+      e.active = active;
+      e.idle = idle;
+      e.error = errorOf(error);
+      e.commit();
+    }
+  }
+
+  @Override
+  public Object beginConnect() {
+    if (!CONNECT.isEnabled()) {
+      return null;
+    }
+    ConnectEvent event = new ConnectEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void commitConnect(Object event, String node, Throwable error) {
+    ConnectEvent e = (ConnectEvent) event;
+    e.end();
+    if (e.shouldCommit()) {
+      e.node = node;
+      e.error = errorOf(error);
+      e.commit();
+    }
+  }
+
+  @Override
+  public Object beginHandshake() {
+    if (!HANDSHAKE.isEnabled()) {
+      return null;
+    }
+    HandshakeEvent event = new HandshakeEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void commitHandshake(Object event, String node, String protocol, Throwable error) {
+    HandshakeEvent e = (HandshakeEvent) event;
+    e.end();
+    if (e.shouldCommit()) {
+      e.node = node;
+      e.protocol = protocol;
+      e.error = errorOf(error);
+      e.commit();
+    }
+  }
+
+  @Override
+  public Object beginSlotsRenewal() {
+    if (!SLOTS_RENEWAL.isEnabled()) {
+      return null;
+    }
+    SlotsRenewalEvent event = new SlotsRenewalEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void commitSlotsRenewal(Object event, String node) {
+    SlotsRenewalEvent e = (SlotsRenewalEvent) event;
+    e.end();
+    if (e.shouldCommit()) {
+      e.node = node;
+      e.commit();
+    }
+  }
+
+  @Override
+  public void redirect(boolean moved, int slot, String target) {
+    if (!REDIRECT.isEnabled()) {
+      return;
+    }
+    RedirectEvent event = new RedirectEvent();
+    event.type = moved ? "MOVED" : "ASK";
+    event.slot = slot;
+    event.target = target;
+    event.commit();
+  }
+}
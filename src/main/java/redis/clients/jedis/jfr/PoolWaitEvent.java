@@ -0,0 +1,27 @@
+package redis.clients.jedis.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("redis.clients.jedis.PoolWait")
+@Label("Connection Pool Wait")
+@Description("Borrowing a connection from a ConnectionPool")
+@Category({ "Redis", "Jedis" })
+@Enabled(false)
+@StackTrace(false)
+class PoolWaitEvent extends Event {
+
+  @Label("Active Connections")
+  int active;
+
+  @Label("Idle Connections")
+  int idle;
+
+  @Label("Error")
+  String error;
+}
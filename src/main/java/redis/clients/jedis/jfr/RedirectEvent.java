@@ -0,0 +1,28 @@
+package redis.clients.jedis.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("redis.clients.jedis.Redirect")
+@Label("Cluster Redirect")
+@Description("MOVED or ASK reply of a cluster node")
+@Category({ "Redis", "Jedis" })
+@Enabled(false)
+@StackTrace(false)
+class RedirectEvent extends Event {
+
+  @Label("Type")
+  String type;
+
+  @Label("Slot")
+  int slot;
+
+  @Label("Target")
+  @Description("Node the command is redirected to")
+  String target;
+}
@@ -0,0 +1,22 @@
+package redis.clients.jedis.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("redis.clients.jedis.SlotsRenewal")
+@Label("Cluster Slots Renewal")
+@Description("Renewal of the slot cache of a cluster client")
+@Category({ "Redis", "Jedis" })
+@Enabled(false)
+@StackTrace(false)
+class SlotsRenewalEvent extends Event {
+
+  @Label("Node")
+  @Description("Node the slots are discovered from, none if the renewal failed")
+  String node;
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains the JDK Flight Recorder events of Jedis.
+ */
+package redis.clients.jedis.jfr;
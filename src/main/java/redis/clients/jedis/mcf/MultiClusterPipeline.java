@@ -41,6 +41,11 @@ public class MultiClusterPipeline extends PipelineBase implements Closeable {
 
   @Override
   protected final <T> Response<T> appendCommand(CommandObject<T> commandObject) {
+    return interceptCommand(commandObject);
+  }
+
+  @Override
+  protected final <T> Response<T> queueCommand(CommandObject<T> commandObject) {
     CommandArguments args = commandObject.getArguments();
     Response<T> response = new Response<>(commandObject.getBuilder());
     commands.add(KeyValue.of(args, response));
@@ -0,0 +1,279 @@
+package redis.clients.jedis.metrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.util.MurmurHash;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Detects hot keys from a sample of the commands sent by the connections.
+ * <p>
+ * The first key of one of every {@code samplingInterval} commands is counted in a count-min sketch
+ * of the node the command is sent to, and the keys with the highest estimated counts are kept in a
+ * top-K heap. The counts are kept per time window; {@link #getHotKeys()} returns the hot keys of the
+ * last complete window. The memory is bounded by the size of the sketch and {@code topK} keys per
+ * node.
+ * <p>
+ * The detector is opt-in: it is used by the connections created with a
+ * {@link redis.clients.jedis.JedisClientConfig} which returns it from
+ * {@link redis.clients.jedis.JedisClientConfig#getHotKeyDetector()}. Commands on connections whose
+ * node is not known, i.e. which are not created by a
+ * {@link redis.clients.jedis.DefaultJedisSocketFactory}, are not sampled.
+ */
+@Experimental
+public class HotKeyDetector {
+
+  public static final int DEFAULT_SAMPLING_INTERVAL = 64;
+  public static final Duration DEFAULT_WINDOW = Duration.ofSeconds(10);
+  public static final int DEFAULT_TOP_K = 16;
+
+  private static final int SKETCH_DEPTH = 4;
+  private static final int SKETCH_WIDTH = 2048;
+
+  private final int samplingInterval;
+  private final long windowNanos;
+  private final int topK;
+  private final LongSupplier nanoTime;
+
+  private final Map<HostAndPort, NodeSketch> nodes = new ConcurrentHashMap<>();
+
+  public HotKeyDetector() {
+    this(DEFAULT_SAMPLING_INTERVAL, DEFAULT_WINDOW, DEFAULT_TOP_K);
+  }
+
+  /**
+   * @param samplingInterval one of this many commands is sampled
+   * @param window the time window of the counts
+   * @param topK the number of hot keys per node
+   */
+  public HotKeyDetector(int samplingInterval, Duration window, int topK) {
+    this(samplingInterval, window, topK, System::nanoTime);
+  }
+
+  HotKeyDetector(int samplingInterval, Duration window, int topK, LongSupplier nanoTime) {
+    if (samplingInterval < 1) {
+      throw new IllegalArgumentException("Sampling interval must be positive.");
+    }
+    if (window.isNegative() || window.isZero()) {
+      throw new IllegalArgumentException("Window must be positive.");
+    }
+    if (topK < 1) {
+      throw new IllegalArgumentException("Top-K must be positive.");
+    }
+    this.samplingInterval = samplingInterval;
+    this.windowNanos = window.toNanos();
+    this.topK = topK;
+    this.nanoTime = nanoTime;
+  }
+
+  /**
+   * Samples a command.
+   *
+   * @param node the node the command is sent to
+   * @param args the command
+   */
+  public void record(HostAndPort node, CommandArguments args) {
+    if (samplingInterval > 1 && ThreadLocalRandom.current().nextInt(samplingInterval) != 0) {
+      return;
+    }
+    Rawable key = args.getFirstKey();
+    if (key == null || node == null) {
+      return;
+    }
+    NodeSketch sketch = nodes.get(node);
+    if (sketch == null) {
+      sketch = nodes.computeIfAbsent(node, n -> new NodeSketch(nanoTime.getAsLong()));
+    }
+    sketch.add(key.getRaw(), nanoTime.getAsLong());
+  }
+
+  /**
+   * @return the hot keys of the last complete window by node, hottest first
+   */
+  public Map<HostAndPort, List<HotKey>> getHotKeys() {
+    Map<HostAndPort, List<HotKey>> hotKeys = new HashMap<>();
+    long now = nanoTime.getAsLong();
+    nodes.forEach((node, sketch) -> {
+      List<HotKey> list = sketch.getHotKeys(now);
+      if (!list.isEmpty()) {
+        hotKeys.put(node, list);
+      }
+    });
+    return hotKeys;
+  }
+
+  /**
+   * @return the hot keys of the node in the last complete window, hottest first
+   */
+  public List<HotKey> getHotKeys(HostAndPort node) {
+    NodeSketch sketch = nodes.get(node);
+    return sketch == null ? Collections.emptyList() : sketch.getHotKeys(nanoTime.getAsLong());
+  }
+
+  private static final class Key {
+
+    private final byte[] raw;
+    private final int hash;
+
+    Key(byte[] raw) {
+      this.raw = raw;
+      this.hash = Arrays.hashCode(raw);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key && Arrays.equals(raw, ((Key) o).raw);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static final class Candidate {
+
+    private final Key key;
+    private long count;
+
+    Candidate(Key key, long count) {
+      this.key = key;
+      this.count = count;
+    }
+  }
+
+  /**
+   * The counts of a node in the current window.
+   */
+  private final class NodeSketch {
+
+    private final long[] counts = new long[SKETCH_DEPTH * SKETCH_WIDTH];
+    private final Map<Key, Candidate> candidates = new HashMap<>();
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(
+        Comparator.comparingLong(candidate -> candidate.count));
+    private long total = 0;
+    private long windowStart;
+    private List<HotKey> lastWindow = Collections.emptyList();
+
+    NodeSketch(long now) {
+      this.windowStart = now;
+    }
+
+    synchronized void add(byte[] raw, long now) {
+      roll(now);
+      total++;
+
+      long hash = MurmurHash.hash64A(raw, 0x1234ABCD);
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      long estimate = Long.MAX_VALUE;
+      for (int row = 0; row < SKETCH_DEPTH; row++) {
+        int column = ((h1 + row * h2) & Integer.MAX_VALUE) % SKETCH_WIDTH;
+        estimate = Math.min(estimate, ++counts[row * SKETCH_WIDTH + column]);
+      }
+
+      Key key = new Key(raw);
+      Candidate candidate = candidates.get(key);
+      if (candidate != null) {
+        heap.remove(candidate);
+        candidate.count = estimate;
+        heap.add(candidate);
+      } else if (candidates.size() < topK) {
+        candidate = new Candidate(new Key(raw.clone()), estimate);
+        candidates.put(candidate.key, candidate);
+        heap.add(candidate);
+      } else if (estimate > heap.peek().count) {
+        candidates.remove(heap.poll().key);
+        candidate = new Candidate(new Key(raw.clone()), estimate);
+        candidates.put(candidate.key, candidate);
+        heap.add(candidate);
+      }
+    }
+
+    synchronized List<HotKey> getHotKeys(long now) {
+      roll(now);
+      return lastWindow;
+    }
+
+    private void roll(long now) {
+      long elapsed = now - windowStart;
+      if (elapsed < windowNanos) {
+        return;
+      }
+      if (elapsed < 2 * windowNanos) {
+        List<HotKey> hotKeys = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates.values()) {
+          hotKeys.add(new HotKey(candidate.key.raw, candidate.count * samplingInterval,
+              (double) candidate.count / total));
+        }
+        hotKeys.sort(Comparator.comparingLong(HotKey::getEstimatedCount).reversed());
+        lastWindow = Collections.unmodifiableList(hotKeys);
+        windowStart += windowNanos;
+      } else {
+        // no commands in the last complete window
+        lastWindow = Collections.emptyList();
+        windowStart = now - elapsed % windowNanos;
+      }
+      Arrays.fill(counts, 0);
+      candidates.clear();
+      heap.clear();
+      total = 0;
+    }
+  }
+
+  public static class HotKey {
+
+    private final byte[] key;
+    private final long estimatedCount;
+    private final double share;
+
+    HotKey(byte[] key, long estimatedCount, double share) {
+      this.key = key;
+      this.estimatedCount = estimatedCount;
+      this.share = share;
+    }
+
+    public String getKey() {
+      return SafeEncoder.encode(key);
+    }
+
+    public byte[] getBinaryKey() {
+      return key;
+    }
+
+    /**
+     * @return the estimated number of commands on the key in the window
+     */
+    public long getEstimatedCount() {
+      return estimatedCount;
+    }
+
+    /**
+     * @return the estimated share of the key in the commands with keys sent to the node, between 0
+     * and 1
+     */
+    public double getShare() {
+      return share;
+    }
+
+    @Override
+    public String toString() {
+      return "HotKey{key=" + getKey() + ", estimatedCount=" + estimatedCount + ", share=" + share + "}";
+    }
+  }
+}
@@ -0,0 +1,281 @@
+package redis.clients.jedis.metrics;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.commands.ProtocolCommand;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Client metrics: latency histograms per command and per node, bytes written and read, the wait
+ * time for pooled connections and error counts.
+ * <p>
+ * The metrics are opt-in. They are recorded by the connections and pools created with a
+ * {@link redis.clients.jedis.JedisClientConfig} which returns this instance from
+ * {@link redis.clients.jedis.JedisClientConfig#getMetrics()}. A command latency is the time from
+ * sending the command to building its reply in
+ * {@link redis.clients.jedis.Connection#executeCommand(redis.clients.jedis.CommandObject)}, which
+ * all {@link redis.clients.jedis.executors.CommandExecutor}s go through; pipelined and transactional
+ * commands are counted in the bytes only.
+ * <p>
+ * The values are cumulative. {@link #snapshot()} may be polled periodically to bridge the metrics
+ * to another metrics library.
+ */
+@Experimental
+public class JedisMetrics {
+
+  private final Map<Object, CommandMetrics> commands = new ConcurrentHashMap<>();
+  private final Map<HostAndPort, LatencyHistogram> nodes = new ConcurrentHashMap<>();
+  private final LatencyHistogram poolWait = new LatencyHistogram();
+
+  private final LongAdder bytesWritten = new LongAdder();
+  private final LongAdder bytesRead = new LongAdder();
+  private final LongAdder dataErrors = new LongAdder();
+  private final LongAdder connectionErrors = new LongAdder();
+  private final LongAdder otherErrors = new LongAdder();
+  private final LongAdder poolErrors = new LongAdder();
+
+  private static class CommandMetrics {
+    final String name;
+    final LatencyHistogram latency = new LatencyHistogram();
+    final LongAdder errors = new LongAdder();
+
+    CommandMetrics(String name) {
+      this.name = name;
+    }
+  }
+
+  /**
+   * @param command the command
+   * @param node the node the command is executed on, may be {@code null} if it is not known
+   * @param nanos the latency
+   * @param error the error of the command, {@code null} if it succeeded
+   */
+  public void recordCommand(ProtocolCommand command, HostAndPort node, long nanos, Throwable error) {
+    CommandMetrics metrics = commandMetrics(command);
+    metrics.latency.record(nanos);
+    if (node != null) {
+      LatencyHistogram histogram = nodes.get(node);
+      if (histogram == null) {
+        histogram = nodes.computeIfAbsent(node, n -> new LatencyHistogram());
+      }
+      histogram.record(nanos);
+    }
+    if (error != null) {
+      metrics.errors.increment();
+      if (error instanceof JedisDataException) {
+        dataErrors.increment();
+      } else if (error instanceof JedisConnectionException) {
+        connectionErrors.increment();
+      } else {
+        otherErrors.increment();
+      }
+    }
+  }
+
+  private CommandMetrics commandMetrics(ProtocolCommand command) {
+    // enum commands are their own keys; other commands may be new instances for every call
+    Object key = command instanceof Enum ? command : SafeEncoder.encode(command.getRaw());
+    CommandMetrics metrics = commands.get(key);
+    if (metrics == null) {
+      metrics = commands.computeIfAbsent(key,
+          k -> new CommandMetrics(SafeEncoder.encode(command.getRaw())));
+    }
+    return metrics;
+  }
+
+  /**
+   * @param nanos the time spent waiting for a pooled connection
+   * @param error the error of the borrow, {@code null} if a connection was borrowed
+   */
+  public void recordPoolWait(long nanos, Throwable error) {
+    poolWait.record(nanos);
+    if (error != null) {
+      poolErrors.increment();
+    }
+  }
+
+  public void recordBytesWritten(long bytes) {
+    bytesWritten.add(bytes);
+  }
+
+  public void recordBytesRead(long bytes) {
+    bytesRead.add(bytes);
+  }
+
+  /**
+   * @return a stream which counts the bytes written to {@code out}
+   */
+  public OutputStream countingOutputStream(OutputStream out) {
+    return new FilterOutputStream(out) {
+      @Override
+      public void write(int b) throws IOException {
+        out.write(b);
+        bytesWritten.increment();
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        bytesWritten.add(len);
+      }
+    };
+  }
+
+  /**
+   * @return a stream which counts the bytes read from {@code in}
+   */
+  public InputStream countingInputStream(InputStream in) {
+    return new FilterInputStream(in) {
+      @Override
+      public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+          bytesRead.increment();
+        }
+        return b;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        if (n > 0) {
+          bytesRead.add(n);
+        }
+        return n;
+      }
+    };
+  }
+
+  public Snapshot snapshot() {
+    Map<String, LatencyHistogram.Snapshot> commandLatencies = new HashMap<>();
+    Map<String, Long> commandErrors = new HashMap<>();
+    for (CommandMetrics metrics : commands.values()) {
+      commandLatencies.put(metrics.name, metrics.latency.snapshot());
+      commandErrors.put(metrics.name, metrics.errors.sum());
+    }
+    Map<HostAndPort, LatencyHistogram.Snapshot> nodeLatencies = new HashMap<>();
+    nodes.forEach((node, histogram) -> nodeLatencies.put(node, histogram.snapshot()));
+    return new Snapshot(commandLatencies, commandErrors, nodeLatencies, poolWait.snapshot(),
+        bytesWritten.sum(), bytesRead.sum(), dataErrors.sum(), connectionErrors.sum(),
+        otherErrors.sum(), poolErrors.sum());
+  }
+
+  /**
+   * An immutable copy of the metrics.
+   */
+  public static class Snapshot {
+
+    private final Map<String, LatencyHistogram.Snapshot> commandLatencies;
+    private final Map<String, Long> commandErrors;
+    private final Map<HostAndPort, LatencyHistogram.Snapshot> nodeLatencies;
+    private final LatencyHistogram.Snapshot poolWait;
+    private final long bytesWritten;
+    private final long bytesRead;
+    private final long dataErrors;
+    private final long connectionErrors;
+    private final long otherErrors;
+    private final long poolErrors;
+
+    Snapshot(Map<String, LatencyHistogram.Snapshot> commandLatencies,
+        Map<String, Long> commandErrors, Map<HostAndPort, LatencyHistogram.Snapshot> nodeLatencies,
+        LatencyHistogram.Snapshot poolWait, long bytesWritten, long bytesRead, long dataErrors,
+        long connectionErrors, long otherErrors, long poolErrors) {
+      this.commandLatencies = Collections.unmodifiableMap(commandLatencies);
+      this.commandErrors = Collections.unmodifiableMap(commandErrors);
+      this.nodeLatencies = Collections.unmodifiableMap(nodeLatencies);
+      this.poolWait = poolWait;
+      this.bytesWritten = bytesWritten;
+      this.bytesRead = bytesRead;
+      this.dataErrors = dataErrors;
+      this.connectionErrors = connectionErrors;
+      this.otherErrors = otherErrors;
+      this.poolErrors = poolErrors;
+    }
+
+    /**
+     * @return the latencies by command name, e.g. {@code GET}
+     */
+    public Map<String, LatencyHistogram.Snapshot> getCommandLatencies() {
+      return commandLatencies;
+    }
+
+    /**
+     * @return the number of failed commands by command name
+     */
+    public Map<String, Long> getCommandErrors() {
+      return commandErrors;
+    }
+
+    /**
+     * @return the latencies of the commands by node
+     */
+    public Map<HostAndPort, LatencyHistogram.Snapshot> getNodeLatencies() {
+      return nodeLatencies;
+    }
+
+    /**
+     * @return the time spent waiting for pooled connections
+     */
+    public LatencyHistogram.Snapshot getPoolWait() {
+      return poolWait;
+    }
+
+    public long getBytesWritten() {
+      return bytesWritten;
+    }
+
+    public long getBytesRead() {
+      return bytesRead;
+    }
+
+    /**
+     * @return the number of commands failed with an error reply
+     */
+    public long getDataErrors() {
+      return dataErrors;
+    }
+
+    /**
+     * @return the number of commands failed with a connection error
+     */
+    public long getConnectionErrors() {
+      return connectionErrors;
+    }
+
+    /**
+     * @return the number of commands failed otherwise, e.g. while building the reply
+     */
+    public long getOtherErrors() {
+      return otherErrors;
+    }
+
+    /**
+     * @return the number of failures to borrow a pooled connection
+     */
+    public long getPoolErrors() {
+      return poolErrors;
+    }
+
+    @Override
+    public String toString() {
+      return "Snapshot{commandLatencies=" + commandLatencies + ", commandErrors=" + commandErrors
+          + ", nodeLatencies=" + nodeLatencies + ", poolWait=" + poolWait + ", bytesWritten="
+          + bytesWritten + ", bytesRead=" + bytesRead + ", dataErrors=" + dataErrors
+          + ", connectionErrors=" + connectionErrors + ", otherErrors=" + otherErrors
+          + ", poolErrors=" + poolErrors + "}";
+    }
+  }
+}
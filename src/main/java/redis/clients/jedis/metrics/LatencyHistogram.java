@@ -0,0 +1,153 @@
+package redis.clients.jedis.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import redis.clients.jedis.annots.Experimental;
+
+/**
+ * A concurrent histogram of latencies in nanoseconds, in the style of HdrHistogram.
+ * <p>
+ * The values are counted in log-linear buckets: each power of two is divided into
+ * {@value #SUB_BUCKETS} linear buckets, so a recorded value is known to a relative precision of
+ * about 1.6%. Values from {@code 2^}{@value #MAX_MAGNITUDE} nanoseconds (about 18 minutes) are
+ * counted in the highest bucket; the maximum is tracked exactly.
+ * <p>
+ * Recording does not allocate.
+ */
+@Experimental
+public class LatencyHistogram {
+
+  static final int SUB_BUCKET_BITS = 6;
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  static final int MAX_MAGNITUDE = 40;
+  static final int BUCKETS = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder total = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * @param nanos a latency; negative values are counted as 0
+   */
+  public void record(long nanos) {
+    if (nanos < 0) {
+      nanos = 0;
+    }
+    counts.incrementAndGet(bucketOf(nanos));
+    total.add(nanos);
+    long current = max.get();
+    while (nanos > current && !max.compareAndSet(current, nanos)) {
+      current = max.get();
+    }
+  }
+
+  public Snapshot snapshot() {
+    long[] copy = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      copy[i] = counts.get(i);
+    }
+    return new Snapshot(copy, total.sum(), max.get());
+  }
+
+  static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int magnitude = 63 - Long.numberOfLeadingZeros(value);
+    if (magnitude >= MAX_MAGNITUDE) {
+      return BUCKETS - 1;
+    }
+    int shift = magnitude - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+  }
+
+  /**
+   * @return the highest value counted in the bucket
+   */
+  static long highestValueOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long sub = bucket % SUB_BUCKETS + SUB_BUCKETS;
+    return ((sub + 1) << shift) - 1;
+  }
+
+  /**
+   * An immutable copy of the histogram.
+   */
+  public static class Snapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long total;
+    private final long max;
+
+    Snapshot(long[] counts, long total, long max) {
+      this.counts = counts;
+      long sum = 0;
+      for (long c : counts) {
+        sum += c;
+      }
+      this.count = sum;
+      this.total = total;
+      this.max = max;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * @return the sum of the recorded values in nanoseconds
+     */
+    public long getTotal() {
+      return total;
+    }
+
+    /**
+     * @return the mean in nanoseconds, 0 if nothing is recorded
+     */
+    public double getMean() {
+      return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * @return the maximum in nanoseconds
+     */
+    public long getMax() {
+      return max;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the value in nanoseconds which the given percentage of the recorded values is lower
+     * than or equal to, within the precision of the histogram; 0 if nothing is recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+      if (percentile < 0 || percentile > 100) {
+        throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+      }
+      if (count == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return Math.min(highestValueOf(i), max);
+        }
+      }
+      return max;
+    }
+
+    @Override
+    public String toString() {
+      return "Snapshot{count=" + count + ", mean=" + (long) getMean() + ", p50="
+          + getValueAtPercentile(50) + ", p99=" + getValueAtPercentile(99) + ", max=" + max + "}";
+    }
+  }
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains the classes of the opt-in client metrics.
+ */
+package redis.clients.jedis.metrics;
@@ -6,6 +6,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
 import redis.clients.jedis.ClusterCommandArguments;
@@ -15,7 +17,10 @@ import redis.clients.jedis.JedisClientConfig;
 import redis.clients.jedis.Connection;
 import redis.clients.jedis.ConnectionPool;
 import redis.clients.jedis.JedisClusterInfoCache;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.annots.VisibleForTesting;
 import redis.clients.jedis.exceptions.JedisClusterOperationException;
+import redis.clients.jedis.exceptions.JedisDeadlineExceededException;
 import redis.clients.jedis.exceptions.JedisException;
 
 import static redis.clients.jedis.JedisCluster.INIT_NO_ERROR_PROPERTY;
@@ -24,6 +29,12 @@ public class ClusterConnectionProvider implements ConnectionProvider {
 
   protected final JedisClusterInfoCache cache;
 
+  /**
+   * Replica connections on which READONLY has already been sent.
+   */
+  private final Set<Connection> readOnlyConnections
+      = Collections.newSetFromMap(Collections.synchronizedMap(new WeakHashMap<>()));
+
   public ClusterConnectionProvider(Set<HostAndPort> clusterNodes, JedisClientConfig clientConfig) {
     this.cache = new JedisClusterInfoCache(clientConfig, clusterNodes);
     initializeSlotsCache(clusterNodes, clientConfig);
@@ -41,6 +52,14 @@ public class ClusterConnectionProvider implements ConnectionProvider {
     initializeSlotsCache(clusterNodes, clientConfig);
   }
 
+  /**
+   * WARNING: This constructor is accessible for the purpose of testing.
+   */
+  @VisibleForTesting
+  ClusterConnectionProvider(JedisClusterInfoCache cache) {
+    this.cache = cache;
+  }
+
   private void initializeSlotsCache(Set<HostAndPort> startNodes, JedisClientConfig clientConfig) {
     if (startNodes.isEmpty()) {
       throw new JedisClusterOperationException("No nodes to initialize cluster slots cache.");
@@ -84,10 +103,28 @@ public class ClusterConnectionProvider implements ConnectionProvider {
     cache.renewClusterSlots(jedis);
   }
 
+  /**
+   * @see JedisClusterInfoCache#addTopologyListener(Runnable)
+   */
+  public void addTopologyListener(Runnable listener) {
+    cache.addTopologyListener(listener);
+  }
+
+  public void removeTopologyListener(Runnable listener) {
+    cache.removeTopologyListener(listener);
+  }
+
   public Map<String, ConnectionPool> getNodes() {
     return cache.getNodes();
   }
 
+  /**
+   * @return the pools of the primary (master) nodes, i.e. the nodes which own at least one slot
+   */
+  public Map<String, ConnectionPool> getPrimaryNodes() {
+    return cache.getPrimaryNodes();
+  }
+
   public HostAndPort getNode(int slot) {
     return slot >= 0 ? cache.getSlotNode(slot) : null;
   }
@@ -129,6 +166,9 @@ public class ClusterConnectionProvider implements ConnectionProvider {
         if (jedis != null) {
           jedis.close();
         }
+        if (ex instanceof JedisDeadlineExceededException) {
+          throw ex; // no budget left to try other nodes
+        }
       }
     }
 
@@ -158,6 +198,41 @@ public class ClusterConnectionProvider implements ConnectionProvider {
     }
   }
 
+  /**
+   * Returns a connection to a random replica of the slot. The connection is switched to READONLY
+   * mode, so it can serve reads of the slot.
+   *
+   * @param slot
+   * @return a replica connection, or {@code null} if no replica of the slot is known
+   */
+  public Connection getReplicaConnectionFromSlot(int slot) {
+    ConnectionPool[] replicaPools = cache.getSlotReplicaPools(slot);
+    if (replicaPools == null) {
+      return null;
+    }
+
+    ConnectionPool pool = replicaPools.length == 1 ? replicaPools[0]
+        : replicaPools[ThreadLocalRandom.current().nextInt(replicaPools.length)];
+    Connection connection = pool.getResource();
+    if (!readOnlyConnections.contains(connection)) {
+      try {
+        connection.executeCommand(Protocol.Command.READONLY);
+      } catch (JedisException je) {
+        connection.close();
+        throw je;
+      }
+      readOnlyConnections.add(connection);
+    }
+    return connection;
+  }
+
+  /**
+   * @return the pools of the nodes which are a replica of at least one slot
+   */
+  public Map<String, ConnectionPool> getReplicaConnectionMap() {
+    return Collections.unmodifiableMap(cache.getReplicaNodes());
+  }
+
   @Override
   public Map<String, ConnectionPool> getConnectionMap() {
     return Collections.unmodifiableMap(getNodes());
@@ -0,0 +1,55 @@
+package redis.clients.jedis.providers;
+
+import java.util.Map;
+
+import redis.clients.jedis.ClusterCommandArguments;
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.ConnectionPool;
+import redis.clients.jedis.exceptions.JedisClusterOperationException;
+
+/**
+ * A view of a {@link ClusterConnectionProvider} which serves connections to the replicas of the
+ * command's slot, in READONLY mode. It only supports keyed (read) commands.
+ * <p>
+ * Closing this provider does NOT close the underlying {@link ClusterConnectionProvider}.
+ */
+public class ClusterReplicaConnectionProvider implements ConnectionProvider {
+
+  private final ClusterConnectionProvider provider;
+
+  public ClusterReplicaConnectionProvider(ClusterConnectionProvider provider) {
+    this.provider = provider;
+  }
+
+  @Override
+  public void close() {
+    // the connections are owned by the ClusterConnectionProvider
+  }
+
+  @Override
+  public Connection getConnection() {
+    throw new UnsupportedOperationException("A keyed command is required to select a replica.");
+  }
+
+  @Override
+  public Connection getConnection(CommandArguments args) {
+    final int slot = ((ClusterCommandArguments) args).getCommandHashSlot();
+    if (slot < 0) {
+      throw new JedisClusterOperationException("A keyed command is required to select a replica.");
+    }
+    Connection connection = provider.getReplicaConnectionFromSlot(slot);
+    if (connection == null) {
+      throw new JedisClusterOperationException("No replica is known for slot " + slot + ".");
+    }
+    return connection;
+  }
+
+  /**
+   * @return the pools of the replicas, so that per node operations are only sent to replicas
+   */
+  @Override
+  public Map<String, ConnectionPool> getConnectionMap() {
+    return provider.getReplicaConnectionMap();
+  }
+}
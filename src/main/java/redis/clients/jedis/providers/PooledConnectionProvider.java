@@ -11,11 +11,13 @@ import redis.clients.jedis.ConnectionFactory;
 import redis.clients.jedis.ConnectionPool;
 import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.util.IOUtils;
 import redis.clients.jedis.util.Pool;
 
 public class PooledConnectionProvider implements ConnectionProvider {
 
   private final Pool<Connection> pool;
+  private final Pool<Connection> blockingPool;
   private Object connectionMapKey = "";
 
   public PooledConnectionProvider(HostAndPort hostAndPort) {
@@ -34,6 +36,23 @@ public class PooledConnectionProvider implements ConnectionProvider {
     this.connectionMapKey = hostAndPort;
   }
 
+  /**
+   * Creates a provider which serves {@link CommandArguments#isBlocking() blocking} commands (e.g.
+   * BLPOP, BZPOPMIN, XREAD BLOCK, WAIT) from a separately sized pool, so that long-polling callers
+   * can not exhaust the connections of regular commands.
+   *
+   * @param hostAndPort
+   * @param clientConfig
+   * @param poolConfig pool configuration for regular commands
+   * @param blockingPoolConfig pool configuration for blocking commands
+   */
+  public PooledConnectionProvider(HostAndPort hostAndPort, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig,
+      GenericObjectPoolConfig<Connection> blockingPoolConfig) {
+    this(new ConnectionFactory(hostAndPort, clientConfig), poolConfig, blockingPoolConfig);
+    this.connectionMapKey = hostAndPort;
+  }
+
   public PooledConnectionProvider(PooledObjectFactory<Connection> factory) {
     this(new ConnectionPool(factory));
     this.connectionMapKey = factory;
@@ -45,12 +64,25 @@ public class PooledConnectionProvider implements ConnectionProvider {
     this.connectionMapKey = factory;
   }
 
+  public PooledConnectionProvider(PooledObjectFactory<Connection> factory,
+      GenericObjectPoolConfig<Connection> poolConfig,
+      GenericObjectPoolConfig<Connection> blockingPoolConfig) {
+    this(new ConnectionPool(factory, poolConfig), new ConnectionPool(factory, blockingPoolConfig));
+    this.connectionMapKey = factory;
+  }
+
   private PooledConnectionProvider(Pool<Connection> pool) {
+    this(pool, null);
+  }
+
+  private PooledConnectionProvider(Pool<Connection> pool, Pool<Connection> blockingPool) {
     this.pool = pool;
+    this.blockingPool = blockingPool;
   }
 
   @Override
   public void close() {
+    IOUtils.closeQuietly(blockingPool);
     pool.close();
   }
 
@@ -58,6 +90,14 @@ public class PooledConnectionProvider implements ConnectionProvider {
     return pool;
   }
 
+  /**
+   * @return the pool serving blocking commands, or {@code null} if blocking commands share
+   * {@link #getPool() the regular pool}
+   */
+  public final Pool<Connection> getBlockingPool() {
+    return blockingPool;
+  }
+
   @Override
   public Connection getConnection() {
     return pool.getResource();
@@ -65,6 +105,9 @@ public class PooledConnectionProvider implements ConnectionProvider {
 
   @Override
   public Connection getConnection(CommandArguments args) {
+    if (blockingPool != null && args != null && args.isBlocking()) {
+      return blockingPool.getResource();
+    }
     return pool.getResource();
   }
 
@@ -0,0 +1,143 @@
+package redis.clients.jedis.providers;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.ConnectionFactory;
+import redis.clients.jedis.ConnectionPool;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.util.IOUtils;
+
+/**
+ * A {@link ConnectionProvider} which splits the connections to a node into priority lanes.
+ * <p>
+ * Each lane is backed by its own {@link ConnectionPool}, i.e. it has its own reserved capacity and
+ * its own borrow queue. Exhausting one lane (e.g. by background batch jobs) never makes the callers
+ * of another lane wait.
+ * <p>
+ * A facade over a single lane can be obtained by {@link #lane(Priority)} and used to create a
+ * client, e.g. {@code new UnifiedJedis(provider.lane(Priority.HIGH))}. Closing such a facade does
+ * NOT close the lane; all lanes are closed when this provider is closed.
+ * <p>
+ * All lanes are pools to the same node, so {@link #getConnectionMap()} only contains the default
+ * lane, and the other lanes are only available by {@link #getPool(Priority)}.
+ */
+@Experimental
+public class PrioritizedConnectionProvider implements ConnectionProvider {
+
+  public enum Priority {
+    HIGH, NORMAL, LOW;
+  }
+
+  private final Map<Priority, ConnectionPool> lanes = new EnumMap<>(Priority.class);
+  private final Map<Priority, ConnectionProvider> facades = new EnumMap<>(Priority.class);
+  private final Priority defaultPriority;
+
+  public PrioritizedConnectionProvider(HostAndPort hostAndPort, JedisClientConfig clientConfig,
+      Map<Priority, GenericObjectPoolConfig<Connection>> laneConfigs) {
+    this(new ConnectionFactory(hostAndPort, clientConfig), laneConfigs);
+  }
+
+  public PrioritizedConnectionProvider(PooledObjectFactory<Connection> factory,
+      Map<Priority, GenericObjectPoolConfig<Connection>> laneConfigs) {
+    if (laneConfigs == null || laneConfigs.isEmpty()) {
+      throw new IllegalArgumentException("At least one priority lane must be configured.");
+    }
+
+    Priority lowest = null;
+    for (Priority priority : Priority.values()) {
+      GenericObjectPoolConfig<Connection> poolConfig = laneConfigs.get(priority);
+      if (poolConfig == null) {
+        continue;
+      }
+      ConnectionPool pool = new ConnectionPool(factory, poolConfig);
+      lanes.put(priority, pool);
+      facades.put(priority, new LaneConnectionProvider(pool));
+      lowest = priority;
+    }
+    this.defaultPriority = lanes.containsKey(Priority.NORMAL) ? Priority.NORMAL : lowest;
+  }
+
+  /**
+   * @param priority the priority class
+   * @return a provider which only borrows connections from the lane of {@code priority}
+   */
+  public ConnectionProvider lane(Priority priority) {
+    ConnectionProvider facade = facades.get(priority);
+    if (facade == null) {
+      throw new IllegalArgumentException("Priority lane " + priority + " is not configured.");
+    }
+    return facade;
+  }
+
+  public final ConnectionPool getPool(Priority priority) {
+    return lanes.get(priority);
+  }
+
+  /**
+   * @return the priority lane used by the non-facade methods of this provider; {@code NORMAL} if
+   * configured, otherwise the lowest configured priority
+   */
+  public final Priority getDefaultPriority() {
+    return defaultPriority;
+  }
+
+  @Override
+  public void close() {
+    lanes.values().forEach(IOUtils::closeQuietly);
+  }
+
+  @Override
+  public Connection getConnection() {
+    return lanes.get(defaultPriority).getResource();
+  }
+
+  @Override
+  public Connection getConnection(CommandArguments args) {
+    return lanes.get(defaultPriority).getResource();
+  }
+
+  /**
+   * @return the pool of the default lane only, as the lanes are not separate nodes
+   */
+  @Override
+  public Map<Priority, ConnectionPool> getConnectionMap() {
+    return Collections.singletonMap(defaultPriority, lanes.get(defaultPriority));
+  }
+
+  private static class LaneConnectionProvider implements ConnectionProvider {
+
+    private final ConnectionPool pool;
+
+    private LaneConnectionProvider(ConnectionPool pool) {
+      this.pool = pool;
+    }
+
+    @Override
+    public void close() {
+      // the lane is owned by PrioritizedConnectionProvider
+    }
+
+    @Override
+    public Connection getConnection() {
+      return pool.getResource();
+    }
+
+    @Override
+    public Connection getConnection(CommandArguments args) {
+      return pool.getResource();
+    }
+
+    @Override
+    public Map<?, ConnectionPool> getConnectionMap() {
+      return Collections.singletonMap(pool.toString(), pool);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package redis.clients.jedis.providers;
+
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.util.Hashing;
+import redis.clients.jedis.util.ShardSelectionStrategy;
+import redis.clients.jedis.util.ShardSelector;
+
+/**
+ * A {@link ShardedConnectionProvider} during the migration from a previous list of shards to a new
+ * one. Commands are routed to the shards of the new list, as by {@link ShardedConnectionProvider};
+ * the owner of a key hash in the previous list is given by {@link #getPreviousNode(long)}.
+ * <p>
+ * To read keys which are not moved yet, use this provider with
+ * {@link redis.clients.jedis.executors.ReshardingCommandExecutor}, e.g. by
+ * {@link redis.clients.jedis.JedisSharding#JedisSharding(ReshardingConnectionProvider)}. The keys
+ * are moved by a {@link redis.clients.jedis.ReshardingMover}. Once it completes, the provider can be
+ * replaced by a {@link ShardedConnectionProvider} of the new shards.
+ */
+@Experimental
+public class ReshardingConnectionProvider extends ShardedConnectionProvider {
+
+  private final List<HostAndPort> previousShards;
+  private final HostAndPort[] previousShardArray;
+  private final ShardSelector previousSelector;
+
+  public ReshardingConnectionProvider(List<HostAndPort> previousShards, List<HostAndPort> shards,
+      JedisClientConfig clientConfig, GenericObjectPoolConfig<Connection> poolConfig, Hashing algo) {
+    this(previousShards, ShardSelectionStrategy.RING, shards, ShardSelectionStrategy.RING,
+        clientConfig, poolConfig, algo);
+  }
+
+  /**
+   * @param previousShards the shards the keys are moved from
+   * @param previousStrategy the shard selection of the previous shards
+   * @param shards the shards the keys are moved to
+   * @param strategy the shard selection of the new shards
+   */
+  public ReshardingConnectionProvider(List<HostAndPort> previousShards,
+      ShardSelectionStrategy previousStrategy, List<HostAndPort> shards,
+      ShardSelectionStrategy strategy, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig, Hashing algo) {
+    super(shards, clientConfig, poolConfig, algo, strategy);
+    this.previousShards = Collections.unmodifiableList(previousShards);
+    this.previousShardArray = previousShards.toArray(new HostAndPort[0]);
+    this.previousSelector = previousStrategy.create(previousShards, algo);
+    for (HostAndPort shard : previousShards) {
+      setupNodeIfNotExist(shard);
+    }
+  }
+
+  public List<HostAndPort> getPreviousShards() {
+    return previousShards;
+  }
+
+  /**
+   * @return the owner of the key hash in the previous shards
+   */
+  public HostAndPort getPreviousNode(long hash) {
+    return previousShardArray[previousSelector.getShard(hash)];
+  }
+
+  /**
+   * @return {@code true} if the key hash has a different owner in the new shards
+   */
+  public boolean isMoved(long hash) {
+    return !getNode(hash).equals(getPreviousNode(hash));
+  }
+}
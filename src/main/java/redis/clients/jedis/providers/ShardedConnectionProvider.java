@@ -5,8 +5,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
 import redis.clients.jedis.CommandArguments;
@@ -18,6 +16,9 @@ import redis.clients.jedis.DefaultJedisClientConfig;
 import redis.clients.jedis.ShardedCommandArguments;
 import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.util.Hashing;
+import redis.clients.jedis.util.RingShardSelector;
+import redis.clients.jedis.util.ShardSelectionStrategy;
+import redis.clients.jedis.util.ShardSelector;
 
 /**
  * @deprecated Sharding/Sharded feature will be removed in next major release.
@@ -25,11 +26,12 @@ import redis.clients.jedis.util.Hashing;
 @Deprecated
 public class ShardedConnectionProvider implements ConnectionProvider {
 
-  private final TreeMap<Long, HostAndPort> nodes = new TreeMap<>();
+  private final HostAndPort[] shards;
   private final Map<String, ConnectionPool> resources = new HashMap<>();
   private final JedisClientConfig clientConfig;
   private final GenericObjectPoolConfig<Connection> poolConfig;
   private final Hashing algo;
+  private final ShardSelector selector;
 
   public ShardedConnectionProvider(List<HostAndPort> shards) {
     this(shards, DefaultJedisClientConfig.builder().build());
@@ -57,35 +59,27 @@ public class ShardedConnectionProvider implements ConnectionProvider {
 
   public ShardedConnectionProvider(List<HostAndPort> shards, JedisClientConfig clientConfig,
                                    GenericObjectPoolConfig<Connection> poolConfig, Hashing algo,Boolean isCom) {
+    this(shards, clientConfig, poolConfig, algo, isCom
+        ? (nodes, hashing) -> RingShardSelector.ofShardNames(nodes, hashing, 128)
+        : ShardSelectionStrategy.RING);
+  }
+
+  /**
+   * @param strategy selects the shard of a key hash, see {@link ShardSelectionStrategy}
+   */
+  public ShardedConnectionProvider(List<HostAndPort> shards, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig, Hashing algo, ShardSelectionStrategy strategy) {
     this.clientConfig = clientConfig;
     this.poolConfig = poolConfig;
     this.algo = algo;
-    if(isCom) initialize(shards,128);
-    else initialize(shards);
-  }
-
-  private void initialize(List<HostAndPort> shards,int replicas){
+    this.shards = shards.toArray(new HostAndPort[0]);
+    this.selector = strategy.create(shards, algo);
     for (HostAndPort shard : shards) {
-      for (int n = 0; n < replicas; n++) {
-        Long hash = this.algo.hash(shard.getName() + ":" + n);
-        nodes.put(hash, shard);
-        setupNodeIfNotExist(shard);
-      }
+      setupNodeIfNotExist(shard);
     }
   }
 
-  private void initialize(List<HostAndPort> shards){
-    for (int i = 0; i < shards.size(); i++) {
-      HostAndPort shard = shards.get(i);
-      for (int n = 0; n < 160; n++) {
-        Long hash = this.algo.hash("SHARD-" + i + "-NODE-" + n);
-        nodes.put(hash, shard);
-        setupNodeIfNotExist(shard);
-      }
-    }
-  }
-
-  private ConnectionPool setupNodeIfNotExist(final HostAndPort node) {
+  protected ConnectionPool setupNodeIfNotExist(final HostAndPort node) {
     String nodeKey = node.toString();
     ConnectionPool existingPool = resources.get(nodeKey);
     if (existingPool != null) return existingPool;
@@ -100,6 +94,10 @@ public class ShardedConnectionProvider implements ConnectionProvider {
     return algo;
   }
 
+  public ShardSelector getShardSelector() {
+    return selector;
+  }
+
   private void reset() {
     for (ConnectionPool pool : resources.values()) {
       try {
@@ -111,7 +109,6 @@ public class ShardedConnectionProvider implements ConnectionProvider {
       }
     }
     resources.clear();
-    nodes.clear();
   }
 
   @Override
@@ -172,12 +169,8 @@ public class ShardedConnectionProvider implements ConnectionProvider {
     throw noReachableNode;
   }
 
-  private HostAndPort getNodeFromHash(Long hash) {
-    SortedMap<Long, HostAndPort> tail = nodes.tailMap(hash);
-    if (tail.isEmpty()) {
-      return nodes.get(nodes.firstKey());
-    }
-    return tail.get(tail.firstKey());
+  private HostAndPort getNodeFromHash(long hash) {
+    return shards[selector.getShard(hash)];
   }
 
   @Override
@@ -2,37 +2,66 @@ package redis.clients.jedis.resps;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.util.SafeEncoder;
 
 public class StreamEntry implements Serializable {
 
   private static final long serialVersionUID = 1L;
 
   private StreamEntryID id;
-  private Map<String, String> fields;
+  private volatile Map<String, String> fields;
+  private transient volatile List<byte[]> encodedFields;
 
   public StreamEntry(StreamEntryID id, Map<String, String> fields) {
     this.id = id;
     this.fields = fields;
   }
 
+  /**
+   * Creates an entry whose fields are decoded when they are first accessed.
+   *
+   * @param encodedFields the names and values of the fields, alternately
+   */
+  public static StreamEntry ofEncodedFields(StreamEntryID id, List<byte[]> encodedFields) {
+    StreamEntry entry = new StreamEntry(id, null);
+    entry.encodedFields = encodedFields;
+    return entry;
+  }
+
   public StreamEntryID getID() {
     return id;
   }
 
   public Map<String, String> getFields() {
-    return fields;
+    Map<String, String> decoded = fields;
+    if (decoded == null) {
+      List<byte[]> encoded = encodedFields;
+      if (encoded == null) {
+        // null fields, or decoded by another thread
+        return fields;
+      }
+      decoded = new HashMap<>(encoded.size() / 2, 1f);
+      for (int i = 0; i < encoded.size(); i += 2) {
+        decoded.put(SafeEncoder.encode(encoded.get(i)), SafeEncoder.encode(encoded.get(i + 1)));
+      }
+      fields = decoded;
+      encodedFields = null;
+    }
+    return decoded;
   }
 
   @Override
   public String toString() {
-    return id + " " + fields;
+    return id + " " + getFields();
   }
 
   private void writeObject(java.io.ObjectOutputStream out) throws IOException {
     out.writeUnshared(this.id);
-    out.writeUnshared(this.fields);
+    out.writeUnshared(getFields());
   }
 
   private void readObject(java.io.ObjectInputStream in) throws IOException, ClassNotFoundException {
@@ -391,7 +391,9 @@ public class FTSearchParams implements IParams {
    * by the corresponding parameter value.
    *
    * @param name
-   * @param value can be String, long or float
+   * @param value can be String, long or float; or a vector as {@code float[]}, which is copied, or
+   * {@link java.nio.FloatBuffer}, which is not copied and must not be modified until the command is
+   * sent, e.g. for KNN queries
    * @return the query object itself
    */
   public FTSearchParams addParam(String name, Object value) {
@@ -434,6 +436,22 @@ public class FTSearchParams implements IParams {
     return this;
   }
 
+  String getSortBy() {
+    return sortBy;
+  }
+
+  SortingOrder getSortOrder() {
+    return sortOrder;
+  }
+
+  int[] getLimit() {
+    return limit;
+  }
+
+  void setLimit(int[] limit) {
+    this.limit = limit;
+  }
+
   public boolean getNoContent() {
     return noContent;
   }
@@ -0,0 +1,321 @@
+package redis.clients.jedis.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import redis.clients.jedis.BuilderFactory;
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.RedisProtocol;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.args.SortingOrder;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.search.SearchProtocol.SearchCommand;
+import redis.clients.jedis.search.SearchProtocol.SearchKeyword;
+import redis.clients.jedis.util.KeyValue;
+import redis.clients.jedis.util.Pool;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Runs FT.SEARCH on all given nodes concurrently and merges their results, for an index of an OSS
+ * cluster, where each shard indexes only its own keys.
+ * <p>
+ * Each node is asked for the first {@code offset + num} documents of the requested LIMIT (by
+ * default 0 and 10). Their results are merged into the global top {@code offset + num}, of which the
+ * first {@code offset} are skipped. The documents are merged by the sort keys the nodes return for
+ * WITHSORTKEYS if a SORTBY field is given, else by score, descending; WITHSORTKEYS or WITHSCORES is
+ * added for this. The sort keys are compared as numbers if all of them are numeric, else as strings,
+ * and documents without one come last.
+ * <p>
+ * For a vector KNN query, sort by the distance field (e.g. {@code SORTBY dist} for
+ * {@code =>[KNN 10 @vec $blob AS dist]}), so the documents are merged by distance. The total number
+ * of results is the sum of the totals of the nodes.
+ * <p>
+ * The LIMIT of the given parameters is changed while the command is built, and then restored, so
+ * they should not be used concurrently.
+ */
+@Experimental
+public class FtSearchFanOut {
+
+  private static final String TOTAL_RESULTS_STR = "total_results";
+  private static final String RESULTS_STR = "results";
+  private static final String SORT_KEY_STR = "sortkey";
+
+  private final Collection<?> nodes;
+  private final RedisProtocol protocol;
+  private final int searchDialect;
+  private final Executor executor;
+
+  /**
+   * @param nodes the {@link Pool pools} or {@link Connection connections} of the nodes to search
+   * @param protocol the protocol of the connections
+   * @param searchDialect the DIALECT added to the queries which have none, as by
+   * {@link redis.clients.jedis.UnifiedJedis#setDefaultSearchDialect(int)}; 0 for none
+   * @param executor runs the search commands
+   */
+  public FtSearchFanOut(Collection<?> nodes, RedisProtocol protocol, int searchDialect,
+      Executor executor) {
+    this.nodes = nodes;
+    this.protocol = protocol;
+    this.searchDialect = searchDialect;
+    this.executor = executor;
+  }
+
+  public SearchResult search(String indexName, String query, FTSearchParams params) {
+    int[] limit = params.getLimit();
+    int offset = limit == null ? 0 : limit[0];
+    int num = limit == null ? 10 : limit[1];
+    CommandArguments args;
+    try {
+      params.limit(0, top(offset, num));
+      args = new CommandArguments(SearchCommand.SEARCH).add(indexName).add(query)
+          .addParams(params.dialectOptional(searchDialect));
+    } finally {
+      params.setLimit(limit);
+    }
+    return search(args, !params.getNoContent(), params.getWithScores(), params.getSortBy(),
+        params.getSortOrder() != SortingOrder.DESC, offset, num);
+  }
+
+  public SearchResult search(String indexName, Query query) {
+    Query.Paging paging = query.getPaging();
+    int offset = paging.offset;
+    int num = paging.num;
+    CommandArguments args;
+    try {
+      query.limit(0, top(offset, num));
+      args = new CommandArguments(SearchCommand.SEARCH).add(indexName)
+          .addParams(query.dialectOptional(searchDialect));
+    } finally {
+      query.limit(offset, num);
+    }
+    return search(args, !query.getNoContent(), query.getWithScores(), query.getSortBy(),
+        query.getSortAscending(), offset, num);
+  }
+
+  private SearchResult search(CommandArguments args, boolean hasContent, boolean withScores,
+      String sortBy, boolean ascending, int offset, int num) {
+    if (sortBy != null) {
+      args.add(SearchKeyword.WITHSORTKEYS);
+    } else if (!withScores) {
+      args.add(SearchKeyword.WITHSCORES);
+    }
+    String sortField = sortBy == null ? null : sortBy.startsWith("@") ? sortBy.substring(1) : sortBy;
+    List<Page> pages = execute(args, hasContent, withScores || sortBy == null, sortField);
+    return merge(pages, comparator(pages, sortField, ascending), offset, num);
+  }
+
+  private static int top(int offset, int num) {
+    return (int) Math.min((long) offset + num, Integer.MAX_VALUE);
+  }
+
+  private List<Page> execute(CommandArguments args, boolean hasContent, boolean hasScores,
+      String sortField) {
+    List<CompletableFuture<Page>> futures = new ArrayList<>(nodes.size());
+    for (Object node : nodes) {
+      futures.add(CompletableFuture.supplyAsync(
+          () -> page(execute(node, args), hasContent, hasScores, sortField), executor));
+    }
+    List<Page> pages = new ArrayList<>(futures.size());
+    for (CompletableFuture<Page> future : futures) {
+      try {
+        pages.add(future.join());
+      } catch (CompletionException ce) {
+        throw ce.getCause() instanceof JedisException ? (JedisException) ce.getCause()
+            : new JedisException(ce.getCause());
+      }
+    }
+    return pages;
+  }
+
+  private static Object execute(Object node, CommandArguments args) {
+    if (node instanceof Connection) {
+      return ((Connection) node).executeCommand(args);
+    } else if (node instanceof Pool) {
+      try (Connection c = ((Pool<Connection>) node).getResource()) {
+        return c.executeCommand(args);
+      }
+    } else {
+      throw new IllegalArgumentException(node.getClass() + " is not supported.");
+    }
+  }
+
+  private Page page(Object reply, boolean hasContent, boolean hasScores, String sortField) {
+    return protocol == RedisProtocol.RESP3 ? resp3Page(reply, sortField)
+        : resp2Page(reply, hasContent, hasScores, sortField);
+  }
+
+  /**
+   * Parses the reply like {@link SearchResult.SearchResultBuilder}, with the sort key that
+   * WITHSORTKEYS adds after the score of each document.
+   */
+  private static Page resp2Page(Object reply, boolean hasContent, boolean hasScores,
+      String sortField) {
+    List<Object> resp = (List<Object>) reply;
+    boolean hasSortKeys = sortField != null;
+    int step = 1 + (hasScores ? 1 : 0) + (hasSortKeys ? 1 : 0) + (hasContent ? 1 : 0);
+
+    List<Hit> hits = new ArrayList<>(resp.size() / step);
+    for (int i = 1; i < resp.size(); i += step) {
+      int j = i;
+      String id = BuilderFactory.STRING.build(resp.get(j++));
+      double score = hasScores ? BuilderFactory.DOUBLE.build(resp.get(j++)) : 1.0;
+      Object sortKey = hasSortKeys ? resp.get(j++) : null;
+      List<byte[]> fields = hasContent ? (List<byte[]>) resp.get(j) : null;
+      Document document = Document.load(id, score, fields, true);
+      hits.add(new Hit(document, sortKey(sortKey, document, sortField)));
+    }
+    return new Page((Long) resp.get(0), hits);
+  }
+
+  private static Page resp3Page(Object reply, String sortField) {
+    long totalResults = -1;
+    List<Hit> hits = new ArrayList<>();
+    for (KeyValue kv : (List<KeyValue>) reply) {
+      String key = BuilderFactory.STRING.build(kv.getKey());
+      if (TOTAL_RESULTS_STR.equals(key)) {
+        totalResults = BuilderFactory.LONG.build(kv.getValue());
+      } else if (RESULTS_STR.equals(key)) {
+        for (Object result : (List<Object>) kv.getValue()) {
+          Object sortKey = null;
+          for (KeyValue attribute : (List<KeyValue>) result) {
+            if (SORT_KEY_STR.equals(BuilderFactory.STRING.build(attribute.getKey()))) {
+              sortKey = attribute.getValue();
+            }
+          }
+          Document document = Document.SEARCH_DOCUMENT.build(result);
+          hits.add(new Hit(document, sortKey(sortKey, document, sortField)));
+        }
+      }
+    }
+    return new Page(totalResults, hits);
+  }
+
+  /**
+   * @return the sort key as a {@link Double} or a {@link String}, from the {@code #} (numeric) or
+   * {@code $} (string) prefixed key of WITHSORTKEYS, else from the sort field of the document
+   */
+  private static Object sortKey(Object rawKey, Document document, String sortField) {
+    if (sortField == null) {
+      return null;
+    }
+    String key;
+    if (rawKey != null) {
+      key = BuilderFactory.STRING.build(rawKey);
+      if (key.startsWith("$")) {
+        return key.substring(1);
+      } else if (key.startsWith("#")) {
+        key = key.substring(1);
+      }
+    } else {
+      Object value = document.get(sortField);
+      if (value == null) {
+        return null;
+      }
+      key = value instanceof byte[] ? SafeEncoder.encode((byte[]) value) : value.toString();
+    }
+    try {
+      return Double.parseDouble(key);
+    } catch (NumberFormatException nfe) {
+      return key;
+    }
+  }
+
+  /**
+   * The sort keys are compared in one mode for the whole merge, as numbers only if all of them are
+   * numeric, so that the order stays transitive.
+   */
+  private static Comparator<Hit> comparator(List<Page> pages, String sortField, boolean ascending) {
+    if (sortField == null) {
+      return Comparator.comparingDouble((Hit hit) -> score(hit.document)).reversed();
+    }
+    boolean numeric = pages.stream().flatMap(page -> page.hits.stream())
+        .allMatch(hit -> hit.sortKey == null || hit.sortKey instanceof Double);
+    Comparator<Object> byKey = numeric ? Comparator.comparingDouble(key -> (Double) key)
+        : Comparator.comparing(Object::toString);
+    // documents without the sort key come last in both orders
+    return Comparator.comparing(hit -> hit.sortKey,
+        Comparator.nullsLast(ascending ? byKey : byKey.reversed()));
+  }
+
+  private static double score(Document document) {
+    Double score = document.getScore();
+    return score == null ? Double.NEGATIVE_INFINITY : score;
+  }
+
+  /**
+   * Merges the sorted pages of the nodes, and takes {@code num} documents after {@code offset}.
+   */
+  private static SearchResult merge(List<Page> pages, Comparator<Hit> comparator, int offset,
+      int num) {
+    long totalResults = 0;
+    PriorityQueue<Cursor> cursors = new PriorityQueue<>(Math.max(1, pages.size()),
+        (c1, c2) -> comparator.compare(c1.current(), c2.current()));
+    for (Page page : pages) {
+      totalResults += page.totalResults;
+      if (!page.hits.isEmpty()) {
+        cursors.add(new Cursor(page.hits));
+      }
+    }
+
+    List<Document> documents = new ArrayList<>(Math.min(num, 1000));
+    for (int skipped = 0; !cursors.isEmpty() && documents.size() < num; ) {
+      Cursor cursor = cursors.poll();
+      if (skipped < offset) {
+        skipped++;
+      } else {
+        documents.add(cursor.current().document);
+      }
+      if (cursor.advance()) {
+        cursors.add(cursor);
+      }
+    }
+    return new SearchResult(totalResults, documents);
+  }
+
+  private static class Page {
+
+    private final long totalResults;
+    private final List<Hit> hits;
+
+    Page(long totalResults, List<Hit> hits) {
+      this.totalResults = totalResults;
+      this.hits = hits;
+    }
+  }
+
+  private static class Hit {
+
+    private final Document document;
+    private final Object sortKey;
+
+    Hit(Document document, Object sortKey) {
+      this.document = document;
+      this.sortKey = sortKey;
+    }
+  }
+
+  private static class Cursor {
+
+    private final List<Hit> hits;
+    private int index = 0;
+
+    Cursor(List<Hit> hits) {
+      this.hits = hits;
+    }
+
+    Hit current() {
+      return hits.get(index);
+    }
+
+    boolean advance() {
+      return ++index < hits.size();
+    }
+  }
+}
@@ -358,6 +358,18 @@ public class Query implements IParams {
     return this;
   }
 
+  String getSortBy() {
+    return _sortBy;
+  }
+
+  boolean getSortAscending() {
+    return _sortAsc;
+  }
+
+  Paging getPaging() {
+    return _paging;
+  }
+
   public boolean getNoContent() {
     return _noContent;
   }
@@ -522,7 +534,9 @@ public class Query implements IParams {
    * by the corresponding parameter value.
    *
    * @param name
-   * @param value can be String, long or float
+   * @param value can be String, long or float; or a vector as {@code float[]}, which is copied, or
+   * {@link java.nio.FloatBuffer}, which is not copied and must not be modified until the command is
+   * sent, e.g. for KNN queries
    * @return the query object itself
    */
   public Query addParam(String name, Object value) {
@@ -56,7 +56,7 @@ public class SearchProtocol {
     LANGUAGE_FIELD, SCORE, SCORE_FIELD, SCORER, PARAMS, AS, DIALECT, SLOP, TIMEOUT, INORDER,
     EXPANDER, MAXTEXTFIELDS, SKIPINITIALSCAN, WITHSUFFIXTRIE, NOSTEM, NOINDEX, PHONETIC, WEIGHT,
     CASESENSITIVE, LOAD, APPLY, GROUPBY, MAXIDLE, WITHCURSOR, DISTANCE, TERMS, INCLUDE, EXCLUDE,
-    SEARCH, AGGREGATE, QUERY, LIMITED, COUNT, REDUCE;
+    SEARCH, AGGREGATE, QUERY, LIMITED, COUNT, REDUCE, WITHSORTKEYS;
 
     private final byte[] raw;
 
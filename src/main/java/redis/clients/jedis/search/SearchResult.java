@@ -18,7 +18,7 @@ public class SearchResult {
   private final long totalResults;
   private final List<Document> documents;
 
-  private SearchResult(long totalResults, List<Document> documents) {
+  SearchResult(long totalResults, List<Document> documents) {
     this.totalResults = totalResults;
     this.documents = documents;
   }
@@ -0,0 +1,153 @@
+package redis.clients.jedis.search;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.CommandObject;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * Writes hashes with vector fields, e.g. to load embeddings for a vector index.
+ * <p>
+ * The hashes are written by HSET commands in a pipeline, which is synchronized after every
+ * {@link #setBatchSize(int) batch size} commands; in cluster mode, the commands of a batch are sent
+ * to each node together. The vectors given to {@link #hset(String, String, float[])} and as
+ * {@link FloatBuffer} are not copied: they are encoded as little-endian floats directly into the
+ * output buffer of the connection, so they must not be modified until their batch is written, i.e.
+ * until {@link #flush()} or {@link #close()} returns.
+ * <p>
+ * An error reply for a hash is counted as failed and the loading goes on. A connection error is
+ * thrown, and the hashes of its batch are counted as failed.
+ * <p>
+ * A loader is not thread-safe.
+ */
+@Experimental
+public class VectorLoader implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(VectorLoader.class);
+
+  private final UnifiedJedis jedis;
+  private final BiFunction<String, Map<String, ?>, CommandObject<Long>> hset;
+
+  private int batchSize = 100;
+  private AbstractPipeline pipeline;
+  private final List<Response<Long>> responses = new ArrayList<>();
+
+  private long written = 0;
+  private long failed = 0;
+
+  /**
+   * @param jedis the client, whose pipelines send the commands
+   * @param hset creates the HSET command of a hash
+   */
+  public VectorLoader(UnifiedJedis jedis, BiFunction<String, Map<String, ?>, CommandObject<Long>> hset) {
+    this.jedis = jedis;
+    this.hset = hset;
+  }
+
+  /**
+   * @param batchSize maximum number of pipelined commands; default is 100
+   */
+  public VectorLoader setBatchSize(int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive.");
+    }
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * @param vector not copied
+   */
+  public void hset(String key, String field, float[] vector) {
+    hset(key, Collections.singletonMap(field, FloatBuffer.wrap(vector)));
+  }
+
+  /**
+   * @param vector the remaining floats are written; the buffer may be direct
+   */
+  public void hset(String key, String field, FloatBuffer vector) {
+    hset(key, Collections.singletonMap(field, vector));
+  }
+
+  /**
+   * @param hash the fields; the values may be vectors as {@code float[]}, which are copied, or
+   * {@link FloatBuffer}, strings or byte arrays
+   */
+  public void hset(String key, Map<String, ?> hash) {
+    if (pipeline == null) {
+      pipeline = jedis.pipelined();
+    }
+    responses.add(pipeline.executeCommand(hset.apply(key, hash)));
+    if (responses.size() >= batchSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Writes the pending hashes.
+   */
+  public void flush() {
+    if (responses.isEmpty()) {
+      return;
+    }
+    try {
+      pipeline.sync();
+    } catch (JedisException je) {
+      failed += responses.size();
+      responses.clear();
+      throw je;
+    }
+    for (Response<Long> response : responses) {
+      try {
+        response.get();
+        written++;
+      } catch (JedisDataException jde) {
+        if (failed++ == 0) {
+          log.warn("Writing a hash failed.", jde);
+        }
+      }
+    }
+    responses.clear();
+  }
+
+  /**
+   * Writes the pending hashes, and closes the pipeline.
+   */
+  @Override
+  public void close() {
+    try {
+      flush();
+    } finally {
+      if (pipeline != null) {
+        pipeline.close();
+        pipeline = null;
+      }
+    }
+  }
+
+  /**
+   * @return the number of hashes which are written
+   */
+  public long getWritten() {
+    return written;
+  }
+
+  /**
+   * @return the number of hashes which could not be written
+   */
+  public long getFailed() {
+    return failed;
+  }
+}
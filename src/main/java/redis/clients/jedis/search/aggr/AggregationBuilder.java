@@ -22,6 +22,7 @@ public class AggregationBuilder implements IParams {
   private final List<Object> aggrArgs = new ArrayList<>();
   private Integer dialect;
   private boolean isWithCursor = false;
+  private int cursorCount = 0;
 
   public AggregationBuilder(String query) {
     aggrArgs.add(query);
@@ -143,6 +144,7 @@ public class AggregationBuilder implements IParams {
 
   public AggregationBuilder cursor(int count) {
     isWithCursor = true;
+    cursorCount = count;
     aggrArgs.add(SearchKeyword.WITHCURSOR);
     aggrArgs.add(SearchKeyword.COUNT);
     aggrArgs.add(count);
@@ -151,6 +153,7 @@ public class AggregationBuilder implements IParams {
 
   public AggregationBuilder cursor(int count, long maxIdle) {
     isWithCursor = true;
+    cursorCount = count;
     aggrArgs.add(SearchKeyword.WITHCURSOR);
     aggrArgs.add(SearchKeyword.COUNT);
     aggrArgs.add(count);
@@ -201,6 +204,19 @@ public class AggregationBuilder implements IParams {
     return isWithCursor;
   }
 
+  /**
+   * @return whether each row is produced from a single document, i.e. there is no GROUPBY, SORTBY
+   * or LIMIT, so the rows of several shards can be concatenated
+   */
+  boolean isRowLevel() {
+    return !aggrArgs.contains(SearchKeyword.GROUPBY) && !aggrArgs.contains(SearchKeyword.SORTBY)
+        && !aggrArgs.contains(SearchKeyword.LIMIT);
+  }
+
+  int getCursorCount() {
+    return cursorCount;
+  }
+
   @Override
   public void addParams(CommandArguments commArgs) {
     commArgs.addObjects(aggrArgs);
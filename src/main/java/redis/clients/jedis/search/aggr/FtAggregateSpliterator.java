@@ -0,0 +1,281 @@
+package redis.clients.jedis.search.aggr;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.search.SearchProtocol.SearchCommand;
+import redis.clients.jedis.search.SearchProtocol.SearchKeyword;
+import redis.clients.jedis.util.Pool;
+
+/**
+ * A {@link Spliterator} over the rows of an FT.AGGREGATE with a cursor, on all given nodes.
+ * <p>
+ * The aggregation runs on all nodes concurrently on the given {@link Executor}. For each node, the
+ * next page is read by FT.CURSOR READ while the current page is consumed. The rows are served from
+ * whichever node has a page ready, so the rows of different nodes are interleaved.
+ * <p>
+ * The rows of the nodes are not merged, so on more than one node, e.g. the shards of an OSS
+ * cluster, only row-level pipelines (LOAD, APPLY and FILTER) are accepted: with GROUPBY, SORTBY or
+ * LIMIT, each node would only return its partial groups, its own order, or its own first rows.
+ * <p>
+ * The COUNT of each read adapts to the latency of the previous read of the node: it is doubled, up
+ * to the {@link #setMaxCount(int) maximum}, while a read takes less than half of the
+ * {@link #setTargetLatency(Duration) target latency}, and halved while a read takes longer than the
+ * target.
+ * <p>
+ * The stream should be closed if it is not fully consumed. The cursors which are not exhausted are
+ * then deleted by FT.CURSOR DEL.
+ */
+@Experimental
+public class FtAggregateSpliterator implements Spliterator<Row>, AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(FtAggregateSpliterator.class);
+
+  private final String indexName;
+  private final Executor executor;
+  private final List<NodeCursor> allNodes;
+  private final List<NodeCursor> nodes;
+
+  private volatile long targetLatencyNanos = Duration.ofMillis(100).toNanos();
+  private volatile int maxCount = 10000;
+
+  /**
+   * {@link AggregationBuilder#cursor(int, long) CURSOR} must be set.
+   * @param nodes the {@link Pool pools} or {@link Connection connections} of the nodes
+   * @param indexName index name
+   * @param aggr cursor must be set; only a row-level pipeline on more than one node
+   * @param searchDialect the DIALECT added if the aggregation has none, as by
+   * {@link redis.clients.jedis.UnifiedJedis#setDefaultSearchDialect(int)}; 0 for none
+   * @param executor runs the aggregation and cursor commands
+   */
+  public FtAggregateSpliterator(Collection<?> nodes, String indexName, AggregationBuilder aggr,
+      int searchDialect, Executor executor) {
+    if (!aggr.isWithCursor()) throw new IllegalArgumentException("cursor must be set");
+    if (nodes.size() > 1 && !aggr.isRowLevel()) {
+      throw new IllegalArgumentException("GROUPBY, SORTBY and LIMIT cannot be streamed from "
+          + nodes.size() + " nodes, as their rows are not merged.");
+    }
+    this.indexName = indexName;
+    this.executor = executor;
+    this.allNodes = new ArrayList<>(nodes.size());
+    CommandArguments args = new CommandArguments(SearchCommand.AGGREGATE).add(indexName)
+        .addParams(aggr.dialectOptional(searchDialect));
+    for (Object node : nodes) {
+      NodeCursor cursor = new NodeCursor(node, aggr.getCursorCount());
+      cursor.fetch(args);
+      this.allNodes.add(cursor);
+    }
+    this.nodes = new ArrayList<>(allNodes);
+  }
+
+  /**
+   * @param targetLatency the latency of a cursor read which the COUNT adapts to; default is 100
+   * milliseconds
+   */
+  public FtAggregateSpliterator setTargetLatency(Duration targetLatency) {
+    this.targetLatencyNanos = targetLatency.toNanos();
+    return this;
+  }
+
+  /**
+   * @param maxCount the maximum COUNT of a cursor read; default is 10000
+   */
+  public FtAggregateSpliterator setMaxCount(int maxCount) {
+    if (maxCount < 1) {
+      throw new IllegalArgumentException("Count must be positive.");
+    }
+    this.maxCount = maxCount;
+    return this;
+  }
+
+  /**
+   * @return a stream which deletes the cursors when closed
+   */
+  public Stream<Row> stream() {
+    return StreamSupport.stream(this, false).onClose(this::close);
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super Row> action) {
+    while (true) {
+      nodes.removeIf(NodeCursor::isCompleted);
+      if (nodes.isEmpty()) {
+        return false;
+      }
+
+      for (NodeCursor node : nodes) {
+        if (node.page.hasNext()) {
+          action.accept(node.page.next());
+          return true;
+        }
+      }
+
+      boolean paged = false;
+      for (NodeCursor node : nodes) {
+        if (node.pending != null && node.pending.isDone()) {
+          node.nextPage();
+          paged = true;
+        }
+      }
+
+      if (!paged) {
+        // wait for any node
+        try {
+          CompletableFuture.anyOf(nodes.stream().map(node -> node.pending)
+              .toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ce) {
+          // the failure is thrown by nextPage() of the failed node
+        }
+      }
+    }
+  }
+
+  /**
+   * The rows are not split; the nodes are read concurrently anyway.
+   */
+  @Override
+  public Spliterator<Row> trySplit() {
+    return null;
+  }
+
+  @Override
+  public long estimateSize() {
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public int characteristics() {
+    return NONNULL;
+  }
+
+  /**
+   * Waits for the pending reads, and deletes the cursors which are not exhausted.
+   */
+  @Override
+  public void close() {
+    nodes.clear();
+    allNodes.forEach(NodeCursor::close);
+  }
+
+  private static class Page {
+
+    private final AggregationResult result;
+    private final long latencyNanos;
+
+    Page(AggregationResult result, long latencyNanos) {
+      this.result = result;
+      this.latencyNanos = latencyNanos;
+    }
+  }
+
+  private class NodeCursor {
+
+    private final Object node;
+    private int count;
+    private long cursorId = 0;
+
+    private Iterator<Row> page = Collections.emptyIterator();
+    private CompletableFuture<Page> pending;
+
+    NodeCursor(Object node, int count) {
+      this.node = node;
+      this.count = count;
+    }
+
+    boolean isCompleted() {
+      return pending == null && !page.hasNext();
+    }
+
+    void fetch(CommandArguments args) {
+      pending = CompletableFuture.supplyAsync(() -> {
+        long start = System.nanoTime();
+        AggregationResult result = AggregationResult.SEARCH_AGGREGATION_RESULT_WITH_CURSOR
+            .build(execute(args));
+        return new Page(result, System.nanoTime() - start);
+      }, executor);
+    }
+
+    /**
+     * Takes the fetched page and starts reading the next one.
+     */
+    void nextPage() {
+      Page fetched;
+      try {
+        fetched = pending.join();
+      } catch (CompletionException ce) {
+        pending = null;
+        throw ce.getCause() instanceof JedisException ? (JedisException) ce.getCause()
+            : new JedisException(ce.getCause());
+      }
+      pending = null;
+      cursorId = fetched.result.getCursorId();
+      if (cursorId != 0) {
+        adaptCount(fetched.latencyNanos);
+        fetch(new CommandArguments(SearchCommand.CURSOR).add(SearchKeyword.READ).add(indexName)
+            .add(cursorId).add(SearchKeyword.COUNT).add(count));
+      }
+      page = fetched.result.getRows().iterator();
+    }
+
+    private void adaptCount(long latencyNanos) {
+      long target = targetLatencyNanos;
+      if (latencyNanos < target / 2) {
+        count = (int) Math.min((long) count * 2, Integer.MAX_VALUE);
+      } else if (latencyNanos > target) {
+        count = Math.max(count / 2, 1);
+      }
+      count = Math.min(count, maxCount);
+    }
+
+    void close() {
+      if (pending != null) {
+        try {
+          cursorId = pending.join().result.getCursorId();
+        } catch (CompletionException | CancellationException e) {
+          // the cursor of a failed read is deleted if its id is known
+        }
+        pending = null;
+      }
+      page = Collections.emptyIterator();
+      if (cursorId != 0) {
+        try {
+          execute(new CommandArguments(SearchCommand.CURSOR).add(SearchKeyword.DEL).add(indexName)
+              .add(cursorId));
+        } catch (JedisException je) {
+          log.warn("Deleting cursor {} of index {} failed.", cursorId, indexName, je);
+        }
+        cursorId = 0;
+      }
+    }
+
+    private Object execute(CommandArguments args) {
+      if (node instanceof Connection) {
+        return ((Connection) node).executeCommand(args);
+      } else if (node instanceof Pool) {
+        try (Connection c = ((Pool<Connection>) node).getResource()) {
+          return c.executeCommand(args);
+        }
+      } else {
+        throw new IllegalArgumentException(node.getClass() + " is not supported.");
+      }
+    }
+  }
+}
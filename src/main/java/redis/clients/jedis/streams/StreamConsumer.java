@@ -0,0 +1,531 @@
+package redis.clients.jedis.streams;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.metrics.LatencyHistogram;
+import redis.clients.jedis.params.XAutoClaimParams;
+import redis.clients.jedis.params.XReadGroupParams;
+import redis.clients.jedis.resps.StreamEntry;
+
+/**
+ * Consumes a stream as a member of a consumer group.
+ * <p>
+ * A reading thread reads batches of entries by {@code XREADGROUP} with {@code COUNT} and
+ * {@code BLOCK}, and hands each entry to the {@link Handler} on an {@link Executor}. The entries
+ * which are handled without an exception are acknowledged by {@code XACK}, in batches which are
+ * pipelined: when a batch is full, and after each read, i.e. at least every block duration. The
+ * entries which fail stay pending, and are claimed again by {@code XAUTOCLAIM} once they have been
+ * idle for the minimum idle time; so are the entries of consumers which have died. The entries are
+ * therefore handled at least once.
+ * <p>
+ * At most {@code maxInFlight} entries are read and not yet handled: the consumer does not read
+ * more entries while the handlers are behind.
+ */
+@Experimental
+public class StreamConsumer implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(StreamConsumer.class);
+
+  /**
+   * Handles the entries of a stream.
+   */
+  @FunctionalInterface
+  public interface Handler {
+
+    /**
+     * Handles an entry. The entry is acknowledged if this method returns normally.
+     */
+    void handle(StreamEntry entry) throws Exception;
+  }
+
+  private static final StreamEntryID CLAIM_START = new StreamEntryID(0, 0);
+
+  private final UnifiedJedis jedis;
+  private final String stream;
+  private final String group;
+  private final String consumer;
+  private final Handler handler;
+
+  private final int batchSize;
+  private final int blockMillis;
+  private final int maxInFlight;
+  private final int ackBatchSize;
+  private final long claimIntervalNanos;
+  private final long minIdleMillis;
+  private final long retryMillis;
+  private final StreamEntryID groupStart;
+  private final Executor executor;
+  private final ExecutorService ownedExecutor;
+
+  private final Semaphore permits;
+  private final Queue<StreamEntryID> acks = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingAcks = new AtomicInteger();
+  private final Lock ackLock = new ReentrantLock();
+
+  private final LongAdder processed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder acknowledged = new LongAdder();
+  private final LongAdder ackFailures = new LongAdder();
+  private final LongAdder claimed = new LongAdder();
+  private final LatencyHistogram lag = new LatencyHistogram();
+  private final LatencyHistogram processingTime = new LatencyHistogram();
+
+  private volatile boolean running = false;
+  private Thread reader;
+  private StreamEntryID claimCursor = CLAIM_START;
+
+  private StreamConsumer(Builder builder) {
+    this.jedis = builder.jedis;
+    this.stream = builder.stream;
+    this.group = builder.group;
+    this.consumer = builder.consumer;
+    this.handler = Objects.requireNonNull(builder.handler, "Handler must not be null.");
+    this.batchSize = builder.batchSize;
+    this.blockMillis = (int) builder.block.toMillis();
+    this.maxInFlight = builder.maxInFlight;
+    this.ackBatchSize = builder.ackBatchSize;
+    this.claimIntervalNanos = builder.claimInterval == null ? 0 : builder.claimInterval.toNanos();
+    this.minIdleMillis = builder.minIdleTime.toMillis();
+    this.retryMillis = builder.retryBackoff.toMillis();
+    this.groupStart = builder.groupStart;
+    if (builder.executor != null) {
+      this.executor = builder.executor;
+      this.ownedExecutor = null;
+    } else {
+      this.ownedExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+      this.executor = ownedExecutor;
+    }
+    this.permits = new Semaphore(maxInFlight);
+  }
+
+  /**
+   * @param jedis the client, e.g. a {@link redis.clients.jedis.JedisPooled} or a
+   * {@link redis.clients.jedis.JedisCluster}
+   * @param stream the key of the stream
+   * @param group the consumer group
+   * @param consumer the name of this consumer in the group
+   */
+  public static Builder builder(UnifiedJedis jedis, String stream, String group, String consumer) {
+    return new Builder(jedis, stream, group, consumer);
+  }
+
+  public static class Builder {
+
+    private final UnifiedJedis jedis;
+    private final String stream;
+    private final String group;
+    private final String consumer;
+
+    private Handler handler;
+    private int batchSize = 100;
+    private Duration block = Duration.ofSeconds(1);
+    private int maxInFlight = 1000;
+    private int ackBatchSize = 100;
+    private Duration claimInterval = Duration.ofSeconds(30);
+    private Duration minIdleTime = Duration.ofMinutes(1);
+    private Duration retryBackoff = Duration.ofSeconds(1);
+    private StreamEntryID groupStart = null;
+    private Executor executor = null;
+
+    private Builder(UnifiedJedis jedis, String stream, String group, String consumer) {
+      this.jedis = jedis;
+      this.stream = stream;
+      this.group = group;
+      this.consumer = consumer;
+    }
+
+    public Builder handler(Handler handler) {
+      this.handler = handler;
+      return this;
+    }
+
+    /**
+     * The maximum number of entries read at once. Default 100.
+     */
+    public Builder batchSize(int batchSize) {
+      if (batchSize < 1) {
+        throw new IllegalArgumentException("Batch size must be positive.");
+      }
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * How long {@code XREADGROUP} waits for new entries, at least 1 millisecond, as
+     * {@code BLOCK 0} waits forever. Default 1 second.
+     */
+    public Builder block(Duration block) {
+      if (block.toMillis() < 1) {
+        throw new IllegalArgumentException("Block duration must be at least 1 millisecond.");
+      }
+      this.block = block;
+      return this;
+    }
+
+    /**
+     * The maximum number of entries read and not yet handled. Default 1000.
+     */
+    public Builder maxInFlight(int maxInFlight) {
+      if (maxInFlight < 1) {
+        throw new IllegalArgumentException("Max in-flight entries must be positive.");
+      }
+      this.maxInFlight = maxInFlight;
+      return this;
+    }
+
+    /**
+     * The maximum number of entries acknowledged by one {@code XACK}. Default 100.
+     */
+    public Builder ackBatchSize(int ackBatchSize) {
+      if (ackBatchSize < 1) {
+        throw new IllegalArgumentException("Ack batch size must be positive.");
+      }
+      this.ackBatchSize = ackBatchSize;
+      return this;
+    }
+
+    /**
+     * How often the idle pending entries are claimed, {@code null} to never claim them. Default 30
+     * seconds.
+     */
+    public Builder claimInterval(Duration claimInterval) {
+      this.claimInterval = claimInterval;
+      return this;
+    }
+
+    /**
+     * How long an entry must have been pending to be claimed. Default 1 minute.
+     */
+    public Builder minIdleTime(Duration minIdleTime) {
+      this.minIdleTime = minIdleTime;
+      return this;
+    }
+
+    /**
+     * How long to wait before reading again after a failure. Default 1 second.
+     */
+    public Builder retryBackoff(Duration retryBackoff) {
+      this.retryBackoff = retryBackoff;
+      return this;
+    }
+
+    /**
+     * Creates the group, and the stream, on {@link StreamConsumer#start()} if they do not exist.
+     *
+     * @param start the last entry considered delivered to the group, e.g.
+     * {@link StreamEntryID#XGROUP_LAST_ENTRY}
+     */
+    public Builder createGroup(StreamEntryID start) {
+      this.groupStart = start;
+      return this;
+    }
+
+    /**
+     * The executor of the handlers. By default, a fixed thread pool with a thread per processor,
+     * which is shut down when the consumer is closed.
+     */
+    public Builder executor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    public StreamConsumer build() {
+      return new StreamConsumer(this);
+    }
+  }
+
+  /**
+   * Starts reading the stream.
+   */
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    if (groupStart != null) {
+      try {
+        jedis.xgroupCreate(stream, group, groupStart, true);
+      } catch (JedisDataException jde) {
+        if (jde.getMessage() == null || !jde.getMessage().startsWith("BUSYGROUP")) {
+          throw jde;
+        }
+      }
+    }
+    running = true;
+    reader = new Thread(this::run, "jedis-stream-consumer-" + stream + "-" + consumer);
+    reader.setDaemon(true);
+    reader.start();
+  }
+
+  /**
+   * Stops reading the stream, waits for the entries which are read to be handled, and
+   * acknowledges them.
+   */
+  @Override
+  public void close() {
+    Thread reader;
+    synchronized (this) {
+      running = false;
+      reader = this.reader;
+      this.reader = null;
+    }
+    if (reader != null) {
+      try {
+        reader.join();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (ownedExecutor != null) {
+      ownedExecutor.shutdown();
+    }
+  }
+
+  private void run() {
+    long nextClaim = System.nanoTime();
+    while (running) {
+      try {
+        if (claimIntervalNanos > 0 && System.nanoTime() - nextClaim >= 0) {
+          // claim the next page right away until all the idle entries are claimed
+          nextClaim = claim() ? System.nanoTime() : System.nanoTime() + claimIntervalNanos;
+        }
+        int count = acquire(batchSize);
+        if (count > 0) {
+          read(count);
+        }
+        flushAcks(false);
+      } catch (InterruptedException ie) {
+        break;
+      } catch (RuntimeException re) {
+        // e.g. a JedisException, or an unexpected reply; the reader keeps running
+        log.warn("Reading stream {} failed.", stream, re);
+        try {
+          Thread.sleep(retryMillis);
+        } catch (InterruptedException ie) {
+          break;
+        }
+      }
+    }
+    awaitInFlight();
+    flushAcks(true);
+  }
+
+  /**
+   * Acquires up to {@code max} permits, waiting at most the block duration for the first one.
+   */
+  private int acquire(int max) throws InterruptedException {
+    if (!permits.tryAcquire(blockMillis, TimeUnit.MILLISECONDS)) {
+      return 0;
+    }
+    int count = 1;
+    while (count < max && permits.tryAcquire()) {
+      count++;
+    }
+    return count;
+  }
+
+  private void read(int count) {
+    List<StreamEntry> entries = Collections.emptyList();
+    try {
+      List<Map.Entry<String, List<StreamEntry>>> reply = jedis.xreadGroup(group, consumer,
+          XReadGroupParams.xReadGroupParams().count(count).block(blockMillis),
+          Collections.singletonMap(stream, StreamEntryID.XREADGROUP_UNDELIVERED_ENTRY));
+      if (reply != null && !reply.isEmpty() && reply.get(0).getValue() != null) {
+        entries = reply.get(0).getValue();
+      }
+    } finally {
+      permits.release(count - entries.size());
+    }
+    entries.forEach(this::submit);
+  }
+
+  /**
+   * @return whether there are more idle entries to claim
+   */
+  private boolean claim() throws InterruptedException {
+    Map.Entry<StreamEntryID, List<StreamEntry>> reply = jedis.xautoclaim(stream, group, consumer,
+        minIdleMillis, claimCursor, XAutoClaimParams.xAutoClaimParams().count(batchSize));
+    claimCursor = reply.getKey() == null ? CLAIM_START : reply.getKey();
+    for (StreamEntry entry : reply.getValue()) {
+      if (entry == null || entry.getID() == null) {
+        // deleted from the stream
+        continue;
+      }
+      permits.acquire();
+      claimed.increment();
+      submit(entry);
+    }
+    return !CLAIM_START.equals(claimCursor);
+  }
+
+  private void submit(StreamEntry entry) {
+    try {
+      executor.execute(() -> handle(entry));
+    } catch (RejectedExecutionException ree) {
+      permits.release();
+      log.warn("Handling entry {} of stream {} was rejected.", entry.getID(), stream, ree);
+    }
+  }
+
+  private void handle(StreamEntry entry) {
+    long start = System.nanoTime();
+    lag.record(Math.max(0, System.currentTimeMillis() - entry.getID().getTime()) * 1_000_000L);
+    try {
+      handler.handle(entry);
+      processed.increment();
+      acks.add(entry.getID());
+      if (pendingAcks.incrementAndGet() >= ackBatchSize) {
+        flushAcks(false);
+      }
+    } catch (Exception e) {
+      failed.increment();
+      log.warn("Handling entry {} of stream {} failed.", entry.getID(), stream, e);
+    } finally {
+      processingTime.record(System.nanoTime() - start);
+      permits.release();
+    }
+  }
+
+  private void awaitInFlight() {
+    try {
+      permits.acquire(maxInFlight);
+      permits.release(maxInFlight);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Acknowledges the handled entries, by a pipeline of {@code XACK} commands. Unless forced, does
+   * nothing if another thread is acknowledging.
+   */
+  private void flushAcks(boolean force) {
+    if (pendingAcks.get() == 0) {
+      return;
+    }
+    if (force) {
+      ackLock.lock();
+    } else if (!ackLock.tryLock()) {
+      return;
+    }
+    try {
+      List<StreamEntryID> ids = new ArrayList<>(pendingAcks.get());
+      for (StreamEntryID id; (id = acks.poll()) != null; ) {
+        ids.add(id);
+      }
+      pendingAcks.addAndGet(-ids.size());
+      if (ids.isEmpty()) {
+        return;
+      }
+      List<Response<Long>> replies = new ArrayList<>();
+      List<Integer> batchSizes = new ArrayList<>();
+      try (AbstractPipeline pipeline = jedis.pipelined()) {
+        for (int from = 0; from < ids.size(); from += ackBatchSize) {
+          List<StreamEntryID> batch = ids.subList(from, Math.min(ids.size(), from + ackBatchSize));
+          replies.add(pipeline.xack(stream, group, batch.toArray(new StreamEntryID[0])));
+          batchSizes.add(batch.size());
+        }
+      } catch (JedisException je) {
+        // the entries stay pending, and are claimed again
+        log.warn("Acknowledging {} entries of stream {} failed.", ids.size(), stream, je);
+        ackFailures.add(ids.size());
+        return;
+      }
+      for (int i = 0; i < replies.size(); i++) {
+        try {
+          // entries which are no longer pending, e.g. claimed by another consumer, are not counted
+          acknowledged.add(replies.get(i).get());
+        } catch (JedisException | IllegalStateException e) {
+          // an error reply, or the reply of a node which failed in the pipeline
+          log.warn("Acknowledging {} entries of stream {} failed.", batchSizes.get(i), stream, e);
+          ackFailures.add(batchSizes.get(i));
+        }
+      }
+    } finally {
+      ackLock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of entries which are read and not yet handled
+   */
+  public int getInFlight() {
+    return maxInFlight - permits.availablePermits();
+  }
+
+  /**
+   * @return the number of handled entries which are not yet acknowledged
+   */
+  public int getPendingAcks() {
+    return pendingAcks.get();
+  }
+
+  public long getProcessed() {
+    return processed.sum();
+  }
+
+  public long getFailed() {
+    return failed.sum();
+  }
+
+  /**
+   * @return the number of entries acknowledged, as replied by {@code XACK}
+   */
+  public long getAcknowledged() {
+    return acknowledged.sum();
+  }
+
+  /**
+   * @return the number of entries whose {@code XACK} failed; they stay pending and are claimed again
+   */
+  public long getAckFailures() {
+    return ackFailures.sum();
+  }
+
+  /**
+   * @return the number of entries claimed from idle consumers, or handled again after a failure
+   */
+  public long getClaimed() {
+    return claimed.sum();
+  }
+
+  /**
+   * @return the times from adding the entries to the stream, by the time of their ID, to handling
+   * them
+   */
+  public LatencyHistogram.Snapshot getLag() {
+    return lag.snapshot();
+  }
+
+  /**
+   * @return the times taken by the handler
+   */
+  public LatencyHistogram.Snapshot getProcessingTime() {
+    return processingTime.snapshot();
+  }
+}
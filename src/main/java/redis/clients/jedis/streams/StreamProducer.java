@@ -0,0 +1,294 @@
+package redis.clients.jedis.streams;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.XAddParams;
+
+/**
+ * Adds entries to streams in batches.
+ * <p>
+ * The entries are buffered per stream, and sent by pipelined {@code XADD} commands on a background
+ * thread: when {@code batchSize} entries of a stream are buffered, and at least every
+ * {@code lingerTime}. All the buffered entries are sent together, grouped by stream, in the order
+ * they are added to each stream. With a {@link redis.clients.jedis.JedisCluster}, the pipeline sends
+ * the entries of each stream to the node which owns its slot. The IDs of the entries are reported by
+ * the futures returned by {@link #add(String, Map)}.
+ * <p>
+ * Unless other parameters are given for an entry, the streams are trimmed approximately, by
+ * {@code MAXLEN ~} or {@code MINID ~} if configured.
+ */
+@Experimental
+public class StreamProducer implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(StreamProducer.class);
+
+  private final UnifiedJedis jedis;
+  private final int batchSize;
+  private final Long maxLen;
+  private final String minId;
+  private final ScheduledExecutorService scheduler;
+
+  private final Object bufferLock = new Object();
+  private Map<String, List<Entry>> buffers = new LinkedHashMap<>();
+  private int buffered = 0;
+  private boolean flushScheduled = false;
+  private boolean closed = false;
+  private final Lock flushLock = new ReentrantLock();
+
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+
+  private static final class Entry {
+
+    private final String key;
+    private final XAddParams params;
+    private final Map<String, String> fields;
+    private final CompletableFuture<StreamEntryID> future = new CompletableFuture<>();
+
+    Entry(String key, XAddParams params, Map<String, String> fields) {
+      this.key = key;
+      this.params = params;
+      this.fields = fields;
+    }
+  }
+
+  private StreamProducer(Builder builder) {
+    this.jedis = builder.jedis;
+    this.batchSize = builder.batchSize;
+    this.maxLen = builder.maxLen;
+    this.minId = builder.minId;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "jedis-stream-producer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long linger = builder.lingerTime.toNanos();
+    scheduler.scheduleWithFixedDelay(this::flushQuietly, linger, linger, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @param jedis the client, e.g. a {@link redis.clients.jedis.JedisPooled} or a
+   * {@link redis.clients.jedis.JedisCluster}
+   */
+  public static Builder builder(UnifiedJedis jedis) {
+    return new Builder(jedis);
+  }
+
+  public static class Builder {
+
+    private final UnifiedJedis jedis;
+    private int batchSize = 100;
+    private Duration lingerTime = Duration.ofMillis(10);
+    private Long maxLen = null;
+    private String minId = null;
+
+    private Builder(UnifiedJedis jedis) {
+      this.jedis = jedis;
+    }
+
+    /**
+     * The number of buffered entries of a stream which are sent at once. Default 100.
+     */
+    public Builder batchSize(int batchSize) {
+      if (batchSize < 1) {
+        throw new IllegalArgumentException("Batch size must be positive.");
+      }
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * How long an entry may stay buffered. Default 10 milliseconds.
+     */
+    public Builder lingerTime(Duration lingerTime) {
+      if (lingerTime.isNegative() || lingerTime.isZero()) {
+        throw new IllegalArgumentException("Linger time must be positive.");
+      }
+      this.lingerTime = lingerTime;
+      return this;
+    }
+
+    /**
+     * Trims the streams to about {@code maxLen} entries.
+     */
+    public Builder maxLen(long maxLen) {
+      this.maxLen = maxLen;
+      return this;
+    }
+
+    /**
+     * Trims the entries of the streams with IDs lower than about {@code minId}.
+     */
+    public Builder minId(String minId) {
+      this.minId = minId;
+      return this;
+    }
+
+    public StreamProducer build() {
+      if (maxLen != null && minId != null) {
+        throw new IllegalArgumentException("MAXLEN and MINID cannot be used together.");
+      }
+      return new StreamProducer(this);
+    }
+  }
+
+  /**
+   * Adds an entry with an ID generated by Redis, trimming the stream as configured.
+   *
+   * @return the ID of the entry, once it is sent
+   */
+  public CompletableFuture<StreamEntryID> add(String key, Map<String, String> fields) {
+    return add(key, defaultParams(), fields);
+  }
+
+  /**
+   * Adds an entry.
+   *
+   * @return the ID of the entry, once it is sent
+   */
+  public CompletableFuture<StreamEntryID> add(String key, XAddParams params, Map<String, String> fields) {
+    Entry entry = new Entry(key, params, fields);
+    boolean full;
+    synchronized (bufferLock) {
+      if (closed) {
+        throw new JedisException("The stream producer is closed.");
+      }
+      List<Entry> entries = buffers.computeIfAbsent(key, k -> new ArrayList<>());
+      entries.add(entry);
+      buffered++;
+      full = entries.size() >= batchSize && !flushScheduled;
+      if (full) {
+        flushScheduled = true;
+      }
+    }
+    if (full) {
+      try {
+        scheduler.execute(this::flushQuietly);
+      } catch (RejectedExecutionException ree) {
+        // closed concurrently; close() sends the buffered entries
+      }
+    }
+    return entry.future;
+  }
+
+  private XAddParams defaultParams() {
+    XAddParams params = XAddParams.xAddParams();
+    if (maxLen != null) {
+      params.maxLen(maxLen).approximateTrimming();
+    } else if (minId != null) {
+      params.minId(minId).approximateTrimming();
+    }
+    return params;
+  }
+
+  /**
+   * Sends the buffered entries, and waits for their IDs.
+   */
+  public void flush() {
+    flushLock.lock();
+    try {
+      final List<Entry> entries;
+      synchronized (bufferLock) {
+        flushScheduled = false;
+        if (buffered == 0) {
+          return;
+        }
+        entries = new ArrayList<>(buffered);
+        buffers.values().forEach(entries::addAll);
+        buffers = new LinkedHashMap<>();
+        buffered = 0;
+      }
+      send(entries);
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException re) {
+      log.warn("Flushing stream entries failed.", re);
+    }
+  }
+
+  private void send(List<Entry> entries) {
+    List<Response<StreamEntryID>> responses = new ArrayList<>(entries.size());
+    try (AbstractPipeline pipeline = jedis.pipelined()) {
+      for (Entry entry : entries) {
+        responses.add(pipeline.xadd(entry.key, entry.params, entry.fields));
+      }
+    } catch (RuntimeException re) {
+      failed.add(entries.size());
+      entries.forEach(entry -> entry.future.completeExceptionally(re));
+      return;
+    }
+    for (int i = 0; i < entries.size(); i++) {
+      final StreamEntryID id;
+      try {
+        id = responses.get(i).get();
+      } catch (RuntimeException re) {
+        failed.increment();
+        entries.get(i).future.completeExceptionally(re);
+        continue;
+      }
+      sent.increment();
+      entries.get(i).future.complete(id);
+    }
+  }
+
+  /**
+   * Sends the buffered entries, and stops.
+   */
+  @Override
+  public void close() {
+    synchronized (bufferLock) {
+      closed = true;
+    }
+    scheduler.shutdownNow();
+    flush();
+  }
+
+  /**
+   * @return the number of entries which are not sent yet
+   */
+  public int getBuffered() {
+    synchronized (bufferLock) {
+      return buffered;
+    }
+  }
+
+  /**
+   * @return the number of entries which are added to their stream
+   */
+  public long getSent() {
+    return sent.sum();
+  }
+
+  /**
+   * @return the number of entries which could not be added to their stream
+   */
+  public long getFailed() {
+    return failed.sum();
+  }
+}
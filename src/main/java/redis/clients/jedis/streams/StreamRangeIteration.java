@@ -0,0 +1,151 @@
+package redis.clients.jedis.streams;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import redis.clients.jedis.BuilderFactory;
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.CommandObjects;
+import redis.clients.jedis.annots.Experimental;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.providers.ConnectionProvider;
+import redis.clients.jedis.resps.StreamEntry;
+import redis.clients.jedis.util.JedisCommandIterationBase;
+
+/**
+ * Iterates the entries of a stream, by pages of {@code XRANGE} or {@code XREVRANGE} commands.
+ * <p>
+ * Each page starts after the last entry of the previous page (exclusive ranges require Redis 6.2).
+ * The fields of the entries are decoded when they are first accessed.
+ */
+@Experimental
+public class StreamRangeIteration extends JedisCommandIterationBase<List<StreamEntry>, StreamEntry> {
+
+  private final int batchSize;
+  private final String from;
+  private final Function<String, CommandArguments> args;
+
+  /**
+   * @param from the first ID, {@code -} or {@code +} (if reverse) for the first entry of the stream
+   * @param to the last ID, {@code +} or {@code -} (if reverse) for the last entry of the stream
+   * @param reverse whether to iterate from the newest entries, by {@code XREVRANGE}
+   */
+  public StreamRangeIteration(ConnectionProvider connectionProvider, CommandObjects commandObjects,
+      int batchSize, String key, String from, String to, boolean reverse) {
+    super(connectionProvider, BuilderFactory.STREAM_ENTRY_LIST, true);
+    this.batchSize = batchSize;
+    this.from = from;
+    this.args = reverse
+        ? (start) -> commandObjects.xrevrange(key, start, to, batchSize).getArguments()
+        : (start) -> commandObjects.xrange(key, start, to, batchSize).getArguments();
+  }
+
+  @Override
+  protected boolean isNodeCompleted(List<StreamEntry> reply) {
+    return reply.size() < batchSize;
+  }
+
+  @Override
+  protected CommandArguments initCommandArguments() {
+    return args.apply(from);
+  }
+
+  @Override
+  protected CommandArguments nextCommandArguments(List<StreamEntry> lastReply) {
+    return args.apply("(" + lastReply.get(lastReply.size() - 1).getID());
+  }
+
+  @Override
+  protected Collection<StreamEntry> convertBatchToData(List<StreamEntry> batch) {
+    return batch;
+  }
+
+  /**
+   * Iterates the entries, fetching the next page on {@code executor} while the current one is
+   * consumed. The first page is fetched immediately.
+   * <p>
+   * This iteration should not be used otherwise while the iterator is in use.
+   *
+   * @param executor runs the range commands
+   */
+  public Iterator<StreamEntry> iterator(Executor executor) {
+    return new PrefetchingIterator(executor);
+  }
+
+  /**
+   * Streams the entries, fetching the next page on {@code executor} while the current one is
+   * consumed. See {@link #iterator(Executor)}.
+   * <p>
+   * The returned stream should be closed if it is not fully consumed.
+   *
+   * @param executor runs the range commands
+   */
+  public Stream<StreamEntry> stream(Executor executor) {
+    PrefetchingIterator iterator = new PrefetchingIterator(executor);
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+        Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::cancel);
+  }
+
+  private class PrefetchingIterator implements Iterator<StreamEntry> {
+
+    private final Executor executor;
+    private Iterator<StreamEntry> page = Collections.emptyIterator();
+    private CompletableFuture<Collection<StreamEntry>> pending;
+
+    PrefetchingIterator(Executor executor) {
+      this.executor = executor;
+      fetch();
+    }
+
+    private void fetch() {
+      pending = isIterationCompleted() ? null
+          : CompletableFuture.supplyAsync(StreamRangeIteration.this::nextBatchList, executor);
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!page.hasNext()) {
+        if (pending == null) {
+          return false;
+        }
+        Collection<StreamEntry> fetched;
+        try {
+          fetched = pending.join();
+        } catch (CompletionException ce) {
+          pending = null;
+          throw ce.getCause() instanceof JedisException ? (JedisException) ce.getCause()
+              : new JedisException(ce.getCause());
+        }
+        fetch();
+        page = fetched.iterator();
+      }
+      return true;
+    }
+
+    @Override
+    public StreamEntry next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return page.next();
+    }
+
+    void cancel() {
+      if (pending != null) {
+        pending.cancel(false);
+        pending = null;
+      }
+    }
+  }
+}
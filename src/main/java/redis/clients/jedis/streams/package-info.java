@@ -0,0 +1,4 @@
+/**
+ * This package contains the classes of the stream consumer and producer frameworks.
+ */
+package redis.clients.jedis.streams;
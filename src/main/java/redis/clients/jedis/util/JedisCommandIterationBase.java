@@ -32,10 +32,25 @@ public abstract class JedisCommandIterationBase<B, D> {
   private boolean iterationCompleted;
 
   protected JedisCommandIterationBase(ConnectionProvider connectionProvider, Builder<B> responseBuilder) {
-    Map connectionMap = connectionProvider.getConnectionMap();
-    ArrayList<Map.Entry> connectionList = new ArrayList<>(connectionMap.entrySet());
-    Collections.shuffle(connectionList);
-    this.connections = new LinkedList<>(connectionList);
+    this(connectionProvider, responseBuilder, false);
+  }
+
+  /**
+   * @param routeByArguments if {@code true}, there is a single iteration and each of its commands is
+   * sent to the connection which the provider selects by the command arguments, e.g. to the node
+   * which owns the key in cluster mode; otherwise, all connections of the provider are iterated
+   */
+  protected JedisCommandIterationBase(ConnectionProvider connectionProvider, Builder<B> responseBuilder,
+      boolean routeByArguments) {
+    if (routeByArguments) {
+      this.connections = new LinkedList<>(Collections.singletonMap(connectionProvider.toString(),
+          connectionProvider).entrySet());
+    } else {
+      Map connectionMap = connectionProvider.getConnectionMap();
+      ArrayList<Map.Entry> connectionList = new ArrayList<>(connectionMap.entrySet());
+      Collections.shuffle(connectionList);
+      this.connections = new LinkedList<>(connectionList);
+    }
     this.builder = responseBuilder;
     this.iterationCompleted = true;
     this.roundRobinCompleted = this.connections.isEmpty();
@@ -71,6 +86,10 @@ public abstract class JedisCommandIterationBase<B, D> {
       try (Connection c = ((Pool<Connection>) connection.getValue()).getResource()) {
         rawReply = c.executeCommand(args);
       }
+    } else if (connection.getValue() instanceof ConnectionProvider) {
+      try (Connection c = ((ConnectionProvider) connection.getValue()).getConnection(args)) {
+        rawReply = c.executeCommand(args);
+      }
     } else {
       throw new IllegalArgumentException(connection.getValue().getClass() + "is not supported.");
     }
@@ -0,0 +1,29 @@
+package redis.clients.jedis.util;
+
+/**
+ * Jump consistent hash (Lamping and Veach). When a shard is added at the end, only the keys which
+ * move to the new shard change their shard.
+ */
+public class JumpShardSelector implements ShardSelector {
+
+  private final int buckets;
+
+  public JumpShardSelector(int shards) {
+    if (shards < 1) {
+      throw new IllegalArgumentException("At least one shard is required.");
+    }
+    this.buckets = shards;
+  }
+
+  @Override
+  public int getShard(long keyHash) {
+    long key = keyHash;
+    long b = -1, j = 0;
+    while (j < buckets) {
+      b = j;
+      key = key * 2862933555777941757L + 1;
+      j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+    }
+    return (int) b;
+  }
+}
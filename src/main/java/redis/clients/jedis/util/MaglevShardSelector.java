@@ -0,0 +1,78 @@
+package redis.clients.jedis.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+import redis.clients.jedis.HostAndPort;
+
+/**
+ * Maglev hashing. Each shard fills the slots of a lookup table in its own permutation order, so the
+ * shards own an almost equal number of slots and a lookup is a single array access.
+ */
+public class MaglevShardSelector implements ShardSelector {
+
+  public static final int DEFAULT_TABLE_SIZE = 65537;
+
+  private final int[] table;
+
+  public MaglevShardSelector(List<HostAndPort> shards, Hashing algo) {
+    this(shards, algo, DEFAULT_TABLE_SIZE);
+  }
+
+  /**
+   * @param tableSize a prime number, much larger than the number of shards
+   */
+  public MaglevShardSelector(List<HostAndPort> shards, Hashing algo, int tableSize) {
+    if (shards.isEmpty()) {
+      throw new IllegalArgumentException("At least one shard is required.");
+    }
+    if (tableSize < shards.size() || !isPrime(tableSize)) {
+      throw new IllegalArgumentException("Table size must be a prime, not smaller than the number of shards.");
+    }
+
+    final int n = shards.size();
+    long[] offset = new long[n];
+    long[] skip = new long[n];
+    for (int i = 0; i < n; i++) {
+      String name = shards.get(i).toString();
+      offset[i] = Math.floorMod(algo.hash("MAGLEV-OFFSET-" + name), (long) tableSize);
+      skip[i] = Math.floorMod(algo.hash("MAGLEV-SKIP-" + name), (long) tableSize - 1) + 1;
+    }
+
+    table = new int[tableSize];
+    Arrays.fill(table, -1);
+    long[] next = new long[n];
+    int filled = 0;
+    while (true) {
+      for (int i = 0; i < n; i++) {
+        int slot = (int) ((offset[i] + next[i] * skip[i]) % tableSize);
+        while (table[slot] >= 0) {
+          next[i]++;
+          slot = (int) ((offset[i] + next[i] * skip[i]) % tableSize);
+        }
+        table[slot] = i;
+        next[i]++;
+        if (++filled == tableSize) {
+          return;
+        }
+      }
+    }
+  }
+
+  private static boolean isPrime(int number) {
+    if (number < 2) {
+      return false;
+    }
+    for (int d = 2; (long) d * d <= number; d++) {
+      if (number % d == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int getShard(long keyHash) {
+    return table[(int) Math.floorMod(keyHash, (long) table.length)];
+  }
+}
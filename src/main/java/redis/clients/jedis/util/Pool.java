@@ -1,5 +1,6 @@
 package redis.clients.jedis.util;
 
+import java.time.Duration;
 import org.apache.commons.pool2.PooledObjectFactory;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
@@ -43,6 +44,24 @@ public class Pool<T> extends GenericObjectPool<T> {
     }
   }
 
+  /**
+   * Same as {@link #getResource()} but waits at most {@code borrowMaxWait} for an idle resource. The
+   * configured max wait still applies if it is shorter; a negative max wait means no limit.
+   */
+  public T getResource(Duration borrowMaxWait) {
+    Duration maxWait = getMaxWaitDuration();
+    if (!maxWait.isNegative() && maxWait.compareTo(borrowMaxWait) < 0) {
+      borrowMaxWait = maxWait;
+    }
+    try {
+      return super.borrowObject(borrowMaxWait);
+    } catch (JedisException je) {
+      throw je;
+    } catch (Exception e) {
+      throw new JedisException("Could not get a resource from the pool", e);
+    }
+  }
+
   public void returnResource(final T resource) {
     if (resource == null) {
       return;
@@ -3,6 +3,7 @@ package redis.clients.jedis.util;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.FloatBuffer;
 
 /**
  * The class implements a buffered output stream without synchronization There are also special
@@ -133,6 +134,23 @@ public final class RedisOutputStream extends FilterOutputStream {
     writeCrLf();
   }
 
+  /**
+   * Writes the remaining floats of the buffer in little-endian order, encoding them in place. The
+   * position of the buffer is not changed.
+   */
+  public void writeFloatsLittleEndian(final FloatBuffer floats) throws IOException {
+    for (int i = floats.position(), limit = floats.limit(); i < limit; i++) {
+      if (Float.BYTES > buf.length - count) {
+        flushBuffer();
+      }
+      final int bits = Float.floatToRawIntBits(floats.get(i));
+      buf[count++] = (byte) bits;
+      buf[count++] = (byte) (bits >>> 8);
+      buf[count++] = (byte) (bits >>> 16);
+      buf[count++] = (byte) (bits >>> 24);
+    }
+  }
+
   @Override
   public void flush() throws IOException {
     flushBuffer();
@@ -0,0 +1,48 @@
+package redis.clients.jedis.util;
+
+import java.util.List;
+
+import redis.clients.jedis.HostAndPort;
+
+/**
+ * Rendezvous (highest random weight) hashing. A key belongs to the shard with the highest weight,
+ * which is mixed from the key hash and the seed of the shard. When a shard is added or removed, only
+ * the keys of that shard change their shard.
+ */
+public class RendezvousShardSelector implements ShardSelector {
+
+  private final long[] seeds;
+
+  public RendezvousShardSelector(List<HostAndPort> shards, Hashing algo) {
+    if (shards.isEmpty()) {
+      throw new IllegalArgumentException("At least one shard is required.");
+    }
+    this.seeds = new long[shards.size()];
+    for (int i = 0; i < seeds.length; i++) {
+      seeds[i] = algo.hash(shards.get(i).toString());
+    }
+  }
+
+  @Override
+  public int getShard(long keyHash) {
+    int shard = 0;
+    long max = Long.MIN_VALUE;
+    for (int i = 0; i < seeds.length; i++) {
+      long weight = mix(keyHash ^ seeds[i]);
+      if (weight > max || i == 0) {
+        max = weight;
+        shard = i;
+      }
+    }
+    return shard;
+  }
+
+  /**
+   * The finalizer of SplitMix64.
+   */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,68 @@
+package redis.clients.jedis.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import redis.clients.jedis.HostAndPort;
+
+/**
+ * A consistent hash ring of virtual nodes. A key belongs to the first virtual node whose hash is
+ * greater than or equal to the key hash, wrapping around at the end of the ring.
+ * <p>
+ * The ring is kept in sorted primitive arrays, so a lookup is a binary search without boxing.
+ */
+public class RingShardSelector implements ShardSelector {
+
+  private final long[] points;
+  private final int[] shards;
+
+  /**
+   * Places 160 virtual nodes per shard, named after the index of the shard.
+   */
+  public RingShardSelector(List<HostAndPort> shards, Hashing algo) {
+    this(toRing(shards, algo, 160, false));
+  }
+
+  private RingShardSelector(TreeMap<Long, Integer> ring) {
+    this.points = new long[ring.size()];
+    this.shards = new int[ring.size()];
+    int i = 0;
+    for (Map.Entry<Long, Integer> point : ring.entrySet()) {
+      this.points[i] = point.getKey();
+      this.shards[i] = point.getValue();
+      i++;
+    }
+  }
+
+  /**
+   * Places {@code replicas} virtual nodes per shard, named after the name of the shard.
+   */
+  public static RingShardSelector ofShardNames(List<HostAndPort> shards, Hashing algo, int replicas) {
+    return new RingShardSelector(toRing(shards, algo, replicas, true));
+  }
+
+  private static TreeMap<Long, Integer> toRing(List<HostAndPort> shards, Hashing algo, int replicas,
+      boolean shardNames) {
+    TreeMap<Long, Integer> ring = new TreeMap<>();
+    for (int i = 0; i < shards.size(); i++) {
+      for (int n = 0; n < replicas; n++) {
+        ring.put(algo.hash(shardNames ? shards.get(i).getName() + ":" + n : "SHARD-" + i + "-NODE-" + n), i);
+      }
+    }
+    return ring;
+  }
+
+  @Override
+  public int getShard(long keyHash) {
+    int index = Arrays.binarySearch(points, keyHash);
+    if (index < 0) {
+      index = -index - 1;
+      if (index == points.length) {
+        index = 0;
+      }
+    }
+    return shards[index];
+  }
+}
@@ -0,0 +1,41 @@
+package redis.clients.jedis.util;
+
+import java.util.List;
+
+import redis.clients.jedis.HostAndPort;
+
+/**
+ * Creates the {@link ShardSelector} for a list of shards.
+ * <p>
+ * {@link #RING} is the consistent hash ring of virtual nodes used by default. {@link #JUMP},
+ * {@link #MAGLEV} and {@link #RENDEZVOUS} place the keys differently, so a strategy can only be
+ * changed together with the data.
+ */
+@FunctionalInterface
+public interface ShardSelectionStrategy {
+
+  /**
+   * Consistent hash ring with 160 virtual nodes per shard; O(log n) lookup.
+   */
+  ShardSelectionStrategy RING = RingShardSelector::new;
+
+  /**
+   * Jump consistent hash; O(log n) lookup without a table. Shards can only be added or removed at
+   * the end of the list.
+   */
+  ShardSelectionStrategy JUMP = (shards, algo) -> new JumpShardSelector(shards.size());
+
+  /**
+   * Maglev hashing; O(1) lookup in a table of {@link MaglevShardSelector#DEFAULT_TABLE_SIZE}
+   * entries.
+   */
+  ShardSelectionStrategy MAGLEV = MaglevShardSelector::new;
+
+  /**
+   * Rendezvous (highest random weight) hashing; O(n) lookup over an array of shard seeds. Shards
+   * can be added or removed anywhere in the list.
+   */
+  ShardSelectionStrategy RENDEZVOUS = RendezvousShardSelector::new;
+
+  ShardSelector create(List<HostAndPort> shards, Hashing algo);
+}
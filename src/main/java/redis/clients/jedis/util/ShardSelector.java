@@ -0,0 +1,16 @@
+package redis.clients.jedis.util;
+
+/**
+ * Selects the shard which owns a key hash.
+ *
+ * @see ShardSelectionStrategy
+ */
+@FunctionalInterface
+public interface ShardSelector {
+
+  /**
+   * @param keyHash hash of the key, as computed by the {@link Hashing} algorithm of the shards
+   * @return index of the shard in the list of shards
+   */
+  int getShard(long keyHash);
+}
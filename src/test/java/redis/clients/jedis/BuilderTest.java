@@ -1,10 +1,17 @@
 package redis.clients.jedis;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
 
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Assert;
 import org.junit.Test;
 
+import redis.clients.jedis.resps.StreamEntry;
+import redis.clients.jedis.util.SafeEncoder;
+
 public class BuilderTest {
 
   @Test
@@ -25,4 +32,29 @@ public class BuilderTest {
       Assert.assertEquals("empty String", expected.getMessage());
     }
   }
+
+  @Test
+  public void buildStreamEntryID() {
+    StreamEntryID id = BuilderFactory.STREAM_ENTRY_ID.build("1700000000000-42".getBytes());
+    assertEquals(1700000000000L, id.getTime());
+    assertEquals(42, id.getSequence());
+    assertEquals(new StreamEntryID(Long.MAX_VALUE, 0), new StreamEntryID(Long.MAX_VALUE + "-0"));
+
+    assertThrows(IllegalArgumentException.class, () -> new StreamEntryID("1700000000000"));
+    assertThrows(NumberFormatException.class, () -> new StreamEntryID("1-"));
+    assertThrows(NumberFormatException.class, () -> new StreamEntryID("1-x".getBytes()));
+    assertThrows(NumberFormatException.class, () -> new StreamEntryID("9223372036854775808-0"));
+  }
+
+  @Test
+  public void buildStreamEntryList() {
+    List<Object> raw = Arrays.asList(
+        Arrays.asList(SafeEncoder.encode("1-0"), Arrays.asList(SafeEncoder.encode("f"), SafeEncoder.encode("v"))),
+        Arrays.asList(SafeEncoder.encode("1-1"), null));
+    List<StreamEntry> entries = BuilderFactory.STREAM_ENTRY_LIST.build(raw);
+    assertEquals(new StreamEntryID(1, 0), entries.get(0).getID());
+    assertEquals("v", entries.get(0).getFields().get("f"));
+    assertEquals("1-0 {f=v}", entries.get(0).toString());
+    assertNull(entries.get(1).getFields());
+  }
 }
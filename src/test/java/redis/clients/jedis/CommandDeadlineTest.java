@@ -0,0 +1,109 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDeadlineExceededException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.executors.RetryableCommandExecutor;
+import redis.clients.jedis.providers.ConnectionProvider;
+
+public class CommandDeadlineTest {
+
+  private static final CommandObject<String> GET = new CommandObjects().get("key");
+
+  @Test
+  public void nestedDeadlineDoesNotExtendOuter() {
+    assertNull(CommandDeadline.current());
+    try (CommandDeadline outer = CommandDeadline.start(Duration.ofMillis(100))) {
+      try (CommandDeadline inner = CommandDeadline.start(Duration.ofHours(1))) {
+        assertSame(inner, CommandDeadline.current());
+        assertTrue(inner.remaining().compareTo(Duration.ofMillis(100)) <= 0);
+      }
+      assertSame(outer, CommandDeadline.current());
+    }
+    assertNull(CommandDeadline.current());
+  }
+
+  @Test
+  public void poolBorrowIsBoundedByDeadline() {
+    GenericObjectPoolConfig<Connection> poolConfig = new GenericObjectPoolConfig<>();
+    poolConfig.setMaxTotal(1);
+    poolConfig.setMaxWait(Duration.ofHours(1));
+
+    try (ConnectionPool pool = new ConnectionPool(mockConnectionFactory(), poolConfig)) {
+      try (Connection busy = pool.getResource();
+          CommandDeadline deadline = CommandDeadline.start(Duration.ofMillis(20))) {
+        assertThrows(JedisDeadlineExceededException.class, pool::getResource);
+        assertThrows(JedisDeadlineExceededException.class, pool::getResource);
+      }
+    }
+  }
+
+  @Test
+  public void poolBorrowKeepsShorterMaxWait() {
+    GenericObjectPoolConfig<Connection> poolConfig = new GenericObjectPoolConfig<>();
+    poolConfig.setMaxTotal(1);
+    poolConfig.setMaxWait(Duration.ofMillis(20));
+
+    try (ConnectionPool pool = new ConnectionPool(mockConnectionFactory(), poolConfig)) {
+      try (Connection busy = pool.getResource();
+          CommandDeadline deadline = CommandDeadline.start(Duration.ofHours(1))) {
+        JedisException je = assertThrows(JedisException.class, pool::getResource);
+        assertFalse(je instanceof JedisDeadlineExceededException);
+      }
+    }
+  }
+
+  private static BasePooledObjectFactory<Connection> mockConnectionFactory() {
+    return new BasePooledObjectFactory<Connection>() {
+      @Override
+      public Connection create() {
+        return new Connection(mock(JedisSocketFactory.class));
+      }
+
+      @Override
+      public PooledObject<Connection> wrap(Connection connection) {
+        return new DefaultPooledObject<>(connection);
+      }
+    };
+  }
+
+  @Test
+  public void retriesStopWhenDeadlineIsSpent() {
+    ConnectionProvider provider = mock(ConnectionProvider.class);
+    when(provider.getConnection(any())).thenThrow(new JedisConnectionException("unreachable"));
+
+    RetryableCommandExecutor executor = new RetryableCommandExecutor(provider, 1000, Duration.ofHours(1));
+    long start = System.nanoTime();
+    try (CommandDeadline deadline = CommandDeadline.start(Duration.ofMillis(50))) {
+      JedisDeadlineExceededException dee = assertThrows(JedisDeadlineExceededException.class,
+          () -> executor.executeCommand(GET));
+      assertTrue(dee.getSuppressed()[0] instanceof JedisConnectionException);
+    }
+    assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+  }
+
+  @Test
+  public void expiredDeadlineFailsBeforeWriting() {
+    Connection connection = new Connection(mock(JedisSocketFactory.class));
+    try (CommandDeadline deadline = CommandDeadline.start(Duration.ZERO)) {
+      assertThrows(JedisDeadlineExceededException.class, () -> connection.sendCommand(GET.getArguments()));
+    }
+    assertFalse(connection.isBroken());
+  }
+}
@@ -0,0 +1,197 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Test;
+
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.executors.CommandExecutor;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class CommandInterceptorTest {
+
+  private static List<String> raw(CommandArguments args) {
+    List<String> list = new ArrayList<>();
+    for (Rawable arg : args) {
+      list.add(SafeEncoder.encode(arg.getRaw()));
+    }
+    return list;
+  }
+
+  /**
+   * Prefixes the first argument after the command.
+   */
+  private static class KeyPrefixInterceptor implements CommandInterceptor {
+
+    private final String prefix;
+
+    KeyPrefixInterceptor(String prefix) {
+      this.prefix = prefix;
+    }
+
+    private void prefix(CommandObject<?> commandObject, CommandArguments args) {
+      Iterator<Rawable> raw = commandObject.getArguments().iterator();
+      raw.next();
+      args.key(prefix + SafeEncoder.encode(raw.next().getRaw()));
+      raw.forEachRemaining(args::add);
+    }
+
+    @Override
+    public <T> T intercept(CommandObject<T> commandObject, Chain chain) {
+      CommandArguments args = chain.commandArguments(commandObject.getArguments().getCommand());
+      prefix(commandObject, args);
+      return chain.proceed(new CommandObject<>(args, commandObject.getBuilder()));
+    }
+
+    @Override
+    public <T> Response<T> interceptPipelined(CommandObject<T> commandObject, PipelineChain chain) {
+      CommandArguments args = chain.commandArguments(commandObject.getArguments().getCommand());
+      prefix(commandObject, args);
+      return chain.proceed(new CommandObject<>(args, commandObject.getBuilder()));
+    }
+  }
+
+  /**
+   * Replies GET from a cache, which is filled by SET.
+   */
+  private static class CachingInterceptor implements CommandInterceptor {
+
+    final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T intercept(CommandObject<T> commandObject, Chain chain) {
+      List<String> args = raw(commandObject.getArguments());
+      if (args.get(0).equals("GET") && cache.containsKey(args.get(1))) {
+        return (T) cache.get(args.get(1));
+      }
+      T reply = chain.proceed(commandObject);
+      if (args.get(0).equals("SET")) {
+        cache.put(args.get(1), args.get(2));
+      }
+      return reply;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Response<T> interceptPipelined(CommandObject<T> commandObject, PipelineChain chain) {
+      List<String> args = raw(commandObject.getArguments());
+      if (args.get(0).equals("GET") && cache.containsKey(args.get(1))) {
+        return (Response<T>) Response.of(cache.get(args.get(1)));
+      }
+      return chain.proceed(commandObject);
+    }
+  }
+
+  @Test
+  public void interceptorsRunInOrder() {
+    CommandExecutor executor = mock(CommandExecutor.class);
+    List<List<String>> executed = new ArrayList<>();
+    when(executor.executeCommand(any())).then(invocation -> {
+      executed.add(raw(((CommandObject<?>) invocation.getArgument(0)).getArguments()));
+      return "OK";
+    });
+
+    CachingInterceptor cache = new CachingInterceptor();
+    try (UnifiedJedis jedis = new UnifiedJedis(executor)) {
+      jedis.setCommandInterceptors(Arrays.asList(new KeyPrefixInterceptor("app:"), cache));
+      assertEquals("OK", jedis.set("foo", "bar"));
+      assertEquals("bar", jedis.get("foo"));
+    }
+
+    assertEquals(Collections.singletonList(Arrays.asList("SET", "app:foo", "bar")), executed);
+    assertEquals("bar", cache.cache.get("app:foo"));
+  }
+
+  @Test
+  public void noInterceptors() {
+    CommandExecutor executor = mock(CommandExecutor.class);
+    when(executor.executeCommand(any())).thenReturn("OK");
+    try (UnifiedJedis jedis = new UnifiedJedis(executor)) {
+      jedis.setCommandInterceptors(Collections.singletonList(new KeyPrefixInterceptor("app:")));
+      jedis.setCommandInterceptors(Collections.emptyList());
+      assertEquals("OK", jedis.set("foo", "bar"));
+    }
+    verify(executor).executeCommand(any());
+  }
+
+  @Test
+  public void broadcastIsIntercepted() {
+    CommandExecutor executor = mock(CommandExecutor.class);
+    try (UnifiedJedis jedis = new UnifiedJedis(executor)) {
+      jedis.setCommandInterceptors(Collections.singletonList(new CommandInterceptor() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T intercept(CommandObject<T> commandObject, Chain chain) {
+          return (T) "PONG";
+        }
+      }));
+      assertEquals("PONG", jedis.ping());
+    }
+    verify(executor, never()).broadcastCommand(any());
+  }
+
+  @Test
+  public void pipelineIsIntercepted() {
+    Connection connection = mock(Connection.class);
+    List<List<String>> sent = new ArrayList<>();
+    doAnswer(invocation -> sent.add(raw(invocation.getArgument(0))))
+        .when(connection).sendCommand(any(CommandArguments.class));
+    when(connection.getMany(anyInt())).thenReturn(Collections.singletonList(SafeEncoder.encode("OK")));
+
+    CachingInterceptor cache = new CachingInterceptor();
+    cache.cache.put("app:cached", "value");
+    Pipeline pipeline = new Pipeline(connection);
+    pipeline.setCommandInterceptors(Arrays.asList(new KeyPrefixInterceptor("app:"), cache));
+    Response<String> set = pipeline.set("foo", "bar");
+    Response<String> cached = pipeline.get("cached");
+    pipeline.sync();
+
+    assertEquals("OK", set.get());
+    assertEquals("value", cached.get());
+    assertEquals(Collections.singletonList(Arrays.asList("SET", "app:foo", "bar")), sent);
+  }
+
+  @Test
+  public void pipelineWithoutQueueCommandRejectsInterceptors() {
+    AbstractPipeline pipeline = new AbstractPipeline(new CommandObjects()) {
+      @Override
+      protected <T> Response<T> appendCommand(CommandObject<T> commandObject) {
+        return Response.of(null);
+      }
+
+      @Override
+      public void close() {
+      }
+
+      @Override
+      public void sync() {
+      }
+    };
+    pipeline.setCommandInterceptors(Collections.emptyList());
+    assertThrows(UnsupportedOperationException.class,
+        () -> pipeline.setCommandInterceptors(Collections.singletonList(new CachingInterceptor())));
+  }
+
+  @Test
+  public void presetResponse() {
+    assertEquals("value", Response.of("value").get());
+    assertNull(Response.of(null).get());
+  }
+}
@@ -0,0 +1,69 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.junit.Test;
+
+public class ConnectionFactoryTest {
+
+  private final ConnectionFactory factory = new ConnectionFactory(HostAndPorts.getRedisServers().get(0));
+
+  private static Connection connection(boolean broken, long lastReplyNanos) {
+    Connection connection = mock(Connection.class);
+    when(connection.isConnected()).thenReturn(true);
+    when(connection.isBroken()).thenReturn(broken);
+    when(connection.getLastReplyNanos()).thenReturn(lastReplyNanos);
+    when(connection.ping()).thenReturn(true);
+    return connection;
+  }
+
+  @Test
+  public void validationPingsByDefault() {
+    Connection connection = connection(false, System.nanoTime());
+    assertTrue(factory.validateObject(new DefaultPooledObject<>(connection)));
+    verify(connection).ping();
+  }
+
+  @Test
+  public void recentlyUsedConnectionSkipsPing() {
+    factory.setValidationSkipWindow(Duration.ofMinutes(1));
+    Connection connection = connection(false, System.nanoTime());
+    assertTrue(factory.validateObject(new DefaultPooledObject<>(connection)));
+    verify(connection, never()).ping();
+  }
+
+  @Test
+  public void poolConfigSetsValidationSkipWindow() {
+    ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+    poolConfig.setBackgroundValidation(Duration.ofSeconds(30));
+    poolConfig.setValidationSkipWindow(Duration.ofMinutes(1));
+    new ConnectionPool(factory, poolConfig).close();
+
+    Connection connection = connection(false, System.nanoTime());
+    assertTrue(factory.validateObject(new DefaultPooledObject<>(connection)));
+    verify(connection, never()).ping();
+  }
+
+  @Test
+  public void idleConnectionIsPinged() {
+    factory.setValidationSkipWindow(Duration.ofMillis(1));
+    Connection connection = connection(false, System.nanoTime() - Duration.ofSeconds(1).toNanos());
+    assertTrue(factory.validateObject(new DefaultPooledObject<>(connection)));
+    verify(connection).ping();
+  }
+
+  @Test
+  public void brokenConnectionIsInvalidWithoutPing() {
+    factory.setValidationSkipWindow(Duration.ofMinutes(1));
+    Connection connection = connection(true, System.nanoTime());
+    assertFalse(factory.validateObject(new DefaultPooledObject<>(connection)));
+    verify(connection, never()).ping();
+  }
+}
@@ -0,0 +1,78 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JedisClusterInfoCacheTest {
+
+  private static final HostAndPort PRIMARY = new HostAndPort("primary", 6379);
+  private static final HostAndPort REPLICA_1 = new HostAndPort("replica1", 6379);
+  private static final HostAndPort REPLICA_2 = new HostAndPort("replica2", 6379);
+
+  private JedisClusterInfoCache cache;
+
+  @Before
+  public void setUp() {
+    cache = new JedisClusterInfoCache(DefaultJedisClientConfig.builder().build(),
+        Collections.singleton(PRIMARY));
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Test
+  public void tracksReplicasOfSlots() {
+    List<Integer> slots = Arrays.asList(0, 1, 2);
+    cache.assignSlotsToNode(slots, PRIMARY);
+    cache.assignSlotsToReplicas(slots, Arrays.asList(REPLICA_1, REPLICA_2));
+
+    ConnectionPool[] expected = { cache.getNode(REPLICA_1), cache.getNode(REPLICA_2) };
+    for (int slot : slots) {
+      assertArrayEquals(expected, cache.getSlotReplicaPools(slot));
+    }
+    assertNull(cache.getSlotReplicaPools(3));
+  }
+
+  @Test
+  public void slotWithoutReplicas() {
+    List<Integer> slots = Collections.singletonList(0);
+    cache.assignSlotsToNode(slots, PRIMARY);
+    cache.assignSlotsToReplicas(slots, Arrays.asList(REPLICA_1));
+    cache.assignSlotsToReplicas(slots, Collections.emptyList());
+
+    assertNull(cache.getSlotReplicaPools(0));
+    assertEquals(Collections.emptyMap(), cache.getReplicaNodes());
+  }
+
+  @Test
+  public void replicaNodesExcludePrimaries() {
+    cache.assignSlotsToNode(Arrays.asList(0, 1), PRIMARY);
+    cache.assignSlotsToReplicas(Collections.singletonList(0), Arrays.asList(REPLICA_1));
+    cache.assignSlotsToReplicas(Collections.singletonList(1), Arrays.asList(REPLICA_2));
+
+    assertEquals(3, cache.getNodes().size());
+    assertEquals(2, cache.getReplicaNodes().size());
+    assertEquals(cache.getNode(REPLICA_1), cache.getReplicaNodes().get(REPLICA_1.toString()));
+    assertEquals(cache.getNode(REPLICA_2), cache.getReplicaNodes().get(REPLICA_2.toString()));
+  }
+
+  @Test
+  public void resetForgetsReplicas() {
+    List<Integer> slots = Collections.singletonList(0);
+    cache.assignSlotsToNode(slots, PRIMARY);
+    cache.assignSlotsToReplicas(slots, Arrays.asList(REPLICA_1));
+    cache.reset();
+
+    assertNull(cache.getSlotReplicaPools(0));
+  }
+}
@@ -0,0 +1,279 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static redis.clients.jedis.Protocol.ResponseKeyword.SMESSAGE;
+import static redis.clients.jedis.Protocol.ResponseKeyword.SSUBSCRIBE;
+import static redis.clients.jedis.Protocol.ResponseKeyword.SUNSUBSCRIBE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.providers.ClusterConnectionProvider;
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class JedisClusterShardedSubscriberTest {
+
+  private static final HostAndPort NODE_A = new HostAndPort("a", 7000);
+  private static final HostAndPort NODE_B = new HostAndPort("b", 7001);
+
+  private final Map<Integer, HostAndPort> owners = new ConcurrentHashMap<>();
+  private final Map<HostAndPort, List<FakeConnection>> connections = new ConcurrentHashMap<>();
+  private final List<Runnable> topologyListeners = new CopyOnWriteArrayList<>();
+  private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+  private ClusterConnectionProvider provider;
+  private JedisClusterShardedSubscriber<String> subscriber;
+
+  /**
+   * A connection which replies to the subscriptions like Redis.
+   */
+  private static class FakeConnection {
+
+    private static final Object BROKEN = new Object();
+
+    private final BlockingQueue<Object> replies = new LinkedBlockingQueue<>();
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final Set<String> subscribed = new LinkedHashSet<>();
+    private final Connection connection = mock(Connection.class);
+    private volatile boolean closed = false;
+    private volatile boolean broken = false;
+
+    FakeConnection() {
+      when(connection.getUnflushedObject()).thenAnswer(invocation -> {
+        Object reply = replies.take();
+        if (reply == BROKEN) {
+          throw new JedisConnectionException("broken");
+        }
+        return reply;
+      });
+      doAnswer(invocation -> {
+        List<String> args = new ArrayList<>();
+        for (Rawable arg : (CommandArguments) invocation.getArgument(0)) {
+          args.add(SafeEncoder.encode(arg.getRaw()));
+        }
+        sent.add(String.join(" ", args));
+        reply(args.get(0), args.subList(1, args.size()));
+        return null;
+      }).when(connection).sendCommand(any(CommandArguments.class));
+      doAnswer(invocation -> closed = true).when(connection).close();
+      doAnswer(invocation -> broken = true).when(connection).setBroken();
+    }
+
+    private synchronized void reply(String command, List<String> channels) {
+      if (command.equals("SSUBSCRIBE")) {
+        for (String channel : channels) {
+          subscribed.add(channel);
+          replies.add(Arrays.asList(SSUBSCRIBE.getRaw(), SafeEncoder.encode(channel), (long) subscribed.size()));
+        }
+      } else {
+        if (channels.isEmpty()) {
+          channels = new ArrayList<>(subscribed);
+          if (channels.isEmpty()) {
+            replies.add(Arrays.asList(SUNSUBSCRIBE.getRaw(), null, 0L));
+          }
+        }
+        for (String channel : channels) {
+          subscribed.remove(channel);
+          replies.add(Arrays.asList(SUNSUBSCRIBE.getRaw(), SafeEncoder.encode(channel), (long) subscribed.size()));
+        }
+      }
+    }
+
+    void publish(String channel, String message) {
+      replies.add(Arrays.asList(SMESSAGE.getRaw(), SafeEncoder.encode(channel), SafeEncoder.encode(message)));
+    }
+
+    /**
+     * The slot of the channel has moved.
+     */
+    synchronized void migrate(String channel) {
+      reply("SUNSUBSCRIBE", Collections.singletonList(channel));
+    }
+  }
+
+  @Before
+  public void setUp() {
+    provider = mock(ClusterConnectionProvider.class);
+    when(provider.getNode(any(Integer.class))).thenAnswer(
+        invocation -> owners.getOrDefault(invocation.<Integer>getArgument(0), NODE_A));
+    when(provider.getConnection(any(HostAndPort.class))).thenAnswer(invocation -> {
+      FakeConnection connection = new FakeConnection();
+      connections.computeIfAbsent(invocation.getArgument(0), n -> new CopyOnWriteArrayList<>()).add(connection);
+      return connection.connection;
+    });
+    doAnswer(invocation -> topologyListeners.add(invocation.getArgument(0)))
+        .when(provider).addTopologyListener(any());
+    doAnswer(invocation -> {
+      topologyListeners.forEach(Runnable::run);
+      return null;
+    }).when(provider).renewSlotCache();
+
+    owners.put(JedisClusterCRC16.getSlot("b"), NODE_B);
+
+    subscriber = new JedisClusterShardedSubscriber<>(provider, new JedisShardedPubSub() {
+      @Override
+      public void onSMessage(String channel, String message) {
+        events.add(channel + "=" + message);
+      }
+
+      @Override
+      public void onSSubscribe(String channel, int subscribedChannels) {
+        events.add("ssubscribe " + channel);
+      }
+
+      @Override
+      public void onSUnsubscribe(String channel, int subscribedChannels) {
+        events.add("sunsubscribe " + channel);
+      }
+    });
+  }
+
+  @After
+  public void tearDown() {
+    subscriber.close();
+  }
+
+  private FakeConnection connection(HostAndPort node, int index) {
+    return connections.get(node).get(index);
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+      Thread.sleep(10);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+
+  private Set<String> nextEvents(int count) throws InterruptedException {
+    Set<String> next = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      next.add(events.poll(5, TimeUnit.SECONDS));
+    }
+    return next;
+  }
+
+  @Test
+  public void groupsChannelsByNodeAndSlot() throws InterruptedException {
+    subscriber.ssubscribe("a", "b", "{t}1", "{t}2");
+
+    assertEquals(new HashSet<>(Arrays.asList(NODE_A, NODE_B)), subscriber.getNodes());
+    assertEquals(1, connections.get(NODE_A).size());
+    assertEquals(Arrays.asList("SSUBSCRIBE a", "SSUBSCRIBE {t}1 {t}2"), connection(NODE_A, 0).sent);
+    assertEquals(Arrays.asList("SSUBSCRIBE b"), connection(NODE_B, 0).sent);
+    assertEquals(new HashSet<>(Arrays.asList("ssubscribe a", "ssubscribe b", "ssubscribe {t}1",
+        "ssubscribe {t}2")), nextEvents(4));
+
+    connection(NODE_A, 0).publish("a", "1");
+    connection(NODE_B, 0).publish("b", "2");
+    assertEquals(new HashSet<>(Arrays.asList("a=1", "b=2")), nextEvents(2));
+  }
+
+  @Test
+  public void movesChannelsWhenSlotsAreRenewed() throws InterruptedException {
+    subscriber.ssubscribe("a", "b");
+    nextEvents(2);
+
+    owners.put(JedisClusterCRC16.getSlot("b"), NODE_A);
+    provider.renewSlotCache();
+
+    await(() -> connection(NODE_A, 0).sent.size() == 2);
+    assertEquals(Arrays.asList("SSUBSCRIBE b", "SUNSUBSCRIBE b"), connection(NODE_B, 0).sent);
+    assertEquals(Arrays.asList("SSUBSCRIBE a", "SSUBSCRIBE b"), connection(NODE_A, 0).sent);
+    assertEquals(Collections.singleton(NODE_A), subscriber.getNodes());
+    // the connection is released once the node confirms
+    await(() -> connection(NODE_B, 0).closed);
+    assertTrue(!connection(NODE_B, 0).broken);
+    assertEquals("ssubscribe b", events.poll(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void renewingThreadDoesNotSubscribe() throws InterruptedException {
+    subscriber.ssubscribe("b");
+    nextEvents(1);
+
+    List<Thread> subscribingThreads = new CopyOnWriteArrayList<>();
+    doAnswer(invocation -> {
+      subscribingThreads.add(Thread.currentThread());
+      FakeConnection connection = new FakeConnection();
+      connections.computeIfAbsent(NODE_A, n -> new CopyOnWriteArrayList<>()).add(connection);
+      return connection.connection;
+    }).when(provider).getConnection(NODE_A);
+    owners.put(JedisClusterCRC16.getSlot("b"), NODE_A);
+    provider.renewSlotCache();
+
+    await(() -> connections.containsKey(NODE_A));
+    assertEquals(1, subscribingThreads.size());
+    assertNotSame(Thread.currentThread(), subscribingThreads.get(0));
+    assertEquals("ssubscribe b", events.poll(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void movesChannelUnsubscribedByNode() throws InterruptedException {
+    subscriber.ssubscribe("b");
+    nextEvents(1);
+
+    owners.put(JedisClusterCRC16.getSlot("b"), NODE_A);
+    connection(NODE_B, 0).migrate("b");
+
+    await(() -> connections.containsKey(NODE_A) && !connection(NODE_A, 0).sent.isEmpty());
+    verify(provider, atLeastOnce()).renewSlotCache();
+    assertEquals(Arrays.asList("SSUBSCRIBE b"), connection(NODE_A, 0).sent);
+    await(() -> connection(NODE_B, 0).closed);
+  }
+
+  @Test
+  public void resubscribesWhenConnectionBreaks() throws InterruptedException {
+    subscriber.ssubscribe("b");
+    nextEvents(1);
+
+    connection(NODE_B, 0).replies.add(FakeConnection.BROKEN);
+
+    await(() -> connections.get(NODE_B).size() == 2 && !connection(NODE_B, 1).sent.isEmpty());
+    assertTrue(connection(NODE_B, 0).broken);
+    assertTrue(connection(NODE_B, 0).closed);
+    assertEquals(Arrays.asList("SSUBSCRIBE b"), connection(NODE_B, 1).sent);
+    assertEquals("ssubscribe b", events.poll(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void unsubscribesAndReleasesConnections() throws InterruptedException {
+    subscriber.ssubscribe("a", "b", "c");
+    nextEvents(3);
+
+    subscriber.sunsubscribe("b");
+    assertEquals("sunsubscribe b", events.poll(5, TimeUnit.SECONDS));
+    await(() -> connection(NODE_B, 0).closed);
+    assertEquals(2, subscriber.getChannelCount());
+
+    subscriber.close();
+    assertEquals(new HashSet<>(Arrays.asList("sunsubscribe a", "sunsubscribe c")), nextEvents(2));
+    await(() -> connection(NODE_A, 0).closed);
+    assertTrue(!connection(NODE_A, 0).broken);
+  }
+}
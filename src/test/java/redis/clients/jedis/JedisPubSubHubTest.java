@@ -0,0 +1,219 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static redis.clients.jedis.Protocol.ResponseKeyword.MESSAGE;
+import static redis.clients.jedis.Protocol.ResponseKeyword.PMESSAGE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class JedisPubSubHubTest {
+
+  private static final Object CLOSED = new Object();
+
+  private final BlockingQueue<Object> replies = new LinkedBlockingQueue<>();
+  private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+  private JedisPubSubHub hub;
+
+  @Before
+  public void setUp() {
+    Connection connection = mock(Connection.class);
+    when(connection.getUnflushedObject()).thenAnswer(invocation -> {
+      Object reply = replies.take();
+      if (reply == CLOSED) {
+        throw new JedisConnectionException("closed");
+      }
+      return reply;
+    });
+    doAnswer(invocation -> {
+      CommandArguments args = invocation.getArgument(0);
+      StringBuilder command = new StringBuilder();
+      for (Rawable arg : args) {
+        command.append(command.length() == 0 ? "" : " ").append(SafeEncoder.encode(arg.getRaw()));
+      }
+      sent.add(command.toString());
+      return null;
+    }).when(connection).sendCommand(any(CommandArguments.class));
+    doAnswer(invocation -> replies.add(CLOSED)).when(connection).close();
+    hub = new JedisPubSubHub(connection);
+  }
+
+  @After
+  public void tearDown() {
+    hub.close();
+  }
+
+  private static class Listener extends JedisPubSub {
+
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+    @Override
+    public void onMessage(String channel, String message) {
+      events.add(channel + "=" + message);
+    }
+
+    @Override
+    public void onPMessage(String pattern, String channel, String message) {
+      events.add(pattern + ":" + channel + "=" + message);
+    }
+
+    @Override
+    public void onSubscribe(String channel, int subscribedChannels) {
+      events.add("subscribe " + channel + " " + subscribedChannels);
+    }
+
+    @Override
+    public void onUnsubscribe(String channel, int subscribedChannels) {
+      events.add("unsubscribe " + channel + " " + subscribedChannels);
+    }
+
+    @Override
+    public void onPUnsubscribe(String pattern, int subscribedChannels) {
+      events.add("punsubscribe " + pattern + " " + subscribedChannels);
+    }
+
+    String next() throws InterruptedException {
+      return events.poll(5, TimeUnit.SECONDS);
+    }
+  }
+
+  private void publish(String channel, String message) {
+    replies.add(Arrays.asList(MESSAGE.getRaw(), SafeEncoder.encode(channel), SafeEncoder.encode(message)));
+  }
+
+  @Test
+  public void referenceCountsChannels() {
+    Listener first = new Listener();
+    Listener second = new Listener();
+
+    hub.subscribe(first, "a", "b");
+    hub.subscribe(second, "b", "c");
+    assertEquals(3, hub.getChannelCount());
+    assertEquals(Arrays.asList("SUBSCRIBE a b", "SUBSCRIBE c"), sent);
+
+    hub.unsubscribe(first, "b");
+    hub.unsubscribe(second, "b");
+    hub.remove(first);
+    assertEquals(1, hub.getChannelCount());
+    assertEquals(Arrays.asList("SUBSCRIBE a b", "SUBSCRIBE c", "UNSUBSCRIBE b", "UNSUBSCRIBE a"), sent);
+
+    assertEquals(Arrays.asList("subscribe a 1", "subscribe b 2", "unsubscribe b 1", "unsubscribe a 0"),
+        new ArrayList<>(first.events));
+  }
+
+  @Test
+  public void routesMessagesToListeners() throws InterruptedException {
+    Listener first = new Listener();
+    Listener second = new Listener();
+    BinaryJedisPubSub binary = new BinaryJedisPubSub() {
+      @Override
+      public void onMessage(byte[] channel, byte[] message) {
+        first.events.add("binary " + SafeEncoder.encode(channel) + "=" + SafeEncoder.encode(message));
+      }
+    };
+    hub.subscribe(first, "a");
+    hub.subscribe(second, "a", "b");
+    hub.subscribe(binary, SafeEncoder.encode("b"));
+    hub.psubscribe(second, "c*");
+    first.events.clear();
+    second.events.clear();
+
+    publish("a", "1");
+    publish("b", "2");
+    replies.add(Arrays.asList(PMESSAGE.getRaw(), SafeEncoder.encode("c*"), SafeEncoder.encode("cc"),
+        SafeEncoder.encode("3")));
+
+    assertEquals("a=1", first.next());
+    assertEquals("binary b=2", first.next());
+    assertEquals("a=1", second.next());
+    assertEquals("b=2", second.next());
+    assertEquals("c*:cc=3", second.next());
+  }
+
+  @Test
+  public void listenerFailureDoesNotAffectOthers() throws InterruptedException {
+    Listener failing = new Listener() {
+      @Override
+      public void onMessage(String channel, String message) {
+        throw new IllegalStateException();
+      }
+    };
+    Listener listener = new Listener();
+    hub.subscribe(failing, "a");
+    hub.subscribe(listener, "a");
+    listener.events.clear();
+
+    publish("a", "1");
+    publish("a", "2");
+    assertEquals("a=1", listener.next());
+    assertEquals("a=2", listener.next());
+  }
+
+  @Test
+  public void dispatchesInOrder() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      hub.setDispatcher(new PubSubDispatcher(executor, 100, PubSubDispatcher.OverflowPolicy.BLOCK));
+      Listener listener = new Listener();
+      hub.subscribe(listener, "a");
+      listener.events.clear();
+      for (int i = 0; i < 100; i++) {
+        publish("a", Integer.toString(i));
+      }
+      for (int i = 0; i < 100; i++) {
+        assertEquals("a=" + i, listener.next());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void closesWhenConnectionBreaks() throws InterruptedException {
+    Listener listener = new Listener();
+    hub.subscribe(listener, "a");
+    hub.psubscribe(listener, "p*");
+    assertEquals("subscribe a 1", listener.next());
+
+    replies.add(CLOSED);
+    List<String> unsubscribed = Arrays.asList(listener.next(), listener.next());
+    assertTrue(unsubscribed.toString(), unsubscribed.containsAll(Arrays.asList("unsubscribe a 0",
+        "punsubscribe p* 0")));
+    assertTrue(hub.isClosed());
+    assertEquals(0, hub.getChannelCount());
+    assertEquals(0, hub.getPatternCount());
+    assertThrows(JedisException.class, () -> hub.subscribe(new Listener(), "b"));
+  }
+
+  @Test
+  public void binaryChannelIsCopied() {
+    byte[] channel = SafeEncoder.encode("a");
+    BinaryJedisPubSub listener = new BinaryJedisPubSub() {
+    };
+    hub.subscribe(listener, channel);
+    channel[0] = 'b';
+    hub.unsubscribe(listener, SafeEncoder.encode("a"));
+    assertEquals(0, hub.getChannelCount());
+  }
+}
@@ -0,0 +1,172 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class MultiNodePipelineBaseTest {
+
+  /**
+   * Routes the keys {@code <node>:<name>} to the node {@code <node>}.
+   */
+  private static class TestPipeline extends MultiNodePipelineBase {
+
+    private final Map<HostAndPort, Connection> nodes = new HashMap<>();
+
+    TestPipeline() {
+      super(new CommandObjects());
+    }
+
+    void addNode(int node, Connection connection) {
+      nodes.put(new HostAndPort("node", node), connection);
+    }
+
+    @Override
+    protected HostAndPort getNodeKey(CommandArguments args) {
+      String key = SafeEncoder.encode(keyOf(args));
+      return new HostAndPort("node", Integer.parseInt(key.split(":")[0]));
+    }
+
+    private static byte[] keyOf(CommandArguments args) {
+      Iterator<Rawable> raw = args.iterator();
+      raw.next();
+      return raw.next().getRaw();
+    }
+
+    @Override
+    protected Connection getConnection(HostAndPort nodeKey) {
+      return nodes.get(nodeKey);
+    }
+  }
+
+  private static Connection node(Object... replies) {
+    Connection connection = mock(Connection.class);
+    when(connection.getMany(anyInt())).then(invocation -> {
+      List<Object> list = new ArrayList<>();
+      for (Object reply : replies) {
+        list.add(reply instanceof String ? SafeEncoder.encode((String) reply) : reply);
+      }
+      return list;
+    });
+    return connection;
+  }
+
+  @Test
+  public void flushesNodeAfterThreshold() {
+    Connection connection = node();
+    try (TestPipeline pipeline = new TestPipeline()) {
+      pipeline.addNode(1, connection);
+      pipeline.setFlushThreshold(1000);
+
+      pipeline.set("1:a", "small");
+      verify(connection, never()).flush();
+
+      char[] large = new char[1000];
+      pipeline.set("1:b", new String(large));
+      verify(connection, times(1)).flush();
+
+      pipeline.set("1:c", "small");
+      verify(connection, times(1)).flush();
+    }
+  }
+
+  @Test
+  public void readsNodesConcurrently() {
+    final int nodes = 8;
+    CountDownLatch reading = new CountDownLatch(nodes);
+    AtomicInteger overlapping = new AtomicInteger();
+    TestPipeline pipeline = new TestPipeline();
+    pipeline.setSyncWorkers(0);
+    List<Response<String>> responses = new ArrayList<>();
+    for (int node = 0; node < nodes; node++) {
+      Connection connection = mock(Connection.class);
+      String value = "value" + node;
+      when(connection.getMany(anyInt())).then(invocation -> {
+        // only opens once all nodes are being read at the same time
+        reading.countDown();
+        if (reading.await(10, TimeUnit.SECONDS)) {
+          overlapping.incrementAndGet();
+        }
+        return Collections.singletonList(SafeEncoder.encode(value));
+      });
+      pipeline.addNode(node, connection);
+      responses.add(pipeline.get(node + ":key"));
+    }
+
+    pipeline.sync();
+    assertEquals(nodes, overlapping.get());
+    for (int node = 0; node < nodes; node++) {
+      assertEquals("value" + node, responses.get(node).get());
+    }
+  }
+
+  @Test
+  public void failedNodeDoesNotAffectOthers() {
+    Connection failing = mock(Connection.class);
+    when(failing.getMany(anyInt())).thenThrow(new JedisConnectionException("node down"));
+
+    TestPipeline pipeline = new TestPipeline();
+    pipeline.setSyncWorkers(0);
+    pipeline.addNode(1, node("value1"));
+    pipeline.addNode(2, failing);
+    pipeline.addNode(3, node("value3"));
+    Response<String> r1 = pipeline.get("1:key");
+    Response<String> r2 = pipeline.get("2:key");
+    Response<String> r3 = pipeline.get("3:key");
+    pipeline.sync();
+
+    assertEquals("value1", r1.get());
+    assertEquals("value3", r3.get());
+    assertThrows(IllegalStateException.class, r2::get);
+    verify(failing).close();
+  }
+
+  @Test
+  public void workersReadWithinDeadline() {
+    List<CommandDeadline> seen = new ArrayList<>();
+    Connection connection = mock(Connection.class);
+    when(connection.getMany(anyInt())).then(invocation -> {
+      seen.add(CommandDeadline.current());
+      return Collections.singletonList(SafeEncoder.encode("value"));
+    });
+
+    TestPipeline pipeline = new TestPipeline();
+    pipeline.addNode(1, connection);
+    pipeline.get("1:key");
+    try (CommandDeadline deadline = CommandDeadline.start(Duration.ofSeconds(10))) {
+      pipeline.sync();
+      assertEquals(Collections.singletonList(deadline), seen);
+    }
+  }
+
+  @Test
+  public void errorReplyIsSet() {
+    TestPipeline pipeline = new TestPipeline();
+    pipeline.addNode(1, node(new JedisDataException("WRONGTYPE")));
+    Response<String> response = pipeline.get("1:key");
+    pipeline.sync();
+    assertThrows(JedisDataException.class, response::get);
+  }
+}
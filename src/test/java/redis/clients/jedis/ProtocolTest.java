@@ -9,17 +9,22 @@ import static redis.clients.jedis.util.AssertUtil.assertByteArrayListEquals;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Test;
 
+import redis.clients.jedis.args.RawableFactory;
 import redis.clients.jedis.exceptions.JedisBusyException;
+import redis.clients.jedis.search.RediSearchUtil;
 import redis.clients.jedis.util.RedisInputStream;
 import redis.clients.jedis.util.RedisOutputStream;
 import redis.clients.jedis.util.SafeEncoder;
@@ -47,6 +52,55 @@ public class ProtocolTest {
     assertEquals(expectedCommand, sb.toString());
   }
 
+  @Test
+  public void buildACommandWithVectors() throws IOException {
+    float[] vector = { 1.5f, -2f, Float.NaN, 1e-38f, 42f };
+    FloatBuffer direct = ByteBuffer.allocateDirect(vector.length * Float.BYTES).asFloatBuffer();
+    direct.put(vector).flip();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // a small buffer, which is flushed while writing the vectors
+    RedisOutputStream ros = new RedisOutputStream(out, 7);
+    Protocol.sendCommand(ros, new CommandArguments(Protocol.Command.HSET).add(vector).add(direct));
+    ros.flush();
+
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    byte[] binary = RediSearchUtil.toByteArray(vector);
+    expected.write(SafeEncoder.encode("*3\r\n$4\r\nHSET\r\n$20\r\n"));
+    expected.write(binary);
+    expected.write(SafeEncoder.encode("\r\n$20\r\n"));
+    expected.write(binary);
+    expected.write(SafeEncoder.encode("\r\n"));
+    assertArrayEquals(expected.toByteArray(), out.toByteArray());
+    assertEquals(0, direct.position());
+    assertArrayEquals(binary, RawableFactory.from(vector).getRaw());
+  }
+
+  @Test
+  public void vectorArrayIsCopiedWhenAdded() throws IOException {
+    float[] vector = { 1f, 2f };
+    byte[] binary = RediSearchUtil.toByteArray(vector);
+    FloatBuffer buffer = FloatBuffer.wrap(vector.clone());
+    // e.g. queued in a pipeline, while the caller refills its arrays
+    CommandArguments args = new CommandArguments(Protocol.Command.HSET).add(vector).add(buffer);
+    vector[0] = 3f;
+    buffer.put(0, 3f);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RedisOutputStream ros = new RedisOutputStream(out);
+    Protocol.sendCommand(ros, args);
+    ros.flush();
+
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    expected.write(SafeEncoder.encode("*3\r\n$4\r\nHSET\r\n$8\r\n"));
+    expected.write(binary);
+    expected.write(SafeEncoder.encode("\r\n$8\r\n"));
+    // a buffer is not copied
+    expected.write(RediSearchUtil.toByteArray(new float[] { 3f, 2f }));
+    expected.write(SafeEncoder.encode("\r\n"));
+    assertArrayEquals(expected.toByteArray(), out.toByteArray());
+  }
+
   @Test(expected = IOException.class)
   public void writeOverflow() throws IOException {
     RedisOutputStream ros = new RedisOutputStream(new OutputStream() {
@@ -0,0 +1,29 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import redis.clients.jedis.util.SafeEncoder;
+
+public class PubSubChannelCacheTest {
+
+  @Test
+  public void reusesDecodedNames() {
+    PubSubChannelCache cache = new PubSubChannelCache();
+    String name = cache.decode(SafeEncoder.encode("news"));
+    assertEquals("news", name);
+    assertSame(name, cache.decode(SafeEncoder.encode("news")));
+  }
+
+  @Test
+  public void decodesManyChannels() {
+    PubSubChannelCache cache = new PubSubChannelCache();
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < 1000; i++) {
+        assertEquals("channel-" + i, cache.decode(SafeEncoder.encode("channel-" + i)));
+      }
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static redis.clients.jedis.Protocol.ResponseKeyword.MESSAGE;
+import static redis.clients.jedis.Protocol.ResponseKeyword.SUBSCRIBE;
+import static redis.clients.jedis.Protocol.ResponseKeyword.UNSUBSCRIBE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class PubSubDispatcherTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static List<Object> reply(byte[] type, String channel, Object value) {
+    return Arrays.asList(type, SafeEncoder.encode(channel),
+        value instanceof String ? SafeEncoder.encode((String) value) : value);
+  }
+
+  /**
+   * Subscribes to the channels, publishes {@code messages} messages to each and unsubscribes.
+   */
+  private static Connection connection(int messages, String... channels) {
+    List<Object> replies = new ArrayList<>();
+    for (int i = 0; i < channels.length; i++) {
+      replies.add(reply(SUBSCRIBE.getRaw(), channels[i], (long) i + 1));
+    }
+    for (int m = 0; m < messages; m++) {
+      for (String channel : channels) {
+        replies.add(reply(MESSAGE.getRaw(), channel, channel + ":" + m));
+      }
+    }
+    for (int i = 0; i < channels.length; i++) {
+      replies.add(reply(UNSUBSCRIBE.getRaw(), channels[i], (long) (channels.length - i - 1)));
+    }
+    Connection connection = mock(Connection.class);
+    when(connection.getUnflushedObject()).thenReturn(replies.get(0),
+        replies.subList(1, replies.size()).toArray());
+    return connection;
+  }
+
+  @Test
+  public void preservesOrderPerChannel() {
+    Map<String, List<String>> received = new ConcurrentHashMap<>();
+    JedisPubSub pubSub = new JedisPubSub() {
+      @Override
+      public void onMessage(String channel, String message) {
+        received.computeIfAbsent(channel, c -> Collections.synchronizedList(new ArrayList<>())).add(message);
+      }
+    };
+    PubSubDispatcher dispatcher = new PubSubDispatcher(executor, 16, PubSubDispatcher.OverflowPolicy.BLOCK);
+    pubSub.setDispatcher(dispatcher);
+    pubSub.proceed(connection(500, "a", "b", "c"), "a", "b", "c");
+
+    for (String channel : Arrays.asList("a", "b", "c")) {
+      List<String> expected = new ArrayList<>();
+      for (int m = 0; m < 500; m++) {
+        expected.add(channel + ":" + m);
+      }
+      assertEquals(expected, received.get(channel));
+    }
+    assertEquals(0, dispatcher.getQueueDepth());
+    assertEquals(1506, dispatcher.getDispatchedMessages());
+    assertEquals(1506, dispatcher.getLag().getCount());
+  }
+
+  @Test
+  public void slowChannelDoesNotBlockOthers() throws InterruptedException {
+    CountDownLatch fastDone = new CountDownLatch(10);
+    CountDownLatch release = new CountDownLatch(1);
+    JedisPubSub pubSub = new JedisPubSub() {
+      @Override
+      public void onMessage(String channel, String message) {
+        if (channel.equals("slow")) {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        } else {
+          fastDone.countDown();
+        }
+      }
+    };
+    pubSub.setDispatcher(new PubSubDispatcher(executor, 100, PubSubDispatcher.OverflowPolicy.BLOCK));
+    Thread reader = new Thread(() -> pubSub.proceed(connection(10, "slow", "fast"), "slow", "fast"));
+    reader.start();
+
+    assertTrue(fastDone.await(5, TimeUnit.SECONDS));
+    assertTrue(reader.isAlive());
+    release.countDown();
+    reader.join(5000);
+    assertTrue(!reader.isAlive());
+  }
+
+  @Test
+  public void dropsOnOverflow() {
+    CountDownLatch release = new CountDownLatch(1);
+    JedisPubSub pubSub = new JedisPubSub() {
+      @Override
+      public void onMessage(String channel, String message) {
+        try {
+          release.await(50, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+    PubSubDispatcher dispatcher = new PubSubDispatcher(executor, 5, PubSubDispatcher.OverflowPolicy.DROP);
+    pubSub.setDispatcher(dispatcher);
+    pubSub.proceed(connection(20, "a"), "a");
+    // the subscribe event and the first message may be handled before the queue fills up
+    assertTrue(dispatcher.getDroppedMessages() >= 20 - 5);
+    assertEquals(22 - dispatcher.getDroppedMessages(), dispatcher.getDispatchedMessages());
+  }
+
+  @Test
+  public void failsOnOverflow() {
+    CountDownLatch release = new CountDownLatch(1);
+    JedisPubSub pubSub = new JedisPubSub() {
+      @Override
+      public void onMessage(String channel, String message) {
+        try {
+          release.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+    pubSub.setDispatcher(new PubSubDispatcher(executor, 5, PubSubDispatcher.OverflowPolicy.FAIL));
+    assertThrows(JedisException.class, () -> pubSub.proceed(connection(20, "a"), "a"));
+    release.countDown();
+  }
+
+  @Test
+  public void handlerExceptionEndsSubscription() {
+    JedisPubSub pubSub = new JedisPubSub() {
+      @Override
+      public void onMessage(String channel, String message) {
+        throw new IllegalStateException(message);
+      }
+    };
+    pubSub.setDispatcher(new PubSubDispatcher(executor, 16, PubSubDispatcher.OverflowPolicy.BLOCK));
+    IllegalStateException ise = assertThrows(IllegalStateException.class,
+        () -> pubSub.proceed(connection(3, "a"), "a"));
+    assertEquals("a:0", ise.getMessage());
+  }
+}
@@ -0,0 +1,29 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import redis.clients.jedis.Protocol.ResponseKeyword;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class PubSubFramesTest {
+
+  @Test
+  public void decodesAllKinds() {
+    for (ResponseKeyword keyword : ResponseKeyword.values()) {
+      assertSame(keyword, PubSubFrames.type(keyword.getRaw()));
+      assertSame(keyword, PubSubFrames.type(keyword.getRaw().clone()));
+    }
+  }
+
+  @Test
+  public void unknownKinds() {
+    assertNull(PubSubFrames.type(new byte[0]));
+    assertNull(PubSubFrames.type(SafeEncoder.encode("massage")));
+    assertNull(PubSubFrames.type(SafeEncoder.encode("xmessage")));
+    assertNull(PubSubFrames.type(SafeEncoder.encode("MESSAGE")));
+    assertNull(PubSubFrames.type(SafeEncoder.encode("invalidate")));
+  }
+}
@@ -0,0 +1,223 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.providers.ReshardingConnectionProvider;
+import redis.clients.jedis.util.Hashing;
+import redis.clients.jedis.util.SafeEncoder;
+import redis.clients.jedis.util.ShardSelectionStrategy;
+
+public class ReshardingTest {
+
+  private static final int KEYS = 300;
+
+  private final HostAndPort shard1 = new HostAndPort("10.0.0.1", 6379);
+  private final HostAndPort shard2 = new HostAndPort("10.0.0.2", 6379);
+  private final HostAndPort shard3 = new HostAndPort("10.0.0.3", 6379);
+
+  private final Map<HostAndPort, Map<String, String>> data = new HashMap<>();
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  private ReshardingConnectionProvider provider;
+
+  @Before
+  public void setUp() {
+    provider = spy(new ReshardingConnectionProvider(Arrays.asList(shard1, shard2),
+        ShardSelectionStrategy.RENDEZVOUS, Arrays.asList(shard1, shard2, shard3),
+        ShardSelectionStrategy.RENDEZVOUS, DefaultJedisClientConfig.builder().build(), null,
+        Hashing.MURMUR_HASH));
+    for (HostAndPort shard : Arrays.asList(shard1, shard2, shard3)) {
+      Map<String, String> nodeData = new ConcurrentHashMap<>();
+      data.put(shard, nodeData);
+      doAnswer(invocation -> node(nodeData)).when(provider).getConnection(shard);
+    }
+    doAnswer(invocation -> {
+      long hash = ((ShardedCommandArguments) invocation.getArgument(0)).getKeyHash();
+      return node(data.get(provider.getNode(hash)));
+    }).when(provider).getConnection(any(CommandArguments.class));
+    doReturn(node(new HashMap<>())).when(provider).getConnection();
+
+    // the keys are on their owners in the previous shards
+    for (int n = 0; n < KEYS; n++) {
+      String key = "key:" + n;
+      data.get(provider.getPreviousNode(Hashing.MURMUR_HASH.hash(key))).put(key, "value:" + n);
+    }
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * A connection to a node holding the string keys of {@code nodeData}.
+   */
+  private static Connection node(Map<String, String> nodeData) {
+    Connection node = mock(Connection.class);
+    List<Object> pipelined = new ArrayList<>();
+    when(node.executeCommand(any(CommandArguments.class))).then(invocation -> reply(nodeData, invocation.getArgument(0)));
+    when(node.executeCommand(any(CommandObject.class))).then(invocation -> {
+      CommandObject<?> commandObject = invocation.getArgument(0);
+      Object reply = reply(nodeData, commandObject.getArguments());
+      if (reply instanceof JedisDataException) {
+        throw (JedisDataException) reply;
+      }
+      return commandObject.getBuilder().build(reply);
+    });
+    doAnswer(invocation -> pipelined.add(reply(nodeData, invocation.getArgument(0))))
+        .when(node).sendCommand(any(CommandArguments.class));
+    when(node.getMany(anyInt())).then(invocation -> {
+      List<Object> replies = new ArrayList<>(pipelined);
+      pipelined.clear();
+      return replies;
+    });
+    return node;
+  }
+
+  private static Object reply(Map<String, String> nodeData, CommandArguments args) {
+    Iterator<Rawable> raw = args.iterator();
+    String command = SafeEncoder.encode(raw.next().getRaw());
+    String key = raw.hasNext() ? SafeEncoder.encode(raw.next().getRaw()) : null;
+    switch (command) {
+      case "SCAN": // everything in one page
+        List<byte[]> keys = new ArrayList<>();
+        nodeData.keySet().forEach(k -> keys.add(SafeEncoder.encode(k)));
+        return Arrays.asList(SafeEncoder.encode("0"), keys);
+      case "GET":
+        return nodeData.containsKey(key) ? SafeEncoder.encode(nodeData.get(key)) : null;
+      case "APPEND":
+        String value = nodeData.getOrDefault(key, "") + SafeEncoder.encode(raw.next().getRaw());
+        nodeData.put(key, value);
+        return (long) value.length();
+      case "DUMP":
+        return nodeData.containsKey(key) ? SafeEncoder.encode("dump:" + nodeData.get(key)) : null;
+      case "PTTL":
+        return nodeData.containsKey(key) ? -1L : -2L;
+      case "RESTORE":
+        assertEquals("0", SafeEncoder.encode(raw.next().getRaw()));
+        if (nodeData.containsKey(key)) {
+          return new JedisDataException("BUSYKEY Target key name already exists.");
+        }
+        nodeData.put(key, SafeEncoder.encode(raw.next().getRaw()).substring("dump:".length()));
+        return "OK";
+      case "DEL":
+        return nodeData.remove(key) != null ? 1L : 0L;
+      default:
+        throw new IllegalArgumentException(command);
+    }
+  }
+
+  private HostAndPort owner(String key) {
+    for (Map.Entry<HostAndPort, Map<String, String>> node : data.entrySet()) {
+      if (node.getValue().containsKey(key)) {
+        return node.getKey();
+      }
+    }
+    return null;
+  }
+
+  @Test
+  public void moverMovesKeysToNewOwners() {
+    ReshardingMover mover = new ReshardingMover(provider).setBatchSize(10);
+    mover.start(executor).join();
+
+    int moved = 0;
+    for (int n = 0; n < KEYS; n++) {
+      String key = "key:" + n;
+      long hash = Hashing.MURMUR_HASH.hash(key);
+      assertEquals(provider.getNode(hash), owner(key));
+      assertEquals("value:" + n, data.get(owner(key)).get(key));
+      if (provider.isMoved(hash)) {
+        moved++;
+      }
+    }
+    assertTrue(moved > 0);
+    assertEquals(KEYS, mover.getScannedKeys());
+    assertEquals(moved, mover.getMovedKeys());
+    assertEquals(KEYS, data.values().stream().mapToInt(Map::size).sum());
+  }
+
+  private String movedKey() {
+    for (int n = 0; ; n++) {
+      String key = "key:" + n;
+      if (provider.isMoved(Hashing.MURMUR_HASH.hash(key))) {
+        return key;
+      }
+    }
+  }
+
+  @Test
+  public void readFallsBackToPreviousOwner() {
+    String key = movedKey();
+    HostAndPort previous = owner(key);
+    try (JedisSharding jedis = new JedisSharding(provider)) {
+      assertEquals(data.get(previous).get(key), jedis.get(key));
+      assertNull(jedis.get("missing"));
+    }
+    assertEquals(previous, owner(key));
+  }
+
+  @Test
+  public void writeMovesKeyFirst() {
+    String key = movedKey();
+    HostAndPort previous = owner(key);
+    String value = data.get(previous).get(key);
+    try (JedisSharding jedis = new JedisSharding(provider)) {
+      assertEquals(value.length() + 1, jedis.append(key, "!"));
+    }
+    HostAndPort owner = owner(key);
+    assertNotEquals(previous, owner);
+    assertEquals(provider.getNode(Hashing.MURMUR_HASH.hash(key)), owner);
+    assertEquals(value + "!", data.get(owner).get(key));
+  }
+
+  @Test
+  public void writtenKeyIsNotOverwrittenByMover() {
+    String key = movedKey();
+    HostAndPort owner = provider.getNode(Hashing.MURMUR_HASH.hash(key));
+    data.get(owner).put(key, "new");
+
+    new ReshardingMover(provider).start(executor).join();
+    assertEquals("new", data.get(owner).get(key));
+    assertEquals(owner, owner(key));
+  }
+
+  @Test
+  public void unmovedKeysUseUsualRouting() {
+    for (int n = 0; ; n++) {
+      String key = "key:" + n;
+      long hash = Hashing.MURMUR_HASH.hash(key);
+      if (!provider.isMoved(hash)) {
+        try (JedisSharding jedis = new JedisSharding(provider)) {
+          assertEquals("value:" + n, jedis.get(key));
+        }
+        return;
+      }
+    }
+  }
+}
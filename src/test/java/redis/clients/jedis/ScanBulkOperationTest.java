@@ -0,0 +1,187 @@
+package redis.clients.jedis;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Test;
+
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class ScanBulkOperationTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final CommandObjects commandObjects = new CommandObjects();
+
+  private final List<String> unlinked = Collections.synchronizedList(new ArrayList<>());
+  private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * A node replying {@code pages} pages of two keys each to SCAN, and pipelined replies to the
+   * applied commands. Keys ending with {@code :b} of odd pages reply an error.
+   */
+  private Connection node(String name, int pages) {
+    Connection node = mock(Connection.class);
+    when(node.executeCommand(any(CommandArguments.class))).then(invocation -> {
+      CommandArguments args = invocation.getArgument(0);
+      int page = Integer.parseInt(secondArgument(args));
+      String nextCursor = page + 1 == pages ? "0" : String.valueOf(page + 1);
+      return Arrays.asList(SafeEncoder.encode(nextCursor), Arrays.asList(
+          SafeEncoder.encode(name + ":" + page + ":a"), SafeEncoder.encode(name + ":" + page + ":b")));
+    });
+
+    List<String> sent = new ArrayList<>();
+    doAnswer(invocation -> {
+      sent.add(secondArgument(invocation.getArgument(0)));
+      return null;
+    }).when(node).sendCommand(any(CommandArguments.class));
+    when(node.getMany(anyInt())).then(invocation -> {
+      int count = invocation.getArgument(0);
+      assertEquals(sent.size(), count);
+      batchSizes.add(count);
+      List<Object> replies = new ArrayList<>();
+      for (String key : sent) {
+        if (isFailing(key)) {
+          replies.add(new JedisDataException("ERR failing key"));
+        } else {
+          unlinked.add(key);
+          replies.add(1L);
+        }
+      }
+      sent.clear();
+      return replies;
+    });
+    return node;
+  }
+
+  private static boolean isFailing(String key) {
+    String[] parts = key.split(":");
+    return Integer.parseInt(parts[1]) % 2 == 1 && parts[2].equals("b");
+  }
+
+  private static String secondArgument(CommandArguments args) {
+    Iterator<Rawable> raw = args.iterator();
+    raw.next();
+    return SafeEncoder.encode(raw.next().getRaw());
+  }
+
+  private static List<String> keys(String name, int pages) {
+    List<String> keys = new ArrayList<>();
+    for (int page = 0; page < pages; page++) {
+      keys.add(name + ":" + page + ":a");
+      keys.add(name + ":" + page + ":b");
+    }
+    return keys;
+  }
+
+  @Test
+  public void appliesCommandToAllKeysInBatches() {
+    List<Connection> nodes = Arrays.asList(node("n1", 4), node("n2", 3));
+    Map<String, Long> replies = new ConcurrentHashMap<>();
+
+    ScanBulkOperation.Progress progress = new ScanBulkOperation<>(nodes, new ScanParams(), null,
+        commandObjects::unlink).setBatchSize(1).setConcurrency(2).run(executor, replies::put);
+
+    List<String> expected = new ArrayList<>();
+    for (String key : keys("n1", 4)) {
+      if (!isFailing(key)) {
+        expected.add(key);
+      }
+    }
+    for (String key : keys("n2", 3)) {
+      if (!isFailing(key)) {
+        expected.add(key);
+      }
+    }
+    assertThat(unlinked, containsInAnyOrder(expected.toArray()));
+    assertThat(replies.keySet(), containsInAnyOrder(expected.toArray()));
+    assertThat(batchSizes, everyItem(equalTo(1)));
+
+    assertEquals(2, progress.getNodes());
+    assertEquals(2, progress.getCompletedNodes());
+    assertEquals(14, progress.getScannedKeys());
+    assertEquals(11, progress.getAppliedKeys());
+    assertEquals(3, progress.getFailedKeys());
+  }
+
+  @Test
+  public void reportsProgress() {
+    List<ScanBulkOperation.Progress> reports = Collections.synchronizedList(new ArrayList<>());
+    new ScanBulkOperation<>(Collections.singletonList(node("n1", 3)), new ScanParams(), null,
+        commandObjects::unlink).setProgressListener(reports::add).run(executor);
+
+    assertEquals(3, reports.size());
+    assertEquals(2, reports.get(0).getAppliedKeys() + reports.get(0).getFailedKeys());
+    assertEquals(6, reports.get(2).getScannedKeys());
+  }
+
+  @Test
+  public void rateLimitSpacesBatches() {
+    long start = System.nanoTime();
+    ScanBulkOperation.Progress progress = new ScanBulkOperation<>(
+        Arrays.asList(node("n1", 5), node("n2", 5)), new ScanParams(), null, commandObjects::unlink)
+        .setConcurrency(2).setRateLimit(100).run(executor);
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+    // 20 keys at 100 keys per second, the first batch is free
+    assertEquals(20, progress.getScannedKeys());
+    assertThat(elapsed.toMillis(), greaterThanOrEqualTo(150L));
+  }
+
+  @Test
+  public void cancelBeforeRunIsKept() {
+    ScanBulkOperation<Long> operation = new ScanBulkOperation<>(
+        Collections.singletonList(node("n1", 3)), new ScanParams(), null, commandObjects::unlink);
+    operation.cancel();
+
+    ScanBulkOperation.Progress cancelled = operation.run(executor);
+    assertEquals(0, cancelled.getCompletedNodes());
+    assertTrue(unlinked.isEmpty());
+
+    ScanBulkOperation.Progress rerun = operation.run(executor);
+    assertEquals(1, rerun.getCompletedNodes());
+    assertEquals(6, rerun.getScannedKeys());
+  }
+
+  @Test
+  public void connectionErrorStopsOperation() {
+    Connection failing = mock(Connection.class);
+    when(failing.executeCommand(any(CommandArguments.class)))
+        .thenThrow(new JedisConnectionException("node down"));
+
+    ScanBulkOperation<Long> operation = new ScanBulkOperation<>(Arrays.asList(failing, node("n1", 50)),
+        new ScanParams(), null, commandObjects::unlink);
+    assertThrows(JedisConnectionException.class, () -> operation.run(executor));
+    assertTrue(unlinked.isEmpty());
+  }
+}
@@ -0,0 +1,130 @@
+package redis.clients.jedis;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Test;
+
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class ScanSpliteratorTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * A node replying {@code pages} pages of two keys each. Cursors are the page numbers.
+   */
+  private static Connection node(String name, int pages) {
+    Connection node = mock(Connection.class);
+    when(node.executeCommand(any(CommandArguments.class))).then(invocation -> {
+      CommandArguments args = invocation.getArgument(0);
+      int page = Integer.parseInt(cursorOf(args));
+      String nextCursor = page + 1 == pages ? "0" : String.valueOf(page + 1);
+      return Arrays.asList(SafeEncoder.encode(nextCursor), Arrays.asList(
+          SafeEncoder.encode(name + ":" + page + ":a"), SafeEncoder.encode(name + ":" + page + ":b")));
+    });
+    return node;
+  }
+
+  private static String cursorOf(CommandArguments args) {
+    Iterator<Rawable> raw = args.iterator();
+    raw.next(); // SCAN
+    return SafeEncoder.encode(raw.next().getRaw());
+  }
+
+  private static List<String> expectedKeys(String name, int pages) {
+    List<String> keys = new ArrayList<>();
+    for (int page = 0; page < pages; page++) {
+      keys.add(name + ":" + page + ":a");
+      keys.add(name + ":" + page + ":b");
+    }
+    return keys;
+  }
+
+  @Test
+  public void scansAllNodes() {
+    List<Connection> nodes = Arrays.asList(node("n1", 3), node("n2", 1), node("n3", 5));
+    List<String> expected = new ArrayList<>();
+    expected.addAll(expectedKeys("n1", 3));
+    expected.addAll(expectedKeys("n2", 1));
+    expected.addAll(expectedKeys("n3", 5));
+
+    try (Stream<String> keys = new ScanSpliterator(nodes, new ScanParams().match("n*").count(2), null,
+        executor).stream()) {
+      assertThat(keys.collect(Collectors.toList()), containsInAnyOrder(expected.toArray()));
+    }
+  }
+
+  @Test
+  public void parallelStreamSplitsNodes() {
+    List<Connection> nodes = Arrays.asList(node("n1", 4), node("n2", 4), node("n3", 4), node("n4", 4));
+    try (ScanSpliterator spliterator = new ScanSpliterator(nodes, new ScanParams(), "string", executor)) {
+      Spliterator<String> prefix = spliterator.trySplit();
+      assertNotNull(prefix);
+      assertNotNull(spliterator.trySplit());
+      assertNull(spliterator.trySplit());
+    }
+
+    List<Connection> allNodes = Arrays.asList(node("n1", 4), node("n2", 4), node("n3", 4), node("n4", 4));
+    try (Stream<String> keys = new ScanSpliterator(allNodes, new ScanParams(), "string", executor)
+        .stream().parallel()) {
+      assertEquals(32, keys.count());
+    }
+  }
+
+  @Test
+  public void closeCancelsSplitFetches() {
+    List<Runnable> tasks = new ArrayList<>();
+    List<Connection> nodes = Arrays.asList(node("n1", 1), node("n2", 1));
+    ScanSpliterator spliterator = new ScanSpliterator(nodes, new ScanParams(), null, tasks::add);
+    Spliterator<String> prefix = spliterator.trySplit();
+    assertNotNull(prefix);
+
+    spliterator.close();
+    tasks.forEach(Runnable::run);
+    for (Connection node : nodes) {
+      verify(node, never()).executeCommand(any(CommandArguments.class));
+    }
+    assertFalse(prefix.tryAdvance(key -> { }));
+  }
+
+  @Test
+  public void nodeFailureIsThrown() {
+    Connection failing = mock(Connection.class);
+    when(failing.executeCommand(any(CommandArguments.class)))
+        .thenThrow(new JedisConnectionException("node down"));
+
+    try (Stream<String> keys = new ScanSpliterator(Arrays.asList(node("n1", 2), failing),
+        new ScanParams(), null, executor).stream()) {
+      assertThrows(JedisConnectionException.class, () -> keys.collect(Collectors.toList()));
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.executors.CommandExecutor;
+import redis.clients.jedis.providers.ConnectionProvider;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class VariadicChunkingTest {
+
+  private final CommandObjects commandObjects = new CommandObjects();
+
+  private static List<String> arguments(CommandObject<?> commandObject) {
+    List<String> args = new ArrayList<>();
+    Iterator<Rawable> raw = commandObject.getArguments().iterator();
+    raw.next(); // command
+    raw.forEachRemaining(arg -> args.add(SafeEncoder.encode(arg.getRaw())));
+    return args;
+  }
+
+  @Test
+  public void disabledByDefault() {
+    List<CommandObject<Long>> chunks = commandObjects.saddChunks("key", "a", "b", "c");
+    assertEquals(1, chunks.size());
+    assertEquals(Arrays.asList("key", "a", "b", "c"), arguments(chunks.get(0)));
+  }
+
+  @Test
+  public void chunksByElements() {
+    commandObjects.setVariadicChunking(3, 0);
+    List<CommandObject<Long>> chunks = commandObjects.saddChunks("key", "a", "b", "c", "d", "e", "f", "g");
+    assertEquals(3, chunks.size());
+    assertEquals(Arrays.asList("key", "a", "b", "c"), arguments(chunks.get(0)));
+    assertEquals(Arrays.asList("key", "d", "e", "f"), arguments(chunks.get(1)));
+    assertEquals(Arrays.asList("key", "g"), arguments(chunks.get(2)));
+  }
+
+  @Test
+  public void chunksKeyValuePairsByBytes() {
+    commandObjects.setVariadicChunking(0, 8);
+    List<CommandObject<String>> chunks = commandObjects.msetChunks("k1", "v1", "k2", "v2", "k3", "v3",
+        "key4", "a-long-value");
+    assertEquals(3, chunks.size());
+    assertEquals(Arrays.asList("k1", "v1", "k2", "v2"), arguments(chunks.get(0)));
+    assertEquals(Arrays.asList("k3", "v3"), arguments(chunks.get(1)));
+    // an element larger than the limit is a chunk on its own
+    assertEquals(Arrays.asList("key4", "a-long-value"), arguments(chunks.get(2)));
+  }
+
+  @Test
+  public void chunksMaps() {
+    commandObjects.setVariadicChunking(2, 0);
+    Map<String, String> hash = new LinkedHashMap<>();
+    hash.put("f1", "v1");
+    hash.put("f2", "v2");
+    hash.put("f3", "v3");
+    List<CommandObject<Long>> chunks = commandObjects.hsetChunks("key", hash);
+    assertEquals(2, chunks.size());
+    assertEquals(Arrays.asList("key", "f1", "v1", "f2", "v2"), arguments(chunks.get(0)));
+    assertEquals(Arrays.asList("key", "f3", "v3"), arguments(chunks.get(1)));
+  }
+
+  private static UnifiedJedis jedis(Connection connection) {
+    when(connection.executeCommands(any())).thenCallRealMethod();
+    ConnectionProvider provider = mock(ConnectionProvider.class);
+    when(provider.getConnection()).thenReturn(connection);
+    when(provider.getConnection(any(CommandArguments.class))).thenReturn(connection);
+    UnifiedJedis jedis = new UnifiedJedis(provider);
+    jedis.setVariadicChunking(2, 0);
+    return jedis;
+  }
+
+  @Test
+  public void pipelinesChunksAndSumsReplies() {
+    Connection connection = mock(Connection.class);
+    when(connection.getMany(3)).thenReturn(Arrays.asList(2L, 1L, 1L));
+
+    assertEquals(4, jedis(connection).sadd("key", "a", "b", "c", "d", "e"));
+    verify(connection, times(3)).sendCommand(any(CommandArguments.class));
+  }
+
+  @Test
+  public void rpushRepliesLastLength() {
+    Connection connection = mock(Connection.class);
+    when(connection.getMany(2)).thenReturn(Arrays.asList(12L, 13L));
+
+    assertEquals(13, jedis(connection).rpush("key", "a", "b", "c"));
+  }
+
+  @Test
+  public void chunksAreExecutedByTheExecutor() {
+    List<CommandArguments> executed = new ArrayList<>();
+    CommandExecutor executor = new CommandExecutor() {
+      @Override
+      public <T> T executeCommand(CommandObject<T> commandObject) {
+        executed.add(commandObject.getArguments());
+        return (T) Long.valueOf(executed.size());
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    UnifiedJedis jedis = new UnifiedJedis(executor);
+    jedis.setVariadicChunking(2, 0);
+
+    assertEquals(6, jedis.sadd("key", "a", "b", "c", "d", "e"));
+    assertEquals(3, executed.size());
+  }
+
+  @Test
+  public void errorReplyIsThrown() {
+    Connection connection = mock(Connection.class);
+    when(connection.getMany(2)).thenReturn(Arrays.asList(2L, new JedisDataException("WRONGTYPE")));
+
+    UnifiedJedis jedis = jedis(connection);
+    assertThrows(JedisDataException.class, () -> jedis.sadd("key", "a", "b", "c"));
+  }
+}
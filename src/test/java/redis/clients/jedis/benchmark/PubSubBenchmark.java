@@ -0,0 +1,105 @@
+package redis.clients.jedis.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import redis.clients.jedis.BinaryJedisPubSub;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.JedisPubSubBase;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Measures reading and dispatching pub/sub messages, without a Redis server.
+ */
+public class PubSubBenchmark {
+
+  private static final int TOTAL_OPERATIONS = 2000000;
+  private static final int CHANNELS = 100;
+
+  public static void main(String[] args) throws Exception {
+    byte[] frames = frames();
+
+    long total = 0;
+    for (int at = 0; at != 10; ++at) {
+      long elapsed = measure(frames, new JedisPubSub() {
+        @Override
+        public void onMessage(String channel, String message) {
+        }
+      });
+      long ops = ((1000 * TOTAL_OPERATIONS) / TimeUnit.NANOSECONDS.toMillis(elapsed));
+      if (at >= 5) {
+        total += ops;
+      }
+    }
+    System.out.println("JedisPubSub: " + (total / 5) + " msgs/s avg");
+
+    total = 0;
+    for (int at = 0; at != 10; ++at) {
+      long elapsed = measure(frames, new BinaryJedisPubSub() {
+        @Override
+        public void onMessage(byte[] channel, byte[] message) {
+        }
+      });
+      long ops = ((1000 * TOTAL_OPERATIONS) / TimeUnit.NANOSECONDS.toMillis(elapsed));
+      if (at >= 5) {
+        total += ops;
+      }
+    }
+    System.out.println("BinaryJedisPubSub: " + (total / 5) + " msgs/s avg");
+  }
+
+  private static byte[] frames() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    write(out, "*3\r\n$9\r\nsubscribe\r\n$9\r\nchannel-0\r\n:1\r\n");
+    for (int n = 0; n < TOTAL_OPERATIONS; n++) {
+      String channel = "channel-" + (n % CHANNELS);
+      String message = "message-" + n;
+      write(out, "*3\r\n$7\r\nmessage\r\n$" + channel.length() + "\r\n" + channel + "\r\n$"
+          + message.length() + "\r\n" + message + "\r\n");
+    }
+    write(out, "*3\r\n$11\r\nunsubscribe\r\n$9\r\nchannel-0\r\n:0\r\n");
+    return out.toByteArray();
+  }
+
+  private static void write(ByteArrayOutputStream out, String frame) {
+    byte[] raw = SafeEncoder.encode(frame);
+    out.write(raw, 0, raw.length);
+  }
+
+  private static <T> long measure(byte[] frames, JedisPubSubBase<T> pubSub) {
+    Socket socket = new Socket() {
+      private final InputStream in = new ByteArrayInputStream(frames);
+      private final OutputStream out = new ByteArrayOutputStream();
+
+      @Override
+      public boolean isBound() {
+        return true;
+      }
+
+      @Override
+      public boolean isConnected() {
+        return true;
+      }
+
+      @Override
+      public InputStream getInputStream() {
+        return in;
+      }
+
+      @Override
+      public OutputStream getOutputStream() {
+        return out;
+      }
+    };
+    try (Connection connection = new Connection(() -> socket)) {
+      long start = System.nanoTime();
+      pubSub.proceed(connection, (T) SafeEncoder.encode("channel-0"));
+      return System.nanoTime() - start;
+    }
+  }
+}
@@ -2,13 +2,20 @@ package redis.clients.jedis.benchmark;
 
 import java.io.IOException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import redis.clients.jedis.DefaultJedisClientConfig;
 import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.HostAndPorts;
 import redis.clients.jedis.JedisSharding;
+import redis.clients.jedis.util.Hashing;
+import redis.clients.jedis.util.ShardSelectionStrategy;
+import redis.clients.jedis.util.ShardSelector;
 
 public class ShardingBenchmark {
 
@@ -16,7 +23,12 @@ public class ShardingBenchmark {
   private static HostAndPort hnp2 = HostAndPorts.getRedisServers().get(1);
   private static final int TOTAL_OPERATIONS = 100000;
 
+  private static final int SHARDS = 16;
+  private static final int TOTAL_LOOKUPS = 10000000;
+
   public static void main(String[] args) throws UnknownHostException, IOException {
+    shardSelection();
+
     try (JedisSharding jedis = new JedisSharding(Arrays.asList(hnp1, hnp2),
         DefaultJedisClientConfig.builder().password("foobared").build())) {
 
@@ -33,4 +45,53 @@ public class ShardingBenchmark {
       System.out.println(((1000 * 2 * TOTAL_OPERATIONS) / elapsed) + " ops");
     }
   }
+
+  /**
+   * Compares the shard lookup of the strategies with the boxed TreeMap ring used before them.
+   */
+  private static void shardSelection() {
+    List<HostAndPort> shards = new ArrayList<>();
+    for (int i = 0; i < SHARDS; i++) {
+      shards.add(new HostAndPort("10.0.0." + i, 6379));
+    }
+    long[] hashes = new long[1 << 16];
+    for (int n = 0; n < hashes.length; n++) {
+      hashes[n] = Hashing.MURMUR_HASH.hash("foo" + n);
+    }
+
+    TreeMap<Long, Integer> ring = new TreeMap<>();
+    for (int i = 0; i < SHARDS; i++) {
+      for (int n = 0; n < 160; n++) {
+        ring.put(Hashing.MURMUR_HASH.hash("SHARD-" + i + "-NODE-" + n), i);
+      }
+    }
+    measure("TreeMap ring", hash -> {
+      SortedMap<Long, Integer> tail = ring.tailMap(hash);
+      return tail.isEmpty() ? ring.firstEntry().getValue() : tail.get(tail.firstKey());
+    }, hashes);
+
+    measure("RING", ShardSelectionStrategy.RING.create(shards, Hashing.MURMUR_HASH), hashes);
+    measure("JUMP", ShardSelectionStrategy.JUMP.create(shards, Hashing.MURMUR_HASH), hashes);
+    measure("MAGLEV", ShardSelectionStrategy.MAGLEV.create(shards, Hashing.MURMUR_HASH), hashes);
+    measure("RENDEZVOUS", ShardSelectionStrategy.RENDEZVOUS.create(shards, Hashing.MURMUR_HASH), hashes);
+  }
+
+  private static void measure(String name, ShardSelector selector, long[] hashes) {
+    int mask = hashes.length - 1;
+    long sum = 0;
+    // warm up
+    for (int n = 0; n < TOTAL_LOOKUPS / 10; n++) {
+      sum += selector.getShard(hashes[n & mask]);
+    }
+
+    long begin = Calendar.getInstance().getTimeInMillis();
+
+    for (int n = 0; n < TOTAL_LOOKUPS; n++) {
+      sum += selector.getShard(hashes[n & mask]);
+    }
+
+    long elapsed = Math.max(1, Calendar.getInstance().getTimeInMillis() - begin);
+
+    System.out.println(((1000L * TOTAL_LOOKUPS) / elapsed) + " " + name + " lookups (" + sum + ")");
+  }
 }
@@ -0,0 +1,104 @@
+package redis.clients.jedis.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.CommandObject;
+import redis.clients.jedis.CommandObjects;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.providers.ConnectionProvider;
+
+public class HedgedReadCommandExecutorTest {
+
+  private static final CommandObjects COMMAND_OBJECTS = new CommandObjects();
+
+  private ExecutorService executorService;
+  private ConnectionProvider replicas;
+
+  @Before
+  public void setUp() {
+    executorService = Executors.newCachedThreadPool();
+    Connection replicaConnection = mock(Connection.class);
+    when(replicaConnection.executeCommand(any(CommandObject.class))).thenReturn("replica");
+    replicas = mock(ConnectionProvider.class);
+    when(replicas.getConnection(any())).thenReturn(replicaConnection);
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  private static CommandExecutor primaryReplyingAfter(long millis) {
+    return new CommandExecutor() {
+      @Override
+      public <T> T executeCommand(CommandObject<T> commandObject) {
+        try {
+          Thread.sleep(millis);
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        return (T) "primary";
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+  }
+
+  @Test
+  public void slowPrimaryIsHedged() {
+    HedgedReadCommandExecutor executor = new HedgedReadCommandExecutor(primaryReplyingAfter(1000),
+        replicas, executorService, 0.9, Duration.ofMillis(5), Duration.ofMillis(10));
+
+    assertEquals("replica", executor.executeCommand(COMMAND_OBJECTS.get("key")));
+    assertEquals(1, executor.getReadCount());
+    assertEquals(1, executor.getHedgeCount());
+    assertEquals(1, executor.getHedgeWinCount());
+  }
+
+  @Test
+  public void fastPrimaryIsNotHedged() {
+    HedgedReadCommandExecutor executor = new HedgedReadCommandExecutor(primaryReplyingAfter(0),
+        replicas, executorService, 0.9, Duration.ofMillis(500), Duration.ofMillis(1000));
+
+    assertEquals("primary", executor.executeCommand(COMMAND_OBJECTS.get("key")));
+    assertEquals(1, executor.getReadCount());
+    assertEquals(0, executor.getHedgeCount());
+    verify(replicas, never()).getConnection(any());
+  }
+
+  @Test
+  public void writesAreNotHedged() {
+    HedgedReadCommandExecutor executor = new HedgedReadCommandExecutor(primaryReplyingAfter(50),
+        replicas, executorService, 0.9, Duration.ofMillis(1), Duration.ofMillis(1));
+
+    assertEquals("primary", executor.executeCommand(COMMAND_OBJECTS.set("key", "value")));
+    assertEquals(0, executor.getReadCount());
+    verify(replicas, never()).getConnection(any());
+  }
+
+  @Test
+  public void hedgeDelayFollowsObservedLatency() {
+    HedgedReadCommandExecutor executor = new HedgedReadCommandExecutor(primaryReplyingAfter(0),
+        replicas, executorService, 0.9, Duration.ofNanos(1), Duration.ofSeconds(1));
+    assertEquals(Duration.ofSeconds(1), executor.getHedgeDelay());
+
+    for (int i = 0; i < 128; i++) {
+      executor.executeCommand(COMMAND_OBJECTS.get("key"));
+    }
+    assertEquals(-1, executor.getHedgeDelay().compareTo(Duration.ofSeconds(1)));
+  }
+}
@@ -0,0 +1,106 @@
+package redis.clients.jedis.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.junit.Test;
+
+import redis.clients.jedis.ClientSetInfoConfig;
+import redis.clients.jedis.CommandObjects;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.ConnectionPool;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.JedisSocketFactory;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class JedisEventsTest {
+
+  private static Connection connection(String replies) throws Exception {
+    Socket socket = mock(Socket.class);
+    when(socket.isBound()).thenReturn(true);
+    when(socket.isConnected()).thenReturn(true);
+    when(socket.getInputStream()).thenReturn(new ByteArrayInputStream(SafeEncoder.encode(replies)));
+    when(socket.getOutputStream()).thenReturn(new ByteArrayOutputStream());
+    JedisSocketFactory socketFactory = mock(JedisSocketFactory.class);
+    when(socketFactory.createSocket()).thenReturn(socket);
+    return new Connection(socketFactory, DefaultJedisClientConfig.builder()
+        .clientSetInfoConfig(ClientSetInfoConfig.DISABLED).build());
+  }
+
+  private static List<RecordedEvent> record(String eventName, Runnable action) throws Exception {
+    Path file = Files.createTempFile("jedis", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(eventName).withoutThreshold();
+      recording.start();
+      action.run();
+      recording.stop();
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file).stream()
+          .filter(event -> event.getEventType().getName().equals(eventName))
+          .collect(Collectors.toList());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void disabledByDefault() {
+    assertNull(JedisEvents.beginCommand());
+    assertNull(JedisEvents.beginPoolWait());
+    assertNull(JedisEvents.beginConnect());
+  }
+
+  @Test
+  public void commandEvents() throws Exception {
+    CommandObjects commandObjects = new CommandObjects();
+    List<RecordedEvent> events = record("redis.clients.jedis.Command", () -> {
+      try (Connection connection = connection("+OK\r\n-ERR value is not an integer\r\n")) {
+        connection.executeCommand(commandObjects.set("foo", "bar"));
+        assertThrows(JedisDataException.class, () -> connection.executeCommand(commandObjects.incr("foo")));
+      } catch (Exception e) {
+        throw new AssertionError(e);
+      }
+    });
+
+    assertEquals(2, events.size());
+    assertEquals("SET", events.get(0).getString("command"));
+    assertEquals(9, events.get(0).getLong("requestSize"));
+    assertNull(events.get(0).getString("error"));
+    assertEquals("INCR", events.get(1).getString("command"));
+    assertEquals(JedisDataException.class.getName() + ": ERR value is not an integer",
+        events.get(1).getString("error"));
+  }
+
+  @Test
+  public void poolWaitEvents() throws Exception {
+    @SuppressWarnings("unchecked")
+    PooledObjectFactory<Connection> factory = mock(PooledObjectFactory.class);
+    when(factory.makeObject()).then(invocation -> new DefaultPooledObject<>(mock(Connection.class)));
+
+    List<RecordedEvent> events = record("redis.clients.jedis.PoolWait", () -> {
+      try (ConnectionPool pool = new ConnectionPool(factory)) {
+        pool.getResource();
+        pool.getResource();
+      }
+    });
+
+    assertEquals(2, events.size());
+    assertEquals(2, events.get(1).getInt("active"));
+  }
+}
@@ -0,0 +1,87 @@
+package redis.clients.jedis.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+import redis.clients.jedis.CommandObjects;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class HotKeyDetectorTest {
+
+  private final CommandObjects commandObjects = new CommandObjects();
+  private final AtomicLong now = new AtomicLong();
+  private final HostAndPort node1 = new HostAndPort("node1", 6379);
+  private final HostAndPort node2 = new HostAndPort("node2", 6379);
+
+  private HotKeyDetector detector(int samplingInterval) {
+    return new HotKeyDetector(samplingInterval, Duration.ofSeconds(10), 4, now::get);
+  }
+
+  private void advance(long seconds) {
+    now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+  }
+
+  @Test
+  public void firstKey() {
+    assertEquals("foo", SafeEncoder.encode(commandObjects.set("foo", "bar").getArguments().getFirstKey().getRaw()));
+    assertNull(commandObjects.ping().getArguments().getFirstKey());
+  }
+
+  @Test
+  public void detectsHotKeysPerNode() {
+    HotKeyDetector detector = detector(1);
+    for (int i = 0; i < 1000; i++) {
+      detector.record(node1, commandObjects.get("key:" + i).getArguments());
+      if (i % 2 == 0) {
+        detector.record(node1, commandObjects.get("hot").getArguments());
+      }
+      if (i % 4 == 0) {
+        detector.record(node1, commandObjects.incr("warm").getArguments());
+      }
+      detector.record(node2, commandObjects.get("other").getArguments());
+    }
+    detector.record(node1, commandObjects.ping().getArguments());
+    assertTrue(detector.getHotKeys().isEmpty());
+
+    advance(10);
+    List<HotKeyDetector.HotKey> hotKeys = detector.getHotKeys(node1);
+    assertEquals(4, hotKeys.size());
+    assertEquals("hot", hotKeys.get(0).getKey());
+    assertEquals(500, hotKeys.get(0).getEstimatedCount(), 10);
+    assertEquals(500.0 / 1750, hotKeys.get(0).getShare(), 0.01);
+    assertEquals("warm", hotKeys.get(1).getKey());
+    assertEquals("other", detector.getHotKeys().get(node2).get(0).getKey());
+    assertEquals(1.0, detector.getHotKeys().get(node2).get(0).getShare(), 0);
+  }
+
+  @Test
+  public void samplingScalesCounts() {
+    HotKeyDetector detector = detector(8);
+    for (int i = 0; i < 80_000; i++) {
+      detector.record(node1, commandObjects.get("hot").getArguments());
+    }
+    advance(10);
+    assertEquals(80_000, detector.getHotKeys(node1).get(0).getEstimatedCount(), 4_000);
+  }
+
+  @Test
+  public void windowsExpire() {
+    HotKeyDetector detector = detector(1);
+    detector.record(node1, commandObjects.get("hot").getArguments());
+    advance(15);
+    assertEquals(1, detector.getHotKeys(node1).size());
+    advance(10);
+    assertTrue(detector.getHotKeys(node1).isEmpty());
+    advance(100);
+    detector.record(node1, commandObjects.get("hot").getArguments());
+    assertTrue(detector.getHotKeys(node1).isEmpty());
+  }
+}
@@ -0,0 +1,109 @@
+package redis.clients.jedis.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.Socket;
+import java.util.Arrays;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.junit.Test;
+
+import redis.clients.jedis.ClientSetInfoConfig;
+import redis.clients.jedis.CommandObjects;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.ConnectionPool;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.JedisSocketFactory;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class JedisMetricsTest {
+
+  @Test
+  public void recordsConnectionCommands() throws Exception {
+    byte[] replies = SafeEncoder.encode("+OK\r\n$3\r\nbar\r\n-ERR value is not an integer\r\n");
+    ByteArrayOutputStream written = new ByteArrayOutputStream();
+    Socket socket = mock(Socket.class);
+    when(socket.isBound()).thenReturn(true);
+    when(socket.isConnected()).thenReturn(true);
+    when(socket.getInputStream()).thenReturn(new ByteArrayInputStream(replies));
+    when(socket.getOutputStream()).thenReturn(written);
+    JedisSocketFactory socketFactory = mock(JedisSocketFactory.class);
+    when(socketFactory.createSocket()).thenReturn(socket);
+
+    JedisMetrics metrics = new JedisMetrics();
+    CommandObjects commandObjects = new CommandObjects();
+    try (Connection connection = new Connection(socketFactory, DefaultJedisClientConfig.builder()
+        .clientSetInfoConfig(ClientSetInfoConfig.DISABLED).metrics(metrics).build())) {
+      assertEquals("OK", connection.executeCommand(commandObjects.set("foo", "bar")));
+      assertEquals("bar", connection.executeCommand(commandObjects.get("foo")));
+      assertThrows(JedisDataException.class, () -> connection.executeCommand(commandObjects.incr("foo")));
+    }
+
+    JedisMetrics.Snapshot snapshot = metrics.snapshot();
+    assertEquals(1, snapshot.getCommandLatencies().get("SET").getCount());
+    assertEquals(1, snapshot.getCommandLatencies().get("GET").getCount());
+    assertEquals(1, snapshot.getCommandLatencies().get("INCR").getCount());
+    assertEquals(Long.valueOf(0), snapshot.getCommandErrors().get("GET"));
+    assertEquals(Long.valueOf(1), snapshot.getCommandErrors().get("INCR"));
+    assertEquals(1, snapshot.getDataErrors());
+    assertEquals(0, snapshot.getConnectionErrors());
+    assertEquals(written.size(), snapshot.getBytesWritten());
+    assertEquals(replies.length, snapshot.getBytesRead());
+  }
+
+  @Test
+  public void recordsPipelinedCommands() throws Exception {
+    byte[] replies = SafeEncoder.encode(":2\r\n-WRONGTYPE wrong kind of value\r\n:1\r\n");
+    Socket socket = mock(Socket.class);
+    when(socket.isBound()).thenReturn(true);
+    when(socket.isConnected()).thenReturn(true);
+    when(socket.getInputStream()).thenReturn(new ByteArrayInputStream(replies));
+    when(socket.getOutputStream()).thenReturn(new ByteArrayOutputStream());
+    JedisSocketFactory socketFactory = mock(JedisSocketFactory.class);
+    when(socketFactory.createSocket()).thenReturn(socket);
+
+    JedisMetrics metrics = new JedisMetrics();
+    CommandObjects commandObjects = new CommandObjects();
+    try (Connection connection = new Connection(socketFactory, DefaultJedisClientConfig.builder()
+        .clientSetInfoConfig(ClientSetInfoConfig.DISABLED).metrics(metrics).build())) {
+      assertThrows(JedisDataException.class, () -> connection.executeCommands(Arrays.asList(
+          commandObjects.sadd("a", "x", "y"), commandObjects.sadd("b", "x"), commandObjects.sadd("c", "x"))));
+    }
+
+    JedisMetrics.Snapshot snapshot = metrics.snapshot();
+    assertEquals(3, snapshot.getCommandLatencies().get("SADD").getCount());
+    assertEquals(Long.valueOf(1), snapshot.getCommandErrors().get("SADD"));
+  }
+
+  @Test
+  public void recordsPoolWait() throws Exception {
+    @SuppressWarnings("unchecked")
+    PooledObjectFactory<Connection> factory = mock(PooledObjectFactory.class);
+    when(factory.makeObject()).then(invocation -> new DefaultPooledObject<>(mock(Connection.class)));
+
+    JedisMetrics metrics = new JedisMetrics();
+    try (ConnectionPool pool = new ConnectionPool(factory)) {
+      pool.setMetrics(metrics);
+      pool.getResource();
+      pool.getResource();
+    }
+    assertEquals(2, metrics.snapshot().getPoolWait().getCount());
+    assertEquals(0, metrics.snapshot().getPoolErrors());
+  }
+
+  @Test
+  public void customCommandsShareMetrics() {
+    JedisMetrics metrics = new JedisMetrics();
+    for (int i = 0; i < 3; i++) {
+      metrics.recordCommand(() -> SafeEncoder.encode("CUSTOM"), null, 1000, null);
+    }
+    assertEquals(1, metrics.snapshot().getCommandLatencies().size());
+    assertEquals(3, metrics.snapshot().getCommandLatencies().get("CUSTOM").getCount());
+  }
+}
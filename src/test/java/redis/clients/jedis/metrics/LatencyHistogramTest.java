@@ -0,0 +1,58 @@
+package redis.clients.jedis.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void bucketsCoverValues() {
+    int previous = -1;
+    for (long value = 0; value < 1 << 20; value++) {
+      int bucket = LatencyHistogram.bucketOf(value);
+      assertTrue(bucket == previous || bucket == previous + 1);
+      assertTrue(value <= LatencyHistogram.highestValueOf(bucket));
+      previous = bucket;
+    }
+    assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void percentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int value = 1; value <= 100_000; value++) {
+      histogram.record(value * 1000L);
+    }
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertEquals(100_000, snapshot.getCount());
+    assertEquals(100_000_000L, snapshot.getMax());
+    assertEquals(50_000_500.0, snapshot.getMean(), 0.001);
+    assertEquals(50_000_000, snapshot.getValueAtPercentile(50), 50_000_000 / 64);
+    assertEquals(99_000_000, snapshot.getValueAtPercentile(99), 99_000_000 / 64);
+    assertEquals(100_000_000L, snapshot.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void precision() {
+    Random random = new Random(7);
+    for (int i = 0; i < 10_000; i++) {
+      long value = (long) Math.pow(2, random.nextDouble() * 38);
+      LatencyHistogram histogram = new LatencyHistogram();
+      histogram.record(value);
+      histogram.record(value * 2);
+      long p50 = histogram.snapshot().getValueAtPercentile(50);
+      assertTrue(p50 >= value && p50 <= value + value / 64);
+    }
+  }
+
+  @Test
+  public void empty() {
+    LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+    assertEquals(0, snapshot.getCount());
+    assertEquals(0, snapshot.getValueAtPercentile(99));
+    assertEquals(0, snapshot.getMean(), 0);
+  }
+}
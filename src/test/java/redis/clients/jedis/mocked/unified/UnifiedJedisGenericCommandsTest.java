@@ -110,6 +110,7 @@ public class UnifiedJedisGenericCommandsTest extends UnifiedJedisMockedTestBase
 
     verify(commandExecutor).executeCommand(longCommandObject);
     verify(commandObjects).del(keys);
+    verify(commandObjects).isVariadicChunking();
   }
 
   @Test
@@ -125,6 +126,7 @@ public class UnifiedJedisGenericCommandsTest extends UnifiedJedisMockedTestBase
 
     verify(commandExecutor).executeCommand(longCommandObject);
     verify(commandObjects).del(keys);
+    verify(commandObjects).isVariadicChunking();
   }
 
   @Test
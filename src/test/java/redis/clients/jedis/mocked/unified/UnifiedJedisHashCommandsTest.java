@@ -604,6 +604,7 @@ public class UnifiedJedisHashCommandsTest extends UnifiedJedisMockedTestBase {
 
     verify(commandExecutor).executeCommand(longCommandObject);
     verify(commandObjects).hset(key, hash);
+    verify(commandObjects).isVariadicChunking();
   }
 
   @Test
@@ -623,6 +624,7 @@ public class UnifiedJedisHashCommandsTest extends UnifiedJedisMockedTestBase {
 
     verify(commandExecutor).executeCommand(longCommandObject);
     verify(commandObjects).hset(key, hash);
+    verify(commandObjects).isVariadicChunking();
   }
 
   @Test
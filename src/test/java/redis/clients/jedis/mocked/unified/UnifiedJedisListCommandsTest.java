@@ -1081,6 +1081,7 @@ public class UnifiedJedisListCommandsTest extends UnifiedJedisMockedTestBase {
 
     verify(commandExecutor).executeCommand(longCommandObject);
     verify(commandObjects).rpush(key, strings);
+    verify(commandObjects).isVariadicChunking();
   }
 
   @Test
@@ -1096,6 +1097,7 @@ public class UnifiedJedisListCommandsTest extends UnifiedJedisMockedTestBase {
     assertThat(result, equalTo(expectedLength));
     verify(commandExecutor).executeCommand(longCommandObject);
     verify(commandObjects).rpush(key, args);
+    verify(commandObjects).isVariadicChunking();
   }
 
   @Test
@@ -31,6 +31,7 @@ public class UnifiedJedisSetCommandsTest extends UnifiedJedisMockedTestBase {
 
     verify(commandExecutor).executeCommand(longCommandObject);
     verify(commandObjects).sadd(key, members);
+    verify(commandObjects).isVariadicChunking();
   }
 
   @Test
@@ -48,6 +49,7 @@ public class UnifiedJedisSetCommandsTest extends UnifiedJedisMockedTestBase {
 
     verify(commandExecutor).executeCommand(longCommandObject);
     verify(commandObjects).sadd(key, members);
+    verify(commandObjects).isVariadicChunking();
   }
 
   @Test
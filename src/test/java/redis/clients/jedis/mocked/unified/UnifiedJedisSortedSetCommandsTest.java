@@ -262,6 +262,7 @@ public class UnifiedJedisSortedSetCommandsTest extends UnifiedJedisMockedTestBas
 
     verify(commandExecutor).executeCommand(longCommandObject);
     verify(commandObjects).zadd(key, scoreMembers);
+    verify(commandObjects).isVariadicChunking();
   }
 
   @Test
@@ -281,6 +282,7 @@ public class UnifiedJedisSortedSetCommandsTest extends UnifiedJedisMockedTestBas
 
     verify(commandExecutor).executeCommand(longCommandObject);
     verify(commandObjects).zadd(key, scoreMembers);
+    verify(commandObjects).isVariadicChunking();
   }
 
   @Test
@@ -301,6 +303,7 @@ public class UnifiedJedisSortedSetCommandsTest extends UnifiedJedisMockedTestBas
 
     verify(commandExecutor).executeCommand(longCommandObject);
     verify(commandObjects).zadd(key, scoreMembers, params);
+    verify(commandObjects).isVariadicChunking();
   }
 
   @Test
@@ -321,6 +324,7 @@ public class UnifiedJedisSortedSetCommandsTest extends UnifiedJedisMockedTestBas
 
     verify(commandExecutor).executeCommand(longCommandObject);
     verify(commandObjects).zadd(key, scoreMembers, params);
+    verify(commandObjects).isVariadicChunking();
   }
 
   @Test
@@ -466,6 +466,7 @@ public class UnifiedJedisStringCommandsTest extends UnifiedJedisMockedTestBase {
 
     verify(commandExecutor).executeCommand(stringCommandObject);
     verify(commandObjects).mset(keysvalues);
+    verify(commandObjects).isVariadicChunking();
   }
 
   @Test
@@ -482,6 +483,7 @@ public class UnifiedJedisStringCommandsTest extends UnifiedJedisMockedTestBase {
 
     verify(commandExecutor).executeCommand(stringCommandObject);
     verify(commandObjects).mset(keysvalues);
+    verify(commandObjects).isVariadicChunking();
   }
 
   @Test
@@ -0,0 +1,68 @@
+package redis.clients.jedis.providers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.ClusterCommandObjects;
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.ConnectionPool;
+import redis.clients.jedis.JedisClusterInfoCache;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.exceptions.JedisClusterOperationException;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+public class ClusterReplicaConnectionProviderTest {
+
+  private static final ClusterCommandObjects COMMAND_OBJECTS = new ClusterCommandObjects();
+
+  private final JedisClusterInfoCache cache = mock(JedisClusterInfoCache.class);
+  private final ConnectionPool replicaPool = mock(ConnectionPool.class);
+  private final Connection replicaConnection = mock(Connection.class);
+
+  private ClusterConnectionProvider provider;
+
+  @Before
+  public void setUp() {
+    when(cache.getSlotReplicaPools(JedisClusterCRC16.getSlot("key")))
+        .thenReturn(new ConnectionPool[]{ replicaPool });
+    when(replicaPool.getResource()).thenReturn(replicaConnection);
+    provider = new ClusterConnectionProvider(cache);
+  }
+
+  @Test
+  public void readOnlyIsSentOncePerConnection() {
+    ClusterReplicaConnectionProvider replicas = new ClusterReplicaConnectionProvider(provider);
+    CommandArguments get = COMMAND_OBJECTS.get("key").getArguments();
+
+    assertSame(replicaConnection, replicas.getConnection(get));
+    assertSame(replicaConnection, replicas.getConnection(get));
+    verify(replicaConnection, times(1)).executeCommand(Protocol.Command.READONLY);
+  }
+
+  @Test
+  public void slotWithoutReplica() {
+    ClusterReplicaConnectionProvider replicas = new ClusterReplicaConnectionProvider(provider);
+    CommandArguments get = COMMAND_OBJECTS.get("other").getArguments();
+
+    assertThrows(JedisClusterOperationException.class, () -> replicas.getConnection(get));
+  }
+
+  @Test
+  public void connectionMapHasOnlyReplicas() {
+    Map<String, ConnectionPool> replicaNodes = Collections.singletonMap("replica:6379", replicaPool);
+    when(cache.getReplicaNodes()).thenReturn(replicaNodes);
+
+    assertEquals(replicaNodes, new ClusterReplicaConnectionProvider(provider).getConnectionMap());
+  }
+}
@@ -0,0 +1,78 @@
+package redis.clients.jedis.providers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.junit.Test;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.CommandObjects;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.JedisSocketFactory;
+import redis.clients.jedis.exceptions.JedisException;
+
+public class PooledConnectionProviderTest {
+
+  private static final CommandObjects COMMAND_OBJECTS = new CommandObjects();
+
+  private static class UnconnectedFactory extends BasePooledObjectFactory<Connection> {
+
+    @Override
+    public Connection create() {
+      return new Connection(mock(JedisSocketFactory.class));
+    }
+
+    @Override
+    public PooledObject<Connection> wrap(Connection connection) {
+      return new DefaultPooledObject<>(connection);
+    }
+  }
+
+  private static GenericObjectPoolConfig<Connection> poolConfig(int maxTotal) {
+    GenericObjectPoolConfig<Connection> config = new GenericObjectPoolConfig<>();
+    config.setMaxTotal(maxTotal);
+    config.setMaxWait(Duration.ofMillis(10));
+    return config;
+  }
+
+  @Test
+  public void blockingCommandsUseSeparatePool() {
+    CommandArguments blpop = COMMAND_OBJECTS.blpop(0, "list").getArguments();
+    CommandArguments wait = COMMAND_OBJECTS.waitReplicas(1, 100).getArguments();
+    CommandArguments get = COMMAND_OBJECTS.get("key").getArguments();
+
+    try (PooledConnectionProvider provider = new PooledConnectionProvider(
+        new UnconnectedFactory(), poolConfig(2), poolConfig(2))) {
+      Connection consumer1 = provider.getConnection(blpop);
+      Connection consumer2 = provider.getConnection(wait);
+      assertThrows(JedisException.class, () -> provider.getConnection(blpop));
+
+      try (Connection regular = provider.getConnection(get)) {
+        assertEquals(1, provider.getPool().getNumActive());
+        assertEquals(2, provider.getBlockingPool().getNumActive());
+      }
+
+      consumer1.close();
+      consumer2.close();
+      assertEquals(0, provider.getBlockingPool().getNumActive());
+    }
+  }
+
+  @Test
+  public void blockingCommandsShareRegularPoolByDefault() {
+    try (PooledConnectionProvider provider = new PooledConnectionProvider(
+        new UnconnectedFactory(), poolConfig(2))) {
+      assertNull(provider.getBlockingPool());
+      try (Connection consumer = provider.getConnection(COMMAND_OBJECTS.blpop(0, "list").getArguments())) {
+        assertEquals(1, provider.getPool().getNumActive());
+      }
+    }
+  }
+}
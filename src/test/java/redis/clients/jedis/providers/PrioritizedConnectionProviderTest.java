@@ -0,0 +1,118 @@
+package redis.clients.jedis.providers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.junit.Test;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.JedisSocketFactory;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.providers.PrioritizedConnectionProvider.Priority;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class PrioritizedConnectionProviderTest {
+
+  private static class UnconnectedFactory extends BasePooledObjectFactory<Connection> {
+
+    @Override
+    public Connection create() {
+      return new Connection(mock(JedisSocketFactory.class));
+    }
+
+    @Override
+    public PooledObject<Connection> wrap(Connection connection) {
+      return new DefaultPooledObject<>(connection);
+    }
+  }
+
+  private static GenericObjectPoolConfig<Connection> laneConfig(int maxTotal) {
+    GenericObjectPoolConfig<Connection> config = new GenericObjectPoolConfig<>();
+    config.setMaxTotal(maxTotal);
+    config.setMaxWait(Duration.ofMillis(10));
+    return config;
+  }
+
+  @Test
+  public void exhaustedLaneDoesNotStarveOtherLanes() {
+    Map<Priority, GenericObjectPoolConfig<Connection>> configs = new EnumMap<>(Priority.class);
+    configs.put(Priority.HIGH, laneConfig(1));
+    configs.put(Priority.LOW, laneConfig(1));
+
+    try (PrioritizedConnectionProvider provider
+        = new PrioritizedConnectionProvider(new UnconnectedFactory(), configs)) {
+      ConnectionProvider low = provider.lane(Priority.LOW);
+      ConnectionProvider high = provider.lane(Priority.HIGH);
+
+      Connection lowConnection = low.getConnection();
+      assertThrows(JedisException.class, low::getConnection);
+
+      try (Connection highConnection = high.getConnection()) {
+        assertNotNull(highConnection);
+      }
+      assertEquals(1, provider.getPool(Priority.LOW).getNumActive());
+      assertEquals(0, provider.getPool(Priority.HIGH).getNumActive());
+
+      lowConnection.close();
+      assertEquals(0, provider.getPool(Priority.LOW).getNumActive());
+    }
+  }
+
+  @Test
+  public void defaultLane() {
+    Map<Priority, GenericObjectPoolConfig<Connection>> configs = new EnumMap<>(Priority.class);
+    configs.put(Priority.HIGH, laneConfig(1));
+    configs.put(Priority.LOW, laneConfig(1));
+
+    try (PrioritizedConnectionProvider provider
+        = new PrioritizedConnectionProvider(new UnconnectedFactory(), configs)) {
+      assertSame(Priority.LOW, provider.getDefaultPriority());
+      assertThrows(IllegalArgumentException.class, () -> provider.lane(Priority.NORMAL));
+
+      provider.getConnection().close();
+      assertEquals(1, provider.getPool(Priority.LOW).getNumIdle());
+      assertEquals(0, provider.getPool(Priority.HIGH).getNumIdle());
+    }
+  }
+
+  @Test
+  public void scanVisitsTheNodeOnce() {
+    Map<Priority, GenericObjectPoolConfig<Connection>> configs = new EnumMap<>(Priority.class);
+    configs.put(Priority.HIGH, laneConfig(4));
+    configs.put(Priority.NORMAL, laneConfig(4));
+
+    BasePooledObjectFactory<Connection> factory = new UnconnectedFactory() {
+      @Override
+      public Connection create() {
+        // a mocked connection is not returned on close
+        Connection connection = mock(Connection.class);
+        when(connection.executeCommand(any(CommandArguments.class))).thenReturn(Arrays.asList(
+            SafeEncoder.encode("0"), Arrays.asList(SafeEncoder.encode("k1"), SafeEncoder.encode("k2"))));
+        return connection;
+      }
+    };
+    try (PrioritizedConnectionProvider provider = new PrioritizedConnectionProvider(factory, configs)) {
+      assertEquals(1, provider.getConnectionMap().size());
+
+      Collection<String> keys = new UnifiedJedis(provider).scanIteration(10, "*").collect(new ArrayList<>());
+      assertEquals(Arrays.asList("k1", "k2"), keys);
+    }
+  }
+}
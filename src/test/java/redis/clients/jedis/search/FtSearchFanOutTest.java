@@ -0,0 +1,181 @@
+package redis.clients.jedis.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Test;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.RedisProtocol;
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.args.SortingOrder;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class FtSearchFanOutTest {
+
+  private final List<String> commands = new CopyOnWriteArrayList<>();
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * @param documents id, score and distance of each document, sorted as by the query
+   */
+  private Connection node(long total, Object... documents) {
+    Connection connection = mock(Connection.class);
+    when(connection.executeCommand(any(CommandArguments.class))).thenAnswer(invocation -> {
+      List<String> args = new ArrayList<>();
+      for (Rawable arg : invocation.<CommandArguments>getArgument(0)) {
+        args.add(SafeEncoder.encode(arg.getRaw()));
+      }
+      commands.add(String.join(" ", args));
+      if (documents.length == 0) {
+        throw new JedisConnectionException("down");
+      }
+      boolean withScores = args.contains("WITHSCORES");
+      boolean withSortKeys = args.contains("WITHSORTKEYS");
+      boolean noContent = args.contains("NOCONTENT");
+      List<Object> reply = new ArrayList<>();
+      reply.add(total);
+      for (int i = 0; i < documents.length; i += 3) {
+        String dist = (String) documents[i + 2];
+        reply.add(SafeEncoder.encode((String) documents[i]));
+        if (withScores) {
+          reply.add(SafeEncoder.encode(documents[i + 1].toString()));
+        }
+        if (withSortKeys) {
+          reply.add(dist == null ? null : SafeEncoder.encode((isNumber(dist) ? "#" : "$") + dist));
+        }
+        if (!noContent) {
+          reply.add(dist == null ? new ArrayList<>()
+              : Arrays.asList(SafeEncoder.encode("dist"), SafeEncoder.encode(dist)));
+        }
+      }
+      return reply;
+    });
+    return connection;
+  }
+
+  private static boolean isNumber(String value) {
+    try {
+      Double.parseDouble(value);
+      return true;
+    } catch (NumberFormatException nfe) {
+      return false;
+    }
+  }
+
+  private static List<String> ids(SearchResult result) {
+    return result.getDocuments().stream().map(Document::getId).collect(Collectors.toList());
+  }
+
+  @Test
+  public void mergesByScore() {
+    FtSearchFanOut fanOut = new FtSearchFanOut(Arrays.asList(
+        node(10, "a1", 5.0, null, "a2", 3.0, null, "a3", 1.0, null),
+        node(20, "b1", 4.0, null, "b2", 2.0, null)), RedisProtocol.RESP2, 0, executor);
+
+    FTSearchParams params = FTSearchParams.searchParams().limit(1, 3);
+    SearchResult result = fanOut.search("idx", "hello", params);
+
+    assertEquals(30, result.getTotalResults());
+    assertEquals(Arrays.asList("b1", "a2", "b2"), ids(result));
+    assertEquals(2.0, result.getDocuments().get(2).getScore(), 0);
+    assertEquals(2, commands.size());
+    commands.forEach(command -> assertEquals("FT.SEARCH idx hello LIMIT 0 4 WITHSCORES", command));
+    assertEquals(1, params.getLimit()[0]);
+    assertEquals(3, params.getLimit()[1]);
+  }
+
+  @Test
+  public void mergesBySortKey() {
+    FtSearchFanOut fanOut = new FtSearchFanOut(Arrays.asList(
+        node(2, "a1", 1.0, "0.25", "a2", 1.0, "10"),
+        node(3, "b1", 1.0, "2", "b2", 1.0, "9.5", "b3", 1.0, null)), RedisProtocol.RESP2, 0, executor);
+
+    Query query = new Query("*=>[KNN 10 @vec $blob AS dist]").setSortBy("dist", true)
+        .addParam("blob", new float[] { 1f }).dialect(2);
+    SearchResult result = fanOut.search("idx", query);
+
+    assertEquals(5, result.getTotalResults());
+    assertEquals(Arrays.asList("a1", "b1", "b2", "a2", "b3"), ids(result));
+    commands.forEach(command -> {
+      // LIMIT 0 10 is the default, so it is not sent
+      assertTrue(command, command.contains("SORTBY dist ASC") && !command.contains("LIMIT"));
+      assertTrue(command, command.endsWith("WITHSORTKEYS") && !command.contains("WITHSCORES"));
+    });
+    assertEquals(0, query.getPaging().offset);
+    assertEquals(10, query.getPaging().num);
+  }
+
+  @Test
+  public void mergesBySortKeyDescending() {
+    FtSearchFanOut fanOut = new FtSearchFanOut(Arrays.asList(
+        node(2, "a1", 1.0, "b", "a2", 1.0, "a"),
+        node(1, "b1", 1.0, "c", "b2", 1.0, null)), RedisProtocol.RESP2, 0, executor);
+
+    SearchResult result = fanOut.search("idx", "*",
+        FTSearchParams.searchParams().sortBy("dist", SortingOrder.DESC).limit(0, 3));
+    assertEquals(Arrays.asList("b1", "a1", "a2"), ids(result));
+  }
+
+  @Test
+  public void mergesBySortKeyWithoutContent() {
+    FtSearchFanOut fanOut = new FtSearchFanOut(Arrays.asList(
+        node(2, "a1", 1.0, "1", "a2", 1.0, "30"),
+        node(2, "b1", 1.0, "2", "b2", 1.0, "4")), RedisProtocol.RESP2, 0, executor);
+
+    SearchResult result = fanOut.search("idx", "*",
+        FTSearchParams.searchParams().noContent().sortBy("@dist", SortingOrder.ASC));
+    assertEquals(Arrays.asList("a1", "b1", "b2", "a2"), ids(result));
+    commands.forEach(command -> assertTrue(command, command.contains("NOCONTENT")));
+  }
+
+  @Test
+  public void comparesMixedSortKeysAsStrings() {
+    FtSearchFanOut fanOut = new FtSearchFanOut(Arrays.asList(
+        node(2, "a1", 1.0, "10", "a2", 1.0, "b"),
+        node(1, "b1", 1.0, "9")), RedisProtocol.RESP2, 0, executor);
+
+    SearchResult result = fanOut.search("idx", "*",
+        FTSearchParams.searchParams().sortBy("dist", SortingOrder.ASC));
+    assertEquals(Arrays.asList("a1", "b1", "a2"), ids(result));
+  }
+
+  @Test
+  public void addsDefaultDialect() {
+    FtSearchFanOut fanOut = new FtSearchFanOut(Arrays.asList(node(1, "a1", 1.0, null)),
+        RedisProtocol.RESP2, 2, executor);
+
+    fanOut.search("idx", "hello", FTSearchParams.searchParams());
+    fanOut.search("idx", new Query("hello"));
+    fanOut.search("idx", new Query("hello").dialect(3));
+    assertEquals(Arrays.asList("FT.SEARCH idx hello LIMIT 0 10 DIALECT 2 WITHSCORES",
+        "FT.SEARCH idx hello DIALECT 2 WITHSCORES", "FT.SEARCH idx hello DIALECT 3 WITHSCORES"), commands);
+  }
+
+  @Test
+  public void throwsNodeFailures() {
+    FtSearchFanOut fanOut = new FtSearchFanOut(Arrays.asList(node(1, "a1", 1.0, null), node(0)),
+        RedisProtocol.RESP2, 0, executor);
+    assertThrows(JedisException.class, () -> fanOut.search("idx", new Query("hello")));
+  }
+}
@@ -0,0 +1,107 @@
+package redis.clients.jedis.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.BuilderFactory;
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.CommandObject;
+import redis.clients.jedis.CommandObjects;
+import redis.clients.jedis.PipelineBase;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.args.RawableFactory;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class VectorLoaderTest {
+
+  private final List<CommandArguments> commands = new ArrayList<>();
+  private final List<Integer> syncs = new ArrayList<>();
+  private UnifiedJedis jedis;
+  private PipelineBase pipeline;
+
+  @Before
+  public void setUp() {
+    pipeline = mock(PipelineBase.class);
+    when(pipeline.executeCommand(any())).thenAnswer(invocation -> {
+      CommandArguments args = invocation.<CommandObject<Long>>getArgument(0).getArguments();
+      commands.add(args);
+      Response<Long> response = new Response<>(BuilderFactory.LONG);
+      if (SafeEncoder.encode(args.getFirstKey().getRaw()).equals("invalid")) {
+        response.set(new JedisDataException("WRONGTYPE"));
+      } else {
+        response.set(1L);
+      }
+      return response;
+    });
+    doAnswer(invocation -> syncs.add(commands.size())).when(pipeline).sync();
+    jedis = mock(UnifiedJedis.class);
+    when(jedis.pipelined()).thenReturn(pipeline);
+  }
+
+  private VectorLoader loader() {
+    return new VectorLoader(jedis, new CommandObjects()::hsetObjects);
+  }
+
+  @Test
+  public void writesInBatches() {
+    float[] vector = { 1f, 2f };
+    try (VectorLoader loader = loader().setBatchSize(2)) {
+      loader.hset("a", "embedding", vector);
+      loader.hset("b", "embedding", FloatBuffer.wrap(vector));
+      Map<String, Object> hash = new HashMap<>();
+      hash.put("embedding", vector);
+      loader.hset("c", hash);
+      assertEquals(1, syncs.size());
+    }
+    assertEquals(2, syncs.size());
+    assertEquals(3, commands.size());
+    verify(jedis, times(1)).pipelined();
+    verify(pipeline, times(1)).close();
+
+    List<Rawable> args = new ArrayList<>();
+    commands.get(1).forEach(args::add);
+    assertEquals(4, args.size());
+    assertEquals("b", SafeEncoder.encode(args.get(1).getRaw()));
+    assertEquals(RawableFactory.from(vector), args.get(3));
+  }
+
+  @Test
+  public void countsFailures() {
+    try (VectorLoader loader = loader()) {
+      loader.hset("a", "embedding", new float[] { 1f });
+      loader.hset("invalid", "embedding", new float[] { 1f });
+      loader.flush();
+      assertEquals(1, loader.getWritten());
+      assertEquals(1, loader.getFailed());
+    }
+  }
+
+  @Test
+  public void throwsConnectionErrors() {
+    doAnswer(invocation -> {
+      throw new JedisConnectionException("broken");
+    }).when(pipeline).sync();
+    VectorLoader loader = loader();
+    loader.hset("a", "embedding", new float[] { 1f });
+    assertThrows(JedisConnectionException.class, loader::flush);
+    assertEquals(1, loader.getFailed());
+  }
+}
@@ -0,0 +1,147 @@
+package redis.clients.jedis.search.aggr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Test;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class FtAggregateSpliteratorTest {
+
+  private final List<String> commands = new CopyOnWriteArrayList<>();
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * A node whose cursor {@code cursorId} returns {@code pages} pages of two rows each.
+   */
+  private Connection node(String name, long cursorId, int pages) {
+    Connection connection = mock(Connection.class);
+    int[] read = { 0 };
+    when(connection.executeCommand(any(CommandArguments.class))).thenAnswer(invocation -> {
+      List<String> args = new ArrayList<>();
+      for (Rawable arg : invocation.<CommandArguments>getArgument(0)) {
+        args.add(SafeEncoder.encode(arg.getRaw()));
+      }
+      commands.add(String.join(" ", args));
+      if (args.get(1).equals("DEL")) {
+        return SafeEncoder.encode("OK");
+      }
+      int n = read[0]++;
+      List<Object> result = new ArrayList<>();
+      result.add((long) pages * 2);
+      for (int i = 0; i < 2; i++) {
+        result.add(Arrays.asList(SafeEncoder.encode("row"), SafeEncoder.encode(name + (n * 2 + i))));
+      }
+      return Arrays.asList(result, n + 1 < pages ? cursorId : 0L);
+    });
+    return connection;
+  }
+
+  private static AggregationBuilder aggr() {
+    return new AggregationBuilder().load("row").cursor(2);
+  }
+
+  private static List<String> rows(Stream<Row> rows) {
+    return rows.map(row -> row.getString("row")).collect(Collectors.toList());
+  }
+
+  @Test
+  public void readsAllNodes() {
+    List<String> rows;
+    try (Stream<Row> stream = new FtAggregateSpliterator(Arrays.asList(node("a", 7, 3), node("b", 8, 1)),
+        "idx", aggr(), 0, executor).stream()) {
+      rows = rows(stream);
+    }
+
+    assertEquals(8, rows.size());
+    List<String> aRows = rows.stream().filter(row -> row.startsWith("a")).collect(Collectors.toList());
+    assertEquals(Arrays.asList("a0", "a1", "a2", "a3", "a4", "a5"), aRows);
+    assertTrue(rows.containsAll(Arrays.asList("b0", "b1")));
+    assertEquals(2, commands.stream().filter(c -> c.startsWith("FT.AGGREGATE idx * LOAD 1 row WITHCURSOR COUNT 2")).count());
+    assertEquals(2, commands.stream().filter(c -> c.startsWith("FT.CURSOR READ idx 7 COUNT")).count());
+    assertFalse(commands.stream().anyMatch(c -> c.startsWith("FT.CURSOR DEL")));
+  }
+
+  @Test
+  public void growsCountUpToMaximum() {
+    FtAggregateSpliterator spliterator = new FtAggregateSpliterator(Collections.singletonList(node("a", 7, 4)),
+        "idx", aggr(), 0, executor).setTargetLatency(Duration.ofHours(1)).setMaxCount(6);
+    try (Stream<Row> stream = spliterator.stream()) {
+      assertEquals(8, rows(stream).size());
+    }
+    assertEquals(Arrays.asList("FT.CURSOR READ idx 7 COUNT 4", "FT.CURSOR READ idx 7 COUNT 6",
+        "FT.CURSOR READ idx 7 COUNT 6"), commands.subList(1, commands.size()));
+  }
+
+  @Test
+  public void shrinksCountOfSlowReads() {
+    FtAggregateSpliterator spliterator = new FtAggregateSpliterator(Collections.singletonList(node("a", 7, 3)),
+        "idx", aggr(), 0, executor).setTargetLatency(Duration.ofNanos(1));
+    try (Stream<Row> stream = spliterator.stream()) {
+      assertEquals(6, rows(stream).size());
+    }
+    assertEquals(Arrays.asList("FT.CURSOR READ idx 7 COUNT 1", "FT.CURSOR READ idx 7 COUNT 1"),
+        commands.subList(1, commands.size()));
+  }
+
+  @Test
+  public void deletesCursorOnEarlyClose() {
+    try (Stream<Row> stream = new FtAggregateSpliterator(Collections.singletonList(node("a", 7, 5)),
+        "idx", aggr(), 0, executor).stream()) {
+      assertEquals(Arrays.asList("a0"), rows(stream.limit(1)));
+    }
+    assertEquals("FT.CURSOR DEL idx 7", commands.get(commands.size() - 1));
+    assertEquals(1, commands.stream().filter(c -> c.startsWith("FT.CURSOR DEL")).count());
+  }
+
+  @Test
+  public void addsDefaultDialect() {
+    try (Stream<Row> stream = new FtAggregateSpliterator(Collections.singletonList(node("a", 7, 1)),
+        "idx", aggr(), 2, executor).stream()) {
+      assertEquals(2, rows(stream).size());
+    }
+    assertEquals(Collections.singletonList("FT.AGGREGATE idx * LOAD 1 row WITHCURSOR COUNT 2 DIALECT 2"),
+        commands);
+  }
+
+  @Test
+  public void rejectsMergingPipelinesOnManyNodes() {
+    List<Connection> nodes = Arrays.asList(node("a", 7, 1), node("b", 8, 1));
+    assertThrows(IllegalArgumentException.class, () -> new FtAggregateSpliterator(nodes, "idx",
+        aggr().groupBy("@row", Reducers.count()), 0, executor));
+    assertThrows(IllegalArgumentException.class, () -> new FtAggregateSpliterator(nodes, "idx",
+        aggr().sortByAsc("@row"), 0, executor));
+    assertTrue(commands.isEmpty());
+
+    // a single node returns the complete aggregation
+    try (Stream<Row> stream = new FtAggregateSpliterator(nodes.subList(0, 1), "idx",
+        aggr().sortByAsc("@row"), 0, executor).stream()) {
+      assertEquals(2, rows(stream).size());
+    }
+  }
+}
@@ -0,0 +1,229 @@
+package redis.clients.jedis.streams;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.BuilderFactory;
+import redis.clients.jedis.PipelineBase;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.params.XAutoClaimParams;
+import redis.clients.jedis.params.XReadGroupParams;
+import redis.clients.jedis.resps.StreamEntry;
+
+public class StreamConsumerTest {
+
+  private final BlockingQueue<List<StreamEntry>> batches = new LinkedBlockingQueue<>();
+  private final BlockingQueue<List<StreamEntry>> claims = new LinkedBlockingQueue<>();
+  private final List<XReadGroupParams> reads = new CopyOnWriteArrayList<>();
+  private final List<List<StreamEntryID>> acks = new CopyOnWriteArrayList<>();
+  private volatile JedisDataException ackError = null;
+  private volatile RuntimeException readError = null;
+  private UnifiedJedis jedis;
+
+  @Before
+  public void setUp() {
+    jedis = mock(UnifiedJedis.class);
+    when(jedis.xreadGroup(eq("group"), eq("consumer"), any(XReadGroupParams.class), any())).thenAnswer(
+        invocation -> {
+          reads.add(invocation.getArgument(2));
+          RuntimeException error = readError;
+          if (error != null) {
+            readError = null;
+            throw error;
+          }
+          List<StreamEntry> batch = batches.poll(20, TimeUnit.MILLISECONDS);
+          return batch == null ? null
+              : Collections.singletonList(new AbstractMap.SimpleEntry<>("stream", batch));
+        });
+    when(jedis.xautoclaim(eq("stream"), eq("group"), eq("consumer"), anyLong(), any(StreamEntryID.class),
+        any(XAutoClaimParams.class))).thenAnswer(invocation -> {
+          List<StreamEntry> claim = claims.poll();
+          return new AbstractMap.SimpleEntry<>(new StreamEntryID(0, 0),
+              claim == null ? Collections.emptyList() : claim);
+        });
+    when(jedis.pipelined()).thenAnswer(invocation -> {
+      PipelineBase pipeline = mock(PipelineBase.class);
+      doAnswer(xack -> {
+        List<StreamEntryID> ids = new ArrayList<>();
+        for (int i = 2; i < xack.getArguments().length; i++) {
+          ids.add(xack.getArgument(i));
+        }
+        acks.add(ids);
+        Response<Long> reply = new Response<>(BuilderFactory.LONG);
+        reply.set(ackError != null ? ackError : (Object) (long) ids.size());
+        return reply;
+      }).when(pipeline).xack(eq("stream"), eq("group"), any(StreamEntryID[].class));
+      return pipeline;
+    });
+  }
+
+  private static List<StreamEntry> entries(int from, int count) {
+    List<StreamEntry> entries = new ArrayList<>();
+    for (int i = from; i < from + count; i++) {
+      entries.add(new StreamEntry(new StreamEntryID(System.currentTimeMillis(), i),
+          Collections.singletonMap("n", Integer.toString(i))));
+    }
+    return entries;
+  }
+
+  private List<StreamEntryID> acknowledged() {
+    List<StreamEntryID> ids = new ArrayList<>();
+    acks.forEach(ids::addAll);
+    return ids;
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+      Thread.sleep(10);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+
+  private StreamConsumer.Builder builder() {
+    return StreamConsumer.builder(jedis, "stream", "group", "consumer").block(Duration.ofMillis(20));
+  }
+
+  @Test
+  public void handlesAndAcknowledgesInBatches() throws InterruptedException {
+    List<StreamEntry> handled = new CopyOnWriteArrayList<>();
+    List<StreamEntry> batch = entries(0, 5);
+    batches.add(batch);
+
+    StreamConsumer consumer = builder().ackBatchSize(2).handler(handled::add).build();
+    consumer.start();
+    await(() -> handled.size() == 5);
+    consumer.close();
+
+    assertEquals(XReadGroupParams.xReadGroupParams().count(100).block(20), reads.get(0));
+    assertEquals(5, consumer.getProcessed());
+    assertEquals(5, consumer.getAcknowledged());
+    assertEquals(0, consumer.getPendingAcks());
+    assertEquals(5, consumer.getLag().getCount());
+    List<StreamEntryID> expected = new ArrayList<>();
+    batch.forEach(entry -> expected.add(entry.getID()));
+    List<StreamEntryID> acknowledged = acknowledged();
+    Collections.sort(acknowledged);
+    assertEquals(expected, acknowledged);
+    acks.forEach(ids -> assertTrue(ids.size() <= 2));
+  }
+
+  @Test
+  public void failedAcknowledgementIsNotCounted() throws InterruptedException {
+    ackError = new JedisDataException("NOGROUP No such key 'stream' or consumer group 'group'");
+    List<StreamEntry> handled = new CopyOnWriteArrayList<>();
+    batches.add(entries(0, 3));
+
+    StreamConsumer consumer = builder().handler(handled::add).build();
+    consumer.start();
+    await(() -> handled.size() == 3);
+    consumer.close();
+
+    assertEquals(3, consumer.getProcessed());
+    assertEquals(0, consumer.getAcknowledged());
+    assertEquals(3, consumer.getAckFailures());
+  }
+
+  @Test
+  public void unexpectedReadFailureIsRetried() throws InterruptedException {
+    readError = new ClassCastException("unexpected reply");
+    List<StreamEntry> handled = new CopyOnWriteArrayList<>();
+    batches.add(entries(0, 2));
+
+    StreamConsumer consumer = builder().retryBackoff(Duration.ofMillis(10)).handler(handled::add).build();
+    consumer.start();
+    await(() -> handled.size() == 2);
+    consumer.close();
+    assertEquals(2, consumer.getProcessed());
+  }
+
+  @Test
+  public void blockMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> builder().block(Duration.ZERO));
+    assertThrows(IllegalArgumentException.class, () -> builder().block(Duration.ofMillis(-1)));
+    assertThrows(IllegalArgumentException.class, () -> builder().block(Duration.ofNanos(1)));
+  }
+
+  @Test
+  public void failedEntriesAreClaimedAgain() throws InterruptedException {
+    List<StreamEntry> batch = entries(0, 2);
+    StreamEntry failing = batch.get(0);
+    List<StreamEntryID> handled = new CopyOnWriteArrayList<>();
+    StreamConsumer consumer = builder().claimInterval(Duration.ofMillis(50)).handler(entry -> {
+      if (entry == failing && !handled.contains(entry.getID())) {
+        handled.add(entry.getID());
+        claims.add(Collections.singletonList(entry));
+        throw new IllegalStateException();
+      }
+      handled.add(entry.getID());
+    }).build();
+    batches.add(batch);
+    consumer.start();
+    await(() -> consumer.getAcknowledged() == 2);
+    consumer.close();
+
+    assertEquals(3, handled.size());
+    assertEquals(1, consumer.getFailed());
+    assertEquals(1, consumer.getClaimed());
+    assertEquals(2, consumer.getProcessed());
+    assertTrue(acknowledged().contains(failing.getID()));
+  }
+
+  @Test
+  public void readsNoMoreThanInFlightLimit() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    StreamConsumer consumer = builder().claimInterval(null).maxInFlight(3).handler(entry -> release.await())
+        .build();
+    batches.add(entries(0, 3));
+    consumer.start();
+
+    await(() -> consumer.getInFlight() == 3);
+    Thread.sleep(100);
+    assertEquals(1, reads.size());
+    assertEquals(XReadGroupParams.xReadGroupParams().count(3).block(20), reads.get(0));
+
+    release.countDown();
+    await(() -> reads.size() > 1);
+    consumer.close();
+    assertEquals(0, consumer.getInFlight());
+    assertEquals(3, consumer.getAcknowledged());
+  }
+
+  @Test
+  public void createsGroup() {
+    when(jedis.xgroupCreate("stream", "group", StreamEntryID.XGROUP_LAST_ENTRY, true))
+        .thenThrow(new JedisDataException("BUSYGROUP Consumer Group name already exists"));
+    StreamConsumer consumer = builder().createGroup(StreamEntryID.XGROUP_LAST_ENTRY)
+        .handler(entry -> { }).build();
+    consumer.start();
+    consumer.close();
+    verify(jedis, times(1)).xgroupCreate("stream", "group", StreamEntryID.XGROUP_LAST_ENTRY, true);
+  }
+}
@@ -0,0 +1,142 @@
+package redis.clients.jedis.streams;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.BuilderFactory;
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.PipelineBase;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.XAddParams;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class StreamProducerTest {
+
+  private final List<List<String>> pipelines = new CopyOnWriteArrayList<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final Set<String> threads = ConcurrentHashMap.newKeySet();
+  private UnifiedJedis jedis;
+
+  @Before
+  public void setUp() {
+    jedis = mock(UnifiedJedis.class);
+    when(jedis.pipelined()).thenAnswer(invocation -> {
+      List<String> commands = new CopyOnWriteArrayList<>();
+      pipelines.add(commands);
+      PipelineBase pipeline = mock(PipelineBase.class);
+      doAnswer(xadd -> {
+        String key = xadd.getArgument(0);
+        threads.add(Thread.currentThread().getName());
+        CommandArguments args = new CommandArguments(Protocol.Command.XADD).key(key);
+        ((XAddParams) xadd.getArgument(1)).addParams(args);
+        commands.add(toString(args));
+        if (key.equals("invalid")) {
+          Response<StreamEntryID> response = new Response<>(BuilderFactory.STREAM_ENTRY_ID);
+          response.set(new JedisDataException("WRONGTYPE"));
+          return response;
+        }
+        return Response.of(new StreamEntryID(1, sequence.getAndIncrement()));
+      }).when(pipeline).xadd(anyString(), any(XAddParams.class), anyMap());
+      return pipeline;
+    });
+  }
+
+  private static String toString(CommandArguments args) {
+    List<String> strings = new ArrayList<>();
+    for (Rawable arg : args) {
+      strings.add(SafeEncoder.encode(arg.getRaw()));
+    }
+    return String.join(" ", strings);
+  }
+
+  private static Map<String, String> fields(int n) {
+    return Collections.singletonMap("n", Integer.toString(n));
+  }
+
+  @Test
+  public void sendsFullBatchesOfEachStream() throws Exception {
+    try (StreamProducer producer = StreamProducer.builder(jedis).batchSize(3)
+        .lingerTime(Duration.ofHours(1)).maxLen(1000).build()) {
+      CompletableFuture<StreamEntryID> b = producer.add("b", fields(0));
+      List<CompletableFuture<StreamEntryID>> a = new ArrayList<>();
+      a.add(producer.add("a", fields(1)));
+      a.add(producer.add("a", fields(2)));
+      assertEquals(3, producer.getBuffered());
+      assertTrue(pipelines.isEmpty());
+
+      a.add(producer.add("a", fields(3)));
+      assertEquals(new StreamEntryID(1, 3), a.get(2).get(5, TimeUnit.SECONDS));
+      assertEquals(new StreamEntryID(1, 0), b.get());
+      assertEquals(new StreamEntryID(1, 1), a.get(0).get());
+      assertEquals(0, producer.getBuffered());
+    }
+    assertEquals(1, pipelines.size());
+    assertEquals(Arrays.asList("XADD b MAXLEN ~ 1000 *", "XADD a MAXLEN ~ 1000 *",
+        "XADD a MAXLEN ~ 1000 *", "XADD a MAXLEN ~ 1000 *"), pipelines.get(0));
+    // sent on the background thread, not by add()
+    assertEquals(Collections.singleton("jedis-stream-producer"), threads);
+  }
+
+  @Test
+  public void sendsAfterLingerTime() throws Exception {
+    try (StreamProducer producer = StreamProducer.builder(jedis).lingerTime(Duration.ofMillis(20))
+        .minId("0-1").build()) {
+      CompletableFuture<StreamEntryID> id = producer.add("a", fields(0));
+      assertEquals(new StreamEntryID(1, 0), id.get(5, TimeUnit.SECONDS));
+      assertEquals(1, producer.getSent());
+    }
+    assertEquals("XADD a MINID ~ 0-1 *", pipelines.get(0).get(0));
+  }
+
+  @Test
+  public void reportsFailuresPerEntry() throws Exception {
+    try (StreamProducer producer = StreamProducer.builder(jedis).lingerTime(Duration.ofHours(1)).build()) {
+      CompletableFuture<StreamEntryID> invalid = producer.add("invalid", fields(0));
+      CompletableFuture<StreamEntryID> valid = producer.add("a", XAddParams.xAddParams().id(5, 0), fields(1));
+      producer.flush();
+
+      ExecutionException ee = assertThrows(ExecutionException.class, invalid::get);
+      assertTrue(ee.getCause() instanceof JedisDataException);
+      assertEquals(new StreamEntryID(1, 0), valid.get());
+      assertEquals("XADD a 5-0", pipelines.get(0).get(1));
+      assertEquals(1, producer.getSent());
+      assertEquals(1, producer.getFailed());
+    }
+  }
+
+  @Test
+  public void rejectsEntriesAfterClose() {
+    StreamProducer producer = StreamProducer.builder(jedis).build();
+    producer.close();
+    assertThrows(JedisException.class, () -> producer.add("a", fields(0)));
+  }
+}
@@ -0,0 +1,148 @@
+package redis.clients.jedis.streams;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.CommandObjects;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.providers.ConnectionProvider;
+import redis.clients.jedis.resps.StreamEntry;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class StreamRangeIterationTest {
+
+  private static final int ENTRIES = 7;
+
+  private final List<String> commands = new CopyOnWriteArrayList<>();
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private ConnectionProvider provider;
+
+  @Before
+  public void setUp() {
+    provider = mock(ConnectionProvider.class);
+    when(provider.getConnection(any(CommandArguments.class))).thenAnswer(invocation -> {
+      Connection connection = mock(Connection.class);
+      when(connection.executeCommand(any(CommandArguments.class)))
+          .thenAnswer(command -> range(command.getArgument(0)));
+      return connection;
+    });
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Serves a stream with the entries 1-0 to 1-6.
+   */
+  private List<Object> range(CommandArguments args) {
+    List<String> strings = new ArrayList<>();
+    for (Rawable arg : args) {
+      strings.add(SafeEncoder.encode(arg.getRaw()));
+    }
+    commands.add(String.join(" ", strings));
+    if (strings.get(1).equals("broken")) {
+      throw new JedisConnectionException("broken");
+    }
+
+    boolean reverse = strings.get(0).equals("XREVRANGE");
+    long from = bound(strings.get(2), reverse);
+    long to = bound(strings.get(3), !reverse);
+    int count = Integer.parseInt(strings.get(5));
+    List<Object> reply = new ArrayList<>();
+    for (long n = from; reverse ? n >= to : n <= to; n += reverse ? -1 : 1) {
+      if (n < 0 || n >= ENTRIES || reply.size() == count) {
+        continue;
+      }
+      reply.add(Arrays.asList(SafeEncoder.encode("1-" + n),
+          Arrays.asList(SafeEncoder.encode("n"), SafeEncoder.encode(Long.toString(n)))));
+    }
+    return reply;
+  }
+
+  private static long bound(String id, boolean descending) {
+    if (id.equals("-")) {
+      return 0;
+    } else if (id.equals("+")) {
+      return ENTRIES - 1;
+    } else if (id.startsWith("(")) {
+      return new StreamEntryID(id.substring(1)).getSequence() + (descending ? -1 : 1);
+    }
+    return new StreamEntryID(id).getSequence();
+  }
+
+  private StreamRangeIteration iteration(String key, String from, String to, boolean reverse) {
+    return new StreamRangeIteration(provider, new CommandObjects(), 3, key, from, to, reverse);
+  }
+
+  private static List<Long> sequences(Stream<StreamEntry> entries) {
+    return entries.map(entry -> entry.getID().getSequence()).collect(Collectors.toList());
+  }
+
+  @Test
+  public void iteratesByPages() {
+    List<Long> sequences = new ArrayList<>();
+    StreamRangeIteration iteration = iteration("stream", "-", "+", false);
+    while (!iteration.isIterationCompleted()) {
+      for (StreamEntry entry : iteration.nextBatchList()) {
+        sequences.add(entry.getID().getSequence());
+        assertEquals(Long.toString(entry.getID().getSequence()), entry.getFields().get("n"));
+      }
+    }
+
+    assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L, 5L, 6L), sequences);
+    assertEquals(Arrays.asList("XRANGE stream - + COUNT 3", "XRANGE stream (1-2 + COUNT 3",
+        "XRANGE stream (1-5 + COUNT 3"), commands);
+  }
+
+  @Test
+  public void streamsInReverse() {
+    try (Stream<StreamEntry> entries = iteration("stream", "+", "1-1", true).stream(executor)) {
+      assertEquals(Arrays.asList(6L, 5L, 4L, 3L, 2L, 1L), sequences(entries));
+    }
+    assertEquals(Arrays.asList("XREVRANGE stream + 1-1 COUNT 3", "XREVRANGE stream (1-4 1-1 COUNT 3",
+        "XREVRANGE stream (1-1 1-1 COUNT 3"), commands);
+  }
+
+  @Test
+  public void prefetchesNextPage() throws Exception {
+    Iterator<StreamEntry> entries = iteration("stream", "-", "+", false).iterator(executor);
+    assertEquals(0, entries.next().getID().getSequence());
+    // the second page is fetched while the first one is consumed
+    for (int i = 0; i < 500 && commands.size() < 2; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(2, commands.size());
+    assertEquals(1, entries.next().getID().getSequence());
+  }
+
+  @Test
+  public void reportsFailures() {
+    Iterator<StreamEntry> entries = iteration("broken", "-", "+", false).iterator(executor);
+    assertThrows(JedisException.class, entries::hasNext);
+    assertFalse(entries.hasNext());
+  }
+}
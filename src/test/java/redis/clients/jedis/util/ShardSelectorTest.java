@@ -0,0 +1,127 @@
+package redis.clients.jedis.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.junit.Test;
+
+import redis.clients.jedis.HostAndPort;
+
+public class ShardSelectorTest {
+
+  private static final int KEYS = 100_000;
+
+  private static List<HostAndPort> shards(int count) {
+    List<HostAndPort> shards = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      shards.add(new HostAndPort("10.0.0." + i, 6379));
+    }
+    return shards;
+  }
+
+  private static long keyHash(int n) {
+    return Hashing.MURMUR_HASH.hash("key:" + n);
+  }
+
+  private static int[] distribution(ShardSelector selector, int shards) {
+    int[] counts = new int[shards];
+    for (int n = 0; n < KEYS; n++) {
+      counts[selector.getShard(keyHash(n))]++;
+    }
+    return counts;
+  }
+
+  private static void assertBalanced(ShardSelector selector, int shards, double tolerance) {
+    double expected = (double) KEYS / shards;
+    for (int count : distribution(selector, shards)) {
+      assertThat((double) count, greaterThan(expected * (1 - tolerance)));
+      assertThat((double) count, lessThan(expected * (1 + tolerance)));
+    }
+  }
+
+  /**
+   * When a shard is added, the keys which change their shard must all move to the new shard, and
+   * about {@code 1 / shards} of the keys move.
+   */
+  private static void assertMinimalMovement(ShardSelectionStrategy strategy) {
+    ShardSelector before = strategy.create(shards(4), Hashing.MURMUR_HASH);
+    ShardSelector after = strategy.create(shards(5), Hashing.MURMUR_HASH);
+    int moved = 0;
+    for (int n = 0; n < KEYS; n++) {
+      int from = before.getShard(keyHash(n));
+      int to = after.getShard(keyHash(n));
+      if (from != to) {
+        assertEquals(4, to);
+        moved++;
+      }
+    }
+    assertThat(moved, greaterThan(KEYS / 5 * 8 / 10));
+    assertThat(moved, lessThan(KEYS / 5 * 12 / 10));
+  }
+
+  @Test
+  public void ringMatchesTreeMapRing() {
+    List<HostAndPort> shards = shards(3);
+    TreeMap<Long, Integer> ring = new TreeMap<>();
+    for (int i = 0; i < shards.size(); i++) {
+      for (int n = 0; n < 160; n++) {
+        ring.put(Hashing.MURMUR_HASH.hash("SHARD-" + i + "-NODE-" + n), i);
+      }
+    }
+
+    ShardSelector selector = ShardSelectionStrategy.RING.create(shards, Hashing.MURMUR_HASH);
+    for (int n = 0; n < KEYS; n++) {
+      long hash = keyHash(n);
+      SortedMap<Long, Integer> tail = ring.tailMap(hash);
+      int expected = tail.isEmpty() ? ring.firstEntry().getValue() : tail.get(tail.firstKey());
+      assertEquals(expected, selector.getShard(hash));
+    }
+    // exactly on a virtual node, and after the last one
+    assertEquals(ring.firstEntry().getValue().intValue(), selector.getShard(ring.firstKey()));
+    assertEquals(ring.firstEntry().getValue().intValue(), selector.getShard(ring.lastKey() + 1));
+  }
+
+  @Test
+  public void jumpIsBalancedAndMovesKeysToNewShard() {
+    assertBalanced(new JumpShardSelector(7), 7, 0.05);
+    assertMinimalMovement(ShardSelectionStrategy.JUMP);
+  }
+
+  @Test
+  public void maglevIsBalanced() {
+    assertBalanced(new MaglevShardSelector(shards(7), Hashing.MURMUR_HASH), 7, 0.05);
+  }
+
+  @Test
+  public void maglevMovesFewKeys() {
+    List<HostAndPort> shards = shards(5);
+    ShardSelector before = new MaglevShardSelector(shards, Hashing.MURMUR_HASH);
+    ShardSelector after = new MaglevShardSelector(shards.subList(0, 4), Hashing.MURMUR_HASH);
+    int moved = 0;
+    for (int n = 0; n < KEYS; n++) {
+      int from = before.getShard(keyHash(n));
+      if (from != 4 && from != after.getShard(keyHash(n))) {
+        moved++;
+      }
+    }
+    // besides the keys of the removed shard, only a few keys move
+    assertThat(moved, lessThan(KEYS / 20));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void maglevTableSizeMustBePrime() {
+    new MaglevShardSelector(shards(3), Hashing.MURMUR_HASH, 1000);
+  }
+
+  @Test
+  public void rendezvousIsBalancedAndMovesKeysToNewShard() {
+    assertBalanced(new RendezvousShardSelector(shards(7), Hashing.MURMUR_HASH), 7, 0.05);
+    assertMinimalMovement(ShardSelectionStrategy.RENDEZVOUS);
+  }
+}